@@ -0,0 +1,137 @@
+package com.example.quizapp.benchmark;
+
+import com.example.quizapp.question.Question;
+import com.example.quizapp.question.QuestionType;
+import com.example.quizapp.quiz.Quiz;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Synthetic quizzes for the benchmarks, built from the question shapes used in data.sql.
+ *
+ * Question i of a quiz gets type i % 8, so every quiz mixes all question types in the same
+ * proportion. For every question there is a correct and a wrong answer in the format the
+ * game page submits.
+ */
+public final class QuizFixtures {
+
+    private static final QuestionType[] TYPES = QuestionType.values();
+
+    private QuizFixtures() {
+    }
+
+//    Answer option / correct answer / correct user answer / wrong user answer of one question type
+    public record Shape(String answerOptions, String correctAnswer, String correctUserAnswer, String wrongUserAnswer) {
+    }
+
+    public static Shape shape(QuestionType type) {
+        return switch (type) {
+            case SINGLE_CHOICE -> new Shape(
+                    "[\"@Bean\", \"@Component\", \"@Service\", \"@Configuration\"]", "1", "1", "2");
+            case MULTIPLE_CHOICE -> new Shape(
+                    "[\"@Component\", \"@Controller\", \"@Service\", \"@Repository\", \"@Bean\"]",
+                    "[0, 1, 2, 3]", "[3, 1, 0, 2]", "[0, 1, 4]");
+            case TRUE_FALSE -> new Shape("[\"True\", \"False\"]", "1", "1", "0");
+            case SHORT_ANSWER -> new Shape(null, "extends", " Extends ", "implements");
+            case DROPDOWN -> new Shape(
+                    "[\"Atlantic Ocean\", \"Indian Ocean\", \"Arctic Ocean\", \"Pacific Ocean\"]", "3", "3", "0");
+            case FILL_BLANKS -> new Shape(
+                    "[\"creator\", \"company\", \"year\"]",
+                    "[\"James Gosling\", \"Sun Microsystems\", \"1995\"]",
+                    "[\"james gosling\", \"Sun Microsystems \", \"1995\"]",
+                    "[\"James Gosling\", \"Oracle\", \"1995\"]");
+            case SORTING -> new Shape(
+                    "[\"Application Started\", \"Application Ready\", \"Context Refreshed\", \"Context Initialized\"]",
+                    "[3, 2, 0, 1]", "[3, 2, 0, 1]", "[3, 0, 2, 1]");
+            case MATCHING -> new Shape(
+                    "[{\"left\":\"@Autowired\",\"right\":\"Dependency Injection\"}, "
+                            + "{\"left\":\"@RequestMapping\",\"right\":\"URL Mapping\"}, "
+                            + "{\"left\":\"@Transactional\",\"right\":\"Transaction Management\"}]",
+                    "[{\"left\":\"0\",\"right\":\"0\"}, {\"left\":\"1\",\"right\":\"1\"}, {\"left\":\"2\",\"right\":\"2\"}]",
+                    "[{\"left\":\"2\",\"right\":\"2\"}, {\"left\":\"0\",\"right\":\"0\"}, {\"left\":\"1\",\"right\":\"1\"}]",
+                    "[{\"left\":\"0\",\"right\":\"1\"}, {\"left\":\"1\",\"right\":\"0\"}, {\"left\":\"2\",\"right\":\"2\"}]");
+        };
+    }
+
+    public static Question question(long id, QuestionType type, int order) {
+        Shape shape = shape(type);
+        return Question.builder()
+                .id(id)
+                .questionType(type)
+                .questionText("Question " + id + " (" + type.getDisplayName() + ")")
+                .points(10)
+                .negativePoints(2)
+                .questionOrder(order)
+                .answerOptions(shape.answerOptions())
+                .correctAnswer(shape.correctAnswer())
+                .explanation("Explanation of question " + id)
+                .active(true)
+                .build();
+    }
+
+//    Active quiz with questionCount questions, ids are quizId * 1000 + position
+    public static Quiz quiz(long quizId, int questionCount, boolean randomQuestionOrder, boolean randomAnswerOrder) {
+        Quiz quiz = Quiz.builder()
+                .id(quizId)
+                .title("Benchmark quiz " + quizId)
+                .description(questionCount + " questions of all types")
+                .randomQuestionOrder(randomQuestionOrder)
+                .randomAnswerOrder(randomAnswerOrder)
+                .negativePointsEnabled(true)
+                .active(true)
+                .build();
+
+        List<Question> questions = new ArrayList<>(questionCount);
+        for (int i = 0; i < questionCount; i++) {
+            Question question = question(quizId * 1000 + i + 1, TYPES[i % TYPES.length], i + 1);
+            question.setQuiz(quiz);
+            questions.add(question);
+        }
+        quiz.setQuestions(questions);
+        return quiz;
+    }
+
+//    User answers for all questions of the quiz, every third one wrong
+    public static Map<Long, String> answers(Quiz quiz) {
+        Map<Long, String> answers = new LinkedHashMap<>();
+        for (Question question : quiz.getQuestions()) {
+            Shape shape = shape(question.getQuestionType());
+            boolean wrong = question.getQuestionOrder() % 3 == 0;
+            answers.put(question.getId(), wrong ? shape.wrongUserAnswer() : shape.correctUserAnswer());
+        }
+        return answers;
+    }
+
+//    Minimal stand-in for a Spring Data repository: listed methods are answered by the given
+//    functions, everything else returns an empty value. Keeps the benchmarks free of Mockito,
+//    whose invocation recording would dominate the measured allocations.
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> type.getSimpleName() + " stub";
+                default -> emptyValue(method.getReturnType());
+            };
+        });
+    }
+
+    private static Object emptyValue(Class<?> returnType) {
+        if (returnType == Optional.class) return Optional.empty();
+        if (returnType == boolean.class) return false;
+        if (returnType == int.class) return 0;
+        if (returnType == long.class) return 0L;
+        return null;
+    }
+}
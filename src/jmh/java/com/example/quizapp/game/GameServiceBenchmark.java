@@ -0,0 +1,138 @@
+package com.example.quizapp.game;
+
+import com.example.quizapp.benchmark.QuizFixtures;
+import com.example.quizapp.player.Player;
+import com.example.quizapp.player.PlayerRepository;
+import com.example.quizapp.player.PlayerStatsJdbcRepository;
+import com.example.quizapp.player.PlayerStatsRecorder;
+import com.example.quizapp.question.AnswerKeyCache;
+import com.example.quizapp.quiz.Quiz;
+import com.example.quizapp.quiz.QuizRepository;
+import com.example.quizapp.quiz.QuizSnapshotCache;
+import com.example.quizapp.quiz.QuizStatsJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * GameService hot paths with in-memory repositories.
+ *
+ * submitAnswers scores a whole game (answer key lookup, validation, detailed answers and
+ * their JSON) for quizzes of 10/50/100 questions of all types, in plain answer order (shuffled
+ * answers need a started session). startGameShuffled builds the per-player view of a quiz
+ * with random question and answer order. Repositories are plain
+ * stubs, so the numbers are the service's own CPU and allocation cost without any database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameServiceBenchmark {
+
+    private static final long QUIZ_ID = 1L;
+    private static final long SHUFFLED_QUIZ_ID = 2L;
+    private static final long PLAYER_ID = 1L;
+
+    @Param({"10", "50", "100"})
+    private int questionCount;
+
+    private GameService gameService;
+    private SubmitAnswersRequest submitRequest;
+    private StartGameRequest startRequest;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Quiz quiz = QuizFixtures.quiz(QUIZ_ID, questionCount, true, false);
+        Quiz shuffled = QuizFixtures.quiz(SHUFFLED_QUIZ_ID, questionCount, true, true);
+        Function<Object[], Object> findQuiz = args -> Optional.of(
+                (Long) args[0] == SHUFFLED_QUIZ_ID ? shuffled : quiz);
+        Player player = Player.builder().id(PLAYER_ID).nickname("bench").sessionId("bench").active(true).build();
+
+        QuizRepository quizRepository = QuizFixtures.stub(QuizRepository.class, Map.of(
+                "findById", findQuiz,
+                "findByIdWithQuestions", findQuiz));
+        PlayerRepository playerRepository = QuizFixtures.stub(PlayerRepository.class, Map.of(
+                "findById", args -> Optional.of(player),
+                "save", args -> {
+                    Player saved = (Player) args[0];
+                    saved.setId(PLAYER_ID);
+                    return saved;
+                },
+                "incrementGamesPlayed", args -> 1));
+        GameResultRepository gameResultRepository = QuizFixtures.stub(GameResultRepository.class, Map.of(
+                "save", args -> args[0]));
+
+        gameService = new GameService(
+                quizRepository,
+                playerRepository,
+                gameResultRepository,
+                new GameResultJdbcRepository(null) {
+                    @Override
+                    public boolean claimSession(String sessionId) {
+                        return true;
+                    }
+
+                    @Override
+                    public void batchInsertAnswers(List<GameResult> results) {
+                    }
+
+                    @Override
+                    public void recordActivity(List<GameResult> results) {
+                    }
+                },
+                new AnswerKeyCache(),
+                new GameSessionStore(Duration.ofHours(1), 10_000),
+                new QuizSnapshotCache(quizRepository, objectMapper),
+                objectMapper,
+                event -> { },
+                new GameResultWriter(null, null, null, null, event -> { }, false, 1, 1, Duration.ZERO, 0),
+                new PlayerStatsRecorder(playerRepository, null, Duration.ZERO),
+                new PlayerStatsJdbcRepository(null) {
+                    @Override
+                    public void recordResults(List<GameResult> results) {
+                    }
+                },
+                new QuizStatsJdbcRepository(null) {
+                    @Override
+                    public void recordResults(List<GameResult> results) {
+                    }
+                });
+
+        // Plain order answers, the submit quiz does not shuffle so nothing is remapped
+        List<SubmitAnswersRequest.AnswerSubmission> answers = QuizFixtures.answers(quiz).entrySet().stream()
+                .map(answer -> new SubmitAnswersRequest.AnswerSubmission(answer.getKey(), answer.getValue()))
+                .toList();
+        submitRequest = SubmitAnswersRequest.builder()
+                .sessionId("bench-submit")
+                .quizId(QUIZ_ID)
+                .playerId(PLAYER_ID)
+                .answers(answers)
+                .timeTakenSeconds(120)
+                .build();
+
+        startRequest = StartGameRequest.builder()
+                .quizId(SHUFFLED_QUIZ_ID)
+                .playerNickname("bench")
+                .sessionId("bench-start")
+                .build();
+    }
+
+    @Benchmark
+    public GameResultDto submitAnswers() {
+        return gameService.submitAnswers(submitRequest);
+    }
+
+    @Benchmark
+    public StartGameResponse startGameShuffled() {
+        return gameService.startGame(startRequest);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.quizapp.game;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap held by running games in GameSessionStore, per 10 000 sessions.
+ *
+ * fill starts 10 000 games in an empty store. Its retainedBytes counter is the heap freed by
+ * a full GC once the filled store is dropped (map, start queue and sessions); the session id
+ * strings are held by the benchmark and not counted (about 80 bytes each for a UUID).
+ * Counters add up over measurement iterations, so fill measures a single one; its time is
+ * mostly the full GCs. With -prof gc, gc.alloc.rate.norm is what filling the store allocates.
+ *
+ * churn is the steady state of a busy server: it finishes the oldest of 10 000 running games
+ * and starts a new one, so finished entries leave the start queue instead of piling up
+ * behind the live ones.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class GameSessionStoreBenchmark {
+
+    private static final int SESSIONS = 10_000;
+
+    private String[] sessionIds;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Heap {
+        public long retainedBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void createSessionIds() {
+        // Session ids like the UUIDs handed out by startGame, created once so they are not counted
+        sessionIds = new String[2 * SESSIONS];
+        for (int i = 0; i < sessionIds.length; i++) {
+            sessionIds[i] = UUID.nameUUIDFromBytes(Integer.toString(i).getBytes()).toString();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Empty {
+        GameSessionStore store;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            store = new GameSessionStore(Duration.ofHours(2), 0);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Running {
+        GameSessionStore store;
+        int next;
+
+        @Setup(Level.Iteration)
+        public void setUp(GameSessionStoreBenchmark benchmark) {
+            store = new GameSessionStore(Duration.ofHours(2), 0);
+            for (int i = 0; i < SESSIONS; i++) {
+                benchmark.start(store, i);
+            }
+            next = SESSIONS;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 1)
+    public long fill(Empty empty, Heap heap) {
+        for (int i = 0; i < SESSIONS; i++) {
+            start(empty.store, i);
+        }
+        long filled = usedHeap();
+        empty.store = null;
+        heap.retainedBytes = filled - usedHeap();
+        return heap.retainedBytes;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public GameSession churn(Running running) {
+        int game = running.next++;
+        running.store.remove(sessionIds[(game - SESSIONS) % sessionIds.length]);
+        return start(running.store, game % sessionIds.length);
+    }
+
+    private GameSession start(GameSessionStore target, int game) {
+        return target.create(sessionIds[game], 1L, 1L, game, game * 31L, game * 17L);
+    }
+
+//    Used heap after a full collection, only meaningful with a single benchmark thread
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
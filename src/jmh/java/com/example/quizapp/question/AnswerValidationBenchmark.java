@@ -0,0 +1,63 @@
+package com.example.quizapp.question;
+
+import com.example.quizapp.benchmark.QuizFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answer validation per question type.
+ *
+ * compileAndValidate is the QuestionService.validateAnswer path (question compiled on every
+ * call), validatePrecompiled is the submitAnswers path with a cached AnswerKey, and
+ * formatForDisplay is the user answer rendering of the detailed result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnswerValidationBenchmark {
+
+    @Param({"SINGLE_CHOICE", "MULTIPLE_CHOICE", "TRUE_FALSE", "SHORT_ANSWER",
+            "DROPDOWN", "FILL_BLANKS", "SORTING", "MATCHING"})
+    private QuestionType questionType;
+
+    private Question question;
+    private AnswerKey.CompiledQuestion compiled;
+    private String correctAnswer;
+    private String wrongAnswer;
+
+    @Setup
+    public void setUp() {
+        question = QuizFixtures.question(1L, questionType, 1);
+        compiled = AnswerKey.compileQuestion(question);
+
+        QuizFixtures.Shape shape = QuizFixtures.shape(questionType);
+        correctAnswer = shape.correctUserAnswer();
+        wrongAnswer = shape.wrongUserAnswer();
+
+        if (!compiled.isCorrect(correctAnswer) || compiled.isCorrect(wrongAnswer)) {
+            throw new IllegalStateException("Fixture answers of " + questionType + " are not validated as expected");
+        }
+    }
+
+    @Benchmark
+    public void compileAndValidate(Blackhole blackhole) {
+        blackhole.consume(AnswerKey.compileQuestion(question).isCorrect(correctAnswer));
+        blackhole.consume(AnswerKey.compileQuestion(question).isCorrect(wrongAnswer));
+    }
+
+    @Benchmark
+    public void validatePrecompiled(Blackhole blackhole) {
+        blackhole.consume(compiled.isCorrect(correctAnswer));
+        blackhole.consume(compiled.isCorrect(wrongAnswer));
+    }
+
+    @Benchmark
+    public String formatForDisplay() {
+        return compiled.formatForDisplay(correctAnswer);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.quizapp.ranking;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard reads of a large quiz.
+ *
+ * sortTopTen is what RankingService used to do on every request (load all results, sort,
+ * take the top), the other benchmarks go through the QuizLeaderboard kept by LeaderboardIndex:
+ * a page from the top, a page deep down the board, the position of one player and adding
+ * a freshly finished game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeaderboardBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"10000", "100000"})
+    private int results;
+
+    private List<LeaderboardEntry> entries;
+    private QuizLeaderboard leaderboard;
+    private SplittableRandom random;
+    private long nextResultId;
+    private int players;
+
+    @Setup
+    public void setUp() {
+        random = new SplittableRandom(42);
+        players = Math.max(1, results / 4);
+        entries = new ArrayList<>(results);
+        leaderboard = new QuizLeaderboard();
+        for (int i = 1; i <= results; i++) {
+            LeaderboardEntry entry = entry(i);
+            entries.add(entry);
+            leaderboard.add(entry);
+        }
+        nextResultId = results + 1L;
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> sortTopTen() {
+        List<LeaderboardEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(LeaderboardEntry.ORDER);
+        return sorted.subList(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> topTen() {
+        return leaderboard.range(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> middlePage() {
+        return leaderboard.range(results / 2, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public QuizLeaderboard.RankedEntry playerPosition() {
+        return leaderboard.bestOf(1 + random.nextInt(players));
+    }
+
+//    The board grows during the measurement like it does in production
+    @Benchmark
+    public boolean addResult() {
+        return leaderboard.add(entry(nextResultId++));
+    }
+
+    private LeaderboardEntry entry(long resultId) {
+        int score = random.nextInt(101);
+        return new LeaderboardEntry(
+                resultId,
+                1 + random.nextInt(players),
+                "player",
+                score,
+                100,
+                (double) score,
+                score / 10,
+                10 - score / 10,
+                10,
+                random.nextInt(10) == 0 ? null : 30 + random.nextInt(600),
+                LocalDateTime.of(2025, 1, 1, 12, 0));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.quizapp.ranking;
+
+import com.example.quizapp.quiz.Quiz;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * PDF export of a large leaderboard by RankingExportService.
+ *
+ * The repository is replaced by a cursor that produces distinct entries in leaderboard
+ * order, so the numbers are the rendering cost of iText's large-table mode (rows flushed
+ * every PDF_FLUSH_ROWS) without any database. exportAll writes the whole board, exportTop
+ * the first 5 000 rows as the "top 5,000" download does. The fork runs with a 256 MB heap,
+ * well below what a table of 100 000 rows held in memory needs; run with -prof gc for the
+ * allocation per export. Exports take seconds, so every iteration is a single export.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class RankingExportBenchmark {
+
+    private static final int TOP = 5_000;
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private RankingExportService exportService;
+    private Quiz quiz;
+
+    @Setup
+    public void setUp() {
+        quiz = Quiz.builder().id(1L).title("Benchmark quiz").totalPoints(100).build();
+        exportService = new RankingExportService(null, new RankingJdbcRepository(null) {
+            @Override
+            public long countCompletedResults(Long quizId) {
+                return rows;
+            }
+
+            @Override
+            public void streamRankedLeaderboard(Long quizId, int offset, Integer limit,
+                                                Consumer<LeaderboardEntry> consumer) {
+                int end = limit != null ? Math.min(rows, offset + limit) : rows;
+                SplittableRandom random = new SplittableRandom(42);
+                for (int i = offset; i < end; i++) {
+                    consumer.accept(entry(i, random));
+                }
+            }
+        });
+    }
+
+    @Benchmark
+    public long exportAll() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        exportService.writePdf(quiz, 0, null, out);
+        return out.bytes;
+    }
+
+    @Benchmark
+    public long exportTop() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        exportService.writePdf(quiz, 0, TOP, out);
+        return out.bytes;
+    }
+
+//    Entry at a position of the board, scores fall from 100 towards 0 down the board
+    private LeaderboardEntry entry(int position, SplittableRandom random) {
+        int score = 100 - (int) (100L * position / rows);
+        return new LeaderboardEntry(
+                position + 1L,
+                position + 1L,
+                "player-" + position,
+                score,
+                100,
+                (double) score,
+                score / 10,
+                10 - score / 10,
+                10,
+                random.nextInt(10) == 0 ? null : 30 + random.nextInt(600),
+                LocalDateTime.of(2025, 1, 1, 12, 0).plusSeconds(position));
+    }
+
+//    Response stand-in that only counts, the PDF is not kept
+    private static final class CountingOutputStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.quizapp.security;
+
+import com.example.quizapp.benchmark.QuizFixtures;
+import com.example.quizapp.common.exception.PasswordHashingBusyException;
+import com.example.quizapp.question.AnswerKey;
+import com.example.quizapp.quiz.Quiz;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game answer scoring latency while a burst of sign-ins hashes passwords.
+ *
+ * Sixteen threads stand in for request threads busy with form or basic-auth logins (BCrypt,
+ * cost 10), two for request threads scoring a submitted 50-question game. With bounded=false
+ * every login hashes on its own thread as before; with bounded=true hashing goes through
+ * BoundedPasswordEncoder (half of the CPUs, queue of 64) and logins beyond it are rejected.
+ * Compare the submitGame percentiles of both runs, and the sample count of login for the
+ * sign-in throughput given up for it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class LoginBurstBenchmark {
+
+    @Param({"false", "true"})
+    private boolean bounded;
+
+    private PasswordEncoder passwordEncoder;
+    private String storedHash;
+    private AnswerKey answerKey;
+    private Map<Long, String> answers;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        passwordEncoder = bounded
+                ? new BoundedPasswordEncoder(bcrypt, 0, 64, Duration.ofSeconds(5), Duration.ofSeconds(2))
+                : bcrypt;
+        storedHash = bcrypt.encode("password123");
+
+        Quiz quiz = QuizFixtures.quiz(1L, 50, false, false);
+        answerKey = AnswerKey.compile(quiz);
+        answers = QuizFixtures.answers(quiz);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (passwordEncoder instanceof BoundedPasswordEncoder boundedEncoder) {
+            boundedEncoder.shutdown();
+        }
+    }
+
+    @Benchmark
+    @Group("burst")
+    @GroupThreads(16)
+    public boolean login() {
+        try {
+            return passwordEncoder.matches("password123", storedHash);
+        } catch (PasswordHashingBusyException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("burst")
+    @GroupThreads(2)
+    public void submitGame(Blackhole blackhole) {
+        for (Map.Entry<Long, String> answer : answers.entrySet()) {
+            blackhole.consume(answerKey.getQuestion(answer.getKey()).isCorrect(answer.getValue()));
+        }
+    }
+}
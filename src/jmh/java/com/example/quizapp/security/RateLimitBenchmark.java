@@ -0,0 +1,79 @@
+package com.example.quizapp.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the rate limit check per request to a public game endpoint.
+ *
+ * Requests rotate over 50 000 client addresses, all of them tracked, so every call looks up
+ * an existing bucket among 50 000 and compare-and-sets it. Limits are high enough for every
+ * request to be allowed, which is the path a normal request pays. filter goes through
+ * RateLimitFilter with a no-op chain, tryAcquire calls RateLimiter directly and unmatched is
+ * a request the filter only classifies. Run with -t 4 for contended buckets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private static final int CLIENTS = 50_000;
+
+    @State(Scope.Benchmark)
+    public static class Limiter {
+
+        RateLimiter rateLimiter;
+        RateLimitFilter filter;
+        String[] clients;
+
+        @Setup
+        public void setUp() throws Exception {
+            RateLimiter.Limit limit = RateLimiter.Limit.of(1_000_000, 1_000_000_000);
+            rateLimiter = new RateLimiter(true, 100_000, limit, limit, limit, System::nanoTime);
+            filter = new RateLimitFilter(rateLimiter, new ObjectMapper());
+            clients = new String[CLIENTS];
+            for (int i = 0; i < CLIENTS; i++) {
+                clients[i] = "10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+                rateLimiter.tryAcquire(RateLimiter.Endpoint.ANSWER_VALIDATE, clients[i]);
+            }
+        }
+    }
+
+    private final FilterChain chain = (request, response) -> { };
+    private final MockHttpServletRequest validate = new MockHttpServletRequest("POST", "/api/v1/questions/42/validate");
+    private final MockHttpServletRequest unmatched = new MockHttpServletRequest("GET", "/api/v1/quizzes/42");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private int next;
+
+    @Benchmark
+    public void filter(Limiter limiter) throws Exception {
+        validate.setRemoteAddr(limiter.clients[nextClient()]);
+        validate.removeAttribute(limiter.filter.getClass().getName() + ".FILTERED");
+        limiter.filter.doFilter(validate, response, chain);
+    }
+
+    @Benchmark
+    public long tryAcquire(Limiter limiter) {
+        return limiter.rateLimiter.tryAcquire(RateLimiter.Endpoint.ANSWER_VALIDATE, limiter.clients[nextClient()]);
+    }
+
+    @Benchmark
+    public void unmatched(Limiter limiter) throws Exception {
+        unmatched.removeAttribute(limiter.filter.getClass().getName() + ".FILTERED");
+        limiter.filter.doFilter(unmatched, response, chain);
+    }
+
+    private int nextClient() {
+        int client = next;
+        next = client + 1 == CLIENTS ? 0 : client + 1;
+        return client;
+    }
+}
@@ -115,6 +115,82 @@ public class AnalyticsController {
         ));
     }
 
+//    Rebuild player stats
+    @PostMapping("/player-stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild player stats", description = "Recompute per-player aggregates used by global rankings from all game results (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rebuild completed"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Map<String, Object>> rebuildPlayerStats() {
+        log.info("POST /api/v1/analytics/player-stats/rebuild");
+
+        int players = analyticsService.rebuildPlayerStats();
+        return ResponseEntity.ok(Map.of(
+                "players", players,
+                "message", "Rebuilt stats of " + players + " players"
+        ));
+    }
+
+//    Rebuild activity rollups
+    @PostMapping("/activity/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild activity rollups", description = "Recompute the hourly and daily activity rollups used by platform analytics from all game results (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rebuild completed"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Map<String, Object>> rebuildActivityRollups() {
+        log.info("POST /api/v1/analytics/activity/rebuild");
+
+        int buckets = analyticsService.rebuildActivityRollups();
+        return ResponseEntity.ok(Map.of(
+                "buckets", buckets,
+                "message", "Rebuilt " + buckets + " hourly activity buckets"
+        ));
+    }
+
+//    Rebuild quiz stats
+    @PostMapping("/quiz-stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild quiz stats", description = "Recompute per-quiz aggregates and score histograms used by result comparisons from all game results (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rebuild completed"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Map<String, Object>> rebuildQuizStats() {
+        log.info("POST /api/v1/analytics/quiz-stats/rebuild");
+
+        int quizzes = analyticsService.rebuildQuizStats();
+        return ResponseEntity.ok(Map.of(
+                "quizzes", quizzes,
+                "message", "Rebuilt stats of " + quizzes + " quizzes"
+        ));
+    }
+
+//    Rebuild search index
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild search index", description = "Rebuild the in-memory quiz and question search index from the database (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rebuild completed"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        log.info("POST /api/v1/analytics/search/rebuild");
+
+        int quizzes = analyticsService.rebuildSearchIndex();
+        return ResponseEntity.ok(Map.of(
+                "quizzes", quizzes,
+                "message", "Indexed " + quizzes + " quizzes"
+        ));
+    }
+
 //    Bulk update quiz status
     @PutMapping("/quizzes/bulk-status")
     @PreAuthorize("hasRole('ADMIN')")
@@ -0,0 +1,144 @@
+package com.example.quizapp.analytics;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent queries of a composite analytics report in parallel.
+ *
+ * Every section runs on its own virtual thread in a read-only transaction whose timeout
+ * (app.analytics.query-timeout) is applied to its statements, so a slow query is cancelled
+ * by the database. A report finishes with whatever sections succeeded; failed or timed out
+ * sections are reported by name with a generic reason ("Failed", "Timed out") instead of
+ * failing the whole report, the cause is only logged.
+ *
+ * Connections are capped twice: at most app.analytics.report-parallelism sections of one
+ * report and at most app.analytics.max-concurrent-queries sections of all reports together
+ * hold a connection, so a burst of dashboards leaves the rest of the pool to game traffic.
+ */
+@Component
+@Slf4j
+public class AnalyticsFanOut {
+
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore connections;
+    private final int reportParallelism;
+    private final Duration queryTimeout;
+
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("analytics-", 0).factory());
+
+    public AnalyticsFanOut(PlatformTransactionManager transactionManager,
+                           @Value("${app.analytics.max-concurrent-queries:4}") int maxConcurrentQueries,
+                           @Value("${app.analytics.report-parallelism:3}") int reportParallelism,
+                           @Value("${app.analytics.query-timeout:PT10S}") Duration queryTimeout) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setTimeout((int) Math.max(1, queryTimeout.toSeconds()));
+        this.connections = new Semaphore(Math.max(1, maxConcurrentQueries), true);
+        this.reportParallelism = Math.max(1, reportParallelism);
+        this.queryTimeout = queryTimeout;
+    }
+
+//    Results of the sections that succeeded, query time of every section and a generic reason for each failure
+    public record Report(Map<String, Object> sections, Map<String, Long> timingsMillis, Map<String, String> failures) {
+
+//        Sections plus "timings" and "failedSections", the shape of the analytics responses
+        public Map<String, Object> toResponse() {
+            Map<String, Object> response = new LinkedHashMap<>(sections);
+            response.put("timings", timingsMillis);
+            response.put("failedSections", failures);
+            return response;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+//    Run all sections (name -> query), in parallel within the connection limits
+    public Report run(Map<String, Supplier<?>> queries) {
+        long start = System.nanoTime();
+        Semaphore reportSlots = new Semaphore(reportParallelism);
+
+        Map<String, Future<Object>> futures = new LinkedHashMap<>();
+        Map<String, Long> timings = new ConcurrentHashMap<>();
+        queries.forEach((name, query) -> futures.put(name, executor.submit(() -> {
+            reportSlots.acquire();
+            try {
+                connections.acquire();
+                try {
+                    long queryStart = System.nanoTime();
+                    try {
+                        return transactionTemplate.execute(status -> query.get());
+                    } finally {
+                        timings.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queryStart));
+                    }
+                } finally {
+                    connections.release();
+                }
+            } finally {
+                reportSlots.release();
+            }
+        })));
+
+        // Sections wait for a slot, the report as a whole gets one query timeout per round of slots
+        int rounds = (queries.size() + reportParallelism - 1) / reportParallelism;
+        long deadline = start + queryTimeout.toNanos() * Math.max(1, rounds) + TimeUnit.SECONDS.toNanos(1);
+
+        Map<String, Object> sections = new LinkedHashMap<>();
+        Map<String, String> failures = new LinkedHashMap<>();
+        List<String> cancelled = new ArrayList<>();
+        for (Map.Entry<String, Future<Object>> entry : futures.entrySet()) {
+            String name = entry.getKey();
+            try {
+                sections.put(name, entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                cancelled.add(name);
+                failures.put(name, "Timed out");
+            } catch (ExecutionException e) {
+                // The cause may carry SQL, it stays in the server log
+                log.warn("Analytics section {} failed", name, e.getCause());
+                failures.put(name, "Failed");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.values().forEach(future -> future.cancel(true));
+                throw new IllegalStateException("Analytics report interrupted", e);
+            }
+        }
+        if (!cancelled.isEmpty()) {
+            log.warn("Analytics sections cancelled after {}: {}", queryTimeout, cancelled);
+        }
+
+        Map<String, Long> timingsMillis = new LinkedHashMap<>();
+        queries.keySet().forEach(name -> {
+            Long millis = timings.get(name);
+            if (millis != null) {
+                timingsMillis.put(name, millis);
+            }
+        });
+        timingsMillis.put("total", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new Report(sections, timingsMillis, failures);
+    }
+}
@@ -1,16 +1,29 @@
 package com.example.quizapp.analytics;
 
+import com.example.quizapp.game.ActivityRollupBackfill;
 import com.example.quizapp.game.GameResultJdbcRepository;
+import com.example.quizapp.player.PlayerStatsBackfill;
+import com.example.quizapp.quiz.Quiz;
+import com.example.quizapp.quiz.QuizChangedEvent;
 import com.example.quizapp.quiz.QuizJdbcRepository;
+import com.example.quizapp.quiz.QuizRepository;
+import com.example.quizapp.quiz.QuizStatsBackfill;
+import com.example.quizapp.search.QuizSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,34 +33,41 @@ public class AnalyticsService {
 
     private final QuizJdbcRepository quizJdbcRepository;
     private final GameResultJdbcRepository gameResultJdbcRepository;
+    private final PlayerStatsBackfill playerStatsBackfill;
+    private final ActivityRollupBackfill activityRollupBackfill;
+    private final QuizStatsBackfill quizStatsBackfill;
+    private final AnalyticsFanOut analyticsFanOut;
+    private final QuizSearchIndex quizSearchIndex;
+    private final QuizRepository quizRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 //    Get comprehensive quiz analytics
+//    Sections are queried in parallel, each in its own connection - no transaction is held while waiting
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> getQuizAnalytics(Long quizId) {
         log.info("Getting analytics for quiz: {}", quizId);
 
-        Map<String, Object> analytics = new HashMap<>();
+        Map<String, Supplier<?>> sections = new LinkedHashMap<>();
 
         // Basic statistics
-        Map<String, Object> stats = quizJdbcRepository.getQuizStatistics(quizId);
-        analytics.put("statistics", stats);
+        sections.put("statistics", () -> quizJdbcRepository.getQuizStatistics(quizId));
 
         // Top performers
-        List<Map<String, Object>> topPerformers = quizJdbcRepository.getTopPerformers(quizId, 10);
-        analytics.put("topPerformers", topPerformers);
+        sections.put("topPerformers", () -> quizJdbcRepository.getTopPerformers(quizId, 10));
 
         // Question difficulty
-        List<Map<String, Object>> difficulty = quizJdbcRepository.getQuestionDifficultyAnalysis(quizId);
-        analytics.put("questionDifficulty", difficulty);
+        sections.put("questionDifficulty", () -> quizJdbcRepository.getQuestionDifficultyAnalysis(quizId));
+
+        // Chosen options of single-pick questions
+        sections.put("answerDistribution", () -> quizJdbcRepository.getAnswerDistribution(quizId));
 
         // Players needing retry
-        List<Map<String, Object>> needRetry = gameResultJdbcRepository.getPlayersNeedingRetry(quizId);
-        analytics.put("playersNeedingRetry", needRetry);
+        sections.put("playersNeedingRetry", () -> gameResultJdbcRepository.getPlayersNeedingRetry(quizId));
 
         // Average completion time
-        Double avgTime = quizJdbcRepository.getAverageCompletionTime(quizId);
-        analytics.put("averageCompletionTime", avgTime);
+        sections.put("averageCompletionTime", () -> quizJdbcRepository.getAverageCompletionTime(quizId));
 
-        return analytics;
+        return analyticsFanOut.run(sections).toResponse();
     }
 
 //    Get player performance report
@@ -81,42 +101,37 @@ public class AnalyticsService {
     }
 
 //    Get platform-wide analytics
+//    Sections are queried in parallel, each in its own connection - no transaction is held while waiting
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> getPlatformAnalytics() {
         log.info("Getting platform-wide analytics");
 
-        Map<String, Object> analytics = new HashMap<>();
+        Map<String, Supplier<?>> sections = new LinkedHashMap<>();
 
         // Active players
-        List<Map<String, Object>> activePlayers = gameResultJdbcRepository.getActivePlayersStatistics(3);
-        analytics.put("activePlayers", activePlayers);
+        sections.put("activePlayers", () -> gameResultJdbcRepository.getActivePlayersStatistics(3));
 
         // Completion rate by difficulty
-        List<Map<String, Object>> difficultyAnalysis = gameResultJdbcRepository.getCompletionRateByDifficulty();
-        analytics.put("difficultyAnalysis", difficultyAnalysis);
+        sections.put("difficultyAnalysis", gameResultJdbcRepository::getCompletionRateByDifficulty);
 
         // Hourly activity
-        List<Map<String, Object>> hourlyActivity = gameResultJdbcRepository.getHourlyActivity();
-        analytics.put("hourlyActivity", hourlyActivity);
+        sections.put("hourlyActivity", gameResultJdbcRepository::getHourlyActivity);
 
         // Completion trend
-        List<Map<String, Object>> trend = gameResultJdbcRepository.getCompletionTrend();
-        analytics.put("completionTrend", trend);
+        sections.put("completionTrend", gameResultJdbcRepository::getCompletionTrend);
 
         // Quiz activity last 30 days
-        LocalDateTime startDate = LocalDateTime.now().minusDays(30);
-        LocalDateTime endDate = LocalDateTime.now();
-        List<Map<String, Object>> activity = quizJdbcRepository.getQuizActivityByDateRange(startDate, endDate);
-        analytics.put("last30DaysActivity", activity);
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(30);
+        sections.put("last30DaysActivity", () -> quizJdbcRepository.getQuizActivityByDateRange(startDate, endDate));
 
         // Total questions count
-        int totalQuestions = quizJdbcRepository.countTotalQuestions();
-        analytics.put("totalQuestions", totalQuestions);
+        sections.put("totalQuestions", quizJdbcRepository::countTotalQuestions);
 
         // Quizzes without questions
-        List<Long> emptyQuizzes = quizJdbcRepository.findQuizzesWithoutQuestions();
-        analytics.put("quizzesWithoutQuestions", emptyQuizzes);
+        sections.put("quizzesWithoutQuestions", quizJdbcRepository::findQuizzesWithoutQuestions);
 
-        return analytics;
+        return analyticsFanOut.run(sections).toResponse();
     }
 
 //    Compare result with quiz average
@@ -132,16 +147,55 @@ public class AnalyticsService {
         return quizJdbcRepository.deleteOldIncompleteResults(daysOld);
     }
 
+//    Rebuild player aggregates from game results (parallel chunks, each in its own transaction)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildPlayerStats() {
+        log.info("Rebuilding player stats");
+        return playerStatsBackfill.rebuild();
+    }
+
+//    Rebuild the hourly and daily activity rollups from game results
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildActivityRollups() {
+        log.info("Rebuilding activity rollups");
+        return activityRollupBackfill.rebuild();
+    }
+
+//    Rebuild the per-quiz running aggregates and score histograms from game results
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildQuizStats() {
+        log.info("Rebuilding quiz stats");
+        return quizStatsBackfill.rebuild();
+    }
+
+//    Rebuild the quiz and question search index from the database
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildSearchIndex() {
+        log.info("Rebuilding search index");
+        return quizSearchIndex.rebuild();
+    }
+
 //    Bulk activate/deactivate quizzes
     @Transactional
     public int bulkUpdateQuizStatus(List<Long> quizIds, boolean active) {
         log.info("Bulk updating {} quizzes to active={}", quizIds.size(), active);
-        return quizJdbcRepository.bulkUpdateActiveStatus(quizIds, active);
+        int updated = quizJdbcRepository.bulkUpdateActiveStatus(quizIds, active);
+        quizIds.forEach(quizId -> eventPublisher.publishEvent(new QuizChangedEvent(quizId)));
+        return updated;
     }
 
-//    Search quizzes by keyword (using SQL LIKE)
-    public List<com.example.quizapp.quiz.Quiz> searchQuizzes(String keyword) {
+//    Search quizzes by keyword, from the search index once it is built (SQL LIKE before, and for keywords without words)
+    public List<Quiz> searchQuizzes(String keyword) {
         log.info("Searching quizzes with keyword: {}", keyword);
-        return quizJdbcRepository.findByTitleContaining(keyword);
+        if (!quizSearchIndex.isReady() || !QuizSearchIndex.hasWords(keyword)) {
+            return quizJdbcRepository.findByTitleContaining(keyword);
+        }
+        List<Long> ids = quizSearchIndex.searchQuizzes(keyword);
+        Map<Long, Quiz> quizzes = quizRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Quiz::getId, Function.identity()));
+        return ids.stream()
+                .map(quizzes::get)
+                .filter(quiz -> quiz != null && quiz.isActive())
+                .toList();
     }
 }
\ No newline at end of file
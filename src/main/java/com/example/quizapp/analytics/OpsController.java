@@ -0,0 +1,67 @@
+package com.example.quizapp.analytics;
+
+import com.example.quizapp.common.monitoring.ComponentStats;
+import com.example.quizapp.game.GameResultPartitions;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.TreeMap;
+
+//REST Controller for operational statistics of in-memory components and offline maintenance (admin only)
+@RestController
+@RequestMapping("/api/v1/analytics/ops")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Operations", description = "Runtime statistics of caches, pools, filters and queues, partition maintenance")
+@SecurityRequirement(name = "basicAuth")
+public class OpsController {
+
+    private final Map<String, ComponentStats> components;
+    private final GameResultPartitions gameResultPartitions;
+
+//    Statistics of every component by bean name (Admin only)
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get component statistics",
+            description = "Returns runtime statistics of in-memory components such as the user cache, password hashing pool, availability filter, rate limiter and result writer (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Map<String, Object>> getStats() {
+        log.info("GET /api/v1/analytics/ops/stats - Getting statistics of {} components", components.size());
+
+        Map<String, Object> stats = new TreeMap<>();
+        components.forEach((name, component) -> stats.put(name, component.getStats()));
+        return ResponseEntity.ok(stats);
+    }
+
+//    Move results stored in the default partition into monthly partitions (Admin only)
+    @PostMapping("/partitions/move-default")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Move results out of the default partition",
+            description = "Creates the monthly partitions of results stored in the default partition and moves them there. Locks game_results while each month is moved, run it in a maintenance window (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Results moved, counts by month"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Map<YearMonth, Integer>> moveDefaultPartition() {
+        log.info("POST /api/v1/analytics/ops/partitions/move-default - Moving results out of the default partition");
+        return ResponseEntity.ok(gameResultPartitions.moveDefaultPartition());
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.quizapp.analytics;
+
+import com.example.quizapp.game.GameCompletedEvent;
+import com.example.quizapp.game.GameResult;
+import com.example.quizapp.game.GameResultRepository;
+import com.example.quizapp.player.PlayerRepository;
+import com.example.quizapp.question.QuestionRepository;
+import com.example.quizapp.quiz.Quiz;
+import com.example.quizapp.quiz.QuizChangedEvent;
+import com.example.quizapp.quiz.QuizDto;
+import com.example.quizapp.quiz.QuizMapper;
+import com.example.quizapp.quiz.QuizRepository;
+import com.example.quizapp.quiz.QuizStatsJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Platform totals and most played quizzes for the home page, served from memory.
+ *
+ * A snapshot is loaded in the background on startup. Completed games are counted into it
+ * (total games, plays per quiz, popular ranking) once their transaction commits. A snapshot
+ * older than refresh-interval, or one a quiz change or a quiz climbing into the popular list
+ * has made stale, keeps being served while a single background refresh replaces it.
+ */
+@Component
+@Slf4j
+public class PlatformStatsCache {
+
+    public record PopularQuiz(QuizDto quiz, long plays) {
+    }
+
+    public record PlatformStats(long totalQuizzes, long totalPlayers, long totalGamesPlayed, long totalQuestions,
+                                List<PopularQuiz> popularQuizzes, Instant loadedAt) {
+
+//        Count one more completed game of a quiz that now has the given plays
+        PlatformStats withGame(Long quizId, long plays) {
+            List<PopularQuiz> popular = popularQuizzes.stream()
+                    .map(entry -> entry.quiz().getId().equals(quizId) ? new PopularQuiz(entry.quiz(), plays) : entry)
+                    .sorted(POPULAR_ORDER)
+                    .toList();
+            return new PlatformStats(totalQuizzes, totalPlayers, totalGamesPlayed + 1, totalQuestions, popular, loadedAt);
+        }
+
+//        Whether a quiz with these plays belongs in a popular list it is missing from
+        boolean outranksPopular(Long quizId, long plays, int size) {
+            if (popularQuizzes.stream().anyMatch(entry -> entry.quiz().getId().equals(quizId))) {
+                return false;
+            }
+            return popularQuizzes.size() < size || plays > popularQuizzes.getLast().plays();
+        }
+    }
+
+    private static final Comparator<PopularQuiz> POPULAR_ORDER = Comparator
+            .comparingLong(PopularQuiz::plays).reversed()
+            .thenComparing(entry -> entry.quiz().getId());
+
+    private final QuizRepository quizRepository;
+    private final QuizStatsJdbcRepository quizStatsJdbcRepository;
+    private final PlayerRepository playerRepository;
+    private final GameResultRepository gameResultRepository;
+    private final QuestionRepository questionRepository;
+    private final QuizMapper quizMapper;
+    private final Duration refreshInterval;
+    private final int popularSize;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+
+    private final AtomicReference<PlatformStats> stats = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile boolean stale;
+
+    // Completed games per active quiz, reloaded with every refresh
+    private volatile Map<Long, Long> playCounts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PlatformStatsCache(QuizRepository quizRepository,
+                              QuizStatsJdbcRepository quizStatsJdbcRepository,
+                              PlayerRepository playerRepository,
+                              GameResultRepository gameResultRepository,
+                              QuestionRepository questionRepository,
+                              QuizMapper quizMapper,
+                              @Value("${app.home.stats-refresh-interval:PT1M}") Duration refreshInterval,
+                              @Value("${app.home.popular-quizzes:3}") int popularSize) {
+        this(quizRepository, quizStatsJdbcRepository, playerRepository, gameResultRepository, questionRepository,
+                quizMapper, refreshInterval, popularSize,
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().name("platform-stats").daemon().factory()),
+                Clock.systemUTC());
+    }
+
+    PlatformStatsCache(QuizRepository quizRepository,
+                       QuizStatsJdbcRepository quizStatsJdbcRepository,
+                       PlayerRepository playerRepository,
+                       GameResultRepository gameResultRepository,
+                       QuestionRepository questionRepository,
+                       QuizMapper quizMapper,
+                       Duration refreshInterval,
+                       int popularSize,
+                       Executor refreshExecutor,
+                       Clock clock) {
+        this.quizRepository = quizRepository;
+        this.quizStatsJdbcRepository = quizStatsJdbcRepository;
+        this.playerRepository = playerRepository;
+        this.gameResultRepository = gameResultRepository;
+        this.questionRepository = questionRepository;
+        this.quizMapper = quizMapper;
+        this.refreshInterval = refreshInterval;
+        this.popularSize = popularSize;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+//    Current snapshot, a stale one is returned as is and refreshed in the background
+//    Only a request arriving before the first load has finished waits for the database
+    public PlatformStats getStats() {
+        PlatformStats current = stats.get();
+        if (current == null) {
+            synchronized (this) {
+                current = stats.get();
+                return current != null ? current : refresh();
+            }
+        }
+        if (stale || current.loadedAt().plus(refreshInterval).isBefore(clock.instant())) {
+            refreshInBackground();
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refreshInBackground();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameCompleted(GameCompletedEvent event) {
+        GameResult result = event.gameResult();
+        if (!result.isCompleted()) {
+            return;
+        }
+        Long quizId = result.getQuiz().getId();
+        long plays = playCounts.merge(quizId, 1L, Long::sum);
+
+        PlatformStats updated = stats.updateAndGet(current -> current != null ? current.withGame(quizId, plays) : null);
+        if (updated != null && updated.outranksPopular(quizId, plays, popularSize)) {
+            stale = true;
+        }
+    }
+
+//    Quiz and question counts, or a popular quiz itself, may have changed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuizChanged(QuizChangedEvent event) {
+        stale = true;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (refreshExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+//    Start a refresh unless one is already running
+    void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    log.error("Refreshing platform stats failed, serving the previous snapshot", e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            throw e;
+        }
+    }
+
+//    Load a new snapshot; quiz changes committed meanwhile mark it stale again, a game committed
+//    between the queries and the swap may be missing from it until the next refresh
+    private PlatformStats refresh() {
+        long start = System.currentTimeMillis();
+        stale = false;
+
+        Map<Long, Long> plays = new ConcurrentHashMap<>(quizStatsJdbcRepository.findPlayCounts());
+        PlatformStats loaded = new PlatformStats(
+                quizRepository.countByActiveTrue(),
+                playerRepository.countByActiveTrue(),
+                gameResultRepository.countByCompletedTrue(),
+                questionRepository.count(),
+                loadPopular(plays),
+                clock.instant());
+
+        playCounts = plays;
+        stats.set(loaded);
+        log.debug("Platform stats refreshed in {} ms", System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+//    Most played active quizzes, topped up with other active quizzes while fewer have been played
+    private List<PopularQuiz> loadPopular(Map<Long, Long> plays) {
+        List<Long> mostPlayed = plays.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(popularSize)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        List<Quiz> quizzes = new ArrayList<>(quizRepository.findAllById(mostPlayed));
+        if (quizzes.size() < popularSize) {
+            quizRepository.findByActiveTrue(PageRequest.of(0, popularSize)).stream()
+                    .filter(quiz -> !mostPlayed.contains(quiz.getId()))
+                    .limit(popularSize - quizzes.size())
+                    .forEach(quizzes::add);
+        }
+
+        return quizzes.stream()
+                .filter(Quiz::isActive)
+                .map(quiz -> new PopularQuiz(quizMapper.toDto(quiz), plays.getOrDefault(quiz.getId(), 0L)))
+                .sorted(POPULAR_ORDER)
+                .toList();
+    }
+}
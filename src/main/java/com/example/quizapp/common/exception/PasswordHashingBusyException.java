@@ -0,0 +1,23 @@
+package com.example.quizapp.common.exception;
+
+import java.time.Duration;
+
+//Thrown when the password hashing pool is saturated, mapped to HTTP 503 with a Retry-After header
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public PasswordHashingBusyException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+//    Retry-After header value, whole seconds and at least one
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.quizapp.common.monitoring;
+
+/**
+ * Runtime statistics of an in-memory component (cache, pool, filter, limiter, queue).
+ *
+ * Beans implementing it are listed by the admin ops endpoint under their bean name,
+ * so a new component only implements this instead of adding an endpoint of its own.
+ */
+public interface ComponentStats {
+
+    Object getStats();
+}
@@ -0,0 +1,53 @@
+package com.example.quizapp.common.util;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Increments aggregate rows in JDBC batches, creating the rows that do not exist yet.
+ *
+ * Existing rows are updated in one batch. Rows the UPDATE did not match are first inserted
+ * zeroed with {@code ON CONFLICT DO NOTHING}, which waits for (and then skips) a row another
+ * transaction is inserting concurrently, and are then updated again. The same statements work
+ * on PostgreSQL and on the H2 test database, which has no {@code ON CONFLICT ... DO UPDATE}.
+ *
+ * Callers pass the rows sorted by key, so concurrent writers lock the shared rows in the same
+ * order and cannot deadlock on each other.
+ */
+public final class BatchUpsert {
+
+    private BatchUpsert() {
+    }
+
+    public static <T> void upsert(JdbcTemplate jdbcTemplate, List<T> rows,
+                                  String updateSql, ParameterizedPreparedStatementSetter<T> updateSetter,
+                                  String insertSql, ParameterizedPreparedStatementSetter<T> insertSetter) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<T> missing = missing(rows, jdbcTemplate.batchUpdate(updateSql, rows, rows.size(), updateSetter));
+        if (missing.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(insertSql, missing, missing.size(), insertSetter);
+        jdbcTemplate.batchUpdate(updateSql, missing, missing.size(), updateSetter);
+    }
+
+//    Rows whose UPDATE matched nothing, drivers that do not report counts (SUCCESS_NO_INFO) count as matched
+    private static <T> List<T> missing(List<T> rows, int[][] updateCounts) {
+        List<T> missing = new ArrayList<>();
+        int i = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(rows.get(i));
+                }
+                i++;
+            }
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.quizapp.game;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * A player who completed a quiz on a given day (rollup table activity_daily_players).
+ *
+ * One row per day, quiz and player however many games were played, so distinct player
+ * counts per day stay exact without scanning the results. Unlike activity_hourly this is
+ * not a per-bucket rollup: the table and the reads of a date range grow with player-days.
+ */
+@Entity
+@Table(name = "activity_daily_players")
+@IdClass(ActivityDailyPlayer.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityDailyPlayer {
+
+    @Id
+    @Column(name = "play_date")
+    private LocalDate playDate;
+
+    @Id
+    @Column(name = "quiz_id")
+    private Long quizId;
+
+    @Id
+    @Column(name = "player_id")
+    private Long playerId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate playDate;
+        private Long quizId;
+        private Long playerId;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.quizapp.game;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Completed games of one quiz within one clock hour (rollup table activity_hourly).
+ *
+ * Maintained at submit time together with the results, so activity and trend analytics
+ * aggregate a row per hour and quiz instead of every stored game.
+ */
+@Entity
+@Table(name = "activity_hourly")
+@IdClass(ActivityHourly.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityHourly {
+
+//    Start of the hour, completed_at truncated to hours
+    @Id
+    @Column(name = "bucket")
+    private LocalDateTime bucket;
+
+    @Id
+    @Column(name = "quiz_id")
+    private Long quizId;
+
+    @Column(nullable = false)
+    private int games;
+
+//    Games with a percentage score of at least 50
+    @Column(nullable = false)
+    private int passed;
+
+    @Column(name = "score_sum", nullable = false)
+    private long scoreSum;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDateTime bucket;
+        private Long quizId;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.quizapp.game;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rebuilds the activity rollups (activity_hourly, activity_daily_players) from game_results.
+ *
+ * Runs on startup when the rollups are empty (fresh schema, existing data). The rebuild is a
+ * single transaction that replaces both tables, so it can be rerun at any time.
+ */
+@Component
+@Slf4j
+public class ActivityRollupBackfill {
+
+    private final GameResultJdbcRepository gameResultJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ActivityRollupBackfill(GameResultJdbcRepository gameResultJdbcRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.gameResultJdbcRepository = gameResultJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (gameResultJdbcRepository.isActivityEmpty()) {
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            log.error("Activity rollup backfill failed, activity analytics stay incomplete until it is rerun", e);
+        }
+    }
+
+//    Rebuild the rollups of all completed results, returns the number of hour buckets
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        Integer buckets = transactionTemplate.execute(status -> gameResultJdbcRepository.rebuildActivity());
+        log.info("Activity rollups rebuilt: {} hour buckets, {} ms", buckets, System.currentTimeMillis() - start);
+        return buckets != null ? buckets : 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.quizapp.game;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One scored answer of a completed game (fact table game_answers).
+ *
+ * Written in a JDBC batch together with its result, so per-question analytics are indexed
+ * aggregates over plain columns instead of scans of answers_json. Option indexes are the
+ * stored ones, already mapped back from the player's shuffled order. The completed_at of
+ * the result is copied so answers are partitioned (and retired) with their result.
+ */
+@Entity
+@Table(name = "game_answers")
+@IdClass(GameAnswer.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GameAnswer {
+
+    @Id
+    @Column(name = "result_id")
+    private Long resultId;
+
+    @Id
+    @Column(name = "question_id")
+    private Long questionId;
+
+//    Partition key, the completed_at of the result
+    @Id
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "is_correct", nullable = false)
+    private boolean correct;
+
+//    Points earned, negative when negative points applied
+    @Column(nullable = false)
+    private int points;
+
+//    Stored index of the picked option for single-pick questions, null for other types or no answer
+    @Column(name = "chosen_option")
+    private Integer chosenOption;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long resultId;
+        private Long questionId;
+        private LocalDateTime completedAt;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.quizapp.game;
+
+//Published when a game result has been saved.
+//Listeners run after commit, so the result is never seen by them if the submission rolls back.
+public record GameCompletedEvent(GameResult gameResult) {
+}
@@ -83,6 +83,25 @@ public class GameController {
         return ResponseEntity.ok(result);
     }
 
+//    Get game result by session ID
+    @GetMapping("/result/session/{sessionId}")
+    @Operation(
+            summary = "Get game result by session",
+            description = "Retrieve the game result of a session. Works right after submit, also while the result is still queued for storage."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Result retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Result not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<GameResultDto> getGameResultBySession(
+            @PathVariable @Parameter(description = "Game session ID") String sessionId) {
+        log.info("GET /api/v1/game/result/session/{} - Fetching game result", sessionId);
+
+        GameResultDto result = gameService.getGameResultBySession(sessionId);
+        return ResponseEntity.ok(result);
+    }
+
 //    Get quiz statistics
     @GetMapping("/statistics/{quizId}")
     @Operation(
@@ -7,6 +7,8 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "game_results")
@@ -63,6 +65,11 @@ public class GameResult {
     @Column(name = "answers_json", columnDefinition = "TEXT")
     private String answersJson;
 
+//    Scored answers to store in game_answers once the result has an id (not mapped, written via JDBC)
+    @Transient
+    @Builder.Default
+    private List<GameAnswer> answerFacts = new ArrayList<>();
+
 //    Game session identifier
     @Column(name = "session_id", length = 100)
     private String sessionId;
@@ -103,6 +110,11 @@ public class GameResult {
 
 //    Get grade based on percentage
     public String getGrade() {
+        return gradeFor(percentageScore);
+    }
+
+//    Grade scale shared with views that do not hold the entity (e.g. the leaderboard index)
+    public static String gradeFor(Double percentageScore) {
         if (percentageScore == null) return "N/A";
         if (percentageScore >= 90) return "A";
         if (percentageScore >= 80) return "B";
@@ -17,6 +17,9 @@ import java.util.List;
 public class GameResultDto implements Serializable {
     private Long id;
 
+//    Game session the result belongs to (the id is still null while write-behind has not stored it)
+    private String sessionId;
+
     private Long playerId;
 
     private String playerNickname;
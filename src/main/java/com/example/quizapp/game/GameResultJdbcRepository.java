@@ -1,21 +1,46 @@
 package com.example.quizapp.game;
 
+import com.example.quizapp.common.util.BatchUpsert;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @Repository
 @RequiredArgsConstructor
 @Slf4j
 public class GameResultJdbcRepository {
 
+    private static final String PARTITION_PREFIX = "game_results_p";
+    private static final String ANSWERS_PARTITION_PREFIX = "game_answers_p";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
     private final JdbcTemplate jdbcTemplate;
 
 //    Simple RowMapper for GameResult ID and score
@@ -85,27 +110,48 @@ public class GameResultJdbcRepository {
     }
 
 //    Compare player performance with average
+//    Reads the running aggregate (quiz_stats) and score histogram (quiz_score_counts) of the quiz,
+//    so the cost does not grow with the number of games played
     public Map<String, Object> compareWithAverage(Long resultId) {
         log.debug("Comparing result {} with quiz average", resultId);
 
         String sql = """
                 SELECT 
-                    gr.score as player_score,
-                    gr.percentage_score as player_percentage,
-                    ROUND(AVG(gr2.score) OVER (), 2) as quiz_avg_score,
-                    ROUND(AVG(gr2.percentage_score) OVER (), 2) as quiz_avg_percentage,
-                    gr.score - ROUND(AVG(gr2.score) OVER (), 2) as score_diff,
-                    CASE 
-                        WHEN gr.score >= AVG(gr2.score) OVER () THEN 'Above Average'
-                        ELSE 'Below Average'
-                    END as performance
+                    gr.score,
+                    gr.percentage_score,
+                    qs.games,
+                    qs.score_sum,
+                    qs.score_square_sum,
+                    qs.percentage_sum,
+                    (SELECT COALESCE(SUM(c.games), 0) FROM quiz_score_counts c
+                     WHERE c.quiz_id = gr.quiz_id AND c.score < gr.score) as games_below,
+                    (SELECT COALESCE(SUM(c.games), 0) FROM quiz_score_counts c
+                     WHERE c.quiz_id = gr.quiz_id AND c.score = gr.score) as games_equal
                 FROM game_results gr
-                JOIN game_results gr2 ON gr.quiz_id = gr2.quiz_id AND gr2.is_completed = true
+                JOIN quiz_stats qs ON qs.quiz_id = gr.quiz_id
                 WHERE gr.id = ? AND gr.is_completed = true
-                LIMIT 1
                 """;
 
-        return jdbcTemplate.queryForMap(sql, resultId);
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+            int score = rs.getInt("score");
+            double games = rs.getInt("games");
+            double avgScore = rs.getLong("score_sum") / games;
+            double variance = Math.max(0.0, rs.getLong("score_square_sum") / games - avgScore * avgScore);
+            // Mid-rank percentile: share of games scoring lower, ties counted half
+            double percentile = 100.0 * (rs.getLong("games_below") + rs.getLong("games_equal") / 2.0) / games;
+
+            Map<String, Object> comparison = new LinkedHashMap<>();
+            comparison.put("player_score", score);
+            comparison.put("player_percentage", rs.getObject("percentage_score"));
+            comparison.put("quiz_avg_score", round(avgScore));
+            comparison.put("quiz_avg_percentage", round(rs.getDouble("percentage_sum") / games));
+            comparison.put("score_diff", round(score - round(avgScore)));
+            comparison.put("score_stddev", round(Math.sqrt(variance)));
+            comparison.put("percentile", round(percentile));
+            comparison.put("total_games", (int) games);
+            comparison.put("performance", score >= avgScore ? "Above Average" : "Below Average");
+            return comparison;
+        }, resultId);
     }
 
 //    Get completion rate by quiz difficulty
@@ -146,19 +192,19 @@ public class GameResultJdbcRepository {
     public List<Map<String, Object>> getActivePlayersStatistics(int minAttempts) {
         log.debug("Getting active players with at least {} attempts", minAttempts);
 
+        // Read from the per-player aggregate instead of grouping every game result
         String sql = """
-                SELECT 
+                SELECT
                     p.id,
                     p.nickname,
-                    COUNT(DISTINCT gr.quiz_id) as quizzes_attempted,
-                    COUNT(gr.id) as total_games,
-                    ROUND(AVG(gr.percentage_score), 2) as avg_percentage,
-                    MAX(gr.score) as best_score,
+                    CAST(ps.quizzes_attempted AS BIGINT) as quizzes_attempted,
+                    CAST(ps.total_games AS BIGINT) as total_games,
+                    ROUND(CAST(ps.percentage_sum / ps.total_games AS NUMERIC), 2) as avg_percentage,
+                    ps.best_score,
                     p.last_played_at
-                FROM players p
-                JOIN game_results gr ON p.id = gr.player_id AND gr.is_completed = true
-                GROUP BY p.id, p.nickname, p.last_played_at
-                HAVING COUNT(gr.id) >= ?
+                FROM player_stats ps
+                JOIN players p ON p.id = ps.player_id
+                WHERE ps.total_games >= ?
                 ORDER BY total_games DESC, avg_percentage DESC
                 """;
 
@@ -171,17 +217,16 @@ public class GameResultJdbcRepository {
 
         String sql = """
                 SELECT 
-                    EXTRACT(HOUR FROM completed_at) as completed_hour,
-                    COUNT(*) as games_count,
-                    ROUND(AVG(score), 2) as avg_score
-                FROM game_results
-                WHERE is_completed = true
-                AND completed_at >= DATEADD('DAY', -7, CURRENT_DATE) 
-                GROUP BY EXTRACT(HOUR FROM completed_at)
+                    EXTRACT(HOUR FROM bucket) as completed_hour,
+                    SUM(games) as games_count,
+                    ROUND(1.0 * SUM(score_sum) / SUM(games), 2) as avg_score
+                FROM activity_hourly
+                WHERE bucket >= ?
+                GROUP BY EXTRACT(HOUR FROM bucket)
                 ORDER BY completed_hour
                 """;
 
-        return jdbcTemplate.queryForList(sql);
+        return jdbcTemplate.queryForList(sql, Timestamp.valueOf(LocalDate.now().minusDays(7).atStartOfDay()));
     }
 
 //    Batch insert mock data (for testing)
@@ -190,7 +235,7 @@ public class GameResultJdbcRepository {
 
         String sql = """
                 INSERT INTO game_results 
-                (player_id, quiz_id, score, max_score, percentage_score, completed, started_at, completed_at)
+                (player_id, quiz_id, score, max_score, percentage_score, is_completed, started_at, completed_at)
                 VALUES (?, ?, ?, ?, ?, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
                 """;
 
@@ -205,28 +250,361 @@ public class GameResultJdbcRepository {
 
         // Sum all batch results
         int totalInserted = 0;
+        for (boolean inserted : flatten(updateCounts, results.size())) {
+            if (inserted) totalInserted++;
+        }
+        return totalInserted;
+    }
+
+//    Claim the session of a result about to be stored, must run in the transaction that stores it
+//    A concurrent claim of the same session waits for that transaction; returns false when the
+//    session already has a stored result. Results without a session cannot be deduplicated.
+    public boolean claimSession(String sessionId) {
+        return sessionId == null || claimSessions(Collections.singletonList(sessionId))[0];
+    }
+
+//    Batch insert finished games (write-behind), two JDBC batches per call
+//    Every result first claims its session (game_result_sessions), only claimed results are inserted,
+//    so each session is stored exactly once however often or concurrently it is written
+//    Returns for every result whether it was inserted
+    public boolean[] batchInsertResults(List<GameResult> results) {
+        log.debug("Batch inserting {} game results", results.size());
+
+        boolean[] claimed = claimSessions(results.stream().map(GameResult::getSessionId).toList());
+        List<GameResult> claimedResults = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            if (claimed[i]) {
+                claimedResults.add(results.get(i));
+            }
+        }
+        if (claimedResults.isEmpty()) {
+            return claimed;
+        }
+
+        String sql = """
+                INSERT INTO game_results
+                (player_id, quiz_id, score, max_score, correct_answers, wrong_answers, total_questions,
+                 time_taken_seconds, percentage_score, answers_json, session_id, started_at, completed_at,
+                 is_completed, ip_address)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+
+        jdbcTemplate.batchUpdate(sql, claimedResults, claimedResults.size(),
+                (ps, result) -> {
+                    ps.setLong(1, result.getPlayer().getId());
+                    ps.setLong(2, result.getQuiz().getId());
+                    ps.setInt(3, result.getScore());
+                    ps.setInt(4, result.getMaxScore());
+                    ps.setInt(5, result.getCorrectAnswers());
+                    ps.setInt(6, result.getWrongAnswers());
+                    ps.setInt(7, result.getTotalQuestions());
+                    ps.setObject(8, result.getTimeTakenSeconds(), Types.INTEGER);
+                    ps.setObject(9, result.getPercentageScore(), Types.DOUBLE);
+                    ps.setString(10, result.getAnswersJson());
+                    ps.setString(11, result.getSessionId());
+                    ps.setTimestamp(12, toTimestamp(result.getStartedAt()));
+                    ps.setTimestamp(13, toTimestamp(result.getCompletedAt()));
+                    ps.setBoolean(14, result.isCompleted());
+                    ps.setString(15, result.getIpAddress());
+                });
+
+        return claimed;
+    }
+
+//    Insert the claims of sessions, null sessions count as claimed
+    private boolean[] claimSessions(List<String> sessionIds) {
+        List<String> keyed = sessionIds.stream().filter(Objects::nonNull).toList();
+        boolean[] inserted = keyed.isEmpty() ? new boolean[0] : flatten(jdbcTemplate.batchUpdate("""
+                INSERT INTO game_result_sessions (session_id, claimed_at)
+                VALUES (?, CURRENT_TIMESTAMP)
+                ON CONFLICT DO NOTHING
+                """, keyed, keyed.size(), (ps, sessionId) -> ps.setString(1, sessionId)), keyed.size());
+
+        boolean[] claimed = new boolean[sessionIds.size()];
+        int k = 0;
+        for (int i = 0; i < sessionIds.size(); i++) {
+            claimed[i] = sessionIds.get(i) == null || inserted[k++];
+        }
+        return claimed;
+    }
+
+//    Count stored games on their players, one JDBC batch per call
+    public void batchUpdatePlayerStats(List<GameResult> results) {
+        log.debug("Batch updating player stats for {} game results", results.size());
+
+        String sql = """
+                UPDATE players
+                SET games_played = games_played + 1, last_played_at = ?
+                WHERE id = ?
+                """;
+
+        jdbcTemplate.batchUpdate(sql, results, results.size(),
+                (ps, result) -> {
+                    ps.setTimestamp(1, toTimestamp(result.getCompletedAt()));
+                    ps.setLong(2, result.getPlayer().getId());
+                });
+    }
+
+//    Store the scored answers of results that already have their id, one JDBC batch per call
+    public void batchInsertAnswers(List<GameResult> results) {
+        List<Map.Entry<GameResult, GameAnswer>> rows = new ArrayList<>();
+        for (GameResult result : results) {
+            if (result.getId() == null) {
+                continue;
+            }
+            result.getAnswerFacts().forEach(answer -> rows.add(Map.entry(result, answer)));
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        log.debug("Batch inserting {} game answers", rows.size());
+
+        String sql = """
+                INSERT INTO game_answers (result_id, question_id, completed_at, is_correct, points, chosen_option)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """;
+
+        jdbcTemplate.batchUpdate(sql, rows, rows.size(),
+                (ps, row) -> {
+                    ps.setLong(1, row.getKey().getId());
+                    ps.setLong(2, row.getValue().getQuestionId());
+                    ps.setTimestamp(3, toTimestamp(row.getKey().getCompletedAt()));
+                    ps.setBoolean(4, row.getValue().isCorrect());
+                    ps.setInt(5, row.getValue().getPoints());
+                    ps.setObject(6, row.getValue().getChosenOption(), Types.INTEGER);
+                });
+    }
+
+//    Add stored results to the activity rollups, up to four JDBC batches per call
+//    Results are summed per hour and quiz first and rows are written in key order (see BatchUpsert)
+    public void recordActivity(List<GameResult> results) {
+        Map<ActivityHourly.Key, ActivityHourly> hours = new TreeMap<>(
+                Comparator.comparing(ActivityHourly.Key::getBucket).thenComparing(ActivityHourly.Key::getQuizId));
+        Set<ActivityDailyPlayer.Key> players = new TreeSet<>(Comparator.comparing(ActivityDailyPlayer.Key::getPlayDate)
+                .thenComparing(ActivityDailyPlayer.Key::getQuizId)
+                .thenComparing(ActivityDailyPlayer.Key::getPlayerId));
+        for (GameResult result : results) {
+            if (!result.isCompleted() || result.getCompletedAt() == null) {
+                continue;
+            }
+            LocalDateTime bucket = result.getCompletedAt().truncatedTo(ChronoUnit.HOURS);
+            Long quizId = result.getQuiz().getId();
+            ActivityHourly hour = hours.computeIfAbsent(new ActivityHourly.Key(bucket, quizId),
+                    key -> ActivityHourly.builder().bucket(bucket).quizId(quizId).build());
+            hour.setGames(hour.getGames() + 1);
+            hour.setPassed(hour.getPassed() + (result.isPassed() ? 1 : 0));
+            hour.setScoreSum(hour.getScoreSum() + result.getScore());
+            players.add(new ActivityDailyPlayer.Key(bucket.toLocalDate(), quizId, result.getPlayer().getId()));
+        }
+        if (hours.isEmpty()) {
+            return;
+        }
+        log.debug("Recording {} results in {} activity buckets", results.size(), hours.size());
+
+        List<ActivityHourly> rows = new ArrayList<>(hours.values());
+        BatchUpsert.upsert(jdbcTemplate, rows, """
+                UPDATE activity_hourly
+                SET games = games + ?, passed = passed + ?, score_sum = score_sum + ?
+                WHERE bucket = ? AND quiz_id = ?
+                """, (ps, row) -> {
+                    ps.setInt(1, row.getGames());
+                    ps.setInt(2, row.getPassed());
+                    ps.setLong(3, row.getScoreSum());
+                    ps.setTimestamp(4, Timestamp.valueOf(row.getBucket()));
+                    ps.setLong(5, row.getQuizId());
+                }, """
+                INSERT INTO activity_hourly (bucket, quiz_id, games, passed, score_sum)
+                VALUES (?, ?, 0, 0, 0)
+                ON CONFLICT DO NOTHING
+                """, (ps, row) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(row.getBucket()));
+                    ps.setLong(2, row.getQuizId());
+                });
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO activity_daily_players (play_date, quiz_id, player_id)
+                VALUES (?, ?, ?)
+                ON CONFLICT DO NOTHING
+                """, players, players.size(),
+                (ps, player) -> {
+                    ps.setDate(1, Date.valueOf(player.getPlayDate()));
+                    ps.setLong(2, player.getQuizId());
+                    ps.setLong(3, player.getPlayerId());
+                });
+    }
+
+//    Whether the activity rollups hold any data, they are empty after a fresh schema
+    public boolean isActivityEmpty() {
+        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM activity_hourly)", Boolean.class));
+    }
+
+//    Recompute the activity rollups from all completed results, returns the number of hour buckets
+    public int rebuildActivity() {
+        log.info("Rebuilding activity rollups");
+
+        jdbcTemplate.update("DELETE FROM activity_daily_players");
+        jdbcTemplate.update("DELETE FROM activity_hourly");
+
+        jdbcTemplate.update("""
+                INSERT INTO activity_daily_players (play_date, quiz_id, player_id)
+                SELECT DISTINCT CAST(completed_at AS DATE), quiz_id, player_id
+                FROM game_results
+                WHERE is_completed = true AND completed_at IS NOT NULL
+                """);
+
+        return jdbcTemplate.update("""
+                INSERT INTO activity_hourly (bucket, quiz_id, games, passed, score_sum)
+                SELECT
+                    DATE_TRUNC('hour', completed_at),
+                    quiz_id,
+                    COUNT(*),
+                    COUNT(CASE WHEN percentage_score >= 50 THEN 1 END),
+                    SUM(score)
+                FROM game_results
+                WHERE is_completed = true AND completed_at IS NOT NULL
+                GROUP BY DATE_TRUNC('hour', completed_at), quiz_id
+                """);
+    }
+
+//    Months that have their own game_results partition (game_results_pYYYYMM), PostgreSQL only
+    public List<YearMonth> findMonthlyPartitions() {
+        String sql = """
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'game_results' AND c.relname LIKE 'game_results_p%'
+                """;
+
+        return jdbcTemplate.queryForList(sql, String.class).stream()
+                .map(name -> YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_MONTH))
+                .sorted()
+                .toList();
+    }
+
+//    Months of the results stored in the default partition, PostgreSQL only
+    public List<YearMonth> findMonthsInDefaultPartition() {
+        String sql = "SELECT DISTINCT CAST(DATE_TRUNC('month', completed_at) AS DATE) FROM game_results_default";
+
+        return jdbcTemplate.queryForList(sql, Date.class).stream()
+                .map(date -> YearMonth.from(date.toLocalDate()))
+                .toList();
+    }
+
+//    Create the game_results and game_answers partitions of a month, must run in a transaction
+//    The default partitions must not hold rows of the month (see moveFromDefaultPartition)
+    public void createMonthlyPartition(YearMonth month) {
+        String bounds = partitionBounds(month);
+        jdbcTemplate.execute("CREATE TABLE " + partitionName(month) + " PARTITION OF game_results " + bounds);
+        jdbcTemplate.execute("CREATE TABLE " + answersPartitionName(month) + " PARTITION OF game_answers " + bounds);
+    }
+
+//    Create the partitions of a month whose rows are stored in the default partitions and move them there
+//    Must run in a transaction; detaching the default partitions locks game_results and game_answers
+//    exclusively until it commits, so this is an offline operation, never run by the scheduled checks
+//    Returns the number of moved results
+    public int moveFromDefaultPartition(YearMonth month) {
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+
+        // The default partitions may not keep rows of the new range, take them out while they are moved
+        jdbcTemplate.execute("ALTER TABLE game_results DETACH PARTITION game_results_default");
+        jdbcTemplate.execute("ALTER TABLE game_answers DETACH PARTITION game_answers_default");
+        createMonthlyPartition(month);
+        int moved = jdbcTemplate.update("INSERT INTO " + partitionName(month)
+                + " SELECT * FROM game_results_default WHERE completed_at >= ? AND completed_at < ?", from, to);
+        jdbcTemplate.update("INSERT INTO " + answersPartitionName(month)
+                + " SELECT * FROM game_answers_default WHERE completed_at >= ? AND completed_at < ?", from, to);
+        jdbcTemplate.update("DELETE FROM game_results_default WHERE completed_at >= ? AND completed_at < ?", from, to);
+        jdbcTemplate.update("DELETE FROM game_answers_default WHERE completed_at >= ? AND completed_at < ?", from, to);
+        jdbcTemplate.execute("ALTER TABLE game_results ATTACH PARTITION game_results_default DEFAULT");
+        jdbcTemplate.execute("ALTER TABLE game_answers ATTACH PARTITION game_answers_default DEFAULT");
+        return moved;
+    }
+
+//    Quizzes with results in the partition of a month, PostgreSQL only
+    public List<Long> findQuizIdsInPartition(YearMonth month) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT quiz_id FROM " + partitionName(month), Long.class);
+    }
+
+//    Remove the results of a month and their scored answers as whole partitions, must run in a transaction
+//    Detached partitions stay as plain tables (for archiving), otherwise they are dropped
+//    Session claims up to the end of the month go too, their sessions have long expired
+    public void removeMonthlyPartition(YearMonth month, boolean detachOnly) {
+        String name = partitionName(month);
+        String answersName = answersPartitionName(month);
+        jdbcTemplate.update("DELETE FROM game_result_sessions WHERE claimed_at < ?",
+                Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+        jdbcTemplate.execute("ALTER TABLE game_results DETACH PARTITION " + name);
+        jdbcTemplate.execute("ALTER TABLE game_answers DETACH PARTITION " + answersName);
+        if (!detachOnly) {
+            jdbcTemplate.execute("DROP TABLE " + name);
+            jdbcTemplate.execute("DROP TABLE " + answersName);
+        }
+    }
+
+//    Result ids by session id
+    public Map<String, Long> findIdsBySessionIds(Collection<String> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return Map.of();
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(sessionIds.size(), "?"));
+        String sql = "SELECT id, session_id FROM game_results WHERE session_id IN (" + placeholders + ")";
+
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(sql,
+                (RowCallbackHandler) rs -> ids.merge(rs.getString("session_id"), rs.getLong("id"), Math::max),
+                sessionIds.toArray());
+        return ids;
+    }
+
+//    Per-row outcome of a batch, drivers that do not report counts (SUCCESS_NO_INFO) count as success
+    private static boolean[] flatten(int[][] updateCounts, int size) {
+        boolean[] inserted = new boolean[size];
+        int i = 0;
         for (int[] batch : updateCounts) {
             for (int count : batch) {
-                totalInserted += count;
+                inserted[i++] = count > 0 || count == Statement.SUCCESS_NO_INFO;
             }
         }
-        return totalInserted;
+        return inserted;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_MONTH);
+    }
+
+    private static String answersPartitionName(YearMonth month) {
+        return ANSWERS_PARTITION_PREFIX + month.format(PARTITION_MONTH);
+    }
+
+    private static String partitionBounds(YearMonth month) {
+        return "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
     }
 
 //    Get quiz completion trend (last 30 days)
     public List<Map<String, Object>> getCompletionTrend() {
         String sql = """
                 SELECT 
-                    CAST(completed_at AS DATE) as date,
-                    COUNT(*) as completions,
-                    COUNT(CASE WHEN percentage_score >= 50 THEN 1 END) as passed
-                FROM game_results
-                WHERE is_completed = true
-                AND completed_at >= DATEADD('DAY', -30, CURRENT_DATE)
-                GROUP BY CAST(completed_at AS DATE)
+                    CAST(bucket AS DATE) as date,
+                    SUM(games) as completions,
+                    SUM(passed) as passed
+                FROM activity_hourly
+                WHERE bucket >= ?
+                GROUP BY CAST(bucket AS DATE)
                 ORDER BY date
                 """;
 
-        return jdbcTemplate.queryForList(sql);
+        return jdbcTemplate.queryForList(sql, Timestamp.valueOf(LocalDate.now().minusDays(30).atStartOfDay()));
     }
 }
\ No newline at end of file
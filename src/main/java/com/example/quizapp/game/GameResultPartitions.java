@@ -0,0 +1,169 @@
+package com.example.quizapp.game;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monthly range partitions of game_results and game_answers on completed_at (PostgreSQL,
+ * app.game.partitions.enabled).
+ *
+ * schema.sql creates the partitions of last, this and next month before data.sql runs. On
+ * startup and every check-interval the partitions of the current month and the next
+ * premake-months (at least one) are created, so inserts never land in the default partitions.
+ * Creating an empty partition only takes a short lock. Months that already have rows in the
+ * default partitions (e.g. loaded before the partitions existed) are skipped with a warning:
+ * moving them locks both tables, so it is the offline admin operation moveDefaultPartition.
+ *
+ * With retention-months set, months older than that are removed as whole partitions (detached
+ * and dropped, or only detached for archiving) instead of deleting rows, and the leaderboards
+ * of their quizzes are reloaded (GameResultsRemovedEvent). Each partition change is its own
+ * transaction.
+ *
+ * Date-range filters on completed_at (e.g. findByDateRange) only scan the matching months.
+ * Aggregates (player_stats, quiz_stats, activity rollups) keep the history of removed months.
+ */
+@Component
+@Slf4j
+public class GameResultPartitions {
+
+    private final GameResultJdbcRepository gameResultJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int premakeMonths;
+    private final int retentionMonths;
+    private final boolean detachOnly;
+    private final Duration checkInterval;
+
+    private ScheduledExecutorService scheduler;
+
+    public GameResultPartitions(GameResultJdbcRepository gameResultJdbcRepository,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${app.game.partitions.enabled:false}") boolean enabled,
+                                @Value("${app.game.partitions.premake-months:3}") int premakeMonths,
+                                @Value("${app.game.partitions.retention-months:0}") int retentionMonths,
+                                @Value("${app.game.partitions.detach-only:false}") boolean detachOnly,
+                                @Value("${app.game.partitions.check-interval:PT6H}") Duration checkInterval) {
+        this.gameResultJdbcRepository = gameResultJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.premakeMonths = Math.max(1, premakeMonths);
+        this.retentionMonths = Math.max(0, retentionMonths);
+        this.detachOnly = detachOnly;
+        this.checkInterval = checkInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        maintainQuietly();
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("game-result-partitions").daemon().factory());
+        long millis = checkInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::maintainQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        log.info("Game result partitions maintained every {} ({} months ahead, retention {})",
+                checkInterval, premakeMonths, retentionMonths > 0 ? retentionMonths + " months" : "unlimited");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+//    Create missing partitions and remove expired ones, returns the months that were changed
+    public List<YearMonth> maintain() {
+        return maintain(YearMonth.now());
+    }
+
+    synchronized List<YearMonth> maintain(YearMonth current) {
+        Set<YearMonth> partitions = new TreeSet<>(gameResultJdbcRepository.findMonthlyPartitions());
+        Set<YearMonth> inDefault = new TreeSet<>(gameResultJdbcRepository.findMonthsInDefaultPartition());
+        List<YearMonth> changed = new ArrayList<>();
+
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (partitions.contains(month)) {
+                continue;
+            }
+            if (inDefault.contains(month)) {
+                log.warn("Results of {} are stored in the default partition, its partition is created by the "
+                        + "offline move (POST /api/v1/analytics/ops/partitions/move-default)", month);
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> gameResultJdbcRepository.createMonthlyPartition(month));
+            log.info("Created game_results partition for {}", month);
+            partitions.add(month);
+            changed.add(month);
+        }
+
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = current.minusMonths(retentionMonths);
+            for (YearMonth month : partitions) {
+                if (month.isBefore(oldestKept)) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        List<Long> quizIds = gameResultJdbcRepository.findQuizIdsInPartition(month);
+                        gameResultJdbcRepository.removeMonthlyPartition(month, detachOnly);
+                        eventPublisher.publishEvent(new GameResultsRemovedEvent(month, quizIds));
+                    });
+                    log.info("{} game_results partition of {} (retention {} months)",
+                            detachOnly ? "Detached" : "Dropped", month, retentionMonths);
+                    changed.add(month);
+                }
+            }
+        }
+        return changed;
+    }
+
+//    Move results stored in the default partition into partitions of their months (offline admin operation)
+//    Each month is one transaction that locks game_results and game_answers exclusively, submits wait for it
+//    Returns the number of moved results by month, empty when partitioning is disabled
+    public synchronized Map<YearMonth, Integer> moveDefaultPartition() {
+        if (!enabled) {
+            return Map.of();
+        }
+        Set<YearMonth> partitions = new TreeSet<>(gameResultJdbcRepository.findMonthlyPartitions());
+        Map<YearMonth, Integer> moved = new TreeMap<>();
+        for (YearMonth month : new TreeSet<>(gameResultJdbcRepository.findMonthsInDefaultPartition())) {
+            if (partitions.contains(month)) {
+                continue;
+            }
+            Integer count = transactionTemplate.execute(status -> gameResultJdbcRepository.moveFromDefaultPartition(month));
+            log.info("Created game_results partition for {} ({} results moved from default)", month, count);
+            moved.put(month, count);
+        }
+        return moved;
+    }
+
+    private void maintainQuietly() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.error("Maintaining game_results partitions failed, retrying with next check", e);
+        }
+    }
+}
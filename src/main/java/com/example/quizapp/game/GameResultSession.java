@@ -0,0 +1,31 @@
+package com.example.quizapp.game;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Claim of a game session by its stored result (table game_result_sessions).
+ *
+ * game_results is partitioned by completed_at, so it cannot have a unique key on session_id
+ * alone. A result is only inserted in the transaction that inserted the claim of its session,
+ * which makes storing a result exactly-once per session. Written via JDBC, mapped so the
+ * schema is generated in tests.
+ */
+@Entity
+@Table(name = "game_result_sessions", indexes = @Index(name = "idx_game_result_sessions_claimed_at", columnList = "claimed_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GameResultSession {
+
+    @Id
+    @Column(name = "session_id", length = 100)
+    private String sessionId;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+}
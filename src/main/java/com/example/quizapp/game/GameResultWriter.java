@@ -0,0 +1,341 @@
+package com.example.quizapp.game;
+
+import com.example.quizapp.common.monitoring.ComponentStats;
+import com.example.quizapp.player.PlayerStatsJdbcRepository;
+import com.example.quizapp.quiz.QuizStatsJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional write-behind for finished games (app.game.write-behind.enabled).
+ *
+ * submitAnswers scores the game in memory and hands the result over. A single background
+ * thread drains a bounded queue and stores results together with the player counters and
+ * aggregates in JDBC batches, one transaction per batch. When the queue is full the caller
+ * waits up to offer-timeout and then stores the result itself (backpressure).
+ *
+ * Results are keyed by session id: a session is queued once, and it can be read from memory
+ * until it is stored. Each session is stored exactly once: batchInsertResults claims it in
+ * game_result_sessions, the same claim the synchronous path of submitAnswers takes. A result
+ * that still fails on its own after the batch retries is kept in a bounded dead-letter list,
+ * still readable, and retried every DEAD_LETTER_RETRY_MILLIS; only once dead-letter-capacity
+ * results are held is the oldest given up (logged and counted as dropped in the stats).
+ * Everything still queued is flushed on shutdown, dead letters get one last retry.
+ */
+@Component
+@Slf4j
+public class GameResultWriter implements ComponentStats {
+
+    public record Stats(boolean enabled, int queued, int pending, long stored, long deadLettered,
+                        int deadLetters, long dropped) {
+    }
+
+    private static final long POLL_MILLIS = 200;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 500;
+    static final long DEAD_LETTER_RETRY_MILLIS = 30_000;
+
+    private final GameResultJdbcRepository gameResultJdbcRepository;
+    private final PlayerStatsJdbcRepository playerStatsJdbcRepository;
+    private final QuizStatsJdbcRepository quizStatsJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final int deadLetterCapacity;
+
+    private final BlockingQueue<GameResult> queue;
+
+//    Queued or in-flight results by session id, removed once stored
+    private final Map<String, GameResult> pending = new ConcurrentHashMap<>();
+
+//    Results that could not be stored, oldest first; they stay in pending until stored or given up
+    private final Deque<GameResult> deadLetters = new ArrayDeque<>();
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    // Worker thread only
+    private long nextDeadLetterRetry;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public GameResultWriter(GameResultJdbcRepository gameResultJdbcRepository,
+                            PlayerStatsJdbcRepository playerStatsJdbcRepository,
+                            QuizStatsJdbcRepository quizStatsJdbcRepository,
+                            PlatformTransactionManager transactionManager,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${app.game.write-behind.enabled:false}") boolean enabled,
+                            @Value("${app.game.write-behind.queue-capacity:10000}") int queueCapacity,
+                            @Value("${app.game.write-behind.batch-size:500}") int batchSize,
+                            @Value("${app.game.write-behind.offer-timeout:PT0.5S}") Duration offerTimeout,
+                            @Value("${app.game.write-behind.dead-letter-capacity:1000}") int deadLetterCapacity) {
+        this.gameResultJdbcRepository = gameResultJdbcRepository;
+        this.playerStatsJdbcRepository = playerStatsJdbcRepository;
+        this.quizStatsJdbcRepository = quizStatsJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.deadLetterCapacity = deadLetterCapacity;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().name("game-result-writer").daemon().start(this::drainLoop);
+        log.info("Game result write-behind enabled (queue {}, batch {})", queue.remainingCapacity(), batchSize);
+    }
+
+//    Stop the writer and store everything that is still queued
+    @PreDestroy
+    void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            worker.join(Duration.ofSeconds(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int flushed = 0;
+        List<GameResult> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            flushed += batch.size();
+            batch.clear();
+        }
+        retryDeadLetters();
+
+        int lost;
+        synchronized (deadLetters) {
+            lost = deadLetters.size();
+        }
+        if (lost > 0) {
+            log.error("Game result writer stopped with {} results that could not be stored, they are lost", lost);
+        }
+        log.info("Game result writer stopped, {} queued results flushed", flushed);
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+//    Queue a finished game, returns false when the caller has to store it synchronously
+//    A second result for a session that is already queued is ignored
+    public boolean submit(GameResult result) {
+        if (!running || result.getSessionId() == null) {
+            return false;
+        }
+
+        // Done by @PrePersist / @CreationTimestamp on the JPA path
+        result.calculatePercentage();
+        if (result.getCompletedAt() == null) {
+            result.setCompletedAt(LocalDateTime.now());
+        }
+
+        String sessionId = result.getSessionId();
+        if (pending.putIfAbsent(sessionId, result) != null) {
+            log.warn("Result of session {} is already queued, ignoring duplicate submit", sessionId);
+            return true;
+        }
+
+        try {
+            if (queue.offer(result, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        pending.remove(sessionId, result);
+        log.warn("Write-behind queue is full, result of session {} is stored synchronously", sessionId);
+        return false;
+    }
+
+//    Result of a session that is not stored yet
+    public Optional<GameResult> findPending(String sessionId) {
+        return sessionId != null ? Optional.ofNullable(pending.get(sessionId)) : Optional.empty();
+    }
+
+    int queueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public Stats getStats() {
+        int held;
+        synchronized (deadLetters) {
+            held = deadLetters.size();
+        }
+        return new Stats(running, queue.size(), pending.size(), stored.sum(), deadLettered.sum(), held, dropped.sum());
+    }
+
+    private void drainLoop() {
+        List<GameResult> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                GameResult first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                long now = System.currentTimeMillis();
+                if (now >= nextDeadLetterRetry) {
+                    nextDeadLetterRetry = now + DEAD_LETTER_RETRY_MILLIS;
+                    retryDeadLetters();
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Game result writer failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+//    Store a batch, retrying transient failures; a batch that keeps failing is stored row by row
+//    so that one bad result (e.g. its player was deleted meanwhile) does not take the others down
+    void write(List<GameResult> batch) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                store(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Storing {} game results failed (attempt {}/{}): {}",
+                        batch.size(), attempt, MAX_ATTEMPTS, e.getMessage());
+                sleep(RETRY_DELAY_MILLIS * attempt);
+            }
+        }
+
+        for (GameResult result : batch) {
+            try {
+                store(List.of(result));
+            } catch (RuntimeException e) {
+                log.error("Storing result of session {} (player {}, quiz {}, score {}) failed, keeping it for a retry",
+                        result.getSessionId(), result.getPlayer().getId(), result.getQuiz().getId(),
+                        result.getScore(), e);
+                deadLettered.increment();
+                deadLetter(result);
+            }
+        }
+    }
+
+//    Store the dead letters again one by one, those that still fail go back to the list
+//    A result whose earlier attempt did commit is skipped by the insert, it is not counted twice
+    void retryDeadLetters() {
+        List<GameResult> retry;
+        synchronized (deadLetters) {
+            retry = new ArrayList<>(deadLetters);
+            deadLetters.clear();
+        }
+        if (retry.isEmpty()) {
+            return;
+        }
+        log.info("Retrying {} game results that could not be stored", retry.size());
+
+        for (GameResult result : retry) {
+            try {
+                store(List.of(result));
+            } catch (RuntimeException e) {
+                log.warn("Storing result of session {} failed again: {}", result.getSessionId(), e.getMessage());
+                deadLetter(result);
+            }
+        }
+    }
+
+//    Keep a result for a later retry, the oldest one is given up once dead-letter-capacity are held
+    private void deadLetter(GameResult result) {
+        GameResult evicted = null;
+        synchronized (deadLetters) {
+            deadLetters.addLast(result);
+            if (deadLetters.size() > deadLetterCapacity) {
+                evicted = deadLetters.pollFirst();
+            }
+        }
+        if (evicted != null) {
+            pending.remove(evicted.getSessionId(), evicted);
+            dropped.increment();
+            log.error("Dead-letter list full ({}), giving up result of session {} (player {}, quiz {}, score {})",
+                    deadLetterCapacity, evicted.getSessionId(), evicted.getPlayer().getId(),
+                    evicted.getQuiz().getId(), evicted.getScore());
+        }
+    }
+
+    private void store(List<GameResult> batch) {
+        List<GameResult> storedResults = transactionTemplate.execute(status -> {
+            boolean[] inserted = gameResultJdbcRepository.batchInsertResults(batch);
+
+            List<GameResult> insertedResults = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                if (inserted[i]) {
+                    insertedResults.add(batch.get(i));
+                } else {
+                    log.warn("Session {} already has a stored result, skipping", batch.get(i).getSessionId());
+                }
+            }
+
+            if (!insertedResults.isEmpty()) {
+                gameResultJdbcRepository.batchUpdatePlayerStats(insertedResults);
+                Map<String, Long> ids = gameResultJdbcRepository.findIdsBySessionIds(
+                        insertedResults.stream().map(GameResult::getSessionId).toList());
+                insertedResults.forEach(result -> result.setId(ids.get(result.getSessionId())));
+                gameResultJdbcRepository.batchInsertAnswers(insertedResults);
+                gameResultJdbcRepository.recordActivity(insertedResults);
+                playerStatsJdbcRepository.recordResults(insertedResults);
+                quizStatsJdbcRepository.recordResults(insertedResults);
+            }
+            return insertedResults;
+        });
+
+        // Committed - readers find the results in the database from now on
+        batch.forEach(result -> pending.remove(result.getSessionId(), result));
+        if (storedResults != null) {
+            stored.add(storedResults.size());
+            storedResults.forEach(result -> eventPublisher.publishEvent(new GameCompletedEvent(result)));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
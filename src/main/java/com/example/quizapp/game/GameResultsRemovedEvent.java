@@ -0,0 +1,9 @@
+package com.example.quizapp.game;
+
+import java.time.YearMonth;
+import java.util.List;
+
+//Published when the results of a month were detached or dropped as a whole partition.
+//Listeners run after commit; quizIds are the quizzes that had results in that month.
+public record GameResultsRemovedEvent(YearMonth month, List<Long> quizIds) {
+}
@@ -1,24 +1,31 @@
 package com.example.quizapp.game;
 
+import com.example.quizapp.common.exception.GameSessionExpiredException;
 import com.example.quizapp.common.exception.PlayerNotFoundException;
 import com.example.quizapp.common.exception.QuizNotFoundException;
 import com.example.quizapp.common.exception.ResourceNotFoundException;
 import com.example.quizapp.player.Player;
 import com.example.quizapp.player.PlayerRepository;
+import com.example.quizapp.player.PlayerStatsJdbcRepository;
+import com.example.quizapp.player.PlayerStatsRecorder;
 import com.example.quizapp.question.*;
 import com.example.quizapp.quiz.Quiz;
 import com.example.quizapp.quiz.QuizRepository;
+import com.example.quizapp.quiz.QuizSnapshot;
+import com.example.quizapp.quiz.QuizSnapshotCache;
+import com.example.quizapp.quiz.QuizStatsJdbcRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
@@ -29,21 +36,33 @@ public class GameService {
     private final QuizRepository quizRepository;
     private final PlayerRepository playerRepository;
     private final GameResultRepository gameResultRepository;
-    private final QuestionService questionService;
-    private final QuestionMapper questionMapper;
+    private final GameResultJdbcRepository gameResultJdbcRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final GameSessionStore gameSessionStore;
+    private final QuizSnapshotCache quizSnapshotCache;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GameResultWriter gameResultWriter;
+    private final PlayerStatsRecorder playerStatsRecorder;
+    private final PlayerStatsJdbcRepository playerStatsJdbcRepository;
+    private final QuizStatsJdbcRepository quizStatsJdbcRepository;
 
 //    Start a new game session
     @Transactional
     public StartGameResponse startGame(StartGameRequest request) {
         log.info("Starting game for quiz {} with player {}", request.getQuizId(), request.getPlayerNickname());
 
-        Quiz quiz = quizExists(request.getQuizId());
+        // Shared snapshot, loaded from the database only once per quiz version
+        QuizSnapshot quiz = quizSnapshotCache.getSnapshot(request.getQuizId());
 
         if (!quiz.isActive()) {
             throw new IllegalArgumentException("Quiz is not active");
         }
 
+        if (quiz.getQuestions().isEmpty()) {
+            throw new IllegalArgumentException("Quiz has no active questions");
+        }
+
         // Get or create player
         Player player = getOrCreatePlayer(request);
 
@@ -52,39 +71,57 @@ public class GameService {
                 request.getSessionId() :
                 UUID.randomUUID().toString();
 
-        // Get questions
-        List<Question> questions = quiz.getQuestions().stream()
-                .filter(Question::isActive)
-                .collect(Collectors.toList());
+        // Keep only ids and shuffle seeds server-side, the questions are rebuilt from them
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        GameSession session = gameSessionStore.create(sessionId, quiz.getQuizId(), quiz.getVersion(),
+                player.getId(), random.nextLong(), random.nextLong());
 
-        if (questions.isEmpty()) {
-            throw new IllegalArgumentException("Quiz has no active questions");
-        }
+        log.info("Game started successfully. Session: {}, Player: {}, Questions: {}",
+                sessionId, player.getNickname(), quiz.getQuestions().size());
 
-        // Apply random question order if enabled
-        if (quiz.isRandomQuestionOrder()) {
-            Collections.shuffle(questions);
-        }
+        return buildGameResponse(quiz, player, session);
+    }
 
-        // Convert to DTOs
-        List<QuestionDto> questionDtos = questions.stream()
-                .map(questionMapper::toDto)
-                .collect(Collectors.toList());
+//    Rebuild a running game from its session, same question and answer order as at start
+    public StartGameResponse resumeGame(String sessionId) {
+        GameSession session = gameSessionStore.get(sessionId);
 
-        // If random answer order is enabled, shuffle answer options
-        if (quiz.isRandomAnswerOrder()) {
-            questionDtos = shuffleAnswerOptions(questionDtos);
+        QuizSnapshot quiz = quizSnapshotCache.getSnapshot(session.quizId());
+        if (quiz.getVersion() != session.quizVersion()) {
+            log.warn("Quiz {} changed during game session {}", quiz.getQuizId(), sessionId);
+            gameSessionStore.remove(sessionId);
+            throw new GameSessionExpiredException(sessionId);
         }
 
-        // Remove correct answers from response (don't send to frontend)
-        questionDtos.forEach(q -> q.setCorrectAnswer(null));
+        Player player = playerRepository.findById(session.playerId())
+                .orElseThrow(() -> new PlayerNotFoundException(session.playerId()));
 
-        log.info("Game started successfully. Session: {}, Player: {}, Questions: {}",
-                sessionId, player.getNickname(), questions.size());
+        return buildGameResponse(quiz, player, session);
+    }
+
+//    Per-player view of the shared snapshot, randomization is an index permutation over it
+    private StartGameResponse buildGameResponse(QuizSnapshot quiz, Player player, GameSession session) {
+        List<QuizSnapshot.QuestionSnapshot> questions = quiz.getQuestions();
+
+        // Apply random question order if enabled
+        int[] order = quiz.isRandomQuestionOrder() ? session.questionPermutation(questions.size()) : null;
+
+        // Correct answers are not part of the snapshot, nothing to strip before sending
+        List<QuestionDto> questionDtos = new ArrayList<>(questions.size());
+        for (int i = 0; i < questions.size(); i++) {
+            QuizSnapshot.QuestionSnapshot question = questions.get(order != null ? order[i] : i);
+
+            // If random answer order is enabled, shuffle answer options
+            int[] answerOrder = quiz.isRandomAnswerOrder() && question.getOptionCount() > 0
+                    ? session.answerPermutation(question.getId(), question.getOptionCount())
+                    : null;
+
+            questionDtos.add(question.toDto(answerOrder));
+        }
 
         return StartGameResponse.builder()
-                .sessionId(sessionId)
-                .quizId(quiz.getId())
+                .sessionId(session.sessionId())
+                .quizId(quiz.getQuizId())
                 .quizTitle(quiz.getTitle())
                 .quizDescription(quiz.getDescription())
                 .totalQuestions(questions.size())
@@ -114,33 +151,55 @@ public class GameService {
         Player player = playerRepository.findById(request.getPlayerId())
                 .orElseThrow(() -> new PlayerNotFoundException(request.getPlayerId()));
 
-        // Get all questions
-        List<Question> questions = quiz.getQuestions().stream()
-                .filter(Question::isActive)
-                .collect(Collectors.toList());
+        // A session is scored once, submitting it again returns the result it already has
+        Optional<GameResult> existing = findResultBySession(request.getSessionId());
+        if (existing.isPresent()) {
+            log.warn("Session {} already has a result, returning it", request.getSessionId());
+            return mapToGameResultDto(existing.get());
+        }
+
+        // Finish the game session, its start time is used when the client did not send the duration
+        Integer timeTakenSeconds = request.getTimeTakenSeconds();
+        Optional<GameSession> session = gameSessionStore.remove(request.getSessionId())
+                .filter(finished -> finished.quizId() == quiz.getId());
+        if (timeTakenSeconds == null && session.isPresent()) {
+            timeTakenSeconds = session.get().elapsedSeconds(System.currentTimeMillis());
+        }
+
+        // Shuffled options can only be mapped back with the permutation of the session
+        if (quiz.isRandomAnswerOrder() && session.isEmpty()) {
+            log.warn("Session {} of quiz {} with shuffled answers expired before submit", request.getSessionId(), quiz.getId());
+            throw new GameSessionExpiredException(request.getSessionId());
+        }
+
+        // Compiled answer key for the quiz (cached until the quiz changes)
+        AnswerKey answerKey = answerKeyCache.getAnswerKey(quiz);
 
         // Calculate results
         int totalScore = 0;
         int correctAnswers = 0;
         int wrongAnswers = 0;
         List<GameResultDto.DetailedAnswer> detailedAnswers = new ArrayList<>();
+        Map<Long, GameAnswer> answerFacts = new LinkedHashMap<>();
 
         for (SubmitAnswersRequest.AnswerSubmission submission : request.getAnswers()) {
-            Question question = questions.stream()
-                    .filter(q -> q.getId().equals(submission.getQuestionId()))
-                    .findFirst()
-                    .orElse(null);
+            AnswerKey.CompiledQuestion question = answerKey.getQuestion(submission.getQuestionId());
 
             if (question == null) {
                 log.warn("Question not found: {}", submission.getQuestionId());
                 continue;
             }
 
+            // Options were shown in the player's shuffled order, map the picked indexes back
+            String userAnswer = submission.getUserAnswer();
+            if (quiz.isRandomAnswerOrder() && question.getOptionCount() > 0
+                    && QuizSnapshot.QuestionSnapshot.isShuffleable(question.getQuestionType())) {
+                userAnswer = question.toOriginalIndexes(userAnswer,
+                        session.get().answerPermutation(question.getId(), question.getOptionCount()));
+            }
+
             // Validate answer
-            boolean isCorrect = questionService.validateAnswer(
-                    question.getId(),
-                    submission.getUserAnswer()
-            );
+            boolean isCorrect = question.isCorrect(userAnswer);
 
             int pointsEarned = 0;
             if (isCorrect) {
@@ -156,12 +215,20 @@ public class GameService {
                 }
             }
 
+            // Per-answer fact for analytics, a question answered twice counts once
+            answerFacts.putIfAbsent(question.getId(), GameAnswer.builder()
+                    .questionId(question.getId())
+                    .correct(isCorrect)
+                    .points(pointsEarned)
+                    .chosenOption(question.chosenOption(userAnswer))
+                    .build());
+
             // Add detailed answer
             detailedAnswers.add(GameResultDto.DetailedAnswer.builder()
                     .questionId(question.getId())
                     .questionText(question.getQuestionText())
-                    .userAnswer(formatAnswerForDisplay(question, submission.getUserAnswer()))
-                    .correctAnswer(formatAnswerForDisplay(question, question.getCorrectAnswer()))
+                    .userAnswer(question.formatForDisplay(userAnswer))
+                    .correctAnswer(question.getCorrectAnswerDisplay())
                     .isCorrect(isCorrect)
                     .pointsEarned(pointsEarned)
                     .explanation(question.getExplanation())
@@ -173,7 +240,7 @@ public class GameService {
             totalScore = 0;
         }
 
-        int maxScore = quiz.getTotalPoints();
+        int maxScore = answerKey.getMaxScore();
 
         // Create game result
         GameResult gameResult = GameResult.builder()
@@ -183,11 +250,12 @@ public class GameService {
                 .maxScore(maxScore)
                 .correctAnswers(correctAnswers)
                 .wrongAnswers(wrongAnswers)
-                .totalQuestions(questions.size())
-                .timeTakenSeconds(request.getTimeTakenSeconds())
+                .totalQuestions(answerKey.getQuestionCount())
+                .timeTakenSeconds(timeTakenSeconds)
                 .sessionId(request.getSessionId())
-                .startedAt(LocalDateTime.now().minusSeconds(request.getTimeTakenSeconds() != null ? request.getTimeTakenSeconds() : 0))
+                .startedAt(LocalDateTime.now().minusSeconds(timeTakenSeconds != null ? timeTakenSeconds : 0))
                 .completed(true)
+                .answerFacts(new ArrayList<>(answerFacts.values()))
                 .build();
 
         // Convert detailed answers to JSON
@@ -197,19 +265,44 @@ public class GameService {
             log.error("Failed to serialize detailed answers", e);
         }
 
-        // Save result
-        gameResult = gameResultRepository.save(gameResult);
+        // Write-behind: result and player stats are stored in the background, the id is assigned later
+        if (gameResultWriter.submit(gameResult)) {
+            // A concurrent submit of the session may have been accepted first, its result is the one kept
+            GameResult accepted = findResultBySession(gameResult.getSessionId()).orElse(gameResult);
+            if (accepted != gameResult) {
+                return mapToGameResultDto(accepted);
+            }
+        } else {
+            // Claim the session in this transaction, a concurrent submit that holds the claim has stored its result
+            if (!gameResultJdbcRepository.claimSession(gameResult.getSessionId())) {
+                log.warn("Session {} already has a stored result, returning it", gameResult.getSessionId());
+                return mapToGameResultDto(findResultBySession(gameResult.getSessionId())
+                        .orElseThrow(() -> new ResourceNotFoundException(
+                                "Game result not found for session: " + request.getSessionId())));
+            }
+
+            // Save result
+            gameResult = gameResultRepository.save(gameResult);
+            eventPublisher.publishEvent(new GameCompletedEvent(gameResult));
 
-        // Update player stats
-        player.setLastPlayedAt(LocalDateTime.now());
-        player.setGamesPlayed(player.getGamesPlayed() + 1);
-        playerRepository.save(player);
+            // Scored answers and activity rollups for analytics
+            gameResultJdbcRepository.batchInsertAnswers(List.of(gameResult));
+            gameResultJdbcRepository.recordActivity(List.of(gameResult));
+
+            // Player and quiz aggregates for rankings and comparisons, in the same transaction as the result
+            playerStatsJdbcRepository.recordResults(List.of(gameResult));
+            quizStatsJdbcRepository.recordResults(List.of(gameResult));
+
+            // Update player stats (atomic increment, possibly coalesced with other games of the player)
+            playerStatsRecorder.recordGamePlayed(player.getId(), LocalDateTime.now());
+        }
 
         log.info("Game completed. Score: {}/{}, Correct: {}, Wrong: {}",
                 totalScore, maxScore, correctAnswers, wrongAnswers);
 
         return GameResultDto.builder()
                 .id(gameResult.getId())
+                .sessionId(gameResult.getSessionId())
                 .playerId(player.getId())
                 .playerNickname(player.getNickname())
                 .quizId(quiz.getId())
@@ -218,8 +311,8 @@ public class GameService {
                 .maxScore(maxScore)
                 .correctAnswers(correctAnswers)
                 .wrongAnswers(wrongAnswers)
-                .totalQuestions(questions.size())
-                .timeTakenSeconds(request.getTimeTakenSeconds())
+                .totalQuestions(answerKey.getQuestionCount())
+                .timeTakenSeconds(timeTakenSeconds)
                 .percentageScore(gameResult.getPercentageScore())
                 .grade(gameResult.getGrade())
                 .passed(gameResult.isPassed())
@@ -238,6 +331,31 @@ public class GameService {
         GameResult gameResult = gameResultRepository.findById(resultId)
                 .orElseThrow(() -> new ResourceNotFoundException("Game result not found with id: " + resultId));
 
+        return mapToGameResultDto(gameResult);
+    }
+
+    /**
+     * Get game result by session ID, includes results still waiting for the write-behind writer
+     */
+    public GameResultDto getGameResultBySession(String sessionId) {
+        log.info("Fetching game result of session: {}", sessionId);
+
+        GameResult gameResult = findResultBySession(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Game result not found for session: " + sessionId));
+
+        return mapToGameResultDto(gameResult);
+    }
+
+//    Result of a session, still waiting for the write-behind writer or stored
+    private Optional<GameResult> findResultBySession(String sessionId) {
+        if (sessionId == null) {
+            return Optional.empty();
+        }
+        return gameResultWriter.findPending(sessionId)
+                .or(() -> gameResultRepository.findBySessionId(sessionId));
+    }
+
+    private GameResultDto mapToGameResultDto(GameResult gameResult) {
         // Parse detailed answers
         List<GameResultDto.DetailedAnswer> detailedAnswers = new ArrayList<>();
         if (gameResult.getAnswersJson() != null) {
@@ -253,6 +371,7 @@ public class GameService {
 
         return GameResultDto.builder()
                 .id(gameResult.getId())
+                .sessionId(gameResult.getSessionId())
                 .playerId(gameResult.getPlayer().getId())
                 .playerNickname(gameResult.getPlayer().getNickname())
                 .quizId(gameResult.getQuiz().getId())
@@ -296,59 +415,6 @@ public class GameService {
         return playerRepository.save(player);
     }
 
-    /**
-     * Shuffle answer options for questions
-     */
-    private List<QuestionDto> shuffleAnswerOptions(List<QuestionDto> questions) {
-        return questions.stream()
-                .map(this::shuffleQuestionAnswers)
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Shuffle answers for a single question
-     */
-    private QuestionDto shuffleQuestionAnswers(QuestionDto question) {
-        // Only shuffle for question types that have options
-        switch (question.getQuestionType()) {
-            case SINGLE_CHOICE, MULTIPLE_CHOICE, DROPDOWN, TRUE_FALSE -> {
-                try {
-                    List<String> options = objectMapper.readValue(
-                            question.getAnswerOptions(),
-                            new TypeReference<List<String>>() {}
-                    );
-
-                    // Create index mapping before shuffle
-                    Map<Integer, Integer> oldToNewIndex = new HashMap<>();
-                    List<Integer> indexes = new ArrayList<>();
-                    for (int i = 0; i < options.size(); i++) {
-                        indexes.add(i);
-                    }
-                    Collections.shuffle(indexes);
-
-                    for (int i = 0; i < indexes.size(); i++) {
-                        oldToNewIndex.put(indexes.get(i), i);
-                    }
-
-                    // Shuffle options
-                    List<String> shuffled = new ArrayList<>();
-                    for (int index : indexes) {
-                        shuffled.add(options.get(index));
-                    }
-
-                    question.setAnswerOptions(objectMapper.writeValueAsString(shuffled));
-
-                    // Note: We don't update correctAnswer here because it's already set to null
-                    // in the startGame method
-                } catch (JsonProcessingException e) {
-                    log.error("Failed to shuffle answer options", e);
-                }
-            }
-        }
-
-        return question;
-    }
-
     /**
      * Get quiz statistics
      */
@@ -384,63 +450,4 @@ public class GameService {
         return quizRepository.findById(quizId)
                 .orElseThrow(() -> new QuizNotFoundException(quizId));
     }
-
-    // W GameService.java dodaj metodę pomocniczą:
-
-    private String formatAnswerForDisplay(Question question, String rawAnswer) {
-        if (rawAnswer == null || rawAnswer.isEmpty()) return "Brak odpowiedzi";
-
-        try {
-            // Dla Single/Multiple Choice/Dropdown - zamień indeks na tekst opcji
-            if (List.of(QuestionType.SINGLE_CHOICE, QuestionType.MULTIPLE_CHOICE, QuestionType.DROPDOWN).contains(question.getQuestionType())) {
-                List<String> options = objectMapper.readValue(question.getAnswerOptions(), new TypeReference<>() {});
-
-                // Jeśli to pojedynczy indeks (np. "1")
-                if (!rawAnswer.startsWith("[")) {
-                    int idx = Integer.parseInt(rawAnswer);
-                    return idx >= 0 && idx < options.size() ? options.get(idx) : rawAnswer;
-                }
-                // Jeśli to lista indeksów (np. "[0, 2]")
-                List<Integer> indices = objectMapper.readValue(rawAnswer, new TypeReference<>() {});
-                return indices.stream()
-                        .map(i -> (i >= 0 && i < options.size()) ? options.get(i) : String.valueOf(i))
-                        .collect(Collectors.joining(", "));
-            }
-
-            // Dla Matching - zamień pary indeksów na tekst
-            if (question.getQuestionType() == QuestionType.MATCHING) {
-                List<Map<String, String>> pairs = objectMapper.readValue(question.getAnswerOptions(), new TypeReference<>() {});
-                List<Map<String, String>> userMatches = objectMapper.readValue(rawAnswer, new TypeReference<>() {});
-
-                return userMatches.stream().map(match -> {
-                    int leftIdx = Integer.parseInt(match.get("left"));
-                    int rightIdx = Integer.parseInt(match.get("right"));
-                    // Pobierz tekst z oryginalnych par
-                    String leftText = pairs.get(leftIdx).get("left");
-                    String rightText = pairs.get(rightIdx).get("right");
-                    return leftText + " -> " + rightText;
-                }).collect(Collectors.joining(", "));
-            }
-
-            // Dla Sorting - zamień indeksy na elementy
-            if (question.getQuestionType() == QuestionType.SORTING) {
-                List<String> items = objectMapper.readValue(question.getAnswerOptions(), new TypeReference<>() {});
-                List<Integer> order = objectMapper.readValue(rawAnswer, new TypeReference<>() {});
-                return order.stream()
-                        .map(i -> (i >= 0 && i < items.size()) ? items.get(i) : String.valueOf(i))
-                        .collect(Collectors.joining(" -> "));
-            }
-
-            // True/False
-            if (question.getQuestionType() == QuestionType.TRUE_FALSE) {
-                return rawAnswer.equals("0") ? "True" : "False";
-            }
-
-        } catch (Exception e) {
-            log.error("Błąd formatowania odpowiedzi", e);
-        }
-
-        // Jeśli formatowanie się nie uda lub typ jest inny (np. SHORT_ANSWER), zwróć oryginał
-        return rawAnswer;
-    }
 }
\ No newline at end of file
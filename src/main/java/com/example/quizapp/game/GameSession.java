@@ -0,0 +1,57 @@
+package com.example.quizapp.game;
+
+import java.util.Random;
+
+/**
+ * Compact server-side state of a running game.
+ *
+ * Only ids, timestamps and the seeds used to shuffle questions and answers are kept;
+ * the question content is rebuilt from the quiz, so the per-player footprint does not
+ * grow with the size of the quiz.
+ */
+public record GameSession(
+        String sessionId,
+        long quizId,
+        long quizVersion,
+        long playerId,
+        long startedAtMillis,
+        long expiresAtMillis,
+        long questionSeed,
+        long answerSeed
+) {
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    public int elapsedSeconds(long nowMillis) {
+        return (int) ((nowMillis - startedAtMillis) / 1000);
+    }
+
+//    Permutation of the questions of the quiz: position -> original index
+    public int[] questionPermutation(int size) {
+        return permutation(size, questionSeed);
+    }
+
+//    Permutation of the answer options of a question: position -> original index
+    public int[] answerPermutation(long questionId, int size) {
+        return permutation(size, answerSeed ^ questionId * 0x9E3779B97F4A7C15L);
+    }
+
+//    Fisher-Yates over 0..size-1, always the same result for the same seed
+    static int[] permutation(int size, long seed) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+
+        Random random = new Random(seed);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.quizapp.game;
+
+import com.example.quizapp.common.exception.GameSessionExpiredException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory store of running games keyed by session id.
+ *
+ * Sessions expire after a fixed TTL counted from the game start. Expired sessions are
+ * swept lazily on every new game (oldest first), so no scheduler is needed. When
+ * max-sessions is set the store is bounded: once full, the oldest session is evicted
+ * to make room and its player gets a GameSessionExpiredException on the next request.
+ * Entries of finished games are compacted out of the start queue once they outnumber the
+ * live sessions, so the queue stays within a small multiple of the sessions held.
+ */
+@Component
+@Slf4j
+public class GameSessionStore {
+
+    private final Duration ttl;
+    private final int maxSessions;
+
+    private final Map<String, GameSession> sessions = new ConcurrentHashMap<>();
+
+//    Sessions in start order, used to sweep expired sessions and to evict the oldest one
+    private final Queue<GameSession> startOrder = new ConcurrentLinkedQueue<>();
+
+    // Finished, replaced or expired games whose entry may still be in startOrder (reset by compaction)
+    private final AtomicInteger deadEntries = new AtomicInteger();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    static final int COMPACT_SLACK = 64;
+
+    public GameSessionStore(@Value("${app.game.session-ttl:PT2H}") Duration ttl,
+                            @Value("${app.game.max-sessions:0}") int maxSessions) {
+        this.ttl = ttl;
+        this.maxSessions = maxSessions;
+    }
+
+//    Register a new game session, replaces a previous game with the same session id
+    public GameSession create(String sessionId, long quizId, long quizVersion, long playerId,
+                              long questionSeed, long answerSeed) {
+        long now = System.currentTimeMillis();
+        sweep(now);
+        compact();
+
+        GameSession session = new GameSession(sessionId, quizId, quizVersion, playerId,
+                now, now + ttl.toMillis(), questionSeed, answerSeed);
+
+        if (sessions.put(sessionId, session) != null) {
+            deadEntries.incrementAndGet();
+        }
+        startOrder.add(session);
+        return session;
+    }
+
+//    Get a live session, throws GameSessionExpiredException when it is unknown or expired
+    public GameSession get(String sessionId) {
+        GameSession session = sessionId != null ? sessions.get(sessionId) : null;
+        if (session == null) {
+            throw new GameSessionExpiredException(sessionId);
+        }
+
+        if (session.isExpired(System.currentTimeMillis())) {
+            if (sessions.remove(sessionId, session)) {
+                deadEntries.incrementAndGet();
+            }
+            throw new GameSessionExpiredException(sessionId);
+        }
+        return session;
+    }
+
+//    Remove session when the game is finished, empty if it was unknown or already expired
+    public Optional<GameSession> remove(String sessionId) {
+        if (sessionId == null) return Optional.empty();
+
+        GameSession session = sessions.remove(sessionId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        deadEntries.incrementAndGet();
+        if (session.isExpired(System.currentTimeMillis())) {
+            return Optional.empty();
+        }
+        return Optional.of(session);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    int queuedEntries() {
+        return startOrder.size();
+    }
+
+//    Drop expired sessions from the head of the queue, then the oldest ones while over capacity
+    private void sweep(long now) {
+        GameSession head;
+        while ((head = startOrder.peek()) != null) {
+            // Finished or replaced games leave their entry behind, it is simply dropped here
+            boolean current = sessions.get(head.sessionId()) == head;
+            boolean expired = head.isExpired(now);
+            boolean full = maxSessions > 0 && sessions.size() >= maxSessions;
+
+            if (current && !expired && !full) {
+                break;
+            }
+
+            if (startOrder.remove(head) && current && sessions.remove(head.sessionId(), head) && !expired) {
+                log.warn("Game session store full ({}), evicted oldest session {}", maxSessions, head.sessionId());
+            }
+        }
+    }
+
+//    The sweep stops at the oldest live game, entries of games finished after it stay queued until it
+//    expires; once they outnumber the live sessions they are dropped in one pass by a single thread
+    private void compact() {
+        if (deadEntries.get() <= sessions.size() + COMPACT_SLACK || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            deadEntries.set(0);
+            startOrder.removeIf(entry -> sessions.get(entry.sessionId()) != entry);
+        } finally {
+            compacting.set(false);
+        }
+    }
+}
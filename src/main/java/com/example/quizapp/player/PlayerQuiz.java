@@ -0,0 +1,40 @@
+package com.example.quizapp.player;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * A quiz a player completed at least once (table player_quizzes).
+ *
+ * The row is inserted with every stored result and skipped when it exists, so the transaction
+ * that creates it is the only one that counts the quiz in player_stats.quizzes_attempted.
+ * Written via JDBC, mapped so the schema is generated in tests.
+ */
+@Entity
+@Table(name = "player_quizzes")
+@IdClass(PlayerQuiz.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayerQuiz {
+
+    @Id
+    @Column(name = "player_id")
+    private Long playerId;
+
+    @Id
+    @Column(name = "quiz_id")
+    private Long quizId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long playerId;
+        private Long quizId;
+    }
+}
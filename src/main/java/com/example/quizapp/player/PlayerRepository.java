@@ -1,10 +1,13 @@
 package com.example.quizapp.player;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,4 +29,21 @@ public interface PlayerRepository extends JpaRepository<Player, Long> {
 
 //    Count total players
     long countByActiveTrue();
+
+//    Add finished games to a player in a single statement (no read-modify-write, no lost updates)
+//    Last played time only moves forward, so out-of-order flushes can not turn it back
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Player p
+            SET p.gamesPlayed = p.gamesPlayed + :games,
+                p.lastPlayedAt = CASE
+                    WHEN p.lastPlayedAt IS NULL OR p.lastPlayedAt < :playedAt THEN :playedAt
+                    ELSE p.lastPlayedAt
+                END
+            WHERE p.id = :playerId
+            """)
+    int incrementGamesPlayed(@Param("playerId") Long playerId,
+                             @Param("games") int games,
+                             @Param("playedAt") LocalDateTime playedAt);
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.example.quizapp.player;
+
+import com.example.quizapp.quiz.Quiz;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-player aggregate of completed games, one row per player who finished a game.
+ *
+ * Maintained at submit time with atomic SQL increments (PlayerStatsJdbcRepository) in the
+ * same transaction as the result itself, and rebuilt from game_results by PlayerStatsBackfill.
+ * Global rankings and platform analytics read it instead of grouping all game results.
+ */
+@Entity
+@Table(name = "player_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayerStats {
+
+    @Id
+    @Column(name = "player_id")
+    private Long playerId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "player_id")
+    private Player player;
+
+//    Completed games
+    @Column(name = "total_games", nullable = false)
+    private int totalGames;
+
+//    Distinct quizzes with at least one completed game
+    @Column(name = "quizzes_attempted", nullable = false)
+    private int quizzesAttempted;
+
+//    Sum of percentage scores, global ranking points (average = sum / total games)
+    @Column(name = "percentage_sum", nullable = false)
+    private double percentageSum;
+
+    @Column(name = "best_percentage", nullable = false)
+    private double bestPercentage;
+
+    @Column(name = "best_score", nullable = false)
+    private int bestScore;
+
+//    Most recently completed game
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_quiz_id")
+    private Quiz lastQuiz;
+
+    @Column(name = "last_score")
+    private Integer lastScore;
+
+    @Column(name = "last_played_at")
+    private LocalDateTime lastPlayedAt;
+}
@@ -0,0 +1,93 @@
+package com.example.quizapp.player;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Rebuilds player_stats from game_results.
+ *
+ * The player id range is split into chunks of app.player.stats-backfill.chunk-size ids,
+ * rebuilt by app.player.stats-backfill.threads workers, one transaction per chunk. A chunk
+ * replaces the stats of its players, so the job can be rerun at any time; games finished
+ * while their chunk is rebuilt may be counted by the next run only.
+ *
+ * Runs on startup when the table is empty but results exist (fresh schema, existing data).
+ */
+@Component
+@Slf4j
+public class PlayerStatsBackfill {
+
+    private final PlayerStatsJdbcRepository playerStatsJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int threads;
+
+    public PlayerStatsBackfill(PlayerStatsJdbcRepository playerStatsJdbcRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.player.stats-backfill.chunk-size:5000}") int chunkSize,
+                               @Value("${app.player.stats-backfill.threads:4}") int threads) {
+        this.playerStatsJdbcRepository = playerStatsJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.threads = Math.max(1, threads);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (playerStatsJdbcRepository.isEmpty() && playerStatsJdbcRepository.hasCompletedResults()) {
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            log.error("Player stats backfill failed, global rankings stay incomplete until it is rerun", e);
+        }
+    }
+
+//    Rebuild stats of all players, returns the number of players with stats
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        PlayerStatsJdbcRepository.IdRange range = playerStatsJdbcRepository.findPlayerIdRange().orElse(null);
+        if (range == null) {
+            return 0;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("player-stats-backfill-", 0).daemon().factory());
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (long from = range.from(); from <= range.to(); from += chunkSize) {
+                long chunkFrom = from;
+                long chunkTo = Math.min(range.to(), from + chunkSize - 1);
+                chunks.add(executor.submit(() -> transactionTemplate.execute(status ->
+                        playerStatsJdbcRepository.rebuildRange(chunkFrom, chunkTo))));
+            }
+
+            int players = 0;
+            for (Future<Integer> chunk : chunks) {
+                players += chunk.get();
+            }
+            log.info("Player stats rebuilt: {} players in {} chunks, {} ms",
+                    players, chunks.size(), System.currentTimeMillis() - start);
+            return players;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Player stats backfill interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Player stats backfill failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
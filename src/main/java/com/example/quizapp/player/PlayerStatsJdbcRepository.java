@@ -0,0 +1,189 @@
+package com.example.quizapp.player;
+
+import com.example.quizapp.common.util.BatchUpsert;
+import com.example.quizapp.game.GameResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class PlayerStatsJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+//    Add stored results to the aggregates of their players, sorted by player and quiz (see BatchUpsert)
+//    Must run in the transaction that inserted the results: a quiz counts as new for a player
+//    when this transaction creates its player_quizzes row
+    public void recordResults(List<GameResult> results) {
+        List<GameResult> completed = results.stream()
+                .filter(GameResult::isCompleted)
+                .sorted(Comparator.comparing((GameResult result) -> result.getPlayer().getId())
+                        .thenComparing(result -> result.getQuiz().getId()))
+                .toList();
+        if (completed.isEmpty()) {
+            return;
+        }
+        log.debug("Recording {} results in player stats", completed.size());
+
+        boolean[] newQuiz = insertPlayerQuizzes(completed);
+        List<RecordedResult> recorded = new ArrayList<>(completed.size());
+        for (int i = 0; i < completed.size(); i++) {
+            recorded.add(new RecordedResult(completed.get(i), newQuiz[i]));
+        }
+
+        String updateSql = """
+                UPDATE player_stats
+                SET total_games = total_games + 1,
+                    quizzes_attempted = quizzes_attempted + ?,
+                    percentage_sum = percentage_sum + ?,
+                    best_percentage = GREATEST(best_percentage, ?),
+                    best_score = GREATEST(best_score, ?),
+                    last_quiz_id = CASE WHEN last_played_at IS NULL OR last_played_at <= ? THEN ? ELSE last_quiz_id END,
+                    last_score = CASE WHEN last_played_at IS NULL OR last_played_at <= ? THEN ? ELSE last_score END,
+                    last_played_at = CASE WHEN last_played_at IS NULL OR last_played_at <= ? THEN ? ELSE last_played_at END
+                WHERE player_id = ?
+                """;
+
+        String createSql = """
+                INSERT INTO player_stats (player_id, total_games, quizzes_attempted, percentage_sum, best_percentage, best_score)
+                VALUES (?, 0, 0, 0, 0, 0)
+                ON CONFLICT DO NOTHING
+                """;
+
+        BatchUpsert.upsert(jdbcTemplate, recorded,
+                updateSql, (ps, row) -> {
+                    GameResult result = row.result();
+                    double percentage = result.getPercentageScore() != null ? result.getPercentageScore() : 0.0;
+                    Timestamp completedAt = Timestamp.valueOf(result.getCompletedAt() != null
+                            ? result.getCompletedAt() : LocalDateTime.now());
+
+                    ps.setInt(1, row.newQuiz() ? 1 : 0);
+                    ps.setDouble(2, percentage);
+                    ps.setDouble(3, percentage);
+                    ps.setInt(4, result.getScore());
+                    ps.setTimestamp(5, completedAt);
+                    ps.setLong(6, result.getQuiz().getId());
+                    ps.setTimestamp(7, completedAt);
+                    ps.setInt(8, result.getScore());
+                    ps.setTimestamp(9, completedAt);
+                    ps.setTimestamp(10, completedAt);
+                    ps.setLong(11, result.getPlayer().getId());
+                },
+                createSql, (ps, row) -> ps.setLong(1, row.result().getPlayer().getId()));
+    }
+
+    private record RecordedResult(GameResult result, boolean newQuiz) {
+    }
+
+//    Insert the player_quizzes rows of the results, returns for every result whether its row was created
+//    A row another transaction is inserting is waited for and then skipped, so a quiz is counted once
+    private boolean[] insertPlayerQuizzes(List<GameResult> results) {
+        int[][] counts = jdbcTemplate.batchUpdate("""
+                INSERT INTO player_quizzes (player_id, quiz_id)
+                VALUES (?, ?)
+                ON CONFLICT DO NOTHING
+                """, results, results.size(), (ps, result) -> {
+                    ps.setLong(1, result.getPlayer().getId());
+                    ps.setLong(2, result.getQuiz().getId());
+                });
+
+        boolean[] inserted = new boolean[results.size()];
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                inserted[i++] = count > 0 || count == Statement.SUCCESS_NO_INFO;
+            }
+        }
+        return inserted;
+    }
+
+    public record IdRange(long from, long to) {
+    }
+
+//    Lowest and highest player id, empty when there are no players
+    public Optional<IdRange> findPlayerIdRange() {
+        return jdbcTemplate.query("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM players", rs -> {
+            rs.next();
+            long from = rs.getLong("min_id");
+            return rs.wasNull() ? Optional.<IdRange>empty() : Optional.of(new IdRange(from, rs.getLong("max_id")));
+        });
+    }
+
+//    Whether any player has stats, the table is empty after a fresh schema
+    public boolean isEmpty() {
+        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM player_stats)", Boolean.class));
+    }
+
+//    Whether any completed result exists
+    public boolean hasCompletedResults() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM game_results WHERE is_completed = true)", Boolean.class));
+    }
+
+//    Recompute the aggregates of players fromId..toId (inclusive) from their completed results
+//    Returns the number of players with stats in the range
+    public int rebuildRange(long fromId, long toId) {
+        log.debug("Rebuilding player stats for players {}..{}", fromId, toId);
+
+        jdbcTemplate.update("DELETE FROM player_stats WHERE player_id BETWEEN ? AND ?", fromId, toId);
+        jdbcTemplate.update("DELETE FROM player_quizzes WHERE player_id BETWEEN ? AND ?", fromId, toId);
+        jdbcTemplate.update("""
+                INSERT INTO player_quizzes (player_id, quiz_id)
+                SELECT DISTINCT player_id, quiz_id
+                FROM game_results
+                WHERE is_completed = true AND player_id BETWEEN ? AND ?
+                """, fromId, toId);
+
+        String sql = """
+                INSERT INTO player_stats
+                (player_id, total_games, quizzes_attempted, percentage_sum, best_percentage, best_score,
+                 last_quiz_id, last_score, last_played_at)
+                SELECT
+                    totals.player_id,
+                    totals.total_games,
+                    totals.quizzes_attempted,
+                    totals.percentage_sum,
+                    totals.best_percentage,
+                    totals.best_score,
+                    last_game.quiz_id,
+                    last_game.score,
+                    last_game.completed_at
+                FROM (
+                    SELECT
+                        player_id,
+                        COUNT(*) AS total_games,
+                        COUNT(DISTINCT quiz_id) AS quizzes_attempted,
+                        COALESCE(SUM(percentage_score), 0) AS percentage_sum,
+                        COALESCE(MAX(percentage_score), 0) AS best_percentage,
+                        MAX(score) AS best_score
+                    FROM game_results
+                    WHERE is_completed = true AND player_id BETWEEN ? AND ?
+                    GROUP BY player_id
+                ) totals
+                JOIN (
+                    SELECT
+                        player_id,
+                        quiz_id,
+                        score,
+                        completed_at,
+                        ROW_NUMBER() OVER (PARTITION BY player_id ORDER BY completed_at DESC NULLS LAST, id DESC) AS rn
+                    FROM game_results
+                    WHERE is_completed = true AND player_id BETWEEN ? AND ?
+                ) last_game ON last_game.player_id = totals.player_id AND last_game.rn = 1
+                """;
+
+        return jdbcTemplate.update(sql, fromId, toId, fromId, toId);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.quizapp.player;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Player statistics (games played, last played time) updated with atomic SQL increments.
+ *
+ * With app.player.stats-flush-interval set, finished games are first coalesced in memory
+ * per player and written once per interval: a player finishing 20 games in a second costs
+ * one UPDATE instead of 20. Without it every game is one single-statement UPDATE.
+ *
+ * Pending counts are merged per player key in a ConcurrentHashMap, so recording only
+ * contends with games of the same player, and a flush takes an entry out atomically -
+ * nothing recorded concurrently is lost or counted twice.
+ */
+@Component
+@Slf4j
+public class PlayerStatsRecorder {
+
+    private final PlayerRepository playerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration flushInterval;
+
+    private final Map<Long, PendingStats> pending = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flusher;
+
+    public PlayerStatsRecorder(PlayerRepository playerRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.player.stats-flush-interval:PT0S}") Duration flushInterval) {
+        this.playerRepository = playerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushInterval = flushInterval;
+    }
+
+//    Games of one player not written yet, the newest played time wins
+    record PendingStats(int games, LocalDateTime lastPlayedAt) {
+        PendingStats plus(PendingStats other) {
+            return new PendingStats(games + other.games,
+                    lastPlayedAt.isAfter(other.lastPlayedAt) ? lastPlayedAt : other.lastPlayedAt);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!isCoalescing()) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("player-stats-flusher").daemon().factory());
+        long millis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        log.info("Player stats are coalesced and flushed every {}", flushInterval);
+    }
+
+//    Write what is left before the application goes down
+    @PreDestroy
+    void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    public boolean isCoalescing() {
+        return flushInterval != null && !flushInterval.isZero() && !flushInterval.isNegative();
+    }
+
+//    Count one finished game of a player
+    public void recordGamePlayed(Long playerId, LocalDateTime playedAt) {
+        if (!isCoalescing()) {
+            playerRepository.incrementGamesPlayed(playerId, 1, playedAt);
+            return;
+        }
+        pending.merge(playerId, new PendingStats(1, playedAt), PendingStats::plus);
+    }
+
+//    Write all pending counts, one UPDATE per player, returns the number of players updated
+    public int flush() {
+        List<Map.Entry<Long, PendingStats>> batch = new ArrayList<>(pending.size());
+        for (Long playerId : pending.keySet()) {
+            PendingStats stats = pending.remove(playerId);
+            if (stats != null) {
+                batch.add(Map.entry(playerId, stats));
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(entry ->
+                    playerRepository.incrementGamesPlayed(entry.getKey(), entry.getValue().games(),
+                            entry.getValue().lastPlayedAt())));
+        } catch (RuntimeException e) {
+            // Put the counts back, they are retried with the next flush
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), PendingStats::plus));
+            throw e;
+        }
+
+        log.debug("Flushed stats of {} players", batch.size());
+        return batch.size();
+    }
+
+    int pendingPlayers() {
+        return pending.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Flushing player stats failed, retrying with next flush", e);
+        }
+    }
+}
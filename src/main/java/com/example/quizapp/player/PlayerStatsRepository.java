@@ -0,0 +1,25 @@
+package com.example.quizapp.player;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PlayerStatsRepository extends JpaRepository<PlayerStats, Long> {
+
+//    Players by ranking points (sum of percentage scores), served by idx_player_stats_ranking
+//    Constructor projection: nickname and last quiz title come from the same joined query, nothing is loaded lazily per row
+    @Query("""
+            SELECT new com.example.quizapp.player.PlayerStatsSummary(
+                ps.playerId, p.nickname, ps.totalGames, ps.quizzesAttempted, ps.percentageSum,
+                ps.bestPercentage, ps.lastScore, q.title, ps.lastPlayedAt)
+            FROM PlayerStats ps
+            JOIN ps.player p
+            LEFT JOIN ps.lastQuiz q
+            ORDER BY ps.percentageSum DESC, ps.playerId
+            """)
+    List<PlayerStatsSummary> findTopRanked(Pageable pageable);
+}
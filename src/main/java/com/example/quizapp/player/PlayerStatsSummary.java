@@ -0,0 +1,17 @@
+package com.example.quizapp.player;
+
+import java.time.LocalDateTime;
+
+//Aggregated stats of a player together with the nickname and last quiz title, read in one joined query
+public record PlayerStatsSummary(
+        Long playerId,
+        String playerNickname,
+        int totalGames,
+        int quizzesAttempted,
+        double percentageSum,
+        double bestPercentage,
+        Integer lastScore,
+        String lastQuizTitle,
+        LocalDateTime lastPlayedAt
+) {
+}
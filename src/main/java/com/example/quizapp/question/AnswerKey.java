@@ -0,0 +1,222 @@
+package com.example.quizapp.question;
+
+import com.example.quizapp.quiz.Quiz;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, pre-compiled answer key for a single quiz.
+ *
+ * Built once from the AnswerModel of every question, so scoring a submission is a
+ * map lookup plus a typed comparison per answer - no repository calls and no JSON
+ * parsing of the correct answers on the hot path.
+ */
+@Slf4j
+public final class AnswerKey {
+
+    @Getter
+    private final Long quizId;
+
+//    Number of active questions in the quiz
+    @Getter
+    private final int questionCount;
+
+//    Maximum score, sum of the active questions' points like Quiz.getTotalPoints()
+    @Getter
+    private final int maxScore;
+
+    private final Map<Long, CompiledQuestion> questions;
+
+    private AnswerKey(Long quizId, int questionCount, int maxScore, Map<Long, CompiledQuestion> questions) {
+        this.quizId = quizId;
+        this.questionCount = questionCount;
+        this.maxScore = maxScore;
+        this.questions = questions;
+    }
+
+//    Compile the answer key for all active questions of a quiz
+    public static AnswerKey compile(Quiz quiz) {
+        Map<Long, CompiledQuestion> compiled = new HashMap<>();
+        int maxScore = 0;
+        for (Question question : quiz.getQuestions()) {
+            if (question.isActive()) {
+                compiled.put(question.getId(), compileQuestion(question));
+                maxScore += question.getPoints();
+            }
+        }
+
+        log.debug("Compiled answer key for quiz {} with {} questions", quiz.getId(), compiled.size());
+        return new AnswerKey(quiz.getId(), compiled.size(), maxScore, Map.copyOf(compiled));
+    }
+
+//    Compile a single question (also used for one-off validation)
+    public static CompiledQuestion compileQuestion(Question question) {
+        return new CompiledQuestion(question);
+    }
+
+//    Find compiled question by ID, null if it is not an active question of this quiz
+    public CompiledQuestion getQuestion(Long questionId) {
+        return questions.get(questionId);
+    }
+
+    /**
+     * Compiled form of a single question: scoring data, the typed correct answer
+     * and pre-parsed options used to render answers for display.
+     */
+    @Getter
+    public static final class CompiledQuestion {
+        private final Long id;
+        private final QuestionType questionType;
+        private final String questionText;
+        private final int points;
+        private final Integer negativePoints;
+        private final String explanation;
+        private final String correctAnswerDisplay;
+
+        @Getter(AccessLevel.NONE)
+        private final List<String> options;
+        @Getter(AccessLevel.NONE)
+        private final List<AnswerModel.Pair> pairs;
+        @Getter(AccessLevel.NONE)
+        private final AnswerModel answerModel;
+
+        private CompiledQuestion(Question question) {
+            this.id = question.getId();
+            this.questionType = question.getQuestionType();
+            this.questionText = question.getQuestionText();
+            this.points = question.getPoints();
+            this.negativePoints = question.getNegativePoints();
+            this.explanation = question.getExplanation();
+
+            // Typed answer data, parsed once per question entity
+            this.answerModel = question.getAnswerModel();
+            this.options = answerModel.options();
+            this.pairs = answerModel.pairs();
+            this.correctAnswerDisplay = formatCorrectAnswer(question.getCorrectAnswer());
+        }
+
+//        Matching keys are rendered from the pairs parsed into the answer model, the rest like any answer
+        private String formatCorrectAnswer(String correctAnswer) {
+            if (answerModel instanceof AnswerModel.Matching matching) {
+                try {
+                    return formatMatches(matching.correct());
+                } catch (RuntimeException e) {
+                    log.error("Błąd formatowania odpowiedzi", e);
+                    return correctAnswer;
+                }
+            }
+            return formatForDisplay(correctAnswer);
+        }
+
+//        Check user answer against the compiled key
+        public boolean isCorrect(String userAnswer) {
+            if (userAnswer == null) return false;
+            try {
+                return answerModel.matches(userAnswer);
+            } catch (Exception e) {
+                log.error("Error validating answer for question {}", id, e);
+                return false;
+            }
+        }
+
+        public int getOptionCount() {
+            return options.size();
+        }
+
+//        Stored index of the picked option of a single-pick question (null for other types or no valid pick)
+//        Dropdowns may submit the option text instead of its index
+        public Integer chosenOption(String userAnswer) {
+            if (userAnswer == null || userAnswer.isBlank()) return null;
+            if (questionType != QuestionType.SINGLE_CHOICE
+                    && questionType != QuestionType.TRUE_FALSE
+                    && questionType != QuestionType.DROPDOWN) {
+                return null;
+            }
+            try {
+                int index = AnswerModelParser.parseIndex(userAnswer);
+                return index >= 0 && index < options.size() ? index : null;
+            } catch (NumberFormatException e) {
+                int index = options.indexOf(userAnswer);
+                return index >= 0 ? index : null;
+            }
+        }
+
+//        Map option indexes picked from a shuffled list (position -> original index) back to stored indexes
+        public String toOriginalIndexes(String userAnswer, int[] permutation) {
+            if (userAnswer == null || userAnswer.isBlank()) return userAnswer;
+            try {
+                if (!userAnswer.trim().startsWith("[")) {
+                    return String.valueOf(permutation[AnswerModelParser.parseIndex(userAnswer)]);
+                }
+
+                int[] picked = AnswerModelParser.parseIndexes(userAnswer);
+                StringBuilder original = new StringBuilder("[");
+                for (int i = 0; i < picked.length; i++) {
+                    if (i > 0) original.append(',');
+                    original.append(permutation[picked[i]]);
+                }
+                return original.append(']').toString();
+            } catch (RuntimeException e) {
+                // Out of range or not an index - keep it as is, it will be scored as wrong
+                return userAnswer;
+            }
+        }
+
+//        Turn raw answer (indexes, JSON) into human readable text
+        public String formatForDisplay(String rawAnswer) {
+            if (rawAnswer == null || rawAnswer.isEmpty()) return "Brak odpowiedzi";
+
+            try {
+                // Dla Single/Multiple Choice/Dropdown - zamień indeks na tekst opcji
+                if (questionType == QuestionType.SINGLE_CHOICE
+                        || questionType == QuestionType.MULTIPLE_CHOICE
+                        || questionType == QuestionType.DROPDOWN) {
+                    // Jeśli to pojedynczy indeks (np. "1")
+                    if (!rawAnswer.startsWith("[")) {
+                        int idx = Integer.parseInt(rawAnswer);
+                        return idx >= 0 && idx < options.size() ? options.get(idx) : rawAnswer;
+                    }
+                    // Jeśli to lista indeksów (np. "[0, 2]")
+                    return Arrays.stream(AnswerModelParser.parseIndexes(rawAnswer))
+                            .mapToObj(i -> (i >= 0 && i < options.size()) ? options.get(i) : String.valueOf(i))
+                            .collect(Collectors.joining(", "));
+                }
+
+                // Dla Matching - zamień pary indeksów na tekst
+                if (questionType == QuestionType.MATCHING) {
+                    return formatMatches(AnswerModelParser.parsePairs(rawAnswer));
+                }
+
+                // Dla Sorting - zamień indeksy na elementy
+                if (questionType == QuestionType.SORTING) {
+                    return Arrays.stream(AnswerModelParser.parseIndexes(rawAnswer))
+                            .mapToObj(i -> (i >= 0 && i < options.size()) ? options.get(i) : String.valueOf(i))
+                            .collect(Collectors.joining(" -> "));
+                }
+
+                // True/False
+                if (questionType == QuestionType.TRUE_FALSE) {
+                    return rawAnswer.equals("0") ? "True" : "False";
+                }
+
+            } catch (Exception e) {
+                log.error("Błąd formatowania odpowiedzi", e);
+            }
+
+            // Jeśli formatowanie się nie uda lub typ jest inny (np. SHORT_ANSWER), zwróć oryginał
+            return rawAnswer;
+        }
+
+//        Index pairs as "left text -> right text" of the stored pairs
+        private String formatMatches(List<AnswerModel.Pair> matches) {
+            return matches.stream()
+                    .map(match -> pairs.get(AnswerModelParser.parseIndex(match.left())).left()
+                            + " -> " + pairs.get(AnswerModelParser.parseIndex(match.right())).right())
+                    .collect(Collectors.joining(", "));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.quizapp.question;
+
+import com.example.quizapp.quiz.Quiz;
+import com.example.quizapp.quiz.QuizChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds one compiled AnswerKey per quiz.
+ *
+ * Keys are compiled lazily on first use and dropped after a QuizChangedEvent commits,
+ * so the next submission compiles a fresh key from the database.
+ */
+@Component
+@Slf4j
+public class AnswerKeyCache {
+
+    private final Map<Long, AnswerKey> answerKeys = new ConcurrentHashMap<>();
+
+//    Bumped on every invalidation, guards against caching a key compiled from stale data
+    private final AtomicLong generation = new AtomicLong();
+
+//    Get compiled answer key for quiz, compiling it from the quiz questions if missing
+    public AnswerKey getAnswerKey(Quiz quiz) {
+        AnswerKey answerKey = answerKeys.get(quiz.getId());
+        if (answerKey != null) {
+            return answerKey;
+        }
+
+        long generationBefore = generation.get();
+        answerKey = AnswerKey.compile(quiz);
+
+        if (generation.get() == generationBefore) {
+            AnswerKey existing = answerKeys.putIfAbsent(quiz.getId(), answerKey);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return answerKey;
+    }
+
+//    Drop cached key for quiz
+    public void invalidate(Long quizId) {
+        generation.incrementAndGet();
+        if (answerKeys.remove(quizId) != null) {
+            log.debug("Answer key for quiz {} invalidated", quizId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuizChanged(QuizChangedEvent event) {
+        invalidate(event.quizId());
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.quizapp.question;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.util.*;
+
+/**
+ * Typed form of Question.answerOptions and correctAnswer, one record per question type.
+ *
+ * The columns keep their JSON format, a question parses them once (Question.getAnswerModel)
+ * and scoring, shuffling and rendering work on these values. Only the user's own answer
+ * still has to be parsed per submission.
+ *
+ * Data that can not be parsed ends up as Invalid: options stay available for display,
+ * but no answer is ever correct.
+ */
+public sealed interface AnswerModel permits AnswerModel.SingleChoice, AnswerModel.MultipleChoice,
+        AnswerModel.TrueFalse, AnswerModel.ShortAnswer, AnswerModel.Dropdown, AnswerModel.FillBlanks,
+        AnswerModel.Sorting, AnswerModel.Matching, AnswerModel.Invalid {
+
+    QuestionType questionType();
+
+//    Options in stored order (items for sorting, blanks for fill blanks), empty for matching
+    default List<String> options() {
+        return List.of();
+    }
+
+//    Matching pairs in stored order, empty for all other types
+    default List<Pair> pairs() {
+        return List.of();
+    }
+
+//    Check a raw user answer (index, JSON array or text as submitted by the game page)
+    boolean matches(String userAnswer) throws JsonProcessingException;
+
+//    Parse the stored JSON of a question
+    static AnswerModel parse(QuestionType type, String answerOptions, String correctAnswer) {
+        return AnswerModelParser.parse(type, answerOptions, correctAnswer);
+    }
+
+    record Pair(String left, String right) {
+    }
+
+//    Correct option of a single-pick question; legacy keys may store the option text instead of its index
+    record OptionKey(int index, String text) {
+
+        static OptionKey parse(String raw) {
+            try {
+                return new OptionKey(AnswerModelParser.parseIndex(raw), null);
+            } catch (NumberFormatException e) {
+                return new OptionKey(-1, raw);
+            }
+        }
+
+        boolean matches(String userAnswer) {
+            return text != null ? text.equals(userAnswer) : AnswerModelParser.parseIndex(userAnswer) == index;
+        }
+    }
+
+    record SingleChoice(List<String> options, OptionKey correct) implements AnswerModel {
+        @Override
+        public QuestionType questionType() {
+            return QuestionType.SINGLE_CHOICE;
+        }
+
+        @Override
+        public boolean matches(String userAnswer) {
+            return correct.matches(userAnswer);
+        }
+    }
+
+//    Correct when the same number of options is selected and every one of them is correct
+    record MultipleChoice(List<String> options, BitSet correct, int correctCount) implements AnswerModel {
+        @Override
+        public QuestionType questionType() {
+            return QuestionType.MULTIPLE_CHOICE;
+        }
+
+        @Override
+        public boolean matches(String userAnswer) {
+            int[] selected = AnswerModelParser.parseIndexes(userAnswer);
+            if (selected.length != correctCount) return false;
+
+            for (int index : selected) {
+                if (index < 0 || !correct.get(index)) return false;
+            }
+            return true;
+        }
+    }
+
+    record TrueFalse(List<String> options, OptionKey correct) implements AnswerModel {
+        @Override
+        public QuestionType questionType() {
+            return QuestionType.TRUE_FALSE;
+        }
+
+        @Override
+        public boolean matches(String userAnswer) {
+            return correct.matches(userAnswer);
+        }
+    }
+
+//    Text is normalized once: JSON brackets and quotes stripped, trimmed
+    record ShortAnswer(String text) implements AnswerModel {
+        @Override
+        public QuestionType questionType() {
+            return QuestionType.SHORT_ANSWER;
+        }
+
+        @Override
+        public boolean matches(String userAnswer) {
+            return text.equalsIgnoreCase(userAnswer.trim());
+        }
+    }
+
+    record Dropdown(List<String> options, OptionKey correct) implements AnswerModel {
+        @Override
+        public QuestionType questionType() {
+            return QuestionType.DROPDOWN;
+        }
+
+        @Override
+        public boolean matches(String userAnswer) {
+            return correct.matches(userAnswer);
+        }
+    }
+
+//    Options are the blank labels, answers are trimmed
+    record FillBlanks(List<String> options, List<String> answers) implements AnswerModel {
+        @Override
+        public QuestionType questionType() {
+            return QuestionType.FILL_BLANKS;
+        }
+
+        @Override
+        public boolean matches(String userAnswer) throws JsonProcessingException {
+            List<String> user = AnswerModelParser.JSON.readValue(userAnswer, AnswerModelParser.STRING_LIST);
+            if (user.size() != answers.size()) return false;
+
+            for (int i = 0; i < answers.size(); i++) {
+                String given = user.get(i);
+                if (given == null || !answers.get(i).equalsIgnoreCase(given.trim())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    record Sorting(List<String> options, int[] order) implements AnswerModel {
+        @Override
+        public QuestionType questionType() {
+            return QuestionType.SORTING;
+        }
+
+        @Override
+        public boolean matches(String userAnswer) {
+            return Arrays.equals(order, AnswerModelParser.parseIndexes(userAnswer));
+        }
+    }
+
+//    Correct pairs (option indexes) in stored order, compared as a set: order of the submitted pairs does not matter
+    record Matching(List<Pair> pairs, List<Pair> correct, Set<String> correctPairs) implements AnswerModel {
+        @Override
+        public QuestionType questionType() {
+            return QuestionType.MATCHING;
+        }
+
+        @Override
+        public boolean matches(String userAnswer) throws JsonProcessingException {
+            List<Pair> user = AnswerModelParser.parsePairs(userAnswer);
+            if (user.size() != correct.size()) return false;
+
+            Set<String> given = new HashSet<>();
+            for (Pair pair : user) {
+                String key = AnswerModelParser.pairKey(pair);
+                if (!correctPairs.contains(key)) return false;
+                given.add(key);
+            }
+            return given.containsAll(correctPairs);
+        }
+    }
+
+//    Question data could not be parsed - nothing matches
+    record Invalid(QuestionType questionType, List<String> options, List<Pair> pairs) implements AnswerModel {
+        @Override
+        public boolean matches(String userAnswer) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.quizapp.question;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * JSON parsing behind AnswerModel.parse, also used for the index lists submitted by players.
+ */
+@Slf4j
+final class AnswerModelParser {
+
+//    Plain mapper, only lists of strings and string maps are read
+    static final ObjectMapper JSON = new ObjectMapper();
+    static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+    static final TypeReference<List<Map<String, String>>> PAIR_LIST = new TypeReference<>() {};
+
+    private AnswerModelParser() {
+    }
+
+    static AnswerModel parse(QuestionType type, String answerOptions, String correctAnswer) {
+        List<String> options = List.of();
+        List<AnswerModel.Pair> pairs = List.of();
+        try {
+            if (type == QuestionType.MATCHING) {
+                pairs = parsePairs(answerOptions);
+            } else {
+                options = parseOptions(answerOptions);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not parse answer options of {} question: {}", type, e.getMessage());
+        }
+
+        if (type == null || correctAnswer == null) {
+            return new AnswerModel.Invalid(type, options, pairs);
+        }
+
+        try {
+            return switch (type) {
+                case SINGLE_CHOICE -> new AnswerModel.SingleChoice(options, AnswerModel.OptionKey.parse(correctAnswer));
+                case DROPDOWN -> new AnswerModel.Dropdown(options, AnswerModel.OptionKey.parse(correctAnswer));
+                case TRUE_FALSE -> new AnswerModel.TrueFalse(options, AnswerModel.OptionKey.parse(correctAnswer));
+                case MULTIPLE_CHOICE -> {
+                    int[] indexes = parseIndexes(correctAnswer);
+                    BitSet correct = new BitSet();
+                    for (int index : indexes) {
+                        correct.set(index);
+                    }
+                    yield new AnswerModel.MultipleChoice(options, correct, indexes.length);
+                }
+                case SHORT_ANSWER -> new AnswerModel.ShortAnswer(correctAnswer
+                        .replace("[", "")
+                        .replace("]", "")
+                        .replace("\"", "")
+                        .trim());
+                case FILL_BLANKS -> new AnswerModel.FillBlanks(options, JSON.readValue(correctAnswer, STRING_LIST).stream()
+                        .map(String::trim)
+                        .toList());
+                case SORTING -> new AnswerModel.Sorting(options, parseIndexes(correctAnswer));
+                case MATCHING -> {
+                    List<AnswerModel.Pair> correct = parsePairs(correctAnswer);
+                    Set<String> keys = correct.stream()
+                            .map(AnswerModelParser::pairKey)
+                            .collect(Collectors.toUnmodifiableSet());
+                    yield new AnswerModel.Matching(pairs, correct, keys);
+                }
+            };
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Invalid correct answer of {} question, it will never match", type, e);
+            return new AnswerModel.Invalid(type, options, pairs);
+        }
+    }
+
+    private static List<String> parseOptions(String answerOptions) throws JsonProcessingException {
+        if (answerOptions == null || answerOptions.isBlank()) return List.of();
+        List<String> parsed = JSON.readValue(answerOptions, STRING_LIST);
+        return parsed != null ? Collections.unmodifiableList(parsed) : List.of();
+    }
+
+//    Parse a JSON list of {"left", "right"} objects: the matching options, or index pairs of an answer
+    static List<AnswerModel.Pair> parsePairs(String json) throws JsonProcessingException {
+        if (json == null || json.isBlank()) return List.of();
+        List<Map<String, String>> parsed = JSON.readValue(json, PAIR_LIST);
+        return parsed != null
+                ? parsed.stream().map(pair -> new AnswerModel.Pair(pair.get("left"), pair.get("right"))).toList()
+                : List.of();
+    }
+
+    static String pairKey(AnswerModel.Pair pair) {
+        return pair.left() + '\u001F' + pair.right();
+    }
+
+//    Parse a single option index, accepts 1 as well as "1"
+    static int parseIndex(String token) {
+        String value = token.trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).trim();
+        }
+        return Integer.parseInt(value);
+    }
+
+//    Parse a JSON array of indexes like [0, 2] or ["0", "2"] without going through Jackson
+    static int[] parseIndexes(String json) {
+        String value = json.trim();
+        if (!value.startsWith("[") || !value.endsWith("]")) {
+            throw new IllegalArgumentException("Not a JSON array: " + json);
+        }
+
+        String body = value.substring(1, value.length() - 1).trim();
+        if (body.isEmpty()) return new int[0];
+
+        String[] tokens = body.split(",");
+        int[] indexes = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            indexes[i] = parseIndex(tokens[i]);
+        }
+        return indexes;
+    }
+}
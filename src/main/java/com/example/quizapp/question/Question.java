@@ -110,6 +110,37 @@ public class Question {
     @JoinColumn(name = "quiz_id", nullable = false)
     private Quiz quiz;
 
+//     * Parsed answerOptions / correctAnswer, built on first use and dropped when one of them changes
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private AnswerModel answerModel;
+
+//     * Typed answer data, the JSON columns are parsed at most once per loaded entity
+    public AnswerModel getAnswerModel() {
+        AnswerModel model = answerModel;
+        if (model == null) {
+            model = AnswerModel.parse(questionType, answerOptions, correctAnswer);
+            answerModel = model;
+        }
+        return model;
+    }
+
+    public void setQuestionType(QuestionType questionType) {
+        this.questionType = questionType;
+        this.answerModel = null;
+    }
+
+    public void setAnswerOptions(String answerOptions) {
+        this.answerOptions = answerOptions;
+        this.answerModel = null;
+    }
+
+    public void setCorrectAnswer(String correctAnswer) {
+        this.correctAnswer = correctAnswer;
+        this.answerModel = null;
+    }
+
 //     * Helper method to check if answer allows multiple selections
     public boolean allowsMultipleAnswers() {
         return questionType != null && questionType.allowsMultipleAnswers();
@@ -60,6 +60,23 @@ public class QuestionController {
         return ResponseEntity.ok(questions);
     }
 
+    /**
+     * Search questions of a quiz
+     */
+    @GetMapping("/quiz/{quizId}/search")
+    @Operation(summary = "Search questions", description = "Searches active questions of a quiz by keyword, most relevant first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved search results"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<QuestionDto>> searchQuestions(
+            @PathVariable @Parameter(description = "Quiz ID") Long quizId,
+            @RequestParam @Parameter(description = "Search keyword") String keyword) {
+        log.info("GET /api/v1/questions/quiz/{}/search?keyword={} - Searching questions", quizId, keyword);
+        List<QuestionDto> questions = questionService.searchQuestions(quizId, keyword);
+        return ResponseEntity.ok(questions);
+    }
+
     /**
      * Get question by ID
      */
@@ -2,6 +2,7 @@ package com.example.quizapp.question;
 
 import com.example.quizapp.common.validation.ValidJson;
 import com.example.quizapp.common.validation.ValidQuestionType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -59,4 +62,12 @@ public class QuestionDto {
 
     @NotNull(message = "Quiz ID is required")
     private Long quizId;
+
+//    Parsed options in the order of answerOptions, set for game play only and not part of the API
+    @JsonIgnore
+    private List<String> parsedOptions;
+
+//    Parsed pairs of a matching question, set for game play only and not part of the API
+    @JsonIgnore
+    private List<AnswerModel.Pair> matchingPairs;
 }
\ No newline at end of file
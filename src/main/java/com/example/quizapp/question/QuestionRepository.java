@@ -3,6 +3,7 @@ package com.example.quizapp.question;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -43,6 +44,17 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
     @Query("SELECT SUM(q.points) FROM Question q WHERE q.quiz.id = :quizId AND q.active = true")
     Integer getTotalPointsByQuizId(@Param("quizId") Long quizId);
 
+//    Recompute the stored question count and total points of a quiz from its active questions
+//    Single statement, so concurrent question changes of the same quiz cannot lose an update
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Quiz z SET
+                z.questionCount = (SELECT COUNT(q) FROM Question q WHERE q.quiz.id = :quizId AND q.active = true),
+                z.totalPoints = (SELECT COALESCE(SUM(q.points), 0) FROM Question q WHERE q.quiz.id = :quizId AND q.active = true)
+            WHERE z.id = :quizId
+            """)
+    int refreshQuizTotals(@Param("quizId") Long quizId);
+
 //    Find question by ID and quiz ID (for security)
     Optional<Question> findByIdAndQuizId(Long id, Long quizId);
 
@@ -4,17 +4,22 @@ import com.example.quizapp.common.exception.QuestionNotFoundException;
 import com.example.quizapp.common.exception.QuizNotFoundException;
 import com.example.quizapp.common.exception.ResourceNotFoundException;
 import com.example.quizapp.quiz.Quiz;
+import com.example.quizapp.quiz.QuizChangedEvent;
 import com.example.quizapp.quiz.QuizRepository;
+import com.example.quizapp.search.QuizSearchIndex;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,6 +31,8 @@ public class QuestionService {
     private final QuizRepository quizRepository;
     private final QuestionMapper questionMapper;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QuizSearchIndex quizSearchIndex;
 
 //    Get all questions for a quiz
     public List<QuestionDto> getQuestionsByQuizId(Long quizId) {
@@ -46,6 +53,26 @@ public class QuestionService {
                 .toList();
     }
 
+//    Search active questions of a quiz by keyword, most relevant first
+//    Served by the search index, by a LIKE query while the index is not built yet or the keyword has no words
+    public List<QuestionDto> searchQuestions(Long quizId, String keyword) {
+        log.info("Searching questions of quiz {} with keyword: {}", quizId, keyword);
+        if (!quizSearchIndex.isReady() || !QuizSearchIndex.hasWords(keyword)) {
+            return questionRepository.searchInQuiz(quizId, keyword).stream()
+                    .map(questionMapper::toDto)
+                    .toList();
+        }
+
+        List<Long> ids = quizSearchIndex.searchQuestions(quizId, keyword);
+        Map<Long, Question> questions = questionRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Question::getId, Function.identity()));
+        return ids.stream()
+                .map(questions::get)
+                .filter(question -> question != null && question.isActive())
+                .map(questionMapper::toDto)
+                .toList();
+    }
+
 //    Get question by ID
     public QuestionDto getQuestionById(Long id) {
         log.info("Fetching question with id: {}", id);
@@ -80,6 +107,8 @@ public class QuestionService {
 
         Question savedQuestion = questionRepository.save(question);
         log.info("Question created successfully with id: {}", savedQuestion.getId());
+        questionRepository.refreshQuizTotals(quiz.getId());
+        eventPublisher.publishEvent(new QuizChangedEvent(quiz.getId()));
 
         return questionMapper.toDto(savedQuestion);
     }
@@ -108,6 +137,7 @@ public class QuestionService {
 
         Question updatedQuestion = questionRepository.save(existingQuestion);
         log.info("Question updated successfully: {}", updatedQuestion.getId());
+        quizChanged(existingQuestion);
 
         return questionMapper.toDto(updatedQuestion);
     }
@@ -122,6 +152,7 @@ public class QuestionService {
         question.setActive(false);
         questionRepository.save(question);
         log.info("Question soft-deleted successfully: {}", question.getId());
+        quizChanged(question);
     }
 
 //    Permanently delete question
@@ -129,10 +160,11 @@ public class QuestionService {
     public void permanentlyDeleteQuestion(Long id) {
         log.info("Permanently deleting question with id: {}", id);
 
-        questionExists(id);
+        Question question = questionExists(id);
 
         questionRepository.deleteById(id);
         log.info("Question permanently deleted with id: {}", id);
+        quizChanged(question);
     }
 
 //    Count questions in a quiz
@@ -283,77 +315,17 @@ public class QuestionService {
         }
     }
 
-//    Type-specific answer validation
+//    Type-specific answer validation, shares the compiled form used for scoring games
     private boolean validateAnswerByType(Question question, String userAnswer) {
-        try {
-            return switch (question.getQuestionType()) {
-                case SINGLE_CHOICE, DROPDOWN, TRUE_FALSE ->
-                        validateSingleChoiceAnswer(question.getCorrectAnswer(), userAnswer);
-                case MULTIPLE_CHOICE ->
-                        validateMultipleChoiceAnswer(question.getCorrectAnswer(), userAnswer);
-                case SHORT_ANSWER ->
-                        validateShortAnswerAnswer(question.getCorrectAnswer(), userAnswer);
-                case FILL_BLANKS ->
-                        validateFillBlanksAnswer(question.getCorrectAnswer(), userAnswer);
-                case SORTING ->
-                        validateSortingAnswer(question.getCorrectAnswer(), userAnswer);
-                case MATCHING ->
-                        validateMatchingAnswer(question.getCorrectAnswer(), userAnswer);
-            };
-        } catch (Exception e) {
-            log.error("Error validating answer", e);
-            return false;
-        }
-    }
-
-    private boolean validateSingleChoiceAnswer(String correctAnswer, String userAnswer) {
-        return correctAnswer.equals(userAnswer);
-    }
-
-    private boolean validateMultipleChoiceAnswer(String correctAnswer, String userAnswer) throws JsonProcessingException {
-        List<Integer> correct = objectMapper.readValue(correctAnswer, new TypeReference<>() {});
-        List<Integer> user = objectMapper.readValue(userAnswer, new TypeReference<>() {});
-        return correct.size() == user.size() && correct.containsAll(user);
+        return AnswerKey.compileQuestion(question).isCorrect(userAnswer);
     }
 
-    private boolean validateShortAnswerAnswer(String correctAnswer, String userAnswer) {
-        // Clean JSON formatting (remove [" "], quotes, brackets)
-        String cleanCorrect = correctAnswer
-                .replace("[", "")
-                .replace("]", "")
-                .replace("\"", "")
-                .trim();
-
-        return cleanCorrect.equalsIgnoreCase(userAnswer.trim());
-    }
-
-    private boolean validateFillBlanksAnswer(String correctAnswer, String userAnswer) throws JsonProcessingException {
-        List<String> correct = objectMapper.readValue(correctAnswer, new TypeReference<>() {});
-        List<String> user = objectMapper.readValue(userAnswer, new TypeReference<>() {});
-
-        if (correct.size() != user.size()) return false;
-
-        for (int i = 0; i < correct.size(); i++) {
-            if (!correct.get(i).trim().equalsIgnoreCase(user.get(i).trim())) {
-                return false;
-            }
+//    Refresh the stored totals of the question's quiz and let caches keyed by quiz drop their entry once the change commits
+    private void quizChanged(Question question) {
+        if (question.getQuiz() != null) {
+            questionRepository.refreshQuizTotals(question.getQuiz().getId());
+            eventPublisher.publishEvent(new QuizChangedEvent(question.getQuiz().getId()));
         }
-        return true;
-    }
-
-    private boolean validateSortingAnswer(String correctAnswer, String userAnswer) throws JsonProcessingException {
-        List<Integer> correct = objectMapper.readValue(correctAnswer, new TypeReference<>() {});
-        List<Integer> user = objectMapper.readValue(userAnswer, new TypeReference<>() {});
-        return correct.equals(user);
-    }
-
-    private boolean validateMatchingAnswer(String correctAnswer, String userAnswer) throws JsonProcessingException {
-        List<Map<String, String>> correct = objectMapper.readValue(correctAnswer, new TypeReference<>() {});
-        List<Map<String, String>> user = objectMapper.readValue(userAnswer, new TypeReference<>() {});
-
-        if (correct.size() != user.size()) return false;
-
-        return correct.containsAll(user) && user.containsAll(correct);
     }
 
     private Question questionExists(Long questionId) {
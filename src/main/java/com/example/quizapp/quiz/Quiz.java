@@ -60,6 +60,15 @@ public class Quiz {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // totals of the active questions, kept in sync by QuestionService so listing quizzes
+    // never loads their questions (written only by QuestionRepository.refreshQuizTotals)
+    @Column(name = "question_count", nullable = false, updatable = false)
+    private int questionCount;
+
+//    Maximum score of a game, the same points GameService scores
+    @Column(name = "total_points", nullable = false, updatable = false)
+    private int totalPoints;
+
     // questions relation
     @OneToMany(mappedBy = "quiz", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
@@ -70,14 +79,4 @@ public class Quiz {
         questions.remove(question);
         question.setQuiz(null);
     }
-
-    public int getTotalPoints() {
-        return questions.stream()
-                .mapToInt(Question::getPoints)
-                .sum();
-    }
-
-    public int getQuestionCount() {
-        return questions.size();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.example.quizapp.quiz;
+
+//Published whenever a quiz or one of its questions is modified.
+//In-memory caches keyed by quiz id listen for it (after commit) and drop their entry.
+public record QuizChangedEvent(Long quizId) {
+}
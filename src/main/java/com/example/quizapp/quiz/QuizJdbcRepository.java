@@ -7,8 +7,11 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -113,6 +116,7 @@ public class QuizJdbcRepository {
     }
 
 //    Get quiz difficulty analysis
+//    Aggregates the game_answers fact rows by question - an index scan, no answers_json parsing
     public List<Map<String, Object>> getQuestionDifficultyAnalysis(Long quizId) {
         log.debug("Analyzing question difficulty for quiz: {}", quizId);
 
@@ -122,16 +126,35 @@ public class QuizJdbcRepository {
                     q.question_text,
                     q.question_type,
                     q.points,
-                    COUNT(CASE WHEN jsonb_array_element(gr.answers_json::jsonb, q.question_order - 1)->>'isCorrect' = 'true' 
-                               THEN 1 END) as correct_answers,
-                    COUNT(*) as total_answers,
-                    ROUND(100.0 * COUNT(CASE WHEN jsonb_array_element(gr.answers_json::jsonb, q.question_order - 1)->>'isCorrect' = 'true' 
-                                             THEN 1 END) / COUNT(*), 2) as success_rate
+                    COUNT(CASE WHEN ga.is_correct THEN 1 END) as correct_answers,
+                    COUNT(ga.question_id) as total_answers,
+                    ROUND(100.0 * COUNT(CASE WHEN ga.is_correct THEN 1 END) / NULLIF(COUNT(ga.question_id), 0), 2) as success_rate,
+                    COALESCE(SUM(ga.points), 0) as points_earned
                 FROM questions q
-                LEFT JOIN game_results gr ON q.quiz_id = gr.quiz_id AND gr.completed = true
-                WHERE q.quiz_id = ? AND q.active = true
+                LEFT JOIN game_answers ga ON ga.question_id = q.id
+                WHERE q.quiz_id = ? AND q.is_active = true
                 GROUP BY q.id, q.question_text, q.question_type, q.points, q.question_order
-                ORDER BY success_rate ASC
+                ORDER BY success_rate ASC NULLS LAST, q.question_order ASC
+                """;
+
+        return jdbcTemplate.queryForList(sql, quizId);
+    }
+
+//    Get how often each option of the single-pick questions was chosen
+    public List<Map<String, Object>> getAnswerDistribution(Long quizId) {
+        log.debug("Analyzing answer distribution for quiz: {}", quizId);
+
+        String sql = """
+                SELECT 
+                    ga.question_id,
+                    ga.chosen_option,
+                    COUNT(*) as times_chosen,
+                    ROUND(100.0 * COUNT(*) / SUM(COUNT(*)) OVER (PARTITION BY ga.question_id), 2) as share
+                FROM game_answers ga
+                JOIN questions q ON ga.question_id = q.id
+                WHERE q.quiz_id = ? AND q.is_active = true AND ga.chosen_option IS NOT NULL
+                GROUP BY ga.question_id, ga.chosen_option
+                ORDER BY ga.question_id, ga.chosen_option
                 """;
 
         return jdbcTemplate.queryForList(sql, quizId);
@@ -154,37 +177,54 @@ public class QuizJdbcRepository {
 
 
     //    Delete old incomplete game results (cleanup)
+//    Completed results are retired as whole monthly partitions (GameResultPartitions), not row by row
     public int deleteOldIncompleteResults(int daysOld) {
         log.info("Deleting incomplete game results older than {} days", daysOld);
 
         String sql = """
                 DELETE FROM game_results 
                 WHERE is_completed = false 
-                AND started_at < DATEADD('DAY', -?, CURRENT_TIMESTAMP)
+                AND started_at < ?
                 """;
 
-        return jdbcTemplate.update(sql, daysOld);
+        return jdbcTemplate.update(sql, Timestamp.valueOf(LocalDateTime.now().minusDays(daysOld)));
     }
 
-//    Get quiz activity by date range
-    public List<Map<String, Object>> getQuizActivityByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+//    Get quiz activity by date range (whole days, both inclusive)
+//    Reads the hourly rollup, whose cost grows with the number of hour buckets, and the daily players,
+//    whose cost grows with the player-days in the range (one row per player, quiz and day, not per bucket)
+    public List<Map<String, Object>> getQuizActivityByDateRange(LocalDate startDate, LocalDate endDate) {
         log.debug("Getting quiz activity from {} to {}", startDate, endDate);
 
         String sql = """
                 SELECT
-                    CAST(gr.completed_at AS DATE) AS com_date,
-                    COUNT(DISTINCT gr.quiz_id) AS quizzes_played,
-                    COUNT(*) AS total_games,
-                    COUNT(DISTINCT gr.player_id) AS unique_players,
-                    ROUND(AVG(gr.score), 2) AS avg_score
-                FROM game_results gr
-                WHERE gr.is_completed = true
-                  AND gr.completed_at BETWEEN ? AND ?
-                GROUP BY CAST(gr.completed_at AS DATE)
-                ORDER BY com_date DESC;
+                    h.com_date,
+                    h.quizzes_played,
+                    h.total_games,
+                    p.unique_players,
+                    h.avg_score
+                FROM (
+                    SELECT
+                        CAST(bucket AS DATE) AS com_date,
+                        COUNT(DISTINCT quiz_id) AS quizzes_played,
+                        SUM(games) AS total_games,
+                        ROUND(1.0 * SUM(score_sum) / SUM(games), 2) AS avg_score
+                    FROM activity_hourly
+                    WHERE bucket >= ? AND bucket < ?
+                    GROUP BY CAST(bucket AS DATE)
+                ) h
+                JOIN (
+                    SELECT play_date, COUNT(DISTINCT player_id) AS unique_players
+                    FROM activity_daily_players
+                    WHERE play_date BETWEEN ? AND ?
+                    GROUP BY play_date
+                ) p ON p.play_date = h.com_date
+                ORDER BY h.com_date DESC
                 """;
 
-        return jdbcTemplate.queryForList(sql, startDate, endDate);
+        return jdbcTemplate.queryForList(sql,
+                Timestamp.valueOf(startDate.atStartOfDay()), Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()),
+                Date.valueOf(startDate), Date.valueOf(endDate));
     }
 
 //    Find quizzes with no questions
@@ -5,13 +5,13 @@ import org.mapstruct.*;
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface QuizMapper {
 
-//    Convert Quiz entity to QuizDto
-    @Mapping(target = "questionCount", expression = "java(quiz.getQuestionCount())")
-    @Mapping(target = "totalPoints", expression = "java(quiz.getTotalPoints())")
+//    Convert Quiz entity to QuizDto, totals come from the stored columns and never load the questions
     QuizDto toDto(Quiz quiz);
 
 //    Convert QuizDto to Quiz entity
     @Mapping(target = "questions", ignore = true)
+    @Mapping(target = "questionCount", ignore = true)
+    @Mapping(target = "totalPoints", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Quiz toEntity(QuizDto quizDto);
@@ -19,6 +19,8 @@ public interface QuizMapper {
 //    Update Quiz entity from QuizDto
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "questions", ignore = true)
+    @Mapping(target = "questionCount", ignore = true)
+    @Mapping(target = "totalPoints", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     void updateEntityFromDto(QuizDto quizDto, @MappingTarget Quiz quiz);
@@ -0,0 +1,42 @@
+package com.example.quizapp.quiz;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Number of completed games of a quiz with a given score (histogram table quiz_score_counts).
+ *
+ * Scores are bounded by the quiz maximum, so the percentile of a score sums a few rows
+ * however many games were played.
+ */
+@Entity
+@Table(name = "quiz_score_counts")
+@IdClass(QuizScoreCount.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuizScoreCount {
+
+    @Id
+    @Column(name = "quiz_id")
+    private Long quizId;
+
+    @Id
+    @Column(name = "score")
+    private Integer score;
+
+    @Column(nullable = false)
+    private int games;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long quizId;
+        private Integer score;
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.quizapp.quiz;
 
 import com.example.quizapp.common.exception.QuizNotFoundException;
+import com.example.quizapp.search.QuizSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -18,6 +24,8 @@ public class QuizService {
 
     private final QuizRepository quizRepository;
     private final QuizMapper quizMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QuizSearchIndex quizSearchIndex;
 
 //    Get all active quizzes
     public List<QuizDto> getAllActiveQuizzes() {
@@ -69,6 +77,7 @@ public class QuizService {
 
         Quiz savedQuiz = quizRepository.save(quiz);
         log.info("Quiz created successfully with id: {}", savedQuiz.getId());
+        eventPublisher.publishEvent(new QuizChangedEvent(savedQuiz.getId()));
 
         return quizMapper.toDto(savedQuiz);
     }
@@ -99,6 +108,7 @@ public class QuizService {
 
         Quiz updatedQuiz = quizRepository.save(existingQuiz);
         log.info("Quiz updated successfully: {}", updatedQuiz.getTitle());
+        eventPublisher.publishEvent(new QuizChangedEvent(id));
 
         return quizMapper.toDto(updatedQuiz);
     }
@@ -113,6 +123,7 @@ public class QuizService {
         quiz.setActive(false);
         quizRepository.save(quiz);
         log.info("Quiz soft-deleted successfully: {}", quiz.getTitle());
+        eventPublisher.publishEvent(new QuizChangedEvent(id));
     }
 
 //    Permanently delete quiz
@@ -124,24 +135,41 @@ public class QuizService {
 
         quizRepository.deleteById(id);
         log.info("Quiz permanently deleted with id: {}", id);
+        eventPublisher.publishEvent(new QuizChangedEvent(id));
     }
 
-//    Search quizzes by title
+//    Search quizzes by keyword in title, description and questions, most relevant first
+//    Served by the search index, by a title LIKE query while the index is not built yet or the keyword has no words
     public List<QuizDto> searchQuizzes(String keyword) {
         log.info("Searching quizzes with keyword: {}", keyword);
-        List<Quiz> quizzes = quizRepository.searchByTitle(keyword);
-        log.debug("Found {} quizzes matching keyword: {}", quizzes.size(), keyword);
-        return quizzes.stream()
-                .map(quizMapper::toDto)
-                .toList();
+        if (!quizSearchIndex.isReady() || !QuizSearchIndex.hasWords(keyword)) {
+            List<Quiz> quizzes = quizRepository.searchByTitle(keyword);
+            log.debug("Found {} quizzes matching keyword: {}", quizzes.size(), keyword);
+            return quizzes.stream()
+                    .map(quizMapper::toDto)
+                    .toList();
+        }
+
+        List<Long> ids = quizSearchIndex.searchQuizzes(keyword);
+        log.debug("Found {} quizzes matching keyword: {}", ids.size(), keyword);
+        return findInOrder(ids);
     }
 
-//    Search quizzes by title with pagination
+//    Search quizzes with pagination, pages of the relevance order (the page sort only applies to the LIKE fallback)
     public Page<QuizDto> searchQuizzes(String keyword, Pageable pageable) {
         log.info("Searching quizzes with keyword: {} and pagination", keyword);
-        Page<Quiz> quizzes = quizRepository.searchByTitle(keyword, pageable);
-        log.debug("Found {} quizzes on page {}", quizzes.getNumberOfElements(), pageable.getPageNumber());
-        return quizzes.map(quizMapper::toDto);
+        if (!quizSearchIndex.isReady() || !QuizSearchIndex.hasWords(keyword)) {
+            Page<Quiz> quizzes = quizRepository.searchByTitle(keyword, pageable);
+            log.debug("Found {} quizzes on page {}", quizzes.getNumberOfElements(), pageable.getPageNumber());
+            return quizzes.map(quizMapper::toDto);
+        }
+
+        List<Long> ids = quizSearchIndex.searchQuizzes(keyword);
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<QuizDto> content = findInOrder(ids.subList(from, to));
+        log.debug("Found {} quizzes on page {}", content.size(), pageable.getPageNumber());
+        return new PageImpl<>(content, pageable, ids.size());
     }
 
 //    Get quizzes by creator
@@ -161,6 +189,17 @@ public class QuizService {
         return count;
     }
 
+//    Load quizzes in the given order, skipping ones deactivated since they were indexed
+    private List<QuizDto> findInOrder(List<Long> ids) {
+        Map<Long, Quiz> quizzes = quizRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Quiz::getId, Function.identity()));
+        return ids.stream()
+                .map(quizzes::get)
+                .filter(quiz -> quiz != null && quiz.isActive())
+                .map(quizMapper::toDto)
+                .toList();
+    }
+
     private Quiz quizExists(Long quizId) {
         return quizRepository.findById(quizId)
                 .orElseThrow(() -> {
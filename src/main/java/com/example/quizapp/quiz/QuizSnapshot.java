@@ -0,0 +1,178 @@
+package com.example.quizapp.quiz;
+
+import com.example.quizapp.question.AnswerModel;
+import com.example.quizapp.question.Question;
+import com.example.quizapp.question.QuestionDto;
+import com.example.quizapp.question.QuestionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, versioned copy of a quiz and its active questions, shared by all players.
+ *
+ * Answer options are taken from the question's AnswerModel and kept both parsed and as
+ * pre-encoded JSON values, so a per-player shuffle is an index permutation plus a string
+ * join - no entity access and no Jackson round trip per game. Correct answers are not
+ * part of the snapshot.
+ */
+@Getter
+@Slf4j
+public final class QuizSnapshot {
+
+    private final Long quizId;
+    private final long version;
+    private final String title;
+    private final String description;
+    private final boolean active;
+    private final boolean randomQuestionOrder;
+    private final boolean randomAnswerOrder;
+    private final Integer timeLimitMinutes;
+    private final boolean negativePointsEnabled;
+    private final boolean backButtonBlocked;
+    private final int totalPoints;
+
+//    Active questions in a stable order (question order, then id)
+    private final List<QuestionSnapshot> questions;
+
+    private QuizSnapshot(Quiz quiz, long version, List<QuestionSnapshot> questions) {
+        this.quizId = quiz.getId();
+        this.version = version;
+        this.title = quiz.getTitle();
+        this.description = quiz.getDescription();
+        this.active = quiz.isActive();
+        this.randomQuestionOrder = quiz.isRandomQuestionOrder();
+        this.randomAnswerOrder = quiz.isRandomAnswerOrder();
+        this.timeLimitMinutes = quiz.getTimeLimitMinutes();
+        this.negativePointsEnabled = quiz.isNegativePointsEnabled();
+        this.backButtonBlocked = quiz.isBackButtonBlocked();
+        this.totalPoints = quiz.getTotalPoints();
+        this.questions = questions;
+    }
+
+//    Build snapshot from a quiz with its questions loaded
+    public static QuizSnapshot of(Quiz quiz, long version, ObjectMapper objectMapper) {
+        List<QuestionSnapshot> questions = quiz.getQuestions().stream()
+                .filter(Question::isActive)
+                .sorted(Comparator.comparing(Question::getQuestionOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Question::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(question -> new QuestionSnapshot(question, quiz.getId(), objectMapper))
+                .toList();
+
+        return new QuizSnapshot(quiz, version, questions);
+    }
+
+    /**
+     * Question data sent to players. Options of choice questions are stored as
+     * JSON-encoded values so they can be reordered without re-serializing.
+     */
+    @Getter
+    public static final class QuestionSnapshot {
+        private final Long id;
+        private final Long quizId;
+        private final QuestionType questionType;
+        private final String questionText;
+        private final Integer points;
+        private final Integer negativePoints;
+        private final Integer questionOrder;
+        private final Integer timeLimitSeconds;
+        private final String answerOptions;
+        private final String explanation;
+        private final String imageUrl;
+
+//        Parsed options (matching pairs) in stored order, rendered by the game page
+        private final List<String> options;
+        private final List<AnswerModel.Pair> pairs;
+
+//        Encoded options of choice questions, empty when answer order can not be shuffled
+        private final List<String> encodedOptions;
+
+        private QuestionSnapshot(Question question, Long quizId, ObjectMapper objectMapper) {
+            this.id = question.getId();
+            this.quizId = quizId;
+            this.questionType = question.getQuestionType();
+            this.questionText = question.getQuestionText();
+            this.points = question.getPoints();
+            this.negativePoints = question.getNegativePoints();
+            this.questionOrder = question.getQuestionOrder();
+            this.timeLimitSeconds = question.getTimeLimitSeconds();
+            this.answerOptions = question.getAnswerOptions();
+            this.explanation = question.getExplanation();
+            this.imageUrl = question.getImageUrl();
+
+            AnswerModel answerModel = question.getAnswerModel();
+            this.options = answerModel.options();
+            this.pairs = answerModel.pairs();
+            this.encodedOptions = isShuffleable(questionType)
+                    ? encodeOptions(options, objectMapper)
+                    : List.of();
+        }
+
+//        True/False is rendered with fixed True/False buttons, so only real option lists are shuffled
+        public static boolean isShuffleable(QuestionType type) {
+            return type == QuestionType.SINGLE_CHOICE
+                    || type == QuestionType.MULTIPLE_CHOICE
+                    || type == QuestionType.DROPDOWN;
+        }
+
+        public int getOptionCount() {
+            return encodedOptions.size();
+        }
+
+//        New DTO for a player, options reordered by permutation (position -> original index) if given
+        public QuestionDto toDto(int[] permutation) {
+            return QuestionDto.builder()
+                    .id(id)
+                    .quizId(quizId)
+                    .questionType(questionType)
+                    .questionText(questionText)
+                    .points(points)
+                    .negativePoints(negativePoints)
+                    .questionOrder(questionOrder)
+                    .timeLimitSeconds(timeLimitSeconds)
+                    .answerOptions(permutation != null ? shuffledOptions(permutation) : answerOptions)
+                    .parsedOptions(permutation != null ? permute(options, permutation) : options)
+                    .matchingPairs(pairs)
+                    .explanation(explanation)
+                    .imageUrl(imageUrl)
+                    .active(true)
+                    .build();
+        }
+
+        private String shuffledOptions(int[] permutation) {
+            StringBuilder json = new StringBuilder(answerOptions != null ? answerOptions.length() + 2 : 16).append('[');
+            for (int i = 0; i < permutation.length; i++) {
+                if (i > 0) json.append(',');
+                json.append(encodedOptions.get(permutation[i]));
+            }
+            return json.append(']').toString();
+        }
+
+        private static List<String> permute(List<String> options, int[] permutation) {
+            String[] permuted = new String[permutation.length];
+            for (int i = 0; i < permutation.length; i++) {
+                permuted[i] = options.get(permutation[i]);
+            }
+            return Arrays.asList(permuted);
+        }
+
+        private List<String> encodeOptions(List<String> options, ObjectMapper objectMapper) {
+            if (options.isEmpty()) return List.of();
+            try {
+                String[] encoded = new String[options.size()];
+                for (int i = 0; i < encoded.length; i++) {
+                    encoded[i] = objectMapper.writeValueAsString(options.get(i));
+                }
+                return List.of(encoded);
+            } catch (JsonProcessingException e) {
+                log.warn("Could not encode answer options for question {}, they will not be shuffled", id);
+                return List.of();
+            }
+        }
+    }
+}
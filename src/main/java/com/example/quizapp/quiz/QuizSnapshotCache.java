@@ -0,0 +1,64 @@
+package com.example.quizapp.quiz;
+
+import com.example.quizapp.common.exception.QuizNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared QuizSnapshot per quiz id.
+ *
+ * The first game of a quiz loads it with its questions and builds the snapshot, later
+ * games reuse it until a QuizChangedEvent commits. Every build gets a new version, so
+ * running games can tell that the quiz they started with has changed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizSnapshotCache {
+
+    private final QuizRepository quizRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, QuizSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final AtomicLong versions = new AtomicLong();
+
+//    Get snapshot of quiz, loading it from the database if missing
+//    Concurrent first calls for the same quiz wait for a single load instead of each hitting the database
+    public QuizSnapshot getSnapshot(Long quizId) {
+        QuizSnapshot snapshot = snapshots.get(quizId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        return snapshots.computeIfAbsent(quizId, this::loadSnapshot);
+    }
+
+//    Drop cached snapshot of quiz, waits for a load of the same quiz that is in progress
+    public void invalidate(Long quizId) {
+        if (snapshots.remove(quizId) != null) {
+            log.debug("Snapshot of quiz {} invalidated", quizId);
+        }
+    }
+
+    private QuizSnapshot loadSnapshot(Long quizId) {
+        Quiz quiz = quizRepository.findByIdWithQuestions(quizId)
+                .orElseThrow(() -> new QuizNotFoundException(quizId));
+
+        QuizSnapshot snapshot = QuizSnapshot.of(quiz, versions.incrementAndGet(), objectMapper);
+        log.debug("Built snapshot of quiz {} (version {}, {} questions)",
+                quizId, snapshot.getVersion(), snapshot.getQuestions().size());
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuizChanged(QuizChangedEvent event) {
+        invalidate(event.quizId());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.quizapp.quiz;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Running aggregate of the completed games of a quiz, one row per quiz that was finished.
+ *
+ * Maintained at submit time with atomic SQL increments (QuizStatsJdbcRepository) in the same
+ * transaction as the result, so the quiz average and standard deviation are a single row
+ * lookup instead of an aggregate over all results of the quiz.
+ */
+@Entity
+@Table(name = "quiz_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuizStats {
+
+    @Id
+    @Column(name = "quiz_id")
+    private Long quizId;
+
+//    Completed games
+    @Column(nullable = false)
+    private int games;
+
+    @Column(name = "score_sum", nullable = false)
+    private long scoreSum;
+
+//    Sum of squared scores, for the standard deviation
+    @Column(name = "score_square_sum", nullable = false)
+    private long scoreSquareSum;
+
+    @Column(name = "percentage_sum", nullable = false)
+    private double percentageSum;
+}
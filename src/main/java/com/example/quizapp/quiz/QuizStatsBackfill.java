@@ -0,0 +1,47 @@
+package com.example.quizapp.quiz;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rebuilds quiz_stats and quiz_score_counts from game_results.
+ *
+ * Runs on startup when the tables are empty (fresh schema, existing data). The rebuild is a
+ * single transaction that replaces both tables, so it can be rerun at any time.
+ */
+@Component
+@Slf4j
+public class QuizStatsBackfill {
+
+    private final QuizStatsJdbcRepository quizStatsJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public QuizStatsBackfill(QuizStatsJdbcRepository quizStatsJdbcRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.quizStatsJdbcRepository = quizStatsJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (quizStatsJdbcRepository.isEmpty()) {
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            log.error("Quiz stats backfill failed, result comparisons fail until it is rerun", e);
+        }
+    }
+
+//    Rebuild the stats of all quizzes, returns the number of quizzes with stats
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        Integer quizzes = transactionTemplate.execute(status -> quizStatsJdbcRepository.rebuild());
+        log.info("Quiz stats rebuilt: {} quizzes, {} ms", quizzes, System.currentTimeMillis() - start);
+        return quizzes != null ? quizzes : 0;
+    }
+}
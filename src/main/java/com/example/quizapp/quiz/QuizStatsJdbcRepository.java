@@ -0,0 +1,134 @@
+package com.example.quizapp.quiz;
+
+import com.example.quizapp.common.util.BatchUpsert;
+import com.example.quizapp.game.GameResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class QuizStatsJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+//    Add stored results to the running aggregates and score histograms of their quizzes
+//    Results are summed per quiz (and score) first and rows are written in key order (see BatchUpsert)
+    public void recordResults(List<GameResult> results) {
+        Map<Long, QuizStats> quizzes = new TreeMap<>();
+        Map<QuizScoreCount.Key, QuizScoreCount> scores = new TreeMap<>(
+                (a, b) -> a.getQuizId().equals(b.getQuizId())
+                        ? Integer.compare(a.getScore(), b.getScore())
+                        : Long.compare(a.getQuizId(), b.getQuizId()));
+        for (GameResult result : results) {
+            if (!result.isCompleted()) {
+                continue;
+            }
+            Long quizId = result.getQuiz().getId();
+            long score = result.getScore();
+            QuizStats stats = quizzes.computeIfAbsent(quizId, id -> QuizStats.builder().quizId(id).build());
+            stats.setGames(stats.getGames() + 1);
+            stats.setScoreSum(stats.getScoreSum() + score);
+            stats.setScoreSquareSum(stats.getScoreSquareSum() + score * score);
+            stats.setPercentageSum(stats.getPercentageSum()
+                    + (result.getPercentageScore() != null ? result.getPercentageScore() : 0.0));
+
+            QuizScoreCount count = scores.computeIfAbsent(new QuizScoreCount.Key(quizId, result.getScore()),
+                    key -> QuizScoreCount.builder().quizId(key.getQuizId()).score(key.getScore()).build());
+            count.setGames(count.getGames() + 1);
+        }
+        if (quizzes.isEmpty()) {
+            return;
+        }
+        log.debug("Recording {} results in quiz stats of {} quizzes", results.size(), quizzes.size());
+
+        BatchUpsert.upsert(jdbcTemplate, new ArrayList<>(quizzes.values()), """
+                UPDATE quiz_stats
+                SET games = games + ?, score_sum = score_sum + ?, score_square_sum = score_square_sum + ?,
+                    percentage_sum = percentage_sum + ?
+                WHERE quiz_id = ?
+                """, (ps, row) -> {
+                    ps.setInt(1, row.getGames());
+                    ps.setLong(2, row.getScoreSum());
+                    ps.setLong(3, row.getScoreSquareSum());
+                    ps.setDouble(4, row.getPercentageSum());
+                    ps.setLong(5, row.getQuizId());
+                }, """
+                INSERT INTO quiz_stats (quiz_id, games, score_sum, score_square_sum, percentage_sum)
+                VALUES (?, 0, 0, 0, 0)
+                ON CONFLICT DO NOTHING
+                """, (ps, row) -> ps.setLong(1, row.getQuizId()));
+
+        BatchUpsert.upsert(jdbcTemplate, new ArrayList<>(scores.values()), """
+                UPDATE quiz_score_counts SET games = games + ? WHERE quiz_id = ? AND score = ?
+                """, (ps, row) -> {
+                    ps.setInt(1, row.getGames());
+                    ps.setLong(2, row.getQuizId());
+                    ps.setInt(3, row.getScore());
+                }, """
+                INSERT INTO quiz_score_counts (quiz_id, score, games)
+                VALUES (?, ?, 0)
+                ON CONFLICT DO NOTHING
+                """, (ps, row) -> {
+                    ps.setLong(1, row.getQuizId());
+                    ps.setInt(2, row.getScore());
+                });
+    }
+
+//    Completed games per active quiz that was played at least once
+    public Map<Long, Long> findPlayCounts() {
+        Map<Long, Long> plays = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT s.quiz_id, s.games
+                FROM quiz_stats s
+                JOIN quizzes q ON q.id = s.quiz_id
+                WHERE q.is_active = true
+                """, (RowCallbackHandler) rs -> plays.put(rs.getLong("quiz_id"), rs.getLong("games")));
+        return plays;
+    }
+
+//    Whether any quiz has stats, the tables are empty after a fresh schema
+    public boolean isEmpty() {
+        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM quiz_stats)", Boolean.class));
+    }
+
+//    Recompute the aggregates and histograms of all quizzes from their completed results
+//    Returns the number of quizzes with stats
+    public int rebuild() {
+        log.info("Rebuilding quiz stats");
+
+        jdbcTemplate.update("DELETE FROM quiz_score_counts");
+        jdbcTemplate.update("DELETE FROM quiz_stats");
+
+        jdbcTemplate.update("""
+                INSERT INTO quiz_score_counts (quiz_id, score, games)
+                SELECT quiz_id, score, COUNT(*)
+                FROM game_results
+                WHERE is_completed = true
+                GROUP BY quiz_id, score
+                """);
+
+        return jdbcTemplate.update("""
+                INSERT INTO quiz_stats (quiz_id, games, score_sum, score_square_sum, percentage_sum)
+                SELECT
+                    quiz_id,
+                    COUNT(*),
+                    SUM(score),
+                    SUM(CAST(score AS BIGINT) * score),
+                    COALESCE(SUM(percentage_score), 0)
+                FROM game_results
+                WHERE is_completed = true
+                GROUP BY quiz_id
+                """);
+    }
+}
@@ -17,6 +17,15 @@ public class GlobalRankingDto {
 
     private Integer totalGamesPlayed;
 
+    private Integer quizzesAttempted;
+
+//    Sum of percentage scores of all completed games, the global ranking order
+    private Double rankingPoints;
+
+    private Double averagePercentage;
+
+    private Double bestPercentage;
+
     private Integer lastScore;
 
     private String lastQuizTitle;
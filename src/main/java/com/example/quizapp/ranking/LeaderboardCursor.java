@@ -0,0 +1,45 @@
+package com.example.quizapp.ranking;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Continuation token of the keyset-paginated leaderboard.
+ *
+ * Holds the sort key (score, time, result id) of the last entry of a page; the next page
+ * starts right after it, so new results ranked above the cursor do not shift later pages.
+ * Clients get it as an opaque URL-safe string.
+ */
+record LeaderboardCursor(int score, Integer timeTakenSeconds, long resultId) {
+
+    static LeaderboardCursor of(LeaderboardEntry entry) {
+        return new LeaderboardCursor(entry.score(), entry.timeTakenSeconds(), entry.resultId());
+    }
+
+//    Parse token from a client, IllegalArgumentException if it was not issued by encode()
+    static LeaderboardCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid leaderboard cursor");
+            }
+            return new LeaderboardCursor(
+                    Integer.parseInt(parts[0]),
+                    parts[1].isEmpty() ? null : Integer.valueOf(parts[1]),
+                    Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and Base64 errors are IllegalArgumentExceptions too
+            throw new IllegalArgumentException("Invalid leaderboard cursor", e);
+        }
+    }
+
+    String encode() {
+        String key = score + ":" + (timeTakenSeconds != null ? timeTakenSeconds : "") + ":" + resultId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+//    Entry with only the sort key set, enough for LeaderboardEntry.ORDER
+    LeaderboardEntry toKey() {
+        return new LeaderboardEntry(resultId, 0, null, score, 0, null, 0, 0, 0, timeTakenSeconds, null);
+    }
+}
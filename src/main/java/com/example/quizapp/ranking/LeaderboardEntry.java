@@ -0,0 +1,52 @@
+package com.example.quizapp.ranking;
+
+import com.example.quizapp.game.GameResult;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+//Completed game result as kept in the leaderboard index - everything a RankingDto needs, no entity references
+public record LeaderboardEntry(
+        long resultId,
+        long playerId,
+        String playerNickname,
+        int score,
+        int maxScore,
+        Double percentageScore,
+        int correctAnswers,
+        int wrongAnswers,
+        int totalQuestions,
+        Integer timeTakenSeconds,
+        LocalDateTime completedAt
+) {
+
+//    Leaderboard order: score DESC, time ASC (missing time last), then older result first
+    public static final Comparator<LeaderboardEntry> ORDER = Comparator
+            .comparingInt(LeaderboardEntry::score).reversed()
+            .thenComparingInt(LeaderboardEntry::timeOrMax)
+            .thenComparingLong(LeaderboardEntry::resultId);
+
+    public static LeaderboardEntry of(GameResult result) {
+        return new LeaderboardEntry(
+                result.getId(),
+                result.getPlayer().getId(),
+                result.getPlayer().getNickname(),
+                result.getScore(),
+                result.getMaxScore(),
+                result.getPercentageScore(),
+                result.getCorrectAnswers(),
+                result.getWrongAnswers(),
+                result.getTotalQuestions(),
+                result.getTimeTakenSeconds(),
+                result.getCompletedAt()
+        );
+    }
+
+    public String grade() {
+        return GameResult.gradeFor(percentageScore);
+    }
+
+    private int timeOrMax() {
+        return timeTakenSeconds != null ? timeTakenSeconds : Integer.MAX_VALUE;
+    }
+}
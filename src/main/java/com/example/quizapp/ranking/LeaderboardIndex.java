@@ -0,0 +1,82 @@
+package com.example.quizapp.ranking;
+
+import com.example.quizapp.game.GameCompletedEvent;
+import com.example.quizapp.game.GameResultsRemovedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory leaderboards of all quizzes.
+ *
+ * Warmed from the database on startup with one streaming query; a quiz missing from the
+ * index (e.g. when warm-up failed) is loaded on first access. Every completed game is
+ * added incrementally once its transaction commits, so rankings never need to re-read
+ * and re-sort all results. Quizzes whose results of a month were removed with their
+ * partition are dropped from the index and reloaded on next access.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardIndex {
+
+    private final RankingJdbcRepository rankingJdbcRepository;
+
+    private final Map<Long, QuizLeaderboard> leaderboards = new ConcurrentHashMap<>();
+
+//    Get leaderboard of quiz, loading it from the database if it is not indexed yet
+    QuizLeaderboard getLeaderboard(Long quizId) {
+        QuizLeaderboard leaderboard = leaderboards.get(quizId);
+        if (leaderboard != null) {
+            return leaderboard;
+        }
+        return leaderboards.computeIfAbsent(quizId, this::loadLeaderboard);
+    }
+
+//    Add a finished game, adding the same result twice is a no-op
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameCompleted(GameCompletedEvent event) {
+        LeaderboardEntry entry = LeaderboardEntry.of(event.gameResult());
+        getLeaderboard(event.gameResult().getQuiz().getId()).add(entry);
+    }
+
+//    Forget the leaderboards of quizzes that lost results, they are reloaded on next access
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultsRemoved(GameResultsRemovedEvent event) {
+        event.quizIds().forEach(leaderboards::remove);
+        log.info("Evicted leaderboards of {} quizzes after removing results of {}", event.quizIds().size(), event.month());
+    }
+
+//    Build leaderboards of all quizzes with a single streaming query
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        Map<Long, QuizLeaderboard> loaded = new HashMap<>();
+
+        try {
+            rankingJdbcRepository.streamAllLeaderboards((quizId, entry) ->
+                    loaded.computeIfAbsent(quizId, id -> new QuizLeaderboard()).add(entry));
+        } catch (RuntimeException e) {
+            log.error("Leaderboard warm-up failed, leaderboards will be loaded on first use", e);
+            return;
+        }
+
+        // A quiz loaded on demand meanwhile already has every committed result, keep that one
+        loaded.forEach(leaderboards::putIfAbsent);
+        log.info("Leaderboard index warmed up: {} quizzes in {} ms", loaded.size(), System.currentTimeMillis() - start);
+    }
+
+    private QuizLeaderboard loadLeaderboard(Long quizId) {
+        QuizLeaderboard leaderboard = new QuizLeaderboard();
+        rankingJdbcRepository.streamLeaderboard(quizId, leaderboard::add);
+        log.debug("Loaded leaderboard of quiz {} with {} entries", quizId, leaderboard.size());
+        return leaderboard;
+    }
+}
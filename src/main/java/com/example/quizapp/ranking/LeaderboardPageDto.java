@@ -0,0 +1,26 @@
+package com.example.quizapp.ranking;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//One page of the keyset-paginated leaderboard, nextCursor is null on the last page
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardPageDto {
+    private Long quizId;
+
+    private List<RankingDto> rankings;
+
+//    1-based position of the first entry of the page
+    private Integer firstPosition;
+
+    private Integer totalEntries;
+
+    private String nextCursor;
+}
@@ -0,0 +1,217 @@
+package com.example.quizapp.ranking;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Leaderboard of a single quiz kept as an order-statistics tree.
+ *
+ * Entries live in a treap ordered by LeaderboardEntry.ORDER where every node knows the
+ * size of its subtree, so insert, rank-of-entry and select-by-position are O(log n) and
+ * a page of k entries costs O(log n + k). The best entry of every player is tracked next
+ * to the tree for rank-of-player queries.
+ */
+class QuizLeaderboard {
+
+    private static final class Node {
+        final LeaderboardEntry entry;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(LeaderboardEntry entry) {
+            this.entry = entry;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, LeaderboardEntry> bestByPlayer = new HashMap<>();
+    private Node root;
+
+//    Add entry, returns false if the same result is already indexed
+    boolean add(LeaderboardEntry entry) {
+        lock.writeLock().lock();
+        try {
+            if (contains(entry)) {
+                return false;
+            }
+            root = insert(root, new Node(entry));
+
+            LeaderboardEntry best = bestByPlayer.get(entry.playerId());
+            if (best == null || LeaderboardEntry.ORDER.compare(entry, best) < 0) {
+                bestByPlayer.put(entry.playerId(), entry);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+//    Entries at positions [from, from + count), 0-based
+    List<LeaderboardEntry> range(int from, int count) {
+        lock.readLock().lock();
+        try {
+            int to = (int) Math.min((long) from + count, size(root));
+            List<LeaderboardEntry> result = new ArrayList<>(Math.max(0, to - from));
+            if (from < to) {
+                collect(root, 0, from, to, result);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+//    Up to count entries ranked after the given key (keyset seek), from the top if the key is null
+//    The key only needs score, time and result id, it does not have to be in the leaderboard (anymore)
+    Slice after(LeaderboardEntry key, int count) {
+        lock.readLock().lock();
+        try {
+            int total = size(root);
+            int from = key != null ? countNotAfter(key) : 0;
+            int to = (int) Math.min((long) from + count, total);
+            List<LeaderboardEntry> result = new ArrayList<>(Math.max(0, to - from));
+            if (from < to) {
+                collect(root, 0, from, to, result);
+            }
+            return new Slice(result, from, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+//    Best entry of a player together with its 1-based position, null if the player has no result
+    RankedEntry bestOf(long playerId) {
+        lock.readLock().lock();
+        try {
+            LeaderboardEntry best = bestByPlayer.get(playerId);
+            return best != null ? new RankedEntry(best, countBefore(best) + 1, size(root)) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    record RankedEntry(LeaderboardEntry entry, int position, int total) {
+    }
+
+//    Entries of one page, from is the 0-based position of the first entry
+    record Slice(List<LeaderboardEntry> entries, int from, int total) {
+    }
+
+    private boolean contains(LeaderboardEntry entry) {
+        Node node = root;
+        while (node != null) {
+            int cmp = LeaderboardEntry.ORDER.compare(entry, node.entry);
+            if (cmp == 0) return true;
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+//    Number of entries ranked before the given one
+    private int countBefore(LeaderboardEntry entry) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = LeaderboardEntry.ORDER.compare(entry, node.entry);
+            if (cmp <= 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+//    Number of entries ranked before the given one or equal to it
+    private int countNotAfter(LeaderboardEntry key) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (LeaderboardEntry.ORDER.compare(key, node.entry) < 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    private static Node insert(Node node, Node created) {
+        if (node == null) {
+            return created;
+        }
+
+        if (LeaderboardEntry.ORDER.compare(created.entry, node.entry) < 0) {
+            node.left = insert(node.left, created);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, created);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+//    In-order walk that skips subtrees outside [from, to); offset is the position of the subtree's first entry
+    private static void collect(Node node, int offset, int from, int to, List<LeaderboardEntry> out) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+
+        int position = offset + size(node.left);
+        collect(node.left, offset, from, to, out);
+        if (position >= from && position < to) {
+            out.add(node.entry);
+        }
+        collect(node.right, position + 1, from, to, out);
+    }
+
+    private static void update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+}
@@ -7,11 +7,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -64,6 +64,52 @@ public class RankingController {
         return ResponseEntity.ok(rankings);
     }
 
+//    Get one page of the leaderboard
+    @GetMapping("/quiz/{quizId}/page")
+    @Operation(
+            summary = "Get leaderboard page",
+            description = "Retrieves one page of the quiz leaderboard, sorted by score and time. Pages are 0-based."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved leaderboard page"),
+            @ApiResponse(responseCode = "400", description = "Invalid page or size"),
+            @ApiResponse(responseCode = "404", description = "Quiz not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<RankingDto>> getLeaderboardPage(
+            @PathVariable @Parameter(description = "Quiz ID") Long quizId,
+            @RequestParam(defaultValue = "0") @Parameter(description = "Page number (0-based)") int page,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Page size") int size) {
+        log.info("GET /api/v1/rankings/quiz/{}/page - Getting page {} (size {})", quizId, page, size);
+
+        List<RankingDto> rankings = rankingService.getLeaderboardPage(quizId, page, size);
+        return ResponseEntity.ok(rankings);
+    }
+
+//    Get leaderboard page after a cursor
+    @GetMapping("/quiz/{quizId}/cursor")
+    @Operation(
+            summary = "Get leaderboard page by cursor",
+            description = "Retrieves the leaderboard page after the given cursor (first page without one). "
+                    + "Pass nextCursor of the response to get the following page; it is null on the last page. "
+                    + "Deep pages cost the same as the first one."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved leaderboard page"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or size"),
+            @ApiResponse(responseCode = "404", description = "Quiz not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<LeaderboardPageDto> getLeaderboardPageByCursor(
+            @PathVariable @Parameter(description = "Quiz ID") Long quizId,
+            @RequestParam(required = false) @Parameter(description = "nextCursor of the previous page") String after,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Page size") int size) {
+        log.info("GET /api/v1/rankings/quiz/{}/cursor - Getting page after {} (size {})", quizId, after, size);
+
+        LeaderboardPageDto page = rankingService.getLeaderboardPageAfter(quizId, after, size);
+        return ResponseEntity.ok(page);
+    }
+
 //    Get player's ranking position
     @GetMapping("/quiz/{quizId}/player/{playerId}")
     @Operation(
@@ -107,47 +153,50 @@ public class RankingController {
     @GetMapping("/quiz/{quizId}/export/csv")
     @Operation(
             summary = "Export rankings to CSV",
-            description = "Downloads quiz rankings as CSV file"
+            description = "Downloads quiz rankings as CSV file. Rows are streamed, so the download starts immediately even for large quizzes"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "CSV file generated successfully"),
             @ApiResponse(responseCode = "404", description = "Quiz not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<Resource> exportToCsv(
+    public ResponseEntity<StreamingResponseBody> exportToCsv(
             @PathVariable @Parameter(description = "Quiz ID") Long quizId) {
         log.info("GET /api/v1/rankings/quiz/{}/export/csv - Exporting to CSV", quizId);
 
-        Resource resource = rankingExportService.exportToCsv(quizId);
+        StreamingResponseBody body = rankingExportService.exportToCsv(quizId);
 
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType("text/csv"))
                 .header(HttpHeaders.CONTENT_DISPOSITION,
                         "attachment; filename=\"quiz_" + quizId + "_rankings.csv\"")
-                .body(resource);
+                .body(body);
     }
 
 //    Export rankings to PDF
     @GetMapping("/quiz/{quizId}/export/pdf")
     @Operation(
             summary = "Export rankings to PDF",
-            description = "Downloads quiz rankings as PDF file"
+            description = "Downloads quiz rankings as PDF file. Rows are streamed; use offset and limit to export a slice, e.g. limit=5000 for the top 5,000"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "PDF file generated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid offset or limit"),
             @ApiResponse(responseCode = "404", description = "Quiz not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<Resource> exportToPdf(
-            @PathVariable @Parameter(description = "Quiz ID") Long quizId) {
-        log.info("GET /api/v1/rankings/quiz/{}/export/pdf - Exporting to PDF", quizId);
+    public ResponseEntity<StreamingResponseBody> exportToPdf(
+            @PathVariable @Parameter(description = "Quiz ID") Long quizId,
+            @RequestParam(required = false) @Parameter(description = "Number of best entries to skip (0-based)") Integer offset,
+            @RequestParam(required = false) @Parameter(description = "Maximum number of entries (default all)") Integer limit) {
+        log.info("GET /api/v1/rankings/quiz/{}/export/pdf - Exporting to PDF (offset {}, limit {})", quizId, offset, limit);
 
-        Resource resource = rankingExportService.exportToPdf(quizId);
+        StreamingResponseBody body = rankingExportService.exportToPdf(quizId, offset, limit);
 
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_PDF)
                 .header(HttpHeaders.CONTENT_DISPOSITION,
                         "attachment; filename=\"quiz_" + quizId + "_rankings.pdf\"")
-                .body(resource);
+                .body(body);
     }
-}
\ No newline at end of file
+}
@@ -14,97 +14,112 @@ import com.itextpdf.layout.properties.UnitValue;
 import com.opencsv.CSVWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RankingExportService {
-    private final RankingService rankingService;
     private final QuizRepository quizRepository;
+    private final RankingJdbcRepository rankingJdbcRepository;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-//    Export rankings to CSV
-    public Resource exportToCsv(Long quizId) {
+//    Characters buffered before they are pushed to the response
+    private static final int CSV_BUFFER_SIZE = 16 * 1024;
+
+//    Table rows rendered to the PDF and released from memory at once
+    static final int PDF_FLUSH_ROWS = 100;
+
+//    Export rankings to CSV, streamed straight to the response
+//    The quiz is checked up front so a missing quiz still ends in a 404 before anything is written
+    public StreamingResponseBody exportToCsv(Long quizId) {
         log.info("Exporting rankings to CSV for quiz: {}", quizId);
 
         // Verify quiz exists
         quizRepository.findById(quizId)
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz not found with id: " + quizId));
 
-        // Get full leaderboard
-        List<RankingDto> rankings = rankingService.getFullLeaderboard(quizId);
-
-        try (StringWriter stringWriter = new StringWriter();
-             CSVWriter csvWriter = new CSVWriter(stringWriter)) {
-
-            // Write header
-            String[] header = {
-                    "Position", "Player", "Score", "Max Score", "Percentage",
-                    "Correct", "Wrong", "Total Questions", "Time (seconds)",
-                    "Grade", "Completed At"
-            };
-            csvWriter.writeNext(header);
-
-            // Write data
-            int position = 1;
-            for (RankingDto ranking : rankings) {
-                String[] data = {
-                        String.valueOf(position++),
-                        ranking.getPlayerNickname(),
-                        String.valueOf(ranking.getScore()),
-                        String.valueOf(ranking.getMaxScore()),
-                        String.format("%.2f%%", ranking.getPercentageScore()),
-                        String.valueOf(ranking.getCorrectAnswers()),
-                        String.valueOf(ranking.getWrongAnswers()),
-                        String.valueOf(ranking.getTotalQuestions()),
-                        ranking.getTimeTakenSeconds() != null ? String.valueOf(ranking.getTimeTakenSeconds()) : "N/A",
-                        ranking.getGrade(),
-                        ranking.getCompletedAt() != null ? ranking.getCompletedAt().format(DATE_FORMATTER) : "N/A"
-                };
-                csvWriter.writeNext(data);
-            }
+        return outputStream -> writeCsv(quizId, outputStream);
+    }
 
-            csvWriter.flush();
-            byte[] csvBytes = stringWriter.toString().getBytes(StandardCharsets.UTF_8);
+//    Write CSV rows one by one while they are read from a forward-only cursor
+//    Memory use does not depend on the size of the leaderboard
+    public void writeCsv(Long quizId, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), CSV_BUFFER_SIZE);
+        CSVWriter csvWriter = new CSVWriter(writer);
+
+        // Write header
+        String[] header = {
+                "Position", "Player", "Score", "Max Score", "Percentage",
+                "Correct", "Wrong", "Total Questions", "Time (seconds)",
+                "Grade", "Completed At"
+        };
+        csvWriter.writeNext(header);
+
+        // Write data
+        int[] position = {0};
+        rankingJdbcRepository.streamRankedLeaderboard(quizId, entry -> csvWriter.writeNext(new String[]{
+                String.valueOf(++position[0]),
+                entry.playerNickname(),
+                String.valueOf(entry.score()),
+                String.valueOf(entry.maxScore()),
+                String.format("%.2f%%", entry.percentageScore()),
+                String.valueOf(entry.correctAnswers()),
+                String.valueOf(entry.wrongAnswers()),
+                String.valueOf(entry.totalQuestions()),
+                entry.timeTakenSeconds() != null ? String.valueOf(entry.timeTakenSeconds()) : "N/A",
+                entry.grade(),
+                entry.completedAt() != null ? entry.completedAt().format(DATE_FORMATTER) : "N/A"
+        }));
+
+        // Flush only - the servlet container owns the response stream
+        csvWriter.flush();
+        if (csvWriter.checkError()) {
+            throw new IOException("Failed to write CSV export of quiz " + quizId);
+        }
 
-            log.info("CSV export completed for quiz {}. Size: {} bytes", quizId, csvBytes.length);
+        log.info("CSV export completed for quiz {}. Rows: {}", quizId, position[0]);
+    }
 
-            return new ByteArrayResource(csvBytes);
+//    Export rankings to PDF, streamed straight to the response
+//    offset skips the best entries (0-based), limit caps the number of rows (null = all), e.g. limit 5000 for "top 5,000"
+    public StreamingResponseBody exportToPdf(Long quizId, Integer offset, Integer limit) {
+        log.info("Exporting rankings to PDF for quiz: {} (offset {}, limit {})", quizId, offset, limit);
 
-        } catch (IOException e) {
-            log.error("Failed to export rankings to CSV", e);
-            throw new RuntimeException("Failed to export rankings to CSV", e);
+        if ((offset != null && offset < 0) || (limit != null && limit <= 0)) {
+            throw new IllegalArgumentException("Offset must be >= 0 and limit must be > 0");
         }
-    }
-
-//    Export rankings to PDF
-    public Resource exportToPdf(Long quizId) {
-        log.info("Exporting rankings to PDF for quiz: {}", quizId);
 
         // Verify quiz exists
         Quiz quiz = quizRepository.findById(quizId)
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz not found with id: " + quizId));
 
-        // Get full leaderboard
-        List<RankingDto> rankings = rankingService.getFullLeaderboard(quizId);
+        int from = offset != null ? offset : 0;
+        return outputStream -> writePdf(quiz, from, limit, outputStream);
+    }
+
+//    Write the PDF as a large table: rows are rendered and flushed in chunks of PDF_FLUSH_ROWS,
+//    so only the current chunk is kept in memory and the first pages reach the client early
+    public void writePdf(Quiz quiz, int offset, Integer limit, OutputStream outputStream) throws IOException {
+        Long quizId = quiz.getId();
+        long totalPlayers = rankingJdbcRepository.countCompletedResults(quizId);
 
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            PdfWriter writer = new PdfWriter(baos);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf);
+        PdfWriter writer = new PdfWriter(outputStream);
+        // The servlet container owns the response stream, closing the document must not close it
+        writer.setCloseStream(false);
 
+        try (Document document = new Document(new PdfDocument(writer))) {
             // Title
             Paragraph title = new Paragraph("Quiz Rankings: " + quiz.getTitle())
                     .setFontSize(18)
@@ -112,22 +127,28 @@ public class RankingExportService {
             document.add(title);
 
             // Subtitle with quiz info
+            long firstPosition = Math.min(offset + 1L, totalPlayers);
+            long lastPosition = limit != null ? Math.min((long) offset + limit, totalPlayers) : totalPlayers;
+            String range = firstPosition > 1 || lastPosition < totalPlayers
+                    ? String.format(" | Positions: %d-%d", firstPosition, lastPosition)
+                    : "";
             Paragraph subtitle = new Paragraph(
-                    String.format("Total Players: %d | Max Score: %d",
-                            rankings.size(),
-                            quiz.getTotalPoints())
+                    String.format("Total Players: %d | Max Score: %d%s",
+                            totalPlayers,
+                            quiz.getTotalPoints(),
+                            range)
             )
                     .setFontSize(12)
                     .setTextAlignment(TextAlignment.CENTER)
                     .setMarginBottom(20);
             document.add(subtitle);
 
-            // Create table
+            // Create table in large-table mode, it is added first and filled afterwards
             float[] columnWidths = {1, 3, 2, 2, 2, 2, 2, 2, 2, 2};
-            Table table = new Table(UnitValue.createPercentArray(columnWidths));
+            Table table = new Table(UnitValue.createPercentArray(columnWidths), true);
             table.setWidth(UnitValue.createPercentValue(100));
 
-            // Header
+            // Header (repeated on every page)
             String[] headers = {
                     "Pos", "Player", "Score", "Max", "%",
                     "Correct", "Wrong", "Total", "Time", "Grade"
@@ -135,25 +156,29 @@ public class RankingExportService {
             for (String header : headers) {
                 table.addHeaderCell(new Cell().add(new Paragraph(header)));
             }
+            document.add(table);
 
             // Data rows
-            int position = 1;
-            for (RankingDto ranking : rankings) {
-                table.addCell(new Cell().add(new Paragraph(String.valueOf(position++))));
-                table.addCell(new Cell().add(new Paragraph(ranking.getPlayerNickname())));
-                table.addCell(new Cell().add(new Paragraph(String.valueOf(ranking.getScore()))));
-                table.addCell(new Cell().add(new Paragraph(String.valueOf(ranking.getMaxScore()))));
-                table.addCell(new Cell().add(new Paragraph(String.format("%.1f%%", ranking.getPercentageScore()))));
-                table.addCell(new Cell().add(new Paragraph(String.valueOf(ranking.getCorrectAnswers()))));
-                table.addCell(new Cell().add(new Paragraph(String.valueOf(ranking.getWrongAnswers()))));
-                table.addCell(new Cell().add(new Paragraph(String.valueOf(ranking.getTotalQuestions()))));
+            int[] position = {offset};
+            rankingJdbcRepository.streamRankedLeaderboard(quizId, offset, limit, entry -> {
+                table.addCell(new Cell().add(new Paragraph(String.valueOf(++position[0]))));
+                table.addCell(new Cell().add(new Paragraph(entry.playerNickname())));
+                table.addCell(new Cell().add(new Paragraph(String.valueOf(entry.score()))));
+                table.addCell(new Cell().add(new Paragraph(String.valueOf(entry.maxScore()))));
+                table.addCell(new Cell().add(new Paragraph(String.format("%.1f%%", entry.percentageScore()))));
+                table.addCell(new Cell().add(new Paragraph(String.valueOf(entry.correctAnswers()))));
+                table.addCell(new Cell().add(new Paragraph(String.valueOf(entry.wrongAnswers()))));
+                table.addCell(new Cell().add(new Paragraph(String.valueOf(entry.totalQuestions()))));
                 table.addCell(new Cell().add(new Paragraph(
-                        ranking.getTimeTakenSeconds() != null ? ranking.getTimeTakenSeconds() + "s" : "N/A"
+                        entry.timeTakenSeconds() != null ? entry.timeTakenSeconds() + "s" : "N/A"
                 )));
-                table.addCell(new Cell().add(new Paragraph(ranking.getGrade())));
-            }
+                table.addCell(new Cell().add(new Paragraph(entry.grade())));
 
-            document.add(table);
+                if ((position[0] - offset) % PDF_FLUSH_ROWS == 0) {
+                    table.flush();
+                }
+            });
+            table.complete();
 
             // Footer
             Paragraph footer = new Paragraph("Generated on: " +
@@ -163,16 +188,10 @@ public class RankingExportService {
                     .setMarginTop(20);
             document.add(footer);
 
-            document.close();
-
-            byte[] pdfBytes = baos.toByteArray();
-            log.info("PDF export completed for quiz {}. Size: {} bytes", quizId, pdfBytes.length);
-
-            return new ByteArrayResource(pdfBytes);
-
-        } catch (Exception e) {
+            log.info("PDF export completed for quiz {}. Rows: {}", quizId, position[0] - offset);
+        } catch (RuntimeException e) {
             log.error("Failed to export rankings to PDF", e);
-            throw new RuntimeException("Failed to export rankings to PDF", e);
+            throw new IOException("Failed to export rankings to PDF", e);
         }
     }
-}
\ No newline at end of file
+}
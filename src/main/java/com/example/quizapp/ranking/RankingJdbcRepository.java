@@ -0,0 +1,133 @@
+package com.example.quizapp.ranking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class RankingJdbcRepository {
+
+//    Rows fetched per round trip while streaming, keeps memory flat for large quizzes
+    static final int FETCH_SIZE = 1000;
+
+    private static final String LEADERBOARD_COLUMNS = """
+                SELECT
+                    gr.id,
+                    gr.quiz_id,
+                    gr.player_id,
+                    p.nickname,
+                    gr.score,
+                    gr.max_score,
+                    gr.percentage_score,
+                    gr.correct_answers,
+                    gr.wrong_answers,
+                    gr.total_questions,
+                    gr.time_taken_seconds,
+                    gr.completed_at
+                FROM game_results gr
+                JOIN players p ON gr.player_id = p.id
+                """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+//    Stream completed results of one quiz row by row (forward-only cursor)
+//    Runs in a read-only transaction, PostgreSQL only honours the fetch size with autocommit off
+    @Transactional(readOnly = true)
+    public void streamLeaderboard(Long quizId, Consumer<LeaderboardEntry> consumer) {
+        log.debug("Streaming leaderboard entries for quiz: {}", quizId);
+
+        String sql = LEADERBOARD_COLUMNS + "WHERE gr.quiz_id = ? AND gr.is_completed = true";
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setLong(1, quizId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapEntry(rs)));
+    }
+
+//    Stream completed results of one quiz in leaderboard order (same order as LeaderboardEntry.ORDER)
+//    Served by idx_game_results_leaderboard, so PostgreSQL can return rows without sorting the whole quiz first
+    @Transactional(readOnly = true)
+    public void streamRankedLeaderboard(Long quizId, Consumer<LeaderboardEntry> consumer) {
+        streamRankedLeaderboard(quizId, 0, null, consumer);
+    }
+
+//    Stream a slice of the leaderboard: skip the first offset entries, then at most limit entries (null = all)
+    @Transactional(readOnly = true)
+    public void streamRankedLeaderboard(Long quizId, int offset, Integer limit, Consumer<LeaderboardEntry> consumer) {
+        log.debug("Streaming ranked leaderboard for quiz: {} (offset {}, limit {})", quizId, offset, limit);
+
+        String sql = LEADERBOARD_COLUMNS + """
+                WHERE gr.quiz_id = ? AND gr.is_completed = true
+                ORDER BY gr.score DESC, gr.time_taken_seconds ASC NULLS LAST, gr.id ASC
+                """ + (limit != null ? "LIMIT ? " : "") + "OFFSET ?";
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            int index = 1;
+            ps.setLong(index++, quizId);
+            if (limit != null) {
+                ps.setInt(index++, limit);
+            }
+            ps.setInt(index, offset);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapEntry(rs)));
+    }
+
+//    Number of completed results of a quiz
+    public long countCompletedResults(Long quizId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM game_results WHERE quiz_id = ? AND is_completed = true",
+                Long.class, quizId);
+        return count != null ? count : 0;
+    }
+
+//    Stream completed results of all quizzes, grouped by quiz (used to warm the leaderboard index)
+    @Transactional(readOnly = true)
+    public void streamAllLeaderboards(LeaderboardRowHandler handler) {
+        log.debug("Streaming leaderboard entries for all quizzes");
+
+        String sql = LEADERBOARD_COLUMNS + "WHERE gr.is_completed = true ORDER BY gr.quiz_id";
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> handler.accept(rs.getLong("quiz_id"), mapEntry(rs)));
+    }
+
+    @FunctionalInterface
+    public interface LeaderboardRowHandler {
+        void accept(long quizId, LeaderboardEntry entry);
+    }
+
+    private static LeaderboardEntry mapEntry(ResultSet rs) throws SQLException {
+        Timestamp completedAt = rs.getTimestamp("completed_at");
+        return new LeaderboardEntry(
+                rs.getLong("id"),
+                rs.getLong("player_id"),
+                rs.getString("nickname"),
+                rs.getInt("score"),
+                rs.getInt("max_score"),
+                rs.getObject("percentage_score", Double.class),
+                rs.getInt("correct_answers"),
+                rs.getInt("wrong_answers"),
+                rs.getInt("total_questions"),
+                rs.getObject("time_taken_seconds", Integer.class),
+                completedAt != null ? completedAt.toLocalDateTime() : null
+        );
+    }
+}
@@ -2,8 +2,8 @@ package com.example.quizapp.ranking;
 
 import com.example.quizapp.common.exception.QuizNotFoundException;
 import com.example.quizapp.common.exception.ResourceNotFoundException;
-import com.example.quizapp.game.GameResult;
-import com.example.quizapp.game.GameResultRepository;
+import com.example.quizapp.player.PlayerStatsRepository;
+import com.example.quizapp.player.PlayerStatsSummary;
 import com.example.quizapp.quiz.Quiz;
 import com.example.quizapp.quiz.QuizRepository;
 import lombok.RequiredArgsConstructor;
@@ -14,7 +14,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.SequencedCollection;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,8 +21,9 @@ import java.util.stream.Collectors;
 @Slf4j
 @Transactional(readOnly = true)
 public class RankingService {
-    private final GameResultRepository gameResultRepository;
+    private final PlayerStatsRepository playerStatsRepository;
     private final QuizRepository quizRepository;
+    private final LeaderboardIndex leaderboardIndex;
 
 /*
     Get top rankings for a quiz (leaderboard)
@@ -37,14 +37,13 @@ public class RankingService {
         Quiz quiz = quizExists(quizId);
 
         int resultLimit = limit != null && limit > 0 ? limit : 10;
-        Pageable pageable = PageRequest.of(0, resultLimit);
 
-        List<GameResult> topResults = gameResultRepository.findTopScoresByQuizId(quizId, pageable);
+        List<LeaderboardEntry> topResults = leaderboardIndex.getLeaderboard(quizId).range(0, resultLimit);
 
         log.debug("Found {} top results for quiz {}", topResults.size(), quizId);
 
         return topResults.stream()
-                .map(result -> mapToRankingDto(result, quiz))
+                .map(entry -> mapToRankingDto(entry, quiz))
                 .collect(Collectors.toList());
     }
 
@@ -54,7 +53,7 @@ public class RankingService {
 
         Quiz quiz = quizExists(quizId);
 
-        List<GameResult> results = getRankings(quizId);
+        List<LeaderboardEntry> results = leaderboardIndex.getLeaderboard(quizId).range(0, Integer.MAX_VALUE);
 
         log.debug("Found {} total results for quiz {}", results.size(), quizId);
 
@@ -63,48 +62,80 @@ public class RankingService {
                 .collect(Collectors.toList());
     }
 
-//    Get player's ranking position for a specific quiz
-    public RankingPositionDto getPlayerRanking(Long quizId, Long playerId) {
-        log.info("Getting ranking position for player {} in quiz {}", playerId, quizId);
+//    Get one page of the leaderboard (0-based page number)
+    public List<RankingDto> getLeaderboardPage(Long quizId, int page, int size) {
+        log.info("Getting leaderboard page {} (size {}) for quiz: {}", page, size, quizId);
+
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Page must be >= 0 and size must be >= 1");
+        }
 
         Quiz quiz = quizExists(quizId);
 
-        // Get all results for the quiz
-        List<GameResult> allResults = getRankings(quizId);
+        long from = (long) page * size;
+        if (from > Integer.MAX_VALUE) {
+            return List.of();
+        }
 
-        // Find player's results
-        List<GameResult> playerResults = allResults.stream()
-                .filter(r -> r.getPlayer().getId().equals(playerId))
+        return leaderboardIndex.getLeaderboard(quizId).range((int) from, size).stream()
+                .map(entry -> mapToRankingDto(entry, quiz))
                 .collect(Collectors.toList());
+    }
 
-        if (playerResults.isEmpty()) {
-            throw new ResourceNotFoundException("No results found for player " + playerId + " in quiz " + quizId);
+//    Get the page after a cursor (keyset pagination), the first page if the cursor is null
+//    Every page costs the same, it seeks to the cursor instead of counting through the entries before it
+    public LeaderboardPageDto getLeaderboardPageAfter(Long quizId, String cursor, int size) {
+        log.info("Getting leaderboard page after cursor {} (size {}) for quiz: {}", cursor, size, quizId);
+
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be >= 1");
         }
+        LeaderboardEntry after = cursor != null && !cursor.isBlank() ? LeaderboardCursor.decode(cursor).toKey() : null;
+
+        Quiz quiz = quizExists(quizId);
+
+        QuizLeaderboard.Slice slice = leaderboardIndex.getLeaderboard(quizId).after(after, size);
+        List<LeaderboardEntry> entries = slice.entries();
+
+        boolean hasMore = slice.from() + entries.size() < slice.total();
+        return LeaderboardPageDto.builder()
+                .quizId(quizId)
+                .rankings(entries.stream()
+                        .map(entry -> mapToRankingDto(entry, quiz))
+                        .collect(Collectors.toList()))
+                .firstPosition(slice.from() + 1)
+                .totalEntries(slice.total())
+                .nextCursor(hasMore ? LeaderboardCursor.of(entries.get(entries.size() - 1)).encode() : null)
+                .build();
+    }
+
+//    Get player's ranking position for a specific quiz
+    public RankingPositionDto getPlayerRanking(Long quizId, Long playerId) {
+        log.info("Getting ranking position for player {} in quiz {}", playerId, quizId);
+
+        Quiz quiz = quizExists(quizId);
 
-        // Get best result
-        GameResult bestResult = playerResults.get(0);
+        // Player's best result and its position in overall ranking
+        QuizLeaderboard.RankedEntry ranked = leaderboardIndex.getLeaderboard(quizId).bestOf(playerId);
 
-        // Find position in overall ranking
-        int position = 0;
-        for (int i = 0; i < allResults.size(); i++) {
-            if (allResults.get(i).getId().equals(bestResult.getId())) {
-                position = i + 1;
-                break;
-            }
+        if (ranked == null) {
+            throw new ResourceNotFoundException("No results found for player " + playerId + " in quiz " + quizId);
         }
 
+        LeaderboardEntry bestResult = ranked.entry();
+
         return RankingPositionDto.builder()
                 .playerId(playerId)
-                .playerNickname(bestResult.getPlayer().getNickname())
+                .playerNickname(bestResult.playerNickname())
                 .quizId(quizId)
                 .quizTitle(quiz.getTitle())
-                .position(position)
-                .totalPlayers(allResults.size())
-                .score(bestResult.getScore())
-                .maxScore(bestResult.getMaxScore())
-                .percentageScore(bestResult.getPercentageScore())
-                .timeTakenSeconds(bestResult.getTimeTakenSeconds())
-                .completedAt(bestResult.getCompletedAt())
+                .position(ranked.position())
+                .totalPlayers(ranked.total())
+                .score(bestResult.score())
+                .maxScore(bestResult.maxScore())
+                .percentageScore(bestResult.percentageScore())
+                .timeTakenSeconds(bestResult.timeTakenSeconds())
+                .completedAt(bestResult.completedAt())
                 .build();
     }
 
@@ -115,60 +146,49 @@ public class RankingService {
         int resultLimit = limit != null && limit > 0 ? limit : 10;
         Pageable pageable = PageRequest.of(0, resultLimit);
 
-        // Get recent results and group by player
-        List<GameResult> recentResults = gameResultRepository.findRecentResults(pageable);
-
-        // This is a simplified version - in production, you'd want more sophisticated logic
-        return recentResults.stream()
+        // Ranked by the sum of percentage scores, read from the per-player aggregate (covering index, no GROUP BY)
+        return playerStatsRepository.findTopRanked(pageable).stream()
                 .map(this::mapToGlobalRankingDto)
                 .collect(Collectors.toList());
     }
 
-//    Map GameResult to RankingDto
-    private RankingDto mapToRankingDto(GameResult result, Quiz quiz) {
+//    Map leaderboard entry to RankingDto
+    private RankingDto mapToRankingDto(LeaderboardEntry entry, Quiz quiz) {
         return RankingDto.builder()
-                .playerNickname(result.getPlayer().getNickname())
-                .score(result.getScore())
-                .maxScore(result.getMaxScore())
-                .percentageScore(result.getPercentageScore())
-                .correctAnswers(result.getCorrectAnswers())
-                .wrongAnswers(result.getWrongAnswers())
-                .totalQuestions(result.getTotalQuestions())
-                .timeTakenSeconds(result.getTimeTakenSeconds())
-                .grade(result.getGrade())
-                .completedAt(result.getCompletedAt())
+                .playerNickname(entry.playerNickname())
+                .score(entry.score())
+                .maxScore(entry.maxScore())
+                .percentageScore(entry.percentageScore())
+                .correctAnswers(entry.correctAnswers())
+                .wrongAnswers(entry.wrongAnswers())
+                .totalQuestions(entry.totalQuestions())
+                .timeTakenSeconds(entry.timeTakenSeconds())
+                .grade(entry.grade())
+                .completedAt(entry.completedAt())
                 .quizTitle(quiz.getTitle())
                 .build();
     }
 
-//    Map GameResult to GlobalRankingDto
-    private GlobalRankingDto mapToGlobalRankingDto(GameResult result) {
+//    Map player aggregate to GlobalRankingDto
+    private GlobalRankingDto mapToGlobalRankingDto(PlayerStatsSummary stats) {
         return GlobalRankingDto.builder()
-                .playerNickname(result.getPlayer().getNickname())
-                .totalGamesPlayed(result.getPlayer().getGamesPlayed())
-                .lastScore(result.getScore())
-                .lastQuizTitle(result.getQuiz().getTitle())
-                .lastPlayedAt(result.getCompletedAt())
+                .playerNickname(stats.playerNickname())
+                .totalGamesPlayed(stats.totalGames())
+                .quizzesAttempted(stats.quizzesAttempted())
+                .rankingPoints(round(stats.percentageSum()))
+                .averagePercentage(round(stats.percentageSum() / Math.max(1, stats.totalGames())))
+                .bestPercentage(round(stats.bestPercentage()))
+                .lastScore(stats.lastScore())
+                .lastQuizTitle(stats.lastQuizTitle())
+                .lastPlayedAt(stats.lastPlayedAt())
                 .build();
     }
 
-//    Helpers
-    private List<GameResult> getRankings(long quizId) {
-        List<GameResult> results = gameResultRepository.findByQuizIdAndCompletedTrue(quizId);
-
-        // Sort by score DESC, then by time ASC
-        results.sort((r1, r2) -> {
-            int scoreCompare = Integer.compare(r2.getScore(), r1.getScore());
-            if (scoreCompare != 0) return scoreCompare;
-
-            Integer time1 = r1.getTimeTakenSeconds() != null ? r1.getTimeTakenSeconds() : Integer.MAX_VALUE;
-            Integer time2 = r2.getTimeTakenSeconds() != null ? r2.getTimeTakenSeconds() : Integer.MAX_VALUE;
-            return Integer.compare(time1, time2);
-        });
-
-        return results;
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
     }
 
+//    Helpers
     private Quiz quizExists(Long quizId) {
         return quizRepository.findById(quizId)
                 .orElseThrow(() -> new QuizNotFoundException(quizId));
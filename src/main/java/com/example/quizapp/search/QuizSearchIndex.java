@@ -0,0 +1,176 @@
+package com.example.quizapp.search;
+
+import com.example.quizapp.quiz.QuizChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Full-text search over active quizzes (title, description) and active questions.
+ *
+ * Built from the database on startup with two streaming queries and updated per quiz once
+ * a QuizChangedEvent commits. Until the first build has finished isReady() is false and
+ * callers fall back to their database queries. A quiz also matches through its questions,
+ * at a share of the question's score.
+ */
+@Component
+@Slf4j
+public class QuizSearchIndex {
+
+    static final int TITLE_WEIGHT = 3;
+    static final int DESCRIPTION_WEIGHT = 1;
+    static final int QUESTION_WEIGHT = 1;
+
+//    Share of a question match that counts for its quiz
+    static final float QUESTION_MATCH_SHARE = 0.5f;
+
+    private record Indexes(TextIndex quizzes, TextIndex questions) {
+    }
+
+    private final SearchJdbcRepository searchJdbcRepository;
+    private final boolean enabled;
+    private final int maxResults;
+
+    private volatile Indexes indexes = new Indexes(new TextIndex(), new TextIndex());
+    private volatile boolean ready;
+
+    // Quizzes changed while a rebuild is loading, guarded by this
+    private Set<Long> changedDuringRebuild;
+
+    public QuizSearchIndex(SearchJdbcRepository searchJdbcRepository,
+                           @Value("${app.search.enabled:true}") boolean enabled,
+                           @Value("${app.search.max-results:1000}") int maxResults) {
+        this.searchJdbcRepository = searchJdbcRepository;
+        this.enabled = enabled;
+        this.maxResults = maxResults;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+//    Whether the keyword has a word to look up, the index matches nothing for blank or punctuation-only
+//    keywords, so callers answer those with their LIKE query like before the index was built
+    public static boolean hasWords(String keyword) {
+        return !TextIndex.tokenize(keyword).isEmpty();
+    }
+
+//    Ids of active quizzes matching every word of the keyword, most relevant first (at most max-results)
+    public List<Long> searchQuizzes(String keyword) {
+        Indexes current = indexes;
+        Map<Long, Float> scores = new HashMap<>();
+        for (TextIndex.Hit hit : current.quizzes().search(keyword, TextIndex.NO_GROUP, maxResults)) {
+            scores.put(hit.id(), hit.score());
+        }
+        for (TextIndex.Hit hit : current.questions().search(keyword, TextIndex.NO_GROUP, maxResults)) {
+            if (current.quizzes().contains(hit.group())) {
+                scores.merge(hit.group(), hit.score() * QUESTION_MATCH_SHARE, Math::max);
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(maxResults)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+//    Ids of active questions of a quiz matching every word of the keyword, most relevant first
+    public List<Long> searchQuestions(Long quizId, String keyword) {
+        return indexes.questions().search(keyword, quizId, maxResults).stream()
+                .map(TextIndex.Hit::id)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Search index build failed, searches use the database until it is rebuilt", e);
+        }
+    }
+
+//    Build both indexes from the database and swap them in, returns the number of indexed quizzes
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changedDuringRebuild = new HashSet<>();
+        }
+
+        Indexes rebuilt = new Indexes(new TextIndex(), new TextIndex());
+        try {
+            searchJdbcRepository.streamQuizzes(quiz -> indexQuiz(rebuilt, quiz));
+            searchJdbcRepository.streamQuestions(question -> indexQuestion(rebuilt, question));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            // Changes committed while loading may or may not be in what was read, load them again
+            Set<Long> changed = changedDuringRebuild;
+            changedDuringRebuild = null;
+            indexes = rebuilt;
+            changed.forEach(this::reindexQuiz);
+            ready = true;
+        }
+        log.info("Search index built: {} quizzes, {} questions in {} ms",
+                rebuilt.quizzes().size(), rebuilt.questions().size(), System.currentTimeMillis() - start);
+        return rebuilt.quizzes().size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuizChanged(QuizChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reindexQuiz(event.quizId());
+        } catch (RuntimeException e) {
+            log.error("Reindexing quiz {} failed, search may show stale results until the next rebuild", event.quizId(), e);
+        }
+    }
+
+//    Replace the quiz and its questions with their committed state, an inactive or deleted quiz is removed
+    synchronized void reindexQuiz(Long quizId) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(quizId);
+        }
+        Indexes current = indexes;
+        searchJdbcRepository.findQuiz(quizId).ifPresentOrElse(
+                quiz -> indexQuiz(current, quiz),
+                () -> current.quizzes().remove(quizId));
+
+        current.questions().removeGroup(quizId);
+        searchJdbcRepository.findQuestions(quizId, question -> indexQuestion(current, question));
+        log.debug("Reindexed quiz {}", quizId);
+    }
+
+    private static void indexQuiz(Indexes target, SearchJdbcRepository.QuizText quiz) {
+        target.quizzes().put(quiz.id(), quiz.id(),
+                new TextIndex.Field(quiz.title(), TITLE_WEIGHT),
+                new TextIndex.Field(quiz.description(), DESCRIPTION_WEIGHT));
+    }
+
+    private static void indexQuestion(Indexes target, SearchJdbcRepository.QuestionText question) {
+        target.questions().put(question.id(), question.quizId(),
+                new TextIndex.Field(question.text(), QUESTION_WEIGHT));
+    }
+}
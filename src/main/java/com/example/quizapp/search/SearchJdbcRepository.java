@@ -0,0 +1,72 @@
+package com.example.quizapp.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class SearchJdbcRepository {
+
+//    Rows fetched per round trip while streaming all documents
+    static final int FETCH_SIZE = 1000;
+
+    private static final String QUIZ_COLUMNS = "SELECT id, title, description FROM quizzes WHERE is_active = true";
+
+    private static final String QUESTION_COLUMNS = "SELECT id, quiz_id, question_text FROM questions WHERE is_active = true";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    record QuizText(long id, String title, String description) {
+    }
+
+    record QuestionText(long id, long quizId, String text) {
+    }
+
+//    Stream searchable text of all active quizzes (forward-only cursor)
+    @Transactional(readOnly = true)
+    public void streamQuizzes(Consumer<QuizText> consumer) {
+        stream(QUIZ_COLUMNS, rs -> consumer.accept(
+                new QuizText(rs.getLong("id"), rs.getString("title"), rs.getString("description"))));
+    }
+
+//    Stream text of all active questions (forward-only cursor)
+    @Transactional(readOnly = true)
+    public void streamQuestions(Consumer<QuestionText> consumer) {
+        stream(QUESTION_COLUMNS, rs -> consumer.accept(
+                new QuestionText(rs.getLong("id"), rs.getLong("quiz_id"), rs.getString("question_text"))));
+    }
+
+//    Searchable text of one quiz, empty if it does not exist or is inactive
+    public Optional<QuizText> findQuiz(Long quizId) {
+        return jdbcTemplate.query(QUIZ_COLUMNS + " AND id = ?",
+                (rs, rowNum) -> new QuizText(rs.getLong("id"), rs.getString("title"), rs.getString("description")),
+                quizId).stream().findFirst();
+    }
+
+//    Text of the active questions of one quiz
+    public void findQuestions(Long quizId, Consumer<QuestionText> consumer) {
+        jdbcTemplate.query(QUESTION_COLUMNS + " AND quiz_id = ?",
+                (RowCallbackHandler) rs -> consumer.accept(
+                        new QuestionText(rs.getLong("id"), rs.getLong("quiz_id"), rs.getString("question_text"))),
+                quizId);
+    }
+
+    private void stream(String sql, RowCallbackHandler handler) {
+        log.debug("Streaming search documents: {}", sql);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, handler);
+    }
+}
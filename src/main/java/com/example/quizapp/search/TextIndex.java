@@ -0,0 +1,607 @@
+package com.example.quizapp.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of short text documents.
+ *
+ * Every document has an id, a group (e.g. the quiz of a question) and weighted fields.
+ * Terms map to postings of document ordinals and field weights kept in int arrays, and
+ * every term is also listed under the trigrams of its padded form ("$java$"), so query
+ * tokens match exact terms, prefixes, substrings and terms one or two edits away without
+ * scanning the vocabulary. Documents are ranked by a BM25-like sum over query tokens; all
+ * tokens have to match.
+ *
+ * Updates append a new ordinal and mark the old one deleted, postings stay sorted by
+ * ordinal; once deleted ordinals outnumber live ones the postings are compacted.
+ */
+class TextIndex {
+
+    static final long NO_GROUP = Long.MIN_VALUE;
+
+    private static final int MAX_QUERY_TOKENS = 8;
+    private static final int MAX_EXPANSIONS = 64;
+    private static final int MIN_COMPACT = 1024;
+    private static final float SATURATION = 1.2f;
+
+    record Field(String text, int weight) {
+    }
+
+    record Hit(long id, long group, float score) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // terms
+    private final NavigableMap<String, Integer> termIds = new TreeMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final List<Postings> postings = new ArrayList<>();
+    private final Map<Long, IntList> termsByTrigram = new HashMap<>();
+
+    // documents by ordinal
+    private long[] ids = new long[64];
+    private long[] groups = new long[64];
+    private boolean[] deleted = new boolean[64];
+    private int ordinals;
+    private int deletedCount;
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final Map<Long, IntList> ordinalsByGroup = new HashMap<>();
+
+//    Add or replace a document
+    void put(long id, long group, Field... fields) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (Field field : fields) {
+            for (String token : tokenize(field.text())) {
+                weights.merge(token, field.weight(), Integer::sum);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            delete(id);
+            if (weights.isEmpty()) {
+                return;
+            }
+            int ordinal = newOrdinal(id, group);
+            weights.forEach((term, weight) -> postings.get(termId(term)).add(ordinal, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            delete(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+//    Remove all documents of a group
+    void removeGroup(long group) {
+        lock.writeLock().lock();
+        try {
+            IntList members = ordinalsByGroup.remove(group);
+            if (members == null) {
+                return;
+            }
+            // Ids first, deleting may compact and renumber the ordinals
+            long[] memberIds = new long[members.size];
+            int count = 0;
+            for (int i = 0; i < members.size; i++) {
+                int ordinal = members.values[i];
+                if (!deleted[ordinal]) {
+                    memberIds[count++] = ids[ordinal];
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                delete(memberIds[i]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return ordinalById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+//    Documents matching every token of the query, best first (ties by id), at most limit
+//    With a group other than NO_GROUP only documents of that group are returned
+    List<Hit> search(String query, long group, int limit) {
+        List<String> tokens = tokenize(query).stream().distinct().limit(MAX_QUERY_TOKENS).toList();
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Matches matches = null;
+            for (String token : tokens) {
+                Matches tokenMatches = match(token);
+                matches = matches == null ? tokenMatches : matches.intersect(tokenMatches);
+                if (matches.size == 0) {
+                    return List.of();
+                }
+            }
+            return top(matches, group, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+//    Lowercase letter/digit runs with diacritics removed ("Żółw" -> "zolw")
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replace('ł', 'l');
+
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+//    Edit distance (insert, delete, substitute, swap adjacent), max + 1 once it exceeds max
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+//    Documents of all vocabulary terms the token stands for, with the score of the best one per document
+    private Matches match(String token) {
+        Map<Integer, Float> candidates = new LinkedHashMap<>();
+
+        Integer exact = termIds.get(token);
+        if (exact != null) {
+            candidates.put(exact, 1.0f);
+        }
+
+        // Completions, shorter ones rank higher
+        if (token.length() >= 2) {
+            for (Map.Entry<String, Integer> entry
+                    : termIds.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                if (candidates.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                candidates.put(entry.getValue(), 0.5f + 0.3f * token.length() / entry.getKey().length());
+            }
+        }
+
+        // Substrings and typos, from terms sharing enough trigrams with the token (an edit changes
+        // up to 4 trigrams); numbers only match exactly or by prefix
+        if (token.length() >= 4 && candidates.size() < MAX_EXPANSIONS && !containsDigit(token)) {
+            int maxEdits = token.length() >= 8 ? 2 : 1;
+            IntCounter shared = new IntCounter();
+            for (long trigram : trigrams(token)) {
+                IntList termsWithTrigram = termsByTrigram.get(trigram);
+                if (termsWithTrigram != null) {
+                    for (int i = 0; i < termsWithTrigram.size; i++) {
+                        shared.increment(termsWithTrigram.values[i]);
+                    }
+                }
+            }
+            int required = Math.max(1, Math.min(token.length() - 2, token.length() - 4 * maxEdits));
+            shared.forEach((termId, count) -> {
+                if (count < required || candidates.size() >= MAX_EXPANSIONS || candidates.containsKey(termId)) {
+                    return;
+                }
+                String term = terms.get(termId);
+                if (term.contains(token)) {
+                    candidates.put(termId, 0.5f);
+                } else {
+                    int edits = editDistance(token, term, maxEdits);
+                    if (edits <= maxEdits) {
+                        candidates.put(termId, edits == 1 ? 0.6f : 0.4f);
+                    }
+                }
+            });
+        }
+
+        Matches matches = new Matches(0);
+        for (Map.Entry<Integer, Float> candidate : candidates.entrySet()) {
+            matches = matches.union(score(postings.get(candidate.getKey()), candidate.getValue()));
+        }
+        return matches;
+    }
+
+    private static boolean containsDigit(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isDigit(token.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+//    Score of every document of a term: quality of the match * idf * saturated field weight
+    private Matches score(Postings termPostings, float quality) {
+        // Postings may still hold deleted documents, document frequency is capped at the live count
+        int live = ordinalById.size();
+        int frequency = Math.min(termPostings.size, live);
+        double idf = Math.log(1 + (live - frequency + 0.5) / (frequency + 0.5));
+        Matches matches = new Matches(termPostings.size);
+        for (int i = 0; i < termPostings.size; i++) {
+            int ordinal = termPostings.ordinals[i];
+            if (deleted[ordinal]) {
+                continue;
+            }
+            float weight = termPostings.weights[i];
+            matches.append(ordinal, (float) (quality * idf * weight * (SATURATION + 1) / (weight + SATURATION)));
+        }
+        return matches;
+    }
+
+    private List<Hit> top(Matches matches, long group, int limit) {
+        // Score bits and inverted ordinal packed into one long, a min-heap keeps the best limit entries
+        long[] heap = new long[Math.min(limit, matches.size)];
+        int heapSize = 0;
+        for (int i = 0; i < matches.size; i++) {
+            int ordinal = matches.ordinals[i];
+            if (group != NO_GROUP && groups[ordinal] != group) {
+                continue;
+            }
+            long key = ((long) Float.floatToIntBits(matches.scores[i]) << 32) | (Integer.MAX_VALUE - ordinal);
+            if (heapSize < heap.length) {
+                heap[heapSize++] = key;
+                siftUp(heap, heapSize - 1);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        long[] best = Arrays.copyOf(heap, heapSize);
+        Arrays.sort(best);
+        List<Hit> hits = new ArrayList<>(heapSize);
+        for (int i = heapSize - 1; i >= 0; i--) {
+            int ordinal = Integer.MAX_VALUE - (int) best[i];
+            hits.add(new Hit(ids[ordinal], groups[ordinal], Float.intBitsToFloat((int) (best[i] >>> 32))));
+        }
+        return hits;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(heap, smallest, index);
+            index = smallest;
+        }
+    }
+
+    private static void swap(long[] heap, int a, int b) {
+        long value = heap[a];
+        heap[a] = heap[b];
+        heap[b] = value;
+    }
+
+    private int termId(String term) {
+        Integer existing = termIds.get(term);
+        if (existing != null) {
+            return existing;
+        }
+        int termId = terms.size();
+        termIds.put(term, termId);
+        terms.add(term);
+        postings.add(new Postings());
+        for (long trigram : trigrams(term)) {
+            termsByTrigram.computeIfAbsent(trigram, key -> new IntList()).add(termId);
+        }
+        return termId;
+    }
+
+//    Distinct trigrams of "$term$", packed three chars per long
+    private static long[] trigrams(String term) {
+        String padded = "$" + term + "$";
+        long[] trigrams = new long[padded.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        return Arrays.stream(trigrams).distinct().toArray();
+    }
+
+    private int newOrdinal(long id, long group) {
+        if (ordinals == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            groups = Arrays.copyOf(groups, capacity);
+            deleted = Arrays.copyOf(deleted, capacity);
+        }
+        int ordinal = ordinals++;
+        ids[ordinal] = id;
+        groups[ordinal] = group;
+        ordinalById.put(id, ordinal);
+        ordinalsByGroup.computeIfAbsent(group, key -> new IntList()).add(ordinal);
+        return ordinal;
+    }
+
+    private void delete(long id) {
+        Integer ordinal = ordinalById.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        deleted[ordinal] = true;
+        deletedCount++;
+        if (deletedCount >= MIN_COMPACT && deletedCount > ordinalById.size()) {
+            compact();
+        }
+    }
+
+//    Drop deleted ordinals from the documents and all postings, order of the remaining ones is kept
+    private void compact() {
+        int[] remap = new int[ordinals];
+        int live = 0;
+        for (int ordinal = 0; ordinal < ordinals; ordinal++) {
+            if (deleted[ordinal]) {
+                remap[ordinal] = -1;
+            } else {
+                remap[ordinal] = live;
+                ids[live] = ids[ordinal];
+                groups[live] = groups[ordinal];
+                live++;
+            }
+        }
+        Arrays.fill(deleted, false);
+        ordinals = live;
+        deletedCount = 0;
+
+        for (Postings termPostings : postings) {
+            termPostings.remap(remap);
+        }
+        ordinalById.clear();
+        ordinalsByGroup.clear();
+        for (int ordinal = 0; ordinal < live; ordinal++) {
+            ordinalById.put(ids[ordinal], ordinal);
+            ordinalsByGroup.computeIfAbsent(groups[ordinal], key -> new IntList()).add(ordinal);
+        }
+    }
+
+//    Ordinals and field weights of the documents containing one term, sorted by ordinal
+    private static final class Postings {
+        int[] ordinals = new int[2];
+        int[] weights = new int[2];
+        int size;
+
+        void add(int ordinal, int weight) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ordinals[size] = ordinal;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = remap[ordinals[i]];
+                if (ordinal >= 0) {
+                    ordinals[kept] = ordinal;
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+
+//    Matching ordinals (ascending) with their scores
+    private static final class Matches {
+        int[] ordinals;
+        float[] scores;
+        int size;
+
+        Matches(int capacity) {
+            ordinals = new int[Math.max(capacity, 1)];
+            scores = new float[Math.max(capacity, 1)];
+        }
+
+        void append(int ordinal, float score) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            ordinals[size] = ordinal;
+            scores[size] = score;
+            size++;
+        }
+
+//        Documents in either, keeping the better score
+        Matches union(Matches other) {
+            if (size == 0) {
+                return other;
+            }
+            Matches result = new Matches(size + other.size);
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && ordinals[i] < other.ordinals[j])) {
+                    result.append(ordinals[i], scores[i++]);
+                } else if (i == size || other.ordinals[j] < ordinals[i]) {
+                    result.append(other.ordinals[j], other.scores[j++]);
+                } else {
+                    result.append(ordinals[i], Math.max(scores[i++], other.scores[j++]));
+                }
+            }
+            return result;
+        }
+
+//        Documents in both, adding the scores
+        Matches intersect(Matches other) {
+            Matches result = new Matches(Math.min(size, other.size));
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (ordinals[i] < other.ordinals[j]) {
+                    i++;
+                } else if (other.ordinals[j] < ordinals[i]) {
+                    j++;
+                } else {
+                    result.append(ordinals[i], scores[i++] + other.scores[j++]);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+//    Open-addressing int -> count map for counting shared trigrams per term
+    private static final class IntCounter {
+        int[] keys = new int[64];
+        int[] counts = new int[64];
+        boolean[] used = new boolean[64];
+        int size;
+
+        void increment(int key) {
+            if (size * 2 >= keys.length) {
+                grow();
+            }
+            int slot = slot(keys, used, key);
+            if (!used[slot]) {
+                used[slot] = true;
+                keys[slot] = key;
+                size++;
+            }
+            counts[slot]++;
+        }
+
+        void forEach(CountConsumer consumer) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (used[slot]) {
+                    consumer.accept(keys[slot], counts[slot]);
+                }
+            }
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldCounts = counts;
+            boolean[] oldUsed = used;
+            keys = new int[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = slot(keys, used, oldKeys[i]);
+                    used[slot] = true;
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+
+        private static int slot(int[] keys, boolean[] used, int key) {
+            int mask = keys.length - 1;
+            int slot = (key * 0x9E3779B9) >>> 1 & mask;
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        interface CountConsumer {
+            void accept(int key, int count);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.quizapp.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter of strings, safe for concurrent adds and lookups.
+ *
+ * mightContain never answers false for an added value; it answers true for a value that was
+ * never added with a probability that stays near the target rate up to capacity values.
+ * Bit positions come from double hashing of one 64-bit hash of the string.
+ */
+final class BloomFilter {
+
+    private final long capacity;
+    private final double targetFalsePositiveRate;
+    private final long bits;
+    private final int hashFunctions;
+    private final AtomicLongArray words;
+    private final AtomicLong added = new AtomicLong();
+
+    private BloomFilter(long capacity, double targetFalsePositiveRate, long bits, int hashFunctions) {
+        this.capacity = capacity;
+        this.targetFalsePositiveRate = targetFalsePositiveRate;
+        this.bits = bits;
+        this.hashFunctions = hashFunctions;
+        this.words = new AtomicLongArray(Math.toIntExact((bits + 63) / 64));
+    }
+
+//    Optimal size for capacity values at the false positive rate: m = -n ln p / (ln 2)^2, k = m/n ln 2
+    static BloomFilter create(long capacity, double falsePositiveRate) {
+        if (capacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Bloom filter needs a positive capacity and a false positive rate in (0, 1)");
+        }
+        long bits = Math.max(64, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int hashFunctions = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        return new BloomFilter(capacity, falsePositiveRate, bits, hashFunctions);
+    }
+
+    void add(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 + 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, set) -> current | set);
+            }
+        }
+        added.incrementAndGet();
+    }
+
+    boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 + 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    double targetFalsePositiveRate() {
+        return targetFalsePositiveRate;
+    }
+
+    long bits() {
+        return bits;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+//    Values added so far, repeated values included
+    long added() {
+        return added.get();
+    }
+
+//    False positive rate expected with the values added so far: (1 - e^(-kn/m))^k
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashFunctions * added.get() / bits), hashFunctions);
+    }
+
+//    FNV-1a over the UTF-16 chars, finished with the MurmurHash3 mixer
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a85ec3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.quizapp.security;
+
+import com.example.quizapp.common.exception.PasswordHashingBusyException;
+import com.example.quizapp.common.monitoring.ComponentStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * PasswordEncoder that hashes on a bounded pool of its own instead of the request thread.
+ *
+ * BCrypt is deliberately slow and CPU-bound, so a login burst would otherwise keep every request
+ * thread hashing and stall game traffic. At most threads hashes run at once and up to
+ * queue-capacity callers wait for a thread. A caller finding the queue full, or whose hash has
+ * not started within max-wait, gets a PasswordHashingBusyException (HTTP 503 with Retry-After).
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, ComponentStats {
+
+    public record Stats(long completed, long rejected, long timedOut,
+                        double averageQueueWaitMillis, double maxQueueWaitMillis, double averageHashMillis,
+                        int queued, int active, int threads) {
+    }
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAccumulator maxQueueWaitNanos = new LongAccumulator(Long::max, 0);
+
+//    threads of zero use half of the available processors, leaving the rest to request handling
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  Duration maxWait, Duration retryAfter) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue,
+                Thread.ofPlatform().name("password-hashing-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+        log.info("Password hashing pool: {} threads, queue of {}", poolSize, queueCapacity);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+//    Only inspects the stored hash, cheap enough for the calling thread
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public Stats getStats() {
+        long count = completed.sum();
+        return new Stats(count, rejected.sum(), timedOut.sum(),
+                count > 0 ? queueWaitNanos.sum() / 1e6 / count : 0,
+                maxQueueWaitNanos.get() / 1e6,
+                count > 0 ? hashNanos.sum() / 1e6 / count : 0,
+                executor.getQueue().size(), executor.getActiveCount(), executor.getMaximumPoolSize());
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+//    Run the hash on the pool and wait for it, a hash that has started is always awaited
+    private <T> T hash(Supplier<T> task) {
+        long submitted = System.nanoTime();
+        // A caller giving up and the pool starting the hash race for this flag, only one of them wins
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                long started = System.nanoTime();
+                T result = task.get();
+                long waited = started - submitted;
+                queueWaitNanos.add(waited);
+                maxQueueWaitNanos.accumulate(waited);
+                hashNanos.add(System.nanoTime() - started);
+                completed.increment();
+                return result;
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing pool saturated ({} queued), rejecting request", executor.getQueue().size());
+            throw busy();
+        }
+
+        try {
+            try {
+                return future.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    executor.remove((Runnable) future);
+                    timedOut.increment();
+                    log.warn("Password hash did not start within {}, rejecting request", maxWait);
+                    throw busy();
+                }
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } catch (InterruptedException e) {
+            claimed.set(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+    }
+
+    private PasswordHashingBusyException busy() {
+        return new PasswordHashingBusyException("Too many sign-ins at the moment, please try again shortly", retryAfter);
+    }
+}
@@ -35,6 +35,11 @@ public class CustomUserDetails implements UserDetails {
         return true;
     }
 
+    @Override
+    public boolean isAccountNonLocked() {
+        return !user.isLocked();
+    }
+
     @Override
     public boolean isCredentialsNonExpired() {
         return true;
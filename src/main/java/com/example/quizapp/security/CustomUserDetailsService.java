@@ -6,26 +6,33 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+//Loads users for authentication, through UserDetailsCache so repeated basic-auth requests do not read the database
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional(readOnly = true)
-public class CustomUserDetailsService implements UserDetailsService { private final UserRepository userRepository;
+public class CustomUserDetailsService implements UserDetailsService {
+
+    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadFromDatabase);
+    }
+
+    private CustomUserDetails loadFromDatabase(String username) {
         log.debug("Loading user by username: {}", username);
 
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> {
-                    log.error("User not found with username: {}", username);
+                    log.warn("User not found with username: {}", username);
                     return new UsernameNotFoundException("User not found with username: " + username);
                 });
 
-        log.info("User loaded successfully: {}, role: {}, enabled: {}",
-                user.getUsername(), user.getRole(), user.isEnabled());
+        log.debug("User loaded: {}, role: {}, enabled: {}, locked: {}",
+                user.getUsername(), user.getRole(), user.isEnabled(), user.isLocked());
 
         return new CustomUserDetails(user);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.example.quizapp.security;
+
+import com.example.quizapp.common.exception.ErrorResponse;
+import com.example.quizapp.common.exception.PasswordHashingBusyException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+//Turns a saturated password hashing pool during form or basic authentication into HTTP 503 with Retry-After
+//Authentication filters only handle AuthenticationException, anything else would surface as a 500
+@RequiredArgsConstructor
+public class PasswordHashingBusyFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } catch (ServletException | RuntimeException e) {
+            PasswordHashingBusyException busy = findBusy(e);
+            if (busy == null || response.isCommitted()) {
+                throw e;
+            }
+            writeBusy(request, response, busy);
+        }
+    }
+
+    private static PasswordHashingBusyException findBusy(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingBusyException busy) {
+                return busy;
+            }
+        }
+        return null;
+    }
+
+    private void writeBusy(HttpServletRequest request, HttpServletResponse response,
+                           PasswordHashingBusyException busy) throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message(busy.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        response.resetBuffer();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(busy.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.quizapp.security;
+
+import com.example.quizapp.common.monitoring.ComponentStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets for the public game endpoints, keyed by client IP and endpoint class.
+ *
+ * Each bucket holds capacity requests and refills at per-second. It is kept as a single
+ * AtomicLong, the time at which the bucket will be full again (GCRA), so a request costs one
+ * map lookup and one compare-and-set without any lock. A bucket that is full again behaves
+ * like a new one and may be dropped at any time: once max-buckets are tracked, idle buckets
+ * are swept out (at most once a second). Clients arriving while every tracked bucket is
+ * still in use are let through untracked.
+ */
+@Component
+@Slf4j
+public class RateLimiter implements ComponentStats {
+
+    public enum Endpoint {
+        GAME_START, GAME_SUBMIT, ANSWER_VALIDATE
+    }
+
+    public record Stats(long allowed, long rejected, long untracked, long evicted, int buckets) {
+    }
+
+//    Nanoseconds between two requests (refill) and how far ahead of now a bucket may be (burst)
+    record Limit(long intervalNanos, long burstNanos) {
+
+        static Limit of(int capacity, double perSecond) {
+            long interval = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / perSecond));
+            return new Limit(interval, (Math.max(1, capacity) - 1) * interval);
+        }
+    }
+
+    static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final int maxBuckets;
+    private final LongSupplier nanoTime;
+    private final Limit[] limits = new Limit[Endpoint.values().length];
+
+    @SuppressWarnings("unchecked")
+    private final Map<String, AtomicLong>[] buckets = new Map[Endpoint.values().length];
+
+    private final AtomicLong nextSweepAt;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    @Autowired
+    public RateLimiter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${app.rate-limit.max-buckets:100000}") int maxBuckets,
+                       @Value("${app.rate-limit.game-start.capacity:60}") int startCapacity,
+                       @Value("${app.rate-limit.game-start.per-second:2}") double startPerSecond,
+                       @Value("${app.rate-limit.game-submit.capacity:60}") int submitCapacity,
+                       @Value("${app.rate-limit.game-submit.per-second:2}") double submitPerSecond,
+                       @Value("${app.rate-limit.answer-validate.capacity:60}") int validateCapacity,
+                       @Value("${app.rate-limit.answer-validate.per-second:5}") double validatePerSecond) {
+        this(enabled, maxBuckets, Limit.of(startCapacity, startPerSecond), Limit.of(submitCapacity, submitPerSecond),
+                Limit.of(validateCapacity, validatePerSecond), System::nanoTime);
+    }
+
+    RateLimiter(boolean enabled, int maxBuckets, Limit gameStart, Limit gameSubmit, Limit answerValidate,
+                LongSupplier nanoTime) {
+        this.enabled = enabled;
+        this.maxBuckets = maxBuckets;
+        this.nanoTime = nanoTime;
+        this.nextSweepAt = new AtomicLong(nanoTime.getAsLong());
+        limits[Endpoint.GAME_START.ordinal()] = gameStart;
+        limits[Endpoint.GAME_SUBMIT.ordinal()] = gameSubmit;
+        limits[Endpoint.ANSWER_VALIDATE.ordinal()] = answerValidate;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+//    Rate limited endpoint class of a request, null for everything else (checked without pattern matching)
+    public static Endpoint classify(String method, String path) {
+        if (!"POST".equals(method)) {
+            return null;
+        }
+        if (path.startsWith("/api/v1/game/")) {
+            return endpoint(path, "/api/v1/game/".length());
+        }
+        if (path.startsWith("/game/")) {
+            return endpoint(path, "/game/".length());
+        }
+        if (path.startsWith("/api/v1/questions/") && path.endsWith("/validate")) {
+            return Endpoint.ANSWER_VALIDATE;
+        }
+        return null;
+    }
+
+//    Take one request from the client's bucket: 0 when allowed, otherwise nanoseconds until it would be
+    public long tryAcquire(Endpoint endpoint, String client) {
+        Limit limit = limits[endpoint.ordinal()];
+        long now = nanoTime.getAsLong();
+
+        AtomicLong bucket = buckets[endpoint.ordinal()].get(client);
+        if (bucket == null) {
+            bucket = newBucket(endpoint, client, now);
+            if (bucket == null) {
+                untracked.increment();
+                return 0;
+            }
+        }
+
+        while (true) {
+            long fullAt = bucket.get();
+            long start = Math.max(fullAt, now);
+            long wait = start - limit.burstNanos() - now;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, start + limit.intervalNanos())) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public Stats getStats() {
+        return new Stats(allowed.sum(), rejected.sum(), untracked.sum(), evicted.sum(), bucketCount());
+    }
+
+//    New full bucket for the client, null when max-buckets are tracked and none is idle
+    private AtomicLong newBucket(Endpoint endpoint, String client, long now) {
+        if (bucketCount() >= maxBuckets && (!sweep(now) || bucketCount() >= maxBuckets)) {
+            return null;
+        }
+        AtomicLong created = new AtomicLong(now);
+        AtomicLong existing = buckets[endpoint.ordinal()].putIfAbsent(client, created);
+        return existing != null ? existing : created;
+    }
+
+//    Drop buckets that are full again, one thread at a time and at most once per sweep interval
+//    A request racing with the sweep may have its token forgotten, which only forgives that request
+    private boolean sweep(long now) {
+        long next = nextSweepAt.get();
+        if (now - next < 0 || !nextSweepAt.compareAndSet(next, now + SWEEP_INTERVAL_NANOS)) {
+            return false;
+        }
+        long removed = 0;
+        for (Map<String, AtomicLong> map : buckets) {
+            for (Iterator<AtomicLong> it = map.values().iterator(); it.hasNext(); ) {
+                if (it.next().get() - now <= 0) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        evicted.add(removed);
+        if (removed == 0) {
+            log.warn("Rate limiter tracks {} clients, none idle; new clients are not limited until some are", maxBuckets);
+        } else {
+            log.debug("Rate limiter dropped {} idle buckets", removed);
+        }
+        return true;
+    }
+
+    private int bucketCount() {
+        int count = 0;
+        for (Map<String, AtomicLong> map : buckets) {
+            count += map.size();
+        }
+        return count;
+    }
+
+    private static Endpoint endpoint(String path, int offset) {
+        if (path.startsWith("start", offset)) {
+            return Endpoint.GAME_START;
+        }
+        if (path.startsWith("submit", offset)) {
+            return Endpoint.GAME_SUBMIT;
+        }
+        return null;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.quizapp.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,8 +10,11 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.csrf.CsrfFilter;
+
+import java.time.Duration;
 
 /**
  * Security configuration for Quiz Application
@@ -26,7 +31,8 @@ public class SecurityConfig {
 
     @Bean
     @SuppressWarnings({"java:S112", "java:S1130"})
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ObjectMapper objectMapper,
+                                                   RateLimiter rateLimiter) throws Exception {
         http
                 // CSRF configuration
                 .csrf(csrf -> csrf
@@ -136,6 +142,7 @@ public class SecurityConfig {
                                 "/api/v1/questions/quiz/{quizId}/ordered",
                                 "/api/v1/questions/quiz/{quizId}/count",
                                 "/api/v1/questions/quiz/{quizId}/total-points",
+                                "/api/v1/questions/quiz/{quizId}/search",
                                 "/api/v1/questions/{id}"
                         ).permitAll()  // Reading questions is public for game play
 
@@ -185,6 +192,11 @@ public class SecurityConfig {
                         .requestMatchers(
                                 "/api/v1/analytics/platform",
                                 "/api/v1/analytics/cleanup/**",
+                                "/api/v1/analytics/player-stats/**",
+                                "/api/v1/analytics/activity/**",
+                                "/api/v1/analytics/quiz-stats/**",
+                                "/api/v1/analytics/search/**",
+                                "/api/v1/analytics/ops/**",
                                 "/api/v1/analytics/quizzes/bulk-status"
                         ).hasRole("ADMIN")
 
@@ -215,6 +227,12 @@ public class SecurityConfig {
                 // HTTP Basic for API (enables API access with credentials)
                 .httpBasic(basic -> {})
 
+                // 429 with Retry-After for clients flooding the public game endpoints, before any other work
+                .addFilterBefore(new RateLimitFilter(rateLimiter, objectMapper), CsrfFilter.class)
+
+                // 503 with Retry-After when sign-ins are rejected by the password hashing pool
+                .addFilterBefore(new PasswordHashingBusyFilter(objectMapper), UsernamePasswordAuthenticationFilter.class)
+
                 // Exception handling
                 .exceptionHandling(ex -> {})
 
@@ -226,9 +244,14 @@ public class SecurityConfig {
         return http.build();
     }
 
+//    BCrypt on a bounded pool of its own, see BoundedPasswordEncoder
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password-hashing.max-wait:PT5S}") Duration maxWait,
+            @Value("${app.security.password-hashing.retry-after:PT2S}") Duration retryAfter) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity, maxWait, retryAfter);
     }
 
     @Bean
@@ -0,0 +1,242 @@
+package com.example.quizapp.security;
+
+import com.example.quizapp.common.monitoring.ComponentStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Bloom filters of taken usernames and emails in front of the availability checks.
+ *
+ * The registration form checks availability on every keystroke. A value the filter has never
+ * seen is answered as free without the database, only possible matches are checked there.
+ * Built on startup from all users, sized for twice their number (at least expected-users),
+ * and fed by UserService before a user is saved, so the filter never misses a taken value
+ * (recent additions are added again to a rebuilt filter, their transaction may not have been
+ * visible to its read); deleted users only cost a database check. Once more values were added than it was sized
+ * for it is rebuilt in the background. Until the first build has finished every check goes
+ * to the database.
+ *
+ * The filter lives in one instance and only sees users saved through it. With several
+ * instances a user registered on another one is reported as free here until this instance
+ * rebuilds (restart or capacity exceeded); the unique constraints still reject the save.
+ * Multi-node deployments should disable it (app.security.availability-filter.enabled).
+ */
+@Component
+@Slf4j
+public class UserAvailabilityFilter implements ComponentStats {
+
+    public record Stats(boolean ready, long capacity, long bitsPerFilter, int hashFunctions,
+                        long usernames, long emails, double targetFalsePositiveRate,
+                        double usernameFalsePositiveRate, double emailFalsePositiveRate,
+                        long checks, long answeredFromFilter, long databaseChecks, long falsePositives) {
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+    }
+
+    private record Addition(long addedAt, String username, String email) {
+    }
+
+//    Longer than any transaction saving a user: additions this recent may not be visible to a rebuild's read
+    static final long RECENT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final boolean enabled;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final Executor rebuildExecutor;
+
+    private volatile Filters filters;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    // Recent additions, added again to a rebuilt filter; guarded by this
+    private final Deque<Addition> recentAdditions = new ArrayDeque<>();
+    private long rebuildStartedAt;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder answeredFromFilter = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    @Autowired
+    public UserAvailabilityFilter(UserJdbcRepository userJdbcRepository,
+                                  @Value("${app.security.availability-filter.enabled:true}") boolean enabled,
+                                  @Value("${app.security.availability-filter.expected-users:100000}") long expectedUsers,
+                                  @Value("${app.security.availability-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this(userJdbcRepository, enabled, expectedUsers, falsePositiveRate,
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().name("availability-filter").daemon().factory()));
+    }
+
+    UserAvailabilityFilter(UserJdbcRepository userJdbcRepository, boolean enabled, long expectedUsers,
+                           double falsePositiveRate, Executor rebuildExecutor) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.enabled = enabled;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    public boolean isReady() {
+        return filters != null;
+    }
+
+//    Whether the username is taken, the database is only asked when the filter may contain it
+    public boolean usernameExists(String username, Predicate<String> database) {
+        Filters current = filters;
+        return exists(current != null ? current.usernames() : null, username, database);
+    }
+
+//    Whether the email is taken, the database is only asked when the filter may contain it
+    public boolean emailExists(String email, Predicate<String> database) {
+        Filters current = filters;
+        return exists(current != null ? current.emails() : null, email, database);
+    }
+
+//    Record a username and email about to be saved; a save that fails later only leaves a false positive
+    public synchronized void add(String username, String email) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long keepFrom = rebuildStartedAt > 0 ? Math.min(now, rebuildStartedAt) - RECENT_MILLIS : now - RECENT_MILLIS;
+        while (!recentAdditions.isEmpty() && recentAdditions.peekFirst().addedAt() < keepFrom) {
+            recentAdditions.pollFirst();
+        }
+        recentAdditions.addLast(new Addition(now, username, email));
+
+        Filters current = filters;
+        if (current == null) {
+            return;
+        }
+        addTo(current.usernames(), username);
+        addTo(current.emails(), email);
+
+        if (current.usernames().added() > current.usernames().capacity()
+                || current.emails().added() > current.emails().capacity()) {
+            rebuildInBackground();
+        }
+    }
+
+    @Override
+    public Stats getStats() {
+        Filters current = filters;
+        if (current == null) {
+            return new Stats(false, 0, 0, 0, 0, 0, falsePositiveRate, 0, 0,
+                    checks.sum(), answeredFromFilter.sum(), checks.sum() - answeredFromFilter.sum(), falsePositives.sum());
+        }
+        BloomFilter usernames = current.usernames();
+        BloomFilter emails = current.emails();
+        return new Stats(true, usernames.capacity(), usernames.bits(), usernames.hashFunctions(),
+                usernames.added(), emails.added(), falsePositiveRate,
+                usernames.expectedFalsePositiveRate(), emails.expectedFalsePositiveRate(),
+                checks.sum(), answeredFromFilter.sum(), checks.sum() - answeredFromFilter.sum(), falsePositives.sum());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            rebuildInBackground();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (rebuildExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+//    Start a rebuild unless one is already running
+    void rebuildInBackground() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Building the availability filter failed, checks keep using the previous one or the database", e);
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            rebuilding.set(false);
+            throw e;
+        }
+    }
+
+//    Load all usernames and emails into new filters and swap them in, returns the number of users
+    long rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            rebuildStartedAt = start;
+        }
+
+        Filters rebuilt;
+        long[] users = {0};
+        try {
+            long capacity = Math.max(expectedUsers, 2 * userJdbcRepository.countUsers());
+            rebuilt = new Filters(BloomFilter.create(capacity, falsePositiveRate),
+                    BloomFilter.create(capacity, falsePositiveRate));
+            userJdbcRepository.streamIdentities(identity -> {
+                addTo(rebuilt.usernames(), identity.username());
+                addTo(rebuilt.emails(), identity.email());
+                users[0]++;
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                rebuildStartedAt = 0;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            // Users saved shortly before or while loading may not be in what was read, add them again
+            for (Addition addition : recentAdditions) {
+                addTo(rebuilt.usernames(), addition.username());
+                addTo(rebuilt.emails(), addition.email());
+            }
+            rebuildStartedAt = 0;
+            filters = rebuilt;
+        }
+        log.info("Availability filter built: {} users, capacity {}, {} bits x {} hashes per filter in {} ms",
+                users[0], rebuilt.usernames().capacity(), rebuilt.usernames().bits(),
+                rebuilt.usernames().hashFunctions(), System.currentTimeMillis() - start);
+        return users[0];
+    }
+
+    private boolean exists(BloomFilter filter, String value, Predicate<String> database) {
+        checks.increment();
+        if (filter != null && value != null && !filter.mightContain(value)) {
+            answeredFromFilter.increment();
+            return false;
+        }
+        boolean exists = database.test(value);
+        if (filter != null && !exists) {
+            falsePositives.increment();
+        }
+        return exists;
+    }
+
+    private static void addTo(BloomFilter filter, String value) {
+        if (value != null) {
+            filter.add(value);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.quizapp.security;
+
+//Published whenever a user's credentials, role, enabled or locked state change or the user is deleted.
+//UserDetailsCache listens for it (after commit) and drops the user's entry.
+public record UserChangedEvent(String username) {
+}
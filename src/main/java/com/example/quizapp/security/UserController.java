@@ -157,7 +157,7 @@ public class UserController {
     })
     public ResponseEntity<Boolean> checkUsername(
             @RequestParam @Parameter(description = "Username to check") String username) {
-        log.info("GET /api/v1/users/check-username?username={}", username);
+        log.debug("GET /api/v1/users/check-username?username={}", username);
 
         boolean exists = userService.usernameExists(username);
 
@@ -173,7 +173,7 @@ public class UserController {
     })
     public ResponseEntity<Boolean> checkEmail(
             @RequestParam @Parameter(description = "Email to check") String email) {
-        log.info("GET /api/v1/users/check-email?email={}", email);
+        log.debug("GET /api/v1/users/check-email?email={}", email);
 
         boolean exists = userService.emailExists(email);
 
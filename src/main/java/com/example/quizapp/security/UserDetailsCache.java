@@ -0,0 +1,172 @@
+package com.example.quizapp.security;
+
+import com.example.quizapp.common.monitoring.ComponentStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded in-memory cache of loaded user details keyed by username.
+ *
+ * Basic-auth API calls authenticate on every request, so the user row is read from memory
+ * instead. Entries expire after a fixed TTL counted from the load, which bounds how long a
+ * change made outside UserService goes unnoticed. Changes made through UserService drop the
+ * user's entry once their transaction commits (UserChangedEvent). When max-size is reached
+ * the oldest entry is evicted. Unknown usernames are not cached. Queue entries left behind by
+ * reloads and invalidations are compacted away once they outnumber the cached users.
+ */
+@Component
+@Slf4j
+public class UserDetailsCache implements ComponentStats {
+
+    public record Stats(long hits, long misses, long invalidations, long evictions, int size) {
+    }
+
+    private record Entry(String username, CustomUserDetails details, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    private final Duration ttl;
+    private final int maxSize;
+    private final Clock clock;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+//    Entries in load order, used to sweep expired entries and to evict the oldest one
+    private final Queue<Entry> loadOrder = new ConcurrentLinkedQueue<>();
+
+    // Replaced or invalidated entries that may still sit in loadOrder, reset by compaction
+    private final AtomicInteger staleEntries = new AtomicInteger();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    static final int COMPACT_SLACK = 64;
+
+    // Bumped before every invalidation, a load that overlapped one does not keep its result
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public UserDetailsCache(@Value("${app.security.user-cache.ttl:PT1M}") Duration ttl,
+                            @Value("${app.security.user-cache.max-size:10000}") int maxSize) {
+        this(ttl, maxSize, Clock.systemUTC());
+    }
+
+    UserDetailsCache(Duration ttl, int maxSize, Clock clock) {
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+//    Cached details of the user, loaded with the loader when missing or expired (TTL of zero disables caching)
+    public CustomUserDetails get(String username, Function<String, CustomUserDetails> loader) {
+        long now = clock.millis();
+        Entry entry = entries.get(username);
+        if (entry != null && !entry.isExpired(now)) {
+            hits.increment();
+            return entry.details();
+        }
+        misses.increment();
+
+        long generation = invalidations.get();
+        CustomUserDetails details = loader.apply(username);
+        if (ttl.isZero() || maxSize <= 0) {
+            return details;
+        }
+
+        sweep(now);
+        compact();
+        Entry loaded = new Entry(username, details, now + ttl.toMillis());
+        if (entries.put(username, loaded) != null) {
+            staleEntries.incrementAndGet();
+        }
+        loadOrder.add(loaded);
+
+        // An invalidation that ran while loading may have removed nothing yet, the loaded row may predate it
+        if (invalidations.get() != generation && entries.remove(username, loaded)) {
+            staleEntries.incrementAndGet();
+        }
+        return details;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.username());
+    }
+
+//    Drop the user's entry, the next authentication reads the user again
+    public void invalidate(String username) {
+        invalidations.incrementAndGet();
+        if (entries.remove(username) != null) {
+            staleEntries.incrementAndGet();
+            log.debug("Invalidated cached user details of {}", username);
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        staleEntries.addAndGet(entries.size());
+        entries.clear();
+    }
+
+    int queuedEntries() {
+        return loadOrder.size();
+    }
+
+    @Override
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), invalidations.get(), evictions.sum(), entries.size());
+    }
+
+//    Drop expired entries from the head of the queue, then the oldest ones while full
+    private void sweep(long now) {
+        Entry head;
+        while ((head = loadOrder.peek()) != null) {
+            // Invalidated or reloaded entries leave their queue entry behind, it is simply dropped here
+            boolean current = entries.get(head.username()) == head;
+            boolean expired = head.isExpired(now);
+            boolean full = entries.size() >= maxSize;
+
+            if (current && !expired && !full) {
+                break;
+            }
+
+            if (loadOrder.remove(head) && current && entries.remove(head.username(), head) && !expired) {
+                evictions.increment();
+            }
+        }
+    }
+
+//    Users reloaded every TTL or invalidated on each change leave their old entry queued until it
+//    reaches the head; once such entries outnumber the cached users they are dropped in one pass
+    private void compact() {
+        if (staleEntries.get() <= entries.size() + COMPACT_SLACK || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            staleEntries.set(0);
+            loadOrder.removeIf(entry -> entries.get(entry.username()) != entry);
+        } finally {
+            compacting.set(false);
+        }
+    }
+}
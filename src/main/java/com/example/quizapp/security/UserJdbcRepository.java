@@ -0,0 +1,43 @@
+package com.example.quizapp.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class UserJdbcRepository {
+
+//    Rows fetched per round trip while streaming all users
+    static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    record UserIdentity(String username, String email) {
+    }
+
+    public long countUsers() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        return count != null ? count : 0;
+    }
+
+//    Stream username and email of all users (forward-only cursor)
+    @Transactional(readOnly = true)
+    public void streamIdentities(Consumer<UserIdentity> consumer) {
+        log.debug("Streaming user identities");
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT username, email FROM users",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(new UserIdentity(rs.getString("username"), rs.getString("email"))));
+    }
+}
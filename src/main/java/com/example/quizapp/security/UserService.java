@@ -3,6 +3,7 @@ package com.example.quizapp.security;
 import com.example.quizapp.common.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +18,8 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserAvailabilityFilter userAvailabilityFilter;
 
 //    Get all users
     public List<User> getAllUsers() {
@@ -63,6 +66,7 @@ public class UserService {
                 .locked(false)
                 .build();
 
+        userAvailabilityFilter.add(user.getUsername(), user.getEmail());
         user = userRepository.save(user);
         log.info("User created successfully with id: {}", user.getId());
 
@@ -81,6 +85,7 @@ public class UserService {
                 throw new IllegalArgumentException("Email already exists: " + updateDto.getEmail());
             }
             user.setEmail(updateDto.getEmail());
+            userAvailabilityFilter.add(user.getUsername(), user.getEmail());
         }
 
         if (updateDto.getFullName() != null) {
@@ -100,6 +105,7 @@ public class UserService {
         }
 
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
         log.info("User updated successfully: {}", user.getUsername());
 
         return user;
@@ -119,6 +125,7 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
 
         log.info("Password changed successfully for user: {}", user.getUsername());
     }
@@ -130,18 +137,19 @@ public class UserService {
 
         User user = getUserById(id);
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
 
         log.info("User deleted successfully: {}", user.getUsername());
     }
 
-//    Check if username exists
+//    Check if username exists, names never taken are answered from the availability filter
     public boolean usernameExists(String username) {
-        return userRepository.existsByUsername(username);
+        return userAvailabilityFilter.usernameExists(username, userRepository::existsByUsername);
     }
 
-//    Check if email exists
+//    Check if email exists, emails never taken are answered from the availability filter
     public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+        return userAvailabilityFilter.emailExists(email, userRepository::existsByEmail);
     }
 
 //    Get all admins
@@ -1,12 +1,11 @@
 package com.example.quizapp.web;
 
+import com.example.quizapp.common.exception.GameSessionExpiredException;
 import com.example.quizapp.game.*;
 import com.example.quizapp.question.QuestionDto;
 import com.example.quizapp.question.QuestionType;
 import com.example.quizapp.quiz.QuizDto;
 import com.example.quizapp.quiz.QuizService;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,7 +18,6 @@ import jakarta.servlet.http.HttpSession;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Controller
@@ -30,7 +28,6 @@ public class GameWebController {
 
     private final QuizService quizService;
     private final GameService gameService;
-    private final ObjectMapper objectMapper;
 
     //    Form for player nickname
     @Data
@@ -149,9 +146,8 @@ public class GameWebController {
             // Start the game
             StartGameResponse response = gameService.startGame(request);
 
-            // Store game session data in HTTP session
-            session.setAttribute("gameSession", response);
-            session.setAttribute("gameStartTime", System.currentTimeMillis());
+            // Game state lives in GameSessionStore, the HTTP session only remembers its id
+            session.setAttribute("gameSessionId", response.getSessionId());
 
             log.info("Game started successfully. Session: {}, Player: {}, Questions: {}",
                     response.getSessionId(), response.getPlayerNickname(), response.getQuestions().size());
@@ -173,8 +169,16 @@ public class GameWebController {
     public String playGame(@PathVariable Long quizId, HttpSession session, Model model) {
         log.info("GET /game/play/{} - Loading quiz play page", quizId);
 
-        // Get game session from HTTP session
-        StartGameResponse gameSession = (StartGameResponse) session.getAttribute("gameSession");
+        // Rebuild game from the session store
+        String gameSessionId = (String) session.getAttribute("gameSessionId");
+        StartGameResponse gameSession;
+        try {
+            gameSession = gameSessionId != null ? gameService.resumeGame(gameSessionId) : null;
+        } catch (GameSessionExpiredException e) {
+            log.warn("Game session {} expired", gameSessionId);
+            session.removeAttribute("gameSessionId");
+            gameSession = null;
+        }
 
         // Validate session
         if (gameSession == null || !gameSession.getQuizId().equals(quizId)) {
@@ -187,7 +191,7 @@ public class GameWebController {
                 .map(this::parseQuestionOptions)
                 .collect(Collectors.toList());
 
-        log.info("Parsed {} questions with options", questionsWithParsedOptions.size());
+        log.info("Prepared {} questions with options", questionsWithParsedOptions.size());
         // ================================================================================
 
         // Prepare answer form
@@ -215,58 +219,31 @@ public class GameWebController {
         return "game-play";
     }
 
-    // Helper method to parse answer options
+    // Options come pre-parsed from the quiz snapshot (in the player's order), no JSON parsing per page view
     private QuestionWithParsedOptions parseQuestionOptions(QuestionDto question) {
-        try {
-            String answerOptions = question.getAnswerOptions();
-
-            if (answerOptions == null || answerOptions.trim().isEmpty() || answerOptions.equals("null")) {
-                log.warn("Question {} has empty answerOptions", question.getId());
-                return new QuestionWithParsedOptions(question, List.of());
-            }
-
-            // SPECIAL HANDLING FOR MATCHING TYPE
-            if (question.getQuestionType() == QuestionType.MATCHING) {
-                try {
-                    // Parse as List<Map<String, String>> for matching pairs
-                    List<Map<String, String>> rawPairs = objectMapper.readValue(
-                            answerOptions,
-                            new TypeReference<List<Map<String, String>>>() {}
-                    );
-
-                    // Convert to MatchingPair objects
-                    List<MatchingPair> pairs = rawPairs.stream()
-                            .map(map -> new MatchingPair(map.get("left"), map.get("right")))
-                            .collect(Collectors.toList());
-
-                    // Also create parsedOptions for right-side values (for dropdown)
-                    List<String> rightOptions = pairs.stream()
-                            .map(MatchingPair::getRight)
-                            .collect(Collectors.toList());
-
-                    log.debug("Parsed {} matching pairs for question {}", pairs.size(), question.getId());
-                    return new QuestionWithParsedOptions(question, rightOptions, pairs);
-
-                } catch (Exception e) {
-                    log.error("Error parsing matching pairs for question {}: {}", question.getId(), e.getMessage());
-                    return new QuestionWithParsedOptions(question, List.of(), List.of());
-                }
-            }
-
-            // NORMAL HANDLING FOR OTHER TYPES
-            List<String> options = objectMapper.readValue(
-                    answerOptions,
-                    new TypeReference<List<String>>() {}
-            );
-
-            log.debug("Parsed {} options for question {}", options.size(), question.getId());
-            return new QuestionWithParsedOptions(question, options);
+        List<String> options = question.getParsedOptions() != null ? question.getParsedOptions() : List.of();
+
+        // SPECIAL HANDLING FOR MATCHING TYPE
+        if (question.getQuestionType() == QuestionType.MATCHING) {
+            List<MatchingPair> pairs = question.getMatchingPairs() != null
+                    ? question.getMatchingPairs().stream()
+                            .map(pair -> new MatchingPair(pair.left(), pair.right()))
+                            .collect(Collectors.toList())
+                    : List.of();
+
+            // Also create parsedOptions for right-side values (for dropdown)
+            List<String> rightOptions = pairs.stream()
+                    .map(MatchingPair::getRight)
+                    .collect(Collectors.toList());
+
+            log.debug("Prepared {} matching pairs for question {}", pairs.size(), question.getId());
+            return new QuestionWithParsedOptions(question, rightOptions, pairs);
+        }
 
-        } catch (Exception e) {
-            log.error("Error parsing options for question {}: {} - Options string: '{}'",
-                    question.getId(), e.getMessage(), question.getAnswerOptions());
-            return new QuestionWithParsedOptions(question, List.of());
+        if (options.isEmpty()) {
+            log.warn("Question {} has empty answerOptions", question.getId());
         }
+        return new QuestionWithParsedOptions(question, options);
     }
 
     //    Process quiz submission
@@ -274,13 +251,6 @@ public class GameWebController {
     public String submitAnswers(@ModelAttribute GameForm gameForm, HttpSession session, Model model) {
         log.info("POST /game/submit - Submitting answers for session: {}", gameForm.getSessionId());
 
-        // Calculate time taken
-        Long startTime = (Long) session.getAttribute("gameStartTime");
-        Integer timeTakenSeconds = null;
-        if (startTime != null) {
-            timeTakenSeconds = (int) ((System.currentTimeMillis() - startTime) / 1000);
-        }
-
         // Filter out empty answers and map to submission format
         List<SubmitAnswersRequest.AnswerSubmission> submissions = new ArrayList<>();
         for (AnswerSubmissionWrapper wrapper : gameForm.getAnswers()) {
@@ -298,21 +268,22 @@ public class GameWebController {
                 .quizId(gameForm.getQuizId())
                 .playerId(gameForm.getPlayerId())
                 .answers(submissions)
-                .timeTakenSeconds(timeTakenSeconds)
                 .build();
 
         try {
             // Submit and get result
             GameResultDto result = gameService.submitAnswers(request);
 
-            // Clear game session
-            session.removeAttribute("gameSession");
-            session.removeAttribute("gameStartTime");
+            // Clear game session (time taken is measured from the session start)
+            session.removeAttribute("gameSessionId");
 
             log.info("Game submitted successfully. Result ID: {}, Score: {}/{}",
                     result.getId(), result.getScore(), result.getMaxScore());
 
-            return "redirect:/game/result/" + result.getId();
+            // Without an id the result is still queued for write-behind, it is shown by its session
+            return result.getId() != null
+                    ? "redirect:/game/result/" + result.getId()
+                    : "redirect:/game/result/session/" + result.getSessionId();
 
         } catch (Exception e) {
             log.error("Error submitting game: {}", e.getMessage(), e);
@@ -340,4 +311,24 @@ public class GameWebController {
             return "redirect:/quizzes";
         }
     }
-}
\ No newline at end of file
+
+    //    Show game result page by game session (result may not be stored yet)
+    @GetMapping("/result/session/{sessionId}")
+    public String showResultBySession(@PathVariable String sessionId, Model model) {
+        log.info("GET /game/result/session/{} - Showing result page", sessionId);
+
+        try {
+            GameResultDto result = gameService.getGameResultBySession(sessionId);
+
+            model.addAttribute("result", result);
+            model.addAttribute("title", "Quiz Result");
+
+            return "game-result";
+
+        } catch (Exception e) {
+            log.error("Error loading result: {}", e.getMessage(), e);
+            model.addAttribute("error", "Could not load result: " + e.getMessage());
+            return "redirect:/quizzes";
+        }
+    }
+}
@@ -1,10 +1,7 @@
 package com.example.quizapp.web;
 
-import com.example.quizapp.game.GameResultRepository;
-import com.example.quizapp.player.PlayerRepository;
-import com.example.quizapp.question.QuestionRepository;
+import com.example.quizapp.analytics.PlatformStatsCache;
 import com.example.quizapp.quiz.QuizDto;
-import com.example.quizapp.quiz.QuizService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
@@ -23,31 +20,28 @@ import java.util.Map;
 @Slf4j
 public class HomeController {
 
-    private final QuizService quizService;
-    private final QuestionRepository questionRepository;
-    private final PlayerRepository playerRepository;
-    private final GameResultRepository gameResultRepository;
+    private final PlatformStatsCache platformStatsCache;
 
     @GetMapping("/")
     public String home(Model model) {
         log.info("GET / - Loading home page");
 
-        // Get platform statistics
+        // Platform statistics, served from memory
+        PlatformStatsCache.PlatformStats platformStats = platformStatsCache.getStats();
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalQuizzes", quizService.countActiveQuizzes());
-        stats.put("totalPlayers", playerRepository.countByActiveTrue());
-        stats.put("totalGamesPlayed", gameResultRepository.countByCompletedTrue());
-        stats.put("totalQuestions", questionRepository.count());
+        stats.put("totalQuizzes", platformStats.totalQuizzes());
+        stats.put("totalPlayers", platformStats.totalPlayers());
+        stats.put("totalGamesPlayed", platformStats.totalGamesPlayed());
+        stats.put("totalQuestions", platformStats.totalQuestions());
         model.addAttribute("stats", stats);
 
-        // Get popular quizzes (first 3)
-        List<QuizDto> popularQuizzes = quizService.getAllActiveQuizzes();
-        if (popularQuizzes.size() > 3) {
-            popularQuizzes = popularQuizzes.subList(0, 3);
-        }
+        // Most played quizzes
+        List<QuizDto> popularQuizzes = platformStats.popularQuizzes().stream()
+                .map(PlatformStatsCache.PopularQuiz::quiz)
+                .toList();
         model.addAttribute("popularQuizzes", popularQuizzes);
 
         model.addAttribute("title", "Home");
         return "index";
     }
-}
\ No newline at end of file
+}
@@ -3,7 +3,7 @@ package com.example.quizapp.web;
 import com.example.quizapp.quiz.QuizDto;
 import com.example.quizapp.quiz.QuizService;
 import com.example.quizapp.ranking.GlobalRankingDto;
-import com.example.quizapp.ranking.RankingDto;
+import com.example.quizapp.ranking.LeaderboardPageDto;
 import com.example.quizapp.ranking.RankingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +25,9 @@ public class RankingWebController {
     private final RankingService rankingService;
     private final QuizService quizService;
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
 //    Show global rankings page
     @GetMapping
     public String showGlobalRankings(@RequestParam(defaultValue = "20") Integer limit, Model model) {
@@ -40,18 +43,24 @@ public class RankingWebController {
         return "rankings/global";
     }
 
-//    Show quiz-specific leaderboard
+//    Show quiz-specific leaderboard, one page at a time (after = cursor of the previous page)
     @GetMapping("/quiz/{quizId}")
     public String showQuizLeaderboard(@PathVariable Long quizId,
+                                      @RequestParam(required = false) String after,
                                       @RequestParam(defaultValue = "50") Integer limit,
                                       Model model) {
-        log.info("GET /rankings/quiz/{} - Showing quiz leaderboard, limit: {}", quizId, limit);
+        log.info("GET /rankings/quiz/{} - Showing quiz leaderboard, after: {}, limit: {}", quizId, after, limit);
+
+        // Clamped like Pageable sizes: below 1 falls back to the default, above MAX_PAGE_SIZE is capped
+        limit = limit < 1 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
 
         QuizDto quiz = quizService.getQuizById(quizId);
-        List<RankingDto> rankings = rankingService.getTopRankings(quizId, limit);
+        LeaderboardPageDto page = rankingService.getLeaderboardPageAfter(quizId, after, limit);
 
         model.addAttribute("quiz", quiz);
-        model.addAttribute("rankings", rankings);
+        model.addAttribute("rankings", page.getRankings());
+        model.addAttribute("page", page);
+        model.addAttribute("limit", limit);
         model.addAttribute("title", "Leaderboard - " + quiz.getTitle());
 
         return "rankings/quiz-leaderboard";
@@ -60,8 +69,9 @@ public class RankingWebController {
 //    Alias for quiz leaderboard
     @GetMapping("/{quizId}")
     public String showQuizLeaderboardAlias(@PathVariable Long quizId,
+                                           @RequestParam(required = false) String after,
                                            @RequestParam(defaultValue = "50") Integer limit,
                                            Model model) {
-        return showQuizLeaderboard(quizId, limit, model);
+        return showQuizLeaderboard(quizId, after, limit, model);
     }
 }
\ No newline at end of file
@@ -120,6 +120,11 @@ INSERT INTO questions (quiz_id, question_type, question_text, points, question_o
      '["2", "4", "7", "9", "11"]',
      '[0, 2, 4]');
 
+-- Question totals of the sample quizzes (maintained by the application afterwards)
+UPDATE quizzes z SET
+    question_count = (SELECT COUNT(*) FROM questions q WHERE q.quiz_id = z.id AND q.is_active = true),
+    total_points = (SELECT COALESCE(SUM(q.points), 0) FROM questions q WHERE q.quiz_id = z.id AND q.is_active = true);
+
 -- Insert sample players
 INSERT INTO players (nickname, session_id, games_played, last_played_at) VALUES
                                                                              ('JohnDoe', 'session-001', 5, CURRENT_TIMESTAMP - INTERVAL '1 day'),
@@ -137,6 +142,10 @@ INSERT INTO game_results (player_id, quiz_id, score, max_score, correct_answers,
                                                                                                                                                                                                                (3, 2, 45, 65, 2, 2, 4, 1500, 69.23, 'game-session-006', CURRENT_TIMESTAMP - INTERVAL '20 minutes', CURRENT_TIMESTAMP - INTERVAL '20 minutes' + INTERVAL '25 minutes', true),
                                                                                                                                                                                                                (4, 3, 20, 20, 3, 0, 3, 180, 100.00, 'game-session-007', CURRENT_TIMESTAMP - INTERVAL '1 week', CURRENT_TIMESTAMP - INTERVAL '1 week' + INTERVAL '3 minutes', true);
 
+-- Claim the sample sessions like stored results
+INSERT INTO game_result_sessions (session_id, claimed_at)
+SELECT session_id, completed_at FROM game_results WHERE session_id IS NOT NULL;
+
 -- Note: In production, you would want to populate answers_json field with actual answer details
 -- For testing purposes, we're leaving it null as it's generated during actual gameplay
 
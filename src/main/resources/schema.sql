@@ -2,6 +2,14 @@
 -- Quiz Application - PostgreSQL Schema
 
 -- Drop tables if exist (for development)
+DROP TABLE IF EXISTS quiz_score_counts CASCADE;
+DROP TABLE IF EXISTS quiz_stats CASCADE;
+DROP TABLE IF EXISTS activity_daily_players CASCADE;
+DROP TABLE IF EXISTS activity_hourly CASCADE;
+DROP TABLE IF EXISTS game_answers CASCADE;
+DROP TABLE IF EXISTS game_result_sessions CASCADE;
+DROP TABLE IF EXISTS player_quizzes CASCADE;
+DROP TABLE IF EXISTS player_stats CASCADE;
 DROP TABLE IF EXISTS game_results CASCADE;
 DROP TABLE IF EXISTS questions CASCADE;
 DROP TABLE IF EXISTS quizzes CASCADE;
@@ -34,6 +42,8 @@ CREATE TABLE quizzes (
                          back_button_blocked BOOLEAN DEFAULT FALSE,
                          is_active BOOLEAN DEFAULT TRUE,
                          created_by VARCHAR(50),
+                         question_count INTEGER NOT NULL DEFAULT 0,
+                         total_points INTEGER NOT NULL DEFAULT 0,
                          created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                          updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -71,7 +81,7 @@ CREATE TABLE players (
 
 -- Game results table
 CREATE TABLE game_results (
-                              id BIGSERIAL PRIMARY KEY,
+                              id BIGSERIAL,
                               player_id BIGINT NOT NULL,
                               quiz_id BIGINT NOT NULL,
                               score INTEGER NOT NULL,
@@ -84,9 +94,123 @@ CREATE TABLE game_results (
                               answers_json TEXT,
                               session_id VARCHAR(100),
                               started_at TIMESTAMP,
-                              completed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                              completed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
                               is_completed BOOLEAN DEFAULT TRUE,
                               ip_address VARCHAR(45),
+                              -- Unique keys of a partitioned table must include the partition column, so neither id
+                              -- nor session_id is unique here; game_result_sessions keeps sessions unique
+                              PRIMARY KEY (id, completed_at),
+                              FOREIGN KEY (player_id) REFERENCES players(id) ON DELETE CASCADE,
+                              FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE
+) PARTITION BY RANGE (completed_at);
+
+-- Monthly partitions (game_results_pYYYYMM, game_answers_pYYYYMM) are created below for the current
+-- months, then ahead and retired by GameResultPartitions; the default partitions only hold rows stored
+-- before their month had a partition
+CREATE TABLE game_results_default PARTITION OF game_results DEFAULT;
+
+-- Sessions with a stored result, claimed in the transaction that inserts the result (not partitioned,
+-- so a session is stored exactly once); claims are removed with the months of their results
+CREATE TABLE game_result_sessions (
+                              session_id VARCHAR(100) PRIMARY KEY,
+                              claimed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- One row per scored answer of a completed game (written in a batch with its result)
+-- Partitioned like game_results on the completed_at of its result, so a month of answers is
+-- detached or dropped together with the month of results; no foreign key to game_results,
+-- its key includes the partition column
+CREATE TABLE game_answers (
+                              result_id BIGINT NOT NULL,
+                              question_id BIGINT NOT NULL,
+                              completed_at TIMESTAMP NOT NULL,
+                              is_correct BOOLEAN NOT NULL,
+                              points INTEGER NOT NULL,
+                              chosen_option INTEGER,
+                              PRIMARY KEY (result_id, question_id, completed_at),
+                              FOREIGN KEY (question_id) REFERENCES questions(id) ON DELETE CASCADE
+) PARTITION BY RANGE (completed_at);
+
+CREATE TABLE game_answers_default PARTITION OF game_answers DEFAULT;
+
+-- Partitions of last, this and next month, so data.sql and the first submits never land in the
+-- default partitions (the body is a quoted string: the script runner splits statements on semicolons)
+DO '
+DECLARE
+    first_day DATE;
+BEGIN
+    FOR month_offset IN -1..1 LOOP
+        first_day := CAST(DATE_TRUNC(''month'', CURRENT_DATE) + make_interval(months => month_offset) AS DATE);
+        EXECUTE format(''CREATE TABLE game_results_p%s PARTITION OF game_results FOR VALUES FROM (%L) TO (%L)'',
+                       to_char(first_day, ''YYYYMM''), first_day, CAST(first_day + INTERVAL ''1 month'' AS DATE));
+        EXECUTE format(''CREATE TABLE game_answers_p%s PARTITION OF game_answers FOR VALUES FROM (%L) TO (%L)'',
+                       to_char(first_day, ''YYYYMM''), first_day, CAST(first_day + INTERVAL ''1 month'' AS DATE));
+    END LOOP;
+END';
+
+-- Completed games per clock hour and quiz (maintained at submit time, rebuilt by ActivityRollupBackfill)
+CREATE TABLE activity_hourly (
+                              bucket TIMESTAMP NOT NULL,
+                              quiz_id BIGINT NOT NULL,
+                              games INTEGER NOT NULL DEFAULT 0,
+                              passed INTEGER NOT NULL DEFAULT 0,
+                              score_sum BIGINT NOT NULL DEFAULT 0,
+                              PRIMARY KEY (bucket, quiz_id),
+                              FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE
+);
+
+-- Players who completed a quiz per day, for exact distinct player counts
+-- Not a bucket-level rollup: one row per player, quiz and day, so it grows with player-days
+-- (bounded by the games played, smaller only when players play a quiz several times a day)
+CREATE TABLE activity_daily_players (
+                              play_date DATE NOT NULL,
+                              quiz_id BIGINT NOT NULL,
+                              player_id BIGINT NOT NULL,
+                              PRIMARY KEY (play_date, quiz_id, player_id),
+                              FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE,
+                              FOREIGN KEY (player_id) REFERENCES players(id) ON DELETE CASCADE
+);
+
+-- Running aggregate of completed games per quiz (maintained at submit time, rebuilt by QuizStatsBackfill)
+CREATE TABLE quiz_stats (
+                              quiz_id BIGINT PRIMARY KEY,
+                              games INTEGER NOT NULL DEFAULT 0,
+                              score_sum BIGINT NOT NULL DEFAULT 0,
+                              score_square_sum BIGINT NOT NULL DEFAULT 0,
+                              percentage_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+                              FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE
+);
+
+-- Completed games per quiz and score, for percentile positions
+CREATE TABLE quiz_score_counts (
+                              quiz_id BIGINT NOT NULL,
+                              score INTEGER NOT NULL,
+                              games INTEGER NOT NULL DEFAULT 0,
+                              PRIMARY KEY (quiz_id, score),
+                              FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE
+);
+
+-- Per-player aggregate of completed games (maintained at submit time, rebuilt by PlayerStatsBackfill)
+CREATE TABLE player_stats (
+                              player_id BIGINT PRIMARY KEY,
+                              total_games INTEGER NOT NULL DEFAULT 0,
+                              quizzes_attempted INTEGER NOT NULL DEFAULT 0,
+                              percentage_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+                              best_percentage DOUBLE PRECISION NOT NULL DEFAULT 0,
+                              best_score INTEGER NOT NULL DEFAULT 0,
+                              last_quiz_id BIGINT,
+                              last_score INTEGER,
+                              last_played_at TIMESTAMP,
+                              FOREIGN KEY (player_id) REFERENCES players(id) ON DELETE CASCADE,
+                              FOREIGN KEY (last_quiz_id) REFERENCES quizzes(id) ON DELETE SET NULL
+);
+
+-- Quizzes a player completed at least once, inserted next to every result (ON CONFLICT DO NOTHING);
+-- player_stats.quizzes_attempted only counts the inserts that created a row
+CREATE TABLE player_quizzes (
+                              player_id BIGINT NOT NULL,
+                              quiz_id BIGINT NOT NULL,
+                              PRIMARY KEY (player_id, quiz_id),
                               FOREIGN KEY (player_id) REFERENCES players(id) ON DELETE CASCADE,
                               FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE
 );
@@ -102,17 +226,37 @@ CREATE INDEX idx_players_nickname ON players(nickname);
 CREATE INDEX idx_game_results_quiz_id ON game_results(quiz_id);
 CREATE INDEX idx_game_results_player_id ON game_results(player_id);
 CREATE INDEX idx_game_results_session_id ON game_results(session_id);
+CREATE INDEX idx_game_result_sessions_claimed_at ON game_result_sessions(claimed_at);
 CREATE INDEX idx_game_results_completed ON game_results(is_completed);
 CREATE INDEX idx_game_results_score ON game_results(score DESC);
 CREATE INDEX idx_game_results_completed_at ON game_results(completed_at DESC);
+CREATE INDEX idx_game_results_leaderboard ON game_results(quiz_id, score DESC, time_taken_seconds ASC NULLS LAST, id)
+    WHERE is_completed = true;
+CREATE INDEX idx_game_results_player_quiz ON game_results(player_id, quiz_id, id) WHERE is_completed = true;
+-- Question difficulty and answer distribution: index-only scans per question
+CREATE INDEX idx_game_answers_question ON game_answers(question_id, chosen_option) INCLUDE (is_correct, points);
+-- Global rankings: index-only scan in ranking order
+CREATE INDEX idx_player_stats_ranking ON player_stats(percentage_sum DESC, player_id)
+    INCLUDE (total_games, quizzes_attempted, best_percentage, last_quiz_id, last_score, last_played_at);
+CREATE INDEX idx_player_stats_total_games ON player_stats(total_games DESC);
 
 -- Comments for documentation
 COMMENT ON TABLE users IS 'Quiz creators and administrators';
 COMMENT ON TABLE quizzes IS 'Quiz definitions with settings';
 COMMENT ON TABLE questions IS 'Questions for quizzes with 8 different types';
 COMMENT ON TABLE players IS 'Anonymous players (no registration required)';
-COMMENT ON TABLE game_results IS 'Results of completed quiz attempts';
+COMMENT ON TABLE game_results IS 'Results of completed quiz attempts, partitioned by month of completed_at';
+COMMENT ON TABLE player_stats IS 'Per-player aggregate of completed games, source of global rankings';
+COMMENT ON TABLE player_quizzes IS 'Quizzes each player completed, keeps player_stats.quizzes_attempted exact';
+COMMENT ON TABLE quiz_stats IS 'Per-quiz running aggregate of completed games, source of result comparisons';
+COMMENT ON TABLE quiz_score_counts IS 'Completed games per quiz and score, source of percentile positions';
+COMMENT ON TABLE activity_hourly IS 'Hourly rollup of completed games per quiz, source of activity and trend analytics';
+COMMENT ON TABLE activity_daily_players IS 'Distinct players per day and quiz, one row per player-day, source of exact daily unique player counts';
+COMMENT ON TABLE game_result_sessions IS 'Sessions with a stored result, keeps results exactly-once per session';
+COMMENT ON TABLE game_answers IS 'Scored answers of completed games, source of per-question analytics, partitioned like game_results';
 
+COMMENT ON COLUMN quizzes.question_count IS 'Number of active questions, kept in sync by the application';
+COMMENT ON COLUMN quizzes.total_points IS 'Sum of points of active questions (maximum score)';
 COMMENT ON COLUMN questions.question_type IS 'SINGLE_CHOICE, MULTIPLE_CHOICE, TRUE_FALSE, SHORT_ANSWER, DROPDOWN, FILL_BLANKS, SORTING, MATCHING';
 COMMENT ON COLUMN questions.answer_options IS 'JSON array of answer options (format depends on question type)';
 COMMENT ON COLUMN questions.correct_answer IS 'JSON representation of correct answer (format depends on question type)';
@@ -0,0 +1,131 @@
+package com.example.quizapp.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AnalyticsFanOut Tests")
+class AnalyticsFanOutTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AnalyticsFanOut fanOut;
+
+    @AfterEach
+    void tearDown() {
+        if (fanOut != null) {
+            fanOut.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run sections in parallel and time each of them")
+    void shouldRunSectionsInParallel() {
+        // Given - three sections that only finish when all three run at the same time
+        fanOut = new AnalyticsFanOut(transactionManager, 4, 3, Duration.ofSeconds(5));
+        CountDownLatch allRunning = new CountDownLatch(3);
+        Map<String, Supplier<?>> sections = new LinkedHashMap<>();
+        for (String name : List.of("first", "second", "third")) {
+            sections.put(name, () -> {
+                allRunning.countDown();
+                await(allRunning);
+                return name.toUpperCase();
+            });
+        }
+
+        // When
+        AnalyticsFanOut.Report report = fanOut.run(sections);
+
+        // Then
+        assertThat(report.failures()).isEmpty();
+        assertThat(report.sections()).containsExactly(
+                Map.entry("first", "FIRST"), Map.entry("second", "SECOND"), Map.entry("third", "THIRD"));
+        assertThat(report.timingsMillis()).containsKeys("first", "second", "third", "total");
+    }
+
+    @Test
+    @DisplayName("Should return other sections when one fails or times out")
+    void shouldReturnPartialReport() {
+        // Given
+        fanOut = new AnalyticsFanOut(transactionManager, 4, 3, Duration.ofMillis(200));
+        Map<String, Supplier<?>> sections = new LinkedHashMap<>();
+        sections.put("ok", () -> 42);
+        sections.put("broken", () -> {
+            throw new QueryTimeoutException("canceling statement due to statement timeout");
+        });
+        sections.put("stuck", () -> {
+            sleep(10_000);
+            return "never";
+        });
+
+        // When
+        AnalyticsFanOut.Report report = fanOut.run(sections);
+        Map<String, Object> response = report.toResponse();
+
+        // Then
+        assertThat(report.sections()).containsOnly(Map.entry("ok", 42));
+        assertThat(report.failures()).containsOnlyKeys("broken", "stuck");
+        assertThat(report.failures().get("stuck")).isEqualTo("Timed out");
+        assertThat(report.failures().get("broken")).isEqualTo("Failed");
+        assertThat(response).containsEntry("ok", 42).containsKeys("timings", "failedSections");
+    }
+
+    @Test
+    @DisplayName("Should not run more sections at once than the connection limits allow")
+    void shouldCapConcurrentQueries() {
+        // Given - up to 3 per report, but only 2 across all reports
+        fanOut = new AnalyticsFanOut(transactionManager, 2, 3, Duration.ofSeconds(5));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Map<String, Supplier<?>> sections = new LinkedHashMap<>();
+        for (int i = 0; i < 6; i++) {
+            sections.put("section" + i, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(30);
+                running.decrementAndGet();
+                return true;
+            });
+        }
+
+        // When
+        AnalyticsFanOut.Report report = fanOut.run(sections);
+
+        // Then
+        assertThat(report.sections()).hasSize(6);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
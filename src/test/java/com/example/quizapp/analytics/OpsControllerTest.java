@@ -0,0 +1,69 @@
+package com.example.quizapp.analytics;
+
+import com.example.quizapp.game.GameResultPartitions;
+import com.example.quizapp.security.RateLimiter;
+import com.example.quizapp.security.UserDetailsCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@WebMvcTest(OpsController.class)
+class OpsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean(name = "rateLimiter")
+    private RateLimiter rateLimiter;
+
+    @MockitoBean(name = "userDetailsCache")
+    private UserDetailsCache userDetailsCache;
+
+    @MockitoBean
+    private GameResultPartitions gameResultPartitions;
+
+    @Test
+    @DisplayName("GET /stats - Should return the statistics of every component by bean name")
+    @WithMockUser(roles = "ADMIN")
+    void shouldReturnComponentStats() throws Exception {
+        // Given
+        when(rateLimiter.getStats()).thenReturn(new RateLimiter.Stats(1200, 35, 0, 400, 18));
+        when(userDetailsCache.getStats()).thenReturn(new UserDetailsCache.Stats(90, 10, 2, 0, 8));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/analytics/ops/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rateLimiter.rejected").value(35))
+                .andExpect(jsonPath("$.rateLimiter.buckets").value(18))
+                .andExpect(jsonPath("$.userDetailsCache.hits").value(90));
+    }
+
+    @Test
+    @DisplayName("POST /partitions/move-default - Should return moved results by month")
+    @WithMockUser(roles = "ADMIN")
+    void shouldMoveDefaultPartition() throws Exception {
+        // Given
+        when(gameResultPartitions.moveDefaultPartition()).thenReturn(Map.of(YearMonth.of(2024, 12), 42));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/analytics/ops/partitions/move-default").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['2024-12']").value(42));
+    }
+}
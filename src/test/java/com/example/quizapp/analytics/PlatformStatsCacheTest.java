@@ -0,0 +1,240 @@
+package com.example.quizapp.analytics;
+
+import com.example.quizapp.game.GameCompletedEvent;
+import com.example.quizapp.game.GameResult;
+import com.example.quizapp.game.GameResultRepository;
+import com.example.quizapp.player.PlayerRepository;
+import com.example.quizapp.question.QuestionRepository;
+import com.example.quizapp.quiz.Quiz;
+import com.example.quizapp.quiz.QuizChangedEvent;
+import com.example.quizapp.quiz.QuizDto;
+import com.example.quizapp.quiz.QuizMapper;
+import com.example.quizapp.quiz.QuizRepository;
+import com.example.quizapp.quiz.QuizStatsJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PlatformStatsCache Tests")
+class PlatformStatsCacheTest {
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @Mock
+    private QuizStatsJdbcRepository quizStatsJdbcRepository;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private GameResultRepository gameResultRepository;
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @Mock
+    private QuizMapper quizMapper;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T12:00:00Z"));
+
+    private PlatformStatsCache platformStatsCache;
+
+    private Quiz javaQuiz;
+    private Quiz springQuiz;
+    private Quiz sqlQuiz;
+
+    @BeforeEach
+    void setUp() {
+        platformStatsCache = new PlatformStatsCache(quizRepository, quizStatsJdbcRepository, playerRepository,
+                gameResultRepository, questionRepository, quizMapper, Duration.ofMinutes(1), 2,
+                Runnable::run, clock);
+
+        javaQuiz = Quiz.builder().id(1L).title("Java Basics").active(true).build();
+        springQuiz = Quiz.builder().id(2L).title("Spring Quiz").active(true).build();
+        sqlQuiz = Quiz.builder().id(3L).title("SQL Queries").active(true).build();
+    }
+
+    @Test
+    @DisplayName("Should load the snapshot once and serve it from memory")
+    void shouldServeSnapshotFromMemory() {
+        // Given
+        givenDatabase(Map.of(1L, 5L, 2L, 3L, 3L, 1L));
+
+        // When
+        platformStatsCache.getStats();
+        PlatformStatsCache.PlatformStats stats = platformStatsCache.getStats();
+
+        // Then
+        assertThat(stats.totalQuizzes()).isEqualTo(3);
+        assertThat(stats.totalPlayers()).isEqualTo(10);
+        assertThat(stats.totalGamesPlayed()).isEqualTo(9);
+        assertThat(stats.totalQuestions()).isEqualTo(30);
+        assertThat(popularIds(stats)).containsExactly(1L, 2L);
+        verify(quizRepository, times(1)).countByActiveTrue();
+        verify(quizStatsJdbcRepository, times(1)).findPlayCounts();
+    }
+
+    @Test
+    @DisplayName("Should top up the popular list with unplayed active quizzes")
+    void shouldTopUpPopularQuizzes() {
+        // Given
+        givenDatabase(Map.of(2L, 3L));
+        when(quizRepository.findByActiveTrue(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(javaQuiz, springQuiz)));
+
+        // When
+        PlatformStatsCache.PlatformStats stats = platformStatsCache.getStats();
+
+        // Then
+        assertThat(popularIds(stats)).containsExactly(2L, 1L);
+        assertThat(stats.popularQuizzes().get(1).plays()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should count completed games into the snapshot and re-rank popular quizzes")
+    void shouldCountCompletedGames() {
+        // Given
+        givenDatabase(Map.of(1L, 5L, 2L, 5L, 3L, 1L));
+        platformStatsCache.getStats();
+
+        // When
+        platformStatsCache.onGameCompleted(new GameCompletedEvent(completedGame(springQuiz)));
+        platformStatsCache.onGameCompleted(new GameCompletedEvent(
+                GameResult.builder().quiz(javaQuiz).completed(false).build()));
+        PlatformStatsCache.PlatformStats stats = platformStatsCache.getStats();
+
+        // Then
+        assertThat(stats.totalGamesPlayed()).isEqualTo(12);
+        assertThat(popularIds(stats)).containsExactly(2L, 1L);
+        assertThat(stats.popularQuizzes().getFirst().plays()).isEqualTo(6);
+        verify(quizStatsJdbcRepository, times(1)).findPlayCounts();
+    }
+
+    @Test
+    @DisplayName("Should refresh when a quiz climbs into the popular list")
+    void shouldRefreshWhenQuizOutranksPopular() {
+        // Given
+        givenDatabase(Map.of(1L, 5L, 2L, 2L, 3L, 2L));
+        platformStatsCache.getStats();
+
+        // When
+        platformStatsCache.onGameCompleted(new GameCompletedEvent(completedGame(sqlQuiz)));
+        platformStatsCache.getStats();
+
+        // Then
+        verify(quizStatsJdbcRepository, times(2)).findPlayCounts();
+    }
+
+    @Test
+    @DisplayName("Should refresh an expired snapshot or one made stale by a quiz change")
+    void shouldRefreshExpiredOrChangedSnapshot() {
+        // Given
+        givenDatabase(Map.of(1L, 5L, 2L, 3L, 3L, 1L));
+        platformStatsCache.getStats();
+
+        // When
+        clock.advance(Duration.ofMinutes(2));
+        platformStatsCache.getStats();
+        platformStatsCache.onQuizChanged(new QuizChangedEvent(3L));
+        platformStatsCache.getStats();
+        platformStatsCache.getStats();
+
+        // Then
+        verify(quizStatsJdbcRepository, times(3)).findPlayCounts();
+    }
+
+    @Test
+    @DisplayName("Should keep serving the previous snapshot when a refresh fails")
+    void shouldKeepSnapshotWhenRefreshFails() {
+        // Given
+        givenDatabase(Map.of(1L, 5L, 2L, 3L, 3L, 1L));
+        PlatformStatsCache.PlatformStats loaded = platformStatsCache.getStats();
+        when(quizStatsJdbcRepository.findPlayCounts()).thenThrow(new IllegalStateException("database down"));
+
+        // When
+        clock.advance(Duration.ofMinutes(2));
+        PlatformStatsCache.PlatformStats stats = platformStatsCache.getStats();
+
+        // Then
+        assertThat(stats).isSameAs(loaded);
+    }
+
+    private void givenDatabase(Map<Long, Long> playCounts) {
+        when(quizStatsJdbcRepository.findPlayCounts()).thenReturn(playCounts);
+        lenient().when(quizRepository.countByActiveTrue()).thenReturn(3L);
+        lenient().when(playerRepository.countByActiveTrue()).thenReturn(10L);
+        lenient().when(gameResultRepository.countByCompletedTrue())
+                .thenReturn(playCounts.values().stream().mapToLong(Long::longValue).sum());
+        lenient().when(questionRepository.count()).thenReturn(30L);
+        lenient().when(quizRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Quiz> quizzes = List.of(javaQuiz, springQuiz, sqlQuiz);
+            return quizzes.stream()
+                    .filter(quiz -> ((List<?>) ids).contains(quiz.getId()))
+                    .toList();
+        });
+        lenient().when(quizRepository.findByActiveTrue(any(Pageable.class)))
+                .thenReturn(Page.empty());
+        lenient().when(quizMapper.toDto(any(Quiz.class))).thenAnswer(invocation -> {
+            Quiz quiz = invocation.getArgument(0);
+            return QuizDto.builder().id(quiz.getId()).title(quiz.getTitle()).build();
+        });
+    }
+
+    private static GameResult completedGame(Quiz quiz) {
+        return GameResult.builder().quiz(quiz).score(5).completed(true).build();
+    }
+
+    private static List<Long> popularIds(PlatformStatsCache.PlatformStats stats) {
+        return stats.popularQuizzes().stream().map(entry -> entry.quiz().getId()).toList();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
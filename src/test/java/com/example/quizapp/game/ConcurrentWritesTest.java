@@ -0,0 +1,232 @@
+package com.example.quizapp.game;
+
+import com.example.quizapp.player.Player;
+import com.example.quizapp.player.PlayerRepository;
+import com.example.quizapp.player.PlayerStatsJdbcRepository;
+import com.example.quizapp.quiz.Quiz;
+import com.example.quizapp.quiz.QuizRepository;
+import com.example.quizapp.quiz.QuizStatsJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writers racing on rows that do not exist yet, each in its own committed transaction.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({GameResultJdbcRepository.class, PlayerStatsJdbcRepository.class, QuizStatsJdbcRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConcurrentWritesTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private GameResultJdbcRepository gameResultJdbcRepository;
+
+    @Autowired
+    private PlayerStatsJdbcRepository playerStatsJdbcRepository;
+
+    @Autowired
+    private QuizStatsJdbcRepository quizStatsJdbcRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Quiz quiz;
+    private Player player;
+
+    @BeforeEach
+    void setUp() {
+        quiz = quizRepository.save(Quiz.builder().title("Race Quiz").active(true).build());
+        player = playerRepository.save(Player.builder().nickname("Racer").active(true).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("game_answers", "activity_daily_players", "activity_hourly", "quiz_score_counts",
+                "quiz_stats", "player_quizzes", "player_stats", "game_results", "game_result_sessions", "players", "quizzes")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    @DisplayName("Should insert a result written by several writers at once only once")
+    void shouldInsertResultOnce() throws Exception {
+        // Given
+        GameResult result = result(player, 70, LocalDateTime.now());
+
+        // When
+        List<Object> inserted = race(thread -> gameResultJdbcRepository.batchInsertResults(List.of(result))[0]);
+
+        // Then
+        assertThat(inserted).containsOnlyOnce(true);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM game_results WHERE session_id = ?",
+                Integer.class, result.getSessionId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should store only one of several different results of a session written at once")
+    void shouldStoreOneResultPerSession() throws Exception {
+        // Given - each writer scored the session at another time, so the results land in different rows
+        LocalDateTime completedAt = LocalDateTime.now();
+
+        // When
+        List<Object> inserted = race(thread -> {
+            GameResult result = result(player, 70, completedAt.minusSeconds(thread));
+            return gameResultJdbcRepository.batchInsertResults(List.of(result))[0];
+        });
+
+        // Then
+        assertThat(inserted).containsOnlyOnce(true);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM game_results WHERE session_id = ?",
+                Integer.class, "race-" + player.getId() + "-70")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should create the stats row of a new player and count its quiz once under concurrent results")
+    void shouldRecordPlayerStatsConcurrently() throws Exception {
+        // Given
+        LocalDateTime completedAt = LocalDateTime.now();
+
+        // When
+        race(thread -> {
+            GameResult result = stored(result(player, thread * 10, completedAt));
+            playerStatsJdbcRepository.recordResults(List.of(result));
+            return result.getId();
+        });
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT total_games FROM player_stats WHERE player_id = ?",
+                Integer.class, player.getId())).isEqualTo(THREADS);
+        assertThat(jdbcTemplate.queryForObject("SELECT best_score FROM player_stats WHERE player_id = ?",
+                Integer.class, player.getId())).isEqualTo((THREADS - 1) * 10);
+        assertThat(jdbcTemplate.queryForObject("SELECT quizzes_attempted FROM player_stats WHERE player_id = ?",
+                Integer.class, player.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should create the activity rows of a new hour once under concurrent results")
+    void shouldRecordActivityConcurrently() throws Exception {
+        // Given
+        LocalDateTime completedAt = LocalDateTime.now();
+
+        // When
+        race(thread -> {
+            GameResult result = stored(result(player, thread * 10, completedAt));
+            gameResultJdbcRepository.recordActivity(List.of(result));
+            return result.getId();
+        });
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT games FROM activity_hourly WHERE quiz_id = ?",
+                Integer.class, quiz.getId())).isEqualTo(THREADS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM activity_daily_players WHERE quiz_id = ?",
+                Integer.class, quiz.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should create the stats and score rows of a new quiz once under concurrent results")
+    void shouldRecordQuizStatsConcurrently() throws Exception {
+        // Given
+        LocalDateTime completedAt = LocalDateTime.now();
+
+        // When
+        race(thread -> {
+            GameResult result = result(player, 70, completedAt);
+            result.setSessionId("race-quiz-" + thread);
+            stored(result);
+            quizStatsJdbcRepository.recordResults(List.of(result));
+            return result.getId();
+        });
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT games FROM quiz_stats WHERE quiz_id = ?",
+                Integer.class, quiz.getId())).isEqualTo(THREADS);
+        assertThat(jdbcTemplate.queryForObject("SELECT games FROM quiz_score_counts WHERE quiz_id = ? AND score = 70",
+                Integer.class, quiz.getId())).isEqualTo(THREADS);
+    }
+
+//    Insert the result like the write-behind writer does and load its generated id
+    private GameResult stored(GameResult result) {
+        gameResultJdbcRepository.batchInsertResults(List.of(result));
+        result.setId(gameResultJdbcRepository.findIdsBySessionIds(List.of(result.getSessionId()))
+                .get(result.getSessionId()));
+        return result;
+    }
+
+//    Run the task on THREADS threads released together, each in a transaction of its own
+    private List<Object> race(IntFunction<Object> task) throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    start.await(10, TimeUnit.SECONDS);
+                    return transaction.execute(status -> task.apply(thread));
+                }));
+            }
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private GameResult result(Player p, int score, LocalDateTime completedAt) {
+        GameResult result = GameResult.builder()
+                .quiz(quiz)
+                .player(p)
+                .score(score)
+                .maxScore(100)
+                .correctAnswers(score / 10)
+                .wrongAnswers(10 - score / 10)
+                .totalQuestions(10)
+                .timeTakenSeconds(60)
+                .answersJson("[]")
+                .sessionId("race-" + p.getId() + "-" + score)
+                .startedAt(completedAt.minusMinutes(1))
+                .completedAt(completedAt)
+                .completed(true)
+                .build();
+        result.calculatePercentage();
+        return result;
+    }
+}
@@ -2,8 +2,10 @@ package com.example.quizapp.game;
 
 import com.example.quizapp.player.Player;
 import com.example.quizapp.player.PlayerRepository;
+import com.example.quizapp.player.PlayerStatsJdbcRepository;
 import com.example.quizapp.quiz.Quiz;
 import com.example.quizapp.quiz.QuizRepository;
+import com.example.quizapp.quiz.QuizStatsJdbcRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,12 +23,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
 @ActiveProfiles("test")
-@Import(GameResultJdbcRepository.class)
+@Import({GameResultJdbcRepository.class, PlayerStatsJdbcRepository.class, QuizStatsJdbcRepository.class})
 class GameResultJdbcRepositoryTest {
 
     @Autowired
     private GameResultJdbcRepository jdbcRepository;
 
+    @Autowired
+    private PlayerStatsJdbcRepository playerStatsJdbcRepository;
+
+    @Autowired
+    private QuizStatsJdbcRepository quizStatsJdbcRepository;
+
     @Autowired
     private GameResultRepository gameResultJpaRepository;
 
@@ -60,7 +68,9 @@ class GameResultJdbcRepositoryTest {
         // Wynik 1: 80%
         result1 = createResult(quiz, player, 80, 100);
         // Wynik 2: 40% (niezdany)
-        createResult(quiz, player, 40, 100);
+        GameResult result2 = createResult(quiz, player, 40, 100);
+        jdbcRepository.recordActivity(List.of(result1, result2));
+        quizStatsJdbcRepository.recordResults(List.of(result1, result2));
     }
 
     private GameResult createResult(Quiz q, Player p, int score, int maxScore) {
@@ -84,6 +94,30 @@ class GameResultJdbcRepositoryTest {
     void shouldCompareWithAverage() {
         Map<String, Object> comparison = jdbcRepository.compareWithAverage(result1.getId());
         assertThat(comparison.get("performance")).isEqualTo("Above Average");
+        assertThat(comparison.get("quiz_avg_score")).isEqualTo(60.0);
+        assertThat(comparison.get("score_diff")).isEqualTo(20.0);
+        assertThat(comparison.get("score_stddev")).isEqualTo(20.0);
+        assertThat(comparison.get("percentile")).isEqualTo(75.0);
+    }
+
+    @Test
+    @DisplayName("Should keep quiz stats identical to a rebuild from the results")
+    void shouldMatchRebuildWhenQuizStatsRecordedIncrementally() {
+        // Given - two more games in one batch, one of them with an already seen score
+        quizStatsJdbcRepository.recordResults(List.of(createResult(quiz, player, 40, 100), createResult(quiz, player, 100, 100)));
+        Map<String, Object> incremental = jdbcRepository.compareWithAverage(result1.getId());
+        List<Map<String, Object>> histogram = jdbcTemplate.queryForList("SELECT * FROM quiz_score_counts ORDER BY score");
+
+        // When
+        int rebuilt = quizStatsJdbcRepository.rebuild();
+
+        // Then
+        assertThat(rebuilt).isEqualTo(1);
+        assertThat(jdbcRepository.compareWithAverage(result1.getId())).isEqualTo(incremental);
+        assertThat(jdbcTemplate.queryForList("SELECT * FROM quiz_score_counts ORDER BY score")).isEqualTo(histogram);
+        assertThat(incremental.get("total_games")).isEqualTo(4);
+        assertThat(incremental.get("quiz_avg_score")).isEqualTo(65.0);
+        assertThat(incremental.get("percentile")).isEqualTo(62.5);
     }
 
     @Test
@@ -122,8 +156,9 @@ class GameResultJdbcRepositoryTest {
     @Test
     @DisplayName("Should return active players statistics")
     void shouldGetActivePlayersStatistics() {
-        // Given - player has 2 completed games
+        // Given - player has 2 completed games, aggregated in player_stats
         int minAttempts = 2;
+        playerStatsJdbcRepository.rebuildRange(player.getId(), player.getId());
 
         // When
         List<Map<String, Object>> stats = jdbcRepository.getActivePlayersStatistics(minAttempts);
@@ -142,6 +177,7 @@ class GameResultJdbcRepositoryTest {
         // Wymuszamy, aby jeden wynik był sprzed godziny (update SQL)
         LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
         jdbcTemplate.update("UPDATE game_results SET completed_at = ? WHERE id = ?", oneHourAgo, result1.getId());
+        jdbcRepository.rebuildActivity();
 
         // When
         List<Map<String, Object>> activity = jdbcRepository.getHourlyActivity();
@@ -158,6 +194,7 @@ class GameResultJdbcRepositoryTest {
         // Ustawiamy datę jednego wyniku na wczoraj
         LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
         jdbcTemplate.update("UPDATE game_results SET completed_at = ? WHERE id = ?", yesterday, result1.getId());
+        jdbcRepository.rebuildActivity();
 
         // When
         List<Map<String, Object>> trend = jdbcRepository.getCompletionTrend();
@@ -169,4 +206,75 @@ class GameResultJdbcRepositoryTest {
         assertThat(trend.get(0)).containsKey("completions");
         assertThat(trend.get(0)).containsKey("passed");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should keep activity rollups identical to a rebuild from the results")
+    void shouldMatchRebuildWhenActivityRecordedIncrementally() {
+        // Given - a third game, passed, recorded on its own
+        GameResult third = createResult(quiz, player, 60, 100);
+        jdbcRepository.recordActivity(List.of(third));
+
+        // When
+        List<Map<String, Object>> hourly = jdbcRepository.getHourlyActivity();
+        List<Map<String, Object>> trend = jdbcRepository.getCompletionTrend();
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT * FROM activity_hourly ORDER BY bucket, quiz_id");
+        jdbcRepository.rebuildActivity();
+
+        // Then
+        assertThat(jdbcTemplate.queryForList("SELECT * FROM activity_hourly ORDER BY bucket, quiz_id")).isEqualTo(rows);
+        assertThat(jdbcRepository.getHourlyActivity()).isEqualTo(hourly);
+        assertThat(jdbcRepository.getCompletionTrend()).isEqualTo(trend);
+        assertThat(((Number) trend.get(0).get("completions")).intValue()).isEqualTo(3);
+        assertThat(((Number) trend.get(0).get("passed")).intValue()).isEqualTo(2);
+        assertThat(((Number) hourly.get(0).get("avg_score")).doubleValue()).isEqualTo(60.0);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM activity_daily_players", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should batch insert results once per session and update player stats")
+    void shouldBatchInsertResultsOncePerSession() {
+        // Given
+        GameResult first = pendingResult("wb-1", 70);
+        GameResult second = pendingResult("wb-2", 90);
+        GameResult duplicate = pendingResult("wb-1", 10);
+
+        // When
+        boolean[] inserted = jdbcRepository.batchInsertResults(List.of(first, second));
+        boolean[] again = jdbcRepository.batchInsertResults(List.of(duplicate));
+        jdbcRepository.batchUpdatePlayerStats(List.of(first, second));
+        Map<String, Long> ids = jdbcRepository.findIdsBySessionIds(List.of("wb-1", "wb-2", "missing"));
+
+        // Then
+        assertThat(inserted).containsExactly(true, true);
+        assertThat(again).containsExactly(false);
+        assertThat(ids).containsOnlyKeys("wb-1", "wb-2");
+
+        GameResult stored = gameResultJpaRepository.findById(ids.get("wb-1")).orElseThrow();
+        assertThat(stored.getScore()).isEqualTo(70);
+        assertThat(stored.getPercentageScore()).isEqualTo(70.0);
+        assertThat(stored.getAnswersJson()).isEqualTo("[]");
+
+        Integer gamesPlayed = jdbcTemplate.queryForObject(
+                "SELECT games_played FROM players WHERE id = ?", Integer.class, player.getId());
+        assertThat(gamesPlayed).isEqualTo(2);
+    }
+
+    private GameResult pendingResult(String sessionId, int score) {
+        GameResult result = GameResult.builder()
+                .quiz(quiz)
+                .player(player)
+                .score(score)
+                .maxScore(100)
+                .correctAnswers(score / 10)
+                .wrongAnswers(10 - score / 10)
+                .totalQuestions(10)
+                .timeTakenSeconds(60)
+                .answersJson("[]")
+                .sessionId(sessionId)
+                .startedAt(LocalDateTime.now().minusMinutes(1))
+                .completedAt(LocalDateTime.now())
+                .build();
+        result.calculatePercentage();
+        return result;
+    }
+}
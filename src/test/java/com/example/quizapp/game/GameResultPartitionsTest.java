@@ -0,0 +1,187 @@
+package com.example.quizapp.game;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GameResultPartitions Tests")
+class GameResultPartitionsTest {
+
+    private static final YearMonth NOW = YearMonth.of(2025, 3);
+
+    @Mock
+    private GameResultJdbcRepository gameResultJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    @DisplayName("Should create missing upcoming partitions and skip months with results in the default partition")
+    void shouldCreateMissingPartitions() {
+        // Given - March exists, results of April were stored before its partition existed
+        GameResultPartitions partitions = partitions(3, 0, false);
+        when(gameResultJdbcRepository.findMonthlyPartitions()).thenReturn(List.of(NOW));
+        when(gameResultJdbcRepository.findMonthsInDefaultPartition()).thenReturn(List.of(YearMonth.of(2025, 4)));
+
+        // When
+        List<YearMonth> changed = partitions.maintain(NOW);
+
+        // Then - April is left to the offline move, nothing is moved on the scheduled path
+        assertThat(changed).containsExactly(YearMonth.of(2025, 5), YearMonth.of(2025, 6));
+        verify(gameResultJdbcRepository, never()).createMonthlyPartition(NOW);
+        verify(gameResultJdbcRepository, never()).createMonthlyPartition(YearMonth.of(2025, 4));
+        verify(gameResultJdbcRepository, never()).moveFromDefaultPartition(any());
+        verify(gameResultJdbcRepository, never()).removeMonthlyPartition(any(), anyBoolean());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should always create the partition of next month")
+    void shouldCreateNextMonth() {
+        // Given - premake of 0 months
+        GameResultPartitions partitions = partitions(0, 0, false);
+        when(gameResultJdbcRepository.findMonthlyPartitions()).thenReturn(List.of(NOW));
+        when(gameResultJdbcRepository.findMonthsInDefaultPartition()).thenReturn(List.of());
+
+        // When
+        List<YearMonth> changed = partitions.maintain(NOW);
+
+        // Then
+        assertThat(changed).containsExactly(YearMonth.of(2025, 4));
+        verify(gameResultJdbcRepository).createMonthlyPartition(YearMonth.of(2025, 4));
+    }
+
+    @Test
+    @DisplayName("Should move results of the default partition only on the offline operation")
+    void shouldMoveDefaultPartition() {
+        // Given - results of last December were stored before partitioning
+        GameResultPartitions partitions = partitions(1, 0, false);
+        when(gameResultJdbcRepository.findMonthlyPartitions()).thenReturn(List.of(NOW));
+        when(gameResultJdbcRepository.findMonthsInDefaultPartition()).thenReturn(List.of(YearMonth.of(2024, 12)));
+        when(gameResultJdbcRepository.moveFromDefaultPartition(YearMonth.of(2024, 12))).thenReturn(42);
+
+        // When
+        Map<YearMonth, Integer> moved = partitions.moveDefaultPartition();
+
+        // Then
+        assertThat(moved).containsExactly(Map.entry(YearMonth.of(2024, 12), 42));
+        verify(gameResultJdbcRepository, never()).createMonthlyPartition(any());
+    }
+
+    @Test
+    @DisplayName("Should remove whole partitions older than the retention")
+    void shouldRemoveExpiredPartitions() {
+        // Given - keep 2 months back from March
+        GameResultPartitions partitions = partitions(1, 2, true);
+        when(gameResultJdbcRepository.findMonthlyPartitions()).thenReturn(List.of(
+                YearMonth.of(2024, 11), YearMonth.of(2024, 12), YearMonth.of(2025, 1), NOW, YearMonth.of(2025, 4)));
+        when(gameResultJdbcRepository.findMonthsInDefaultPartition()).thenReturn(List.of());
+        when(gameResultJdbcRepository.findQuizIdsInPartition(YearMonth.of(2024, 11))).thenReturn(List.of(1L, 2L));
+        when(gameResultJdbcRepository.findQuizIdsInPartition(YearMonth.of(2024, 12))).thenReturn(List.of(2L));
+
+        // When
+        List<YearMonth> changed = partitions.maintain(NOW);
+
+        // Then - answers go with their partition, the leaderboards of affected quizzes are reloaded
+        assertThat(changed).containsExactly(YearMonth.of(2024, 11), YearMonth.of(2024, 12));
+        verify(gameResultJdbcRepository).removeMonthlyPartition(YearMonth.of(2024, 11), true);
+        verify(gameResultJdbcRepository).removeMonthlyPartition(YearMonth.of(2024, 12), true);
+        verify(gameResultJdbcRepository, never()).removeMonthlyPartition(eq(YearMonth.of(2025, 1)), anyBoolean());
+        verify(eventPublisher).publishEvent(new GameResultsRemovedEvent(YearMonth.of(2024, 11), List.of(1L, 2L)));
+        verify(eventPublisher).publishEvent(new GameResultsRemovedEvent(YearMonth.of(2024, 12), List.of(2L)));
+    }
+
+    @Test
+    @DisplayName("Should create the partitions of the sample results before data.sql inserts them")
+    void shouldCreateCurrentPartitionsBeforeSampleData() throws Exception {
+        // Given - the production scripts (the test classpath has its own schema.sql) as the startup
+        // initializer splits them, PostgreSQL is not available here
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.getUpdateCount()).thenReturn(-1);
+
+        // When
+        ScriptUtils.executeSqlScript(connection, new FileSystemResource("src/main/resources/schema.sql"));
+        ScriptUtils.executeSqlScript(connection, new FileSystemResource("src/main/resources/data.sql"));
+
+        // Then - one intact block creates last, this and next month, before the first sample result
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(statement, atLeastOnce()).execute(sql.capture());
+        List<String> statements = sql.getAllValues();
+        List<String> partitionBlocks = statements.stream().filter(s -> s.startsWith("DO ")).toList();
+        assertThat(partitionBlocks).hasSize(1);
+        assertThat(partitionBlocks.getFirst())
+                .contains("FOR month_offset IN -1..1", "PARTITION OF game_results", "PARTITION OF game_answers")
+                .endsWith("END'");
+        int sampleResults = indexOf(statements, "INSERT INTO game_results");
+        assertThat(statements.indexOf(partitionBlocks.getFirst()))
+                .isGreaterThan(indexOf(statements, "CREATE TABLE game_answers_default"))
+                .isLessThan(sampleResults);
+
+        // Sample results are at most a week old, so they fall into last or this month
+        Matcher age = Pattern.compile("CURRENT_TIMESTAMP - INTERVAL '(\\d+) (\\w+)'").matcher(statements.get(sampleResults));
+        while (age.find()) {
+            int days = switch (age.group(2)) {
+                case "minutes", "hour", "hours" -> 0;
+                case "day", "days" -> Integer.parseInt(age.group(1));
+                case "week" -> 7 * Integer.parseInt(age.group(1));
+                default -> throw new AssertionError("Unexpected sample age " + age.group());
+            };
+            assertThat(days).isLessThanOrEqualTo(7);
+        }
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when partitioning is disabled")
+    void shouldDoNothingWhenDisabled() {
+        // Given
+        GameResultPartitions partitions = new GameResultPartitions(gameResultJdbcRepository, transactionManager, eventPublisher,
+                false, 3, 0, false, Duration.ofHours(6));
+
+        // When
+        partitions.start();
+
+        // Then
+        verifyNoInteractions(gameResultJdbcRepository);
+    }
+
+    private static int indexOf(List<String> statements, String prefix) {
+        for (int i = 0; i < statements.size(); i++) {
+            if (statements.get(i).startsWith(prefix)) {
+                return i;
+            }
+        }
+        throw new AssertionError("No statement starting with " + prefix);
+    }
+
+    private GameResultPartitions partitions(int premakeMonths, int retentionMonths, boolean detachOnly) {
+        return new GameResultPartitions(gameResultJdbcRepository, transactionManager, eventPublisher,
+                true, premakeMonths, retentionMonths, detachOnly, Duration.ofHours(6));
+    }
+}
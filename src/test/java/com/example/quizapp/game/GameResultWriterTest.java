@@ -0,0 +1,277 @@
+package com.example.quizapp.game;
+
+import com.example.quizapp.player.Player;
+import com.example.quizapp.player.PlayerStatsJdbcRepository;
+import com.example.quizapp.quiz.Quiz;
+import com.example.quizapp.quiz.QuizStatsJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GameResultWriter Tests")
+class GameResultWriterTest {
+
+    @Mock
+    private GameResultJdbcRepository gameResultJdbcRepository;
+    @Mock
+    private PlayerStatsJdbcRepository playerStatsJdbcRepository;
+    @Mock
+    private QuizStatsJdbcRepository quizStatsJdbcRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private GameResultWriter writer;
+
+//    Session ids in the order they reached the database
+    private final List<String> inserted = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    private GameResultWriter startWriter(boolean enabled, int capacity, Duration offerTimeout) {
+        writer = new GameResultWriter(gameResultJdbcRepository, playerStatsJdbcRepository, quizStatsJdbcRepository,
+                transactionManager, eventPublisher,
+                enabled, capacity, 100, offerTimeout, 10);
+        writer.start();
+        return writer;
+    }
+
+    private void recordInserts(CountDownLatch entered, CountDownLatch release) {
+        lenient().when(gameResultJdbcRepository.batchInsertResults(anyList())).thenAnswer(invocation -> {
+            List<GameResult> batch = invocation.getArgument(0);
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            batch.forEach(result -> inserted.add(result.getSessionId()));
+            boolean[] rows = new boolean[batch.size()];
+            Arrays.fill(rows, true);
+            return rows;
+        });
+        lenient().when(gameResultJdbcRepository.findIdsBySessionIds(any())).thenAnswer(invocation -> {
+            Map<String, Long> ids = new HashMap<>();
+            for (String sessionId : invocation.<List<String>>getArgument(0)) {
+                ids.put(sessionId, (long) sessionId.hashCode());
+            }
+            return ids;
+        });
+    }
+
+    private static GameResult result(String sessionId) {
+        return GameResult.builder()
+                .player(Player.builder().id(1L).nickname("P1").build())
+                .quiz(Quiz.builder().id(2L).build())
+                .sessionId(sessionId)
+                .score(5)
+                .maxScore(10)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should not accept results when write-behind is disabled")
+    void shouldRejectWhenDisabled() {
+        startWriter(false, 10, Duration.ofMillis(10));
+
+        assertThat(writer.isEnabled()).isFalse();
+        assertThat(writer.submit(result("s1"))).isFalse();
+        verifyNoInteractions(gameResultJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Should store queued results in a batch and keep them readable until stored")
+    void shouldStoreQueuedResults() throws InterruptedException {
+        // Given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        recordInserts(entered, release);
+        startWriter(true, 10, Duration.ofMillis(10));
+
+        // When
+        GameResult result = result("s1");
+        assertThat(writer.submit(result)).isTrue();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Then - in flight: still readable, percentage already known
+        assertThat(writer.findPending("s1")).containsSame(result);
+        assertThat(result.getPercentageScore()).isEqualTo(50.0);
+
+        release.countDown();
+        verify(eventPublisher, timeout(5000)).publishEvent(any(GameCompletedEvent.class));
+        assertThat(writer.findPending("s1")).isEmpty();
+        assertThat(result.getId()).isEqualTo((long) "s1".hashCode());
+        verify(gameResultJdbcRepository).batchUpdatePlayerStats(List.of(result));
+        verify(gameResultJdbcRepository).batchInsertAnswers(List.of(result));
+        verify(gameResultJdbcRepository).recordActivity(List.of(result));
+        verify(playerStatsJdbcRepository).recordResults(List.of(result));
+        verify(quizStatsJdbcRepository).recordResults(List.of(result));
+    }
+
+    @Test
+    @DisplayName("Should queue a session only once")
+    void shouldIgnoreDuplicateSession() throws InterruptedException {
+        // Given - writer busy with the first result
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        recordInserts(entered, release);
+        startWriter(true, 10, Duration.ofMillis(10));
+        writer.submit(result("busy"));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        assertThat(writer.submit(result("s1"))).isTrue();
+        assertThat(writer.submit(result("s1"))).isTrue();
+
+        // Then
+        assertThat(writer.queueSize()).isEqualTo(1);
+        release.countDown();
+        verify(eventPublisher, timeout(5000).times(2)).publishEvent(any(GameCompletedEvent.class));
+        assertThat(inserted).containsExactly("busy", "s1");
+    }
+
+    @Test
+    @DisplayName("Should hand result back to caller when queue stays full")
+    void shouldApplyBackpressure() throws InterruptedException {
+        // Given - writer blocked, queue of one already full
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        recordInserts(entered, release);
+        startWriter(true, 1, Duration.ofMillis(50));
+        writer.submit(result("busy"));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(writer.submit(result("queued"))).isTrue();
+
+        // When
+        boolean accepted = writer.submit(result("overflow"));
+
+        // Then - caller stores it itself, nothing is left pending for it
+        assertThat(accepted).isFalse();
+        assertThat(writer.findPending("overflow")).isEmpty();
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should flush queued results on shutdown")
+    void shouldFlushOnShutdown() throws InterruptedException {
+        // Given - writer blocked while more results wait in the queue
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        recordInserts(entered, release);
+        startWriter(true, 10, Duration.ofMillis(10));
+        writer.submit(result("s1"));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.submit(result("s2"));
+        writer.submit(result("s3"));
+
+        // When
+        release.countDown();
+        writer.shutdown();
+
+        // Then
+        assertThat(inserted).containsExactlyInAnyOrder("s1", "s2", "s3");
+        assertThat(writer.isEnabled()).isFalse();
+        assertThat(writer.submit(result("late"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not count a session that is already stored")
+    void shouldSkipAlreadyStoredSession() {
+        // Given
+        when(gameResultJdbcRepository.batchInsertResults(anyList())).thenReturn(new boolean[]{false});
+        writer = new GameResultWriter(gameResultJdbcRepository, playerStatsJdbcRepository, quizStatsJdbcRepository,
+                transactionManager, eventPublisher,
+                true, 10, 100, Duration.ofMillis(10), 10);
+
+        // When
+        writer.write(new ArrayList<>(List.of(result("s1"))));
+
+        // Then
+        verify(gameResultJdbcRepository, never()).batchUpdatePlayerStats(anyList());
+        verify(gameResultJdbcRepository, never()).batchInsertAnswers(anyList());
+        verify(gameResultJdbcRepository, never()).recordActivity(anyList());
+        verify(playerStatsJdbcRepository, never()).recordResults(anyList());
+        verify(quizStatsJdbcRepository, never()).recordResults(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should keep results that cannot be stored, retry them and give up the oldest beyond capacity")
+    void shouldDeadLetterFailedResults() {
+        // Given - sessions starting with "bad" fail until the database recovers
+        AtomicBoolean recovered = new AtomicBoolean();
+        when(gameResultJdbcRepository.batchInsertResults(anyList())).thenAnswer(invocation -> {
+            List<GameResult> batch = invocation.getArgument(0);
+            if (!recovered.get() && batch.stream().anyMatch(result -> result.getSessionId().startsWith("bad"))) {
+                throw new IllegalStateException("constraint violation");
+            }
+            batch.forEach(result -> inserted.add(result.getSessionId()));
+            boolean[] rows = new boolean[batch.size()];
+            Arrays.fill(rows, true);
+            return rows;
+        });
+        when(gameResultJdbcRepository.findIdsBySessionIds(any())).thenReturn(Map.of());
+        writer = new GameResultWriter(gameResultJdbcRepository, playerStatsJdbcRepository, quizStatsJdbcRepository,
+                transactionManager, eventPublisher,
+                true, 10, 100, Duration.ofMillis(10), 1);
+
+        writer.start();
+
+        // When - a batch fails as a whole, then row by row for the bad results
+        writer.submit(result("good"));
+        writer.submit(result("bad-1"));
+        writer.submit(result("bad-2"));
+        waitUntil(() -> writer.getStats().deadLettered() == 2);
+
+        // Then - the good result is stored, only the newest failed one is kept (capacity 1)
+        assertThat(inserted).containsExactly("good");
+        assertThat(writer.getStats().deadLettered()).isEqualTo(2);
+        assertThat(writer.getStats().deadLetters()).isEqualTo(1);
+        assertThat(writer.getStats().dropped()).isEqualTo(1);
+        assertThat(writer.findPending("bad-1")).isEmpty();
+        assertThat(writer.findPending("bad-2")).isPresent();
+
+        // When - retried after the database recovered
+        recovered.set(true);
+        writer.retryDeadLetters();
+
+        // Then
+        assertThat(inserted).containsExactly("good", "bad-2");
+        assertThat(writer.getStats().deadLetters()).isZero();
+        assertThat(writer.getStats().stored()).isEqualTo(2);
+        assertThat(writer.findPending("bad-2")).isEmpty();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.quizapp.game;
 
+import com.example.quizapp.common.exception.GameSessionExpiredException;
 import com.example.quizapp.common.exception.ResourceNotFoundException;
 import com.example.quizapp.player.Player;
 import com.example.quizapp.player.PlayerRepository;
+import com.example.quizapp.player.PlayerStatsJdbcRepository;
+import com.example.quizapp.player.PlayerStatsRecorder;
+import com.example.quizapp.question.AnswerKeyCache;
 import com.example.quizapp.question.Question;
 import com.example.quizapp.question.QuestionDto;
-import com.example.quizapp.question.QuestionMapper;
-import com.example.quizapp.question.QuestionService;
+import com.example.quizapp.question.QuestionType;
 import com.example.quizapp.quiz.Quiz;
 import com.example.quizapp.quiz.QuizRepository;
+import com.example.quizapp.quiz.QuizSnapshot;
+import com.example.quizapp.quiz.QuizSnapshotCache;
+import com.example.quizapp.quiz.QuizStatsJdbcRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -17,9 +23,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -42,11 +52,25 @@ class GameServiceTest {
     @Mock
     private GameResultRepository gameResultRepository;
     @Mock
-    private QuestionService questionService;
+    private GameResultJdbcRepository gameResultJdbcRepository;
+    @Spy
+    private AnswerKeyCache answerKeyCache = new AnswerKeyCache();
+    @Spy
+    private GameSessionStore gameSessionStore = new GameSessionStore(Duration.ofHours(1), 0);
     @Mock
-    private QuestionMapper questionMapper;
+    private QuizSnapshotCache quizSnapshotCache;
     @Mock
     private ObjectMapper objectMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private GameResultWriter gameResultWriter;
+    @Mock
+    private PlayerStatsRecorder playerStatsRecorder;
+    @Mock
+    private PlayerStatsJdbcRepository playerStatsJdbcRepository;
+    @Mock
+    private QuizStatsJdbcRepository quizStatsJdbcRepository;
 
     @InjectMocks
     private GameService gameService;
@@ -66,13 +90,12 @@ class GameServiceTest {
                 .questions(new ArrayList<>(List.of(new Question(), new Question())))
                 .build();
 
-        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(quizSnapshotCache.getSnapshot(quizId)).thenReturn(QuizSnapshot.of(quiz, 1L, new ObjectMapper()));
         when(playerRepository.save(any(Player.class))).thenAnswer(i -> {
             Player p = i.getArgument(0);
             p.setId(100L);
             return p;
         });
-        when(questionMapper.toDto(any())).thenReturn(new QuestionDto());
 
         // When
         StartGameResponse response = gameService.startGame(request);
@@ -81,6 +104,58 @@ class GameServiceTest {
         assertThat(response.getSessionId()).isNotNull();
         assertThat(response.getQuizId()).isEqualTo(quizId);
         assertThat(response.getTotalQuestions()).isEqualTo(2);
+        assertThat(gameSessionStore.get(response.getSessionId()).playerId()).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("ResumeGame: Should rebuild the same order from the stored session")
+    void shouldResumeGameWithSameOrder() {
+        // Given
+        Long quizId = 1L;
+        Quiz quiz = shuffledQuiz(quizId);
+        Player player = Player.builder().id(100L).nickname("PlayerOne").build();
+
+        when(quizSnapshotCache.getSnapshot(quizId)).thenReturn(QuizSnapshot.of(quiz, 1L, new ObjectMapper()));
+        when(playerRepository.save(any(Player.class))).thenReturn(player);
+        when(playerRepository.findById(100L)).thenReturn(Optional.of(player));
+
+        // When
+        StartGameResponse started = gameService.startGame(new StartGameRequest(quizId, "PlayerOne", null, null));
+        StartGameResponse resumed = gameService.resumeGame(started.getSessionId());
+
+        // Then
+        assertThat(resumed.getQuestions()).extracting(QuestionDto::getId)
+                .containsExactlyElementsOf(started.getQuestions().stream().map(QuestionDto::getId).toList());
+        assertThat(resumed.getQuestions()).extracting(QuestionDto::getAnswerOptions)
+                .containsExactlyElementsOf(started.getQuestions().stream().map(QuestionDto::getAnswerOptions).toList());
+        assertThat(started.getQuestions()).allSatisfy(q -> assertThat(q.getCorrectAnswer()).isNull());
+    }
+
+    @Test
+    @DisplayName("ResumeGame: Should expire session when quiz changed")
+    void shouldExpireSessionWhenQuizChanged() {
+        // Given
+        Long quizId = 1L;
+        Quiz quiz = shuffledQuiz(quizId);
+        Player player = Player.builder().id(100L).nickname("PlayerOne").build();
+
+        when(quizSnapshotCache.getSnapshot(quizId))
+                .thenReturn(QuizSnapshot.of(quiz, 1L, new ObjectMapper()))
+                .thenReturn(QuizSnapshot.of(quiz, 2L, new ObjectMapper()));
+        when(playerRepository.save(any(Player.class))).thenReturn(player);
+
+        StartGameResponse started = gameService.startGame(new StartGameRequest(quizId, "PlayerOne", null, null));
+
+        // When & Then
+        assertThatThrownBy(() -> gameService.resumeGame(started.getSessionId()))
+                .isInstanceOf(GameSessionExpiredException.class);
+    }
+
+    @Test
+    @DisplayName("ResumeGame: Should throw when session is unknown")
+    void shouldThrowWhenResumingUnknownSession() {
+        assertThatThrownBy(() -> gameService.resumeGame("missing"))
+                .isInstanceOf(GameSessionExpiredException.class);
     }
 
     @Test
@@ -89,7 +164,7 @@ class GameServiceTest {
         // Given
         Long quizId = 1L;
         Quiz quiz = Quiz.builder().id(quizId).active(false).build();
-        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(quizSnapshotCache.getSnapshot(quizId)).thenReturn(QuizSnapshot.of(quiz, 1L, new ObjectMapper()));
 
         // When & Then
         assertThatThrownBy(() -> gameService.startGame(new StartGameRequest(quizId, "Nick", null, null)))
@@ -103,7 +178,7 @@ class GameServiceTest {
         // Given
         Long quizId = 1L;
         Quiz quiz = Quiz.builder().id(quizId).active(true).questions(Collections.emptyList()).build();
-        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(quizSnapshotCache.getSnapshot(quizId)).thenReturn(QuizSnapshot.of(quiz, 1L, new ObjectMapper()));
 
         // When & Then
         assertThatThrownBy(() -> gameService.startGame(new StartGameRequest(quizId, "Nick", null, null)))
@@ -123,8 +198,10 @@ class GameServiceTest {
 
         Quiz quiz = Quiz.builder().id(quizId).build();
         // Setup questions via setter or builder if possible, ensuring list is mutable if needed
-        Question q1 = Question.builder().id(10L).points(5).active(true).build();
-        Question q2 = Question.builder().id(11L).points(5).active(true).build();
+        Question q1 = Question.builder().id(10L).points(5).active(true)
+                .questionType(QuestionType.SHORT_ANSWER).correctAnswer("Correct").build();
+        Question q2 = Question.builder().id(11L).points(5).active(true)
+                .questionType(QuestionType.SHORT_ANSWER).correctAnswer("Right").build();
         quiz.setQuestions(List.of(q1, q2));
 
         Player player = Player.builder().id(playerId).nickname("Test").gamesPlayed(0).build();
@@ -141,9 +218,8 @@ class GameServiceTest {
 
         when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
         when(playerRepository.findById(playerId)).thenReturn(Optional.of(player));
-        when(questionService.validateAnswer(10L, "Correct")).thenReturn(true);
-        when(questionService.validateAnswer(11L, "Wrong")).thenReturn(false);
         when(gameResultRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(gameResultJdbcRepository.claimSession(anyString())).thenReturn(true);
 
         // When
         GameResultDto result = gameService.submitAnswers(request);
@@ -154,8 +230,131 @@ class GameServiceTest {
         assertThat(result.getCorrectAnswers()).isEqualTo(1);
         assertThat(result.getWrongAnswers()).isEqualTo(1);
 
-        verify(playerRepository).save(player); // Should update stats
-        assertThat(player.getGamesPlayed()).isEqualTo(1);
+        verify(playerStatsRecorder).recordGamePlayed(eq(playerId), any(LocalDateTime.class)); // Should update stats
+        verify(playerStatsJdbcRepository).recordResults(anyList()); // ...and the player aggregate
+        verify(quizStatsJdbcRepository).recordResults(anyList()); // ...and the quiz aggregate
+        verify(playerRepository, never()).save(any()); // ...without read-modify-write of the entity
+        verify(gameResultJdbcRepository).batchInsertAnswers(argThat(results -> results.get(0).getAnswerFacts().stream()
+                .map(answer -> answer.getQuestionId() + ":" + answer.isCorrect() + ":" + answer.getPoints())
+                .toList()
+                .equals(List.of("10:true:5", "11:false:0")))); // One scored answer per question
+        verify(gameResultJdbcRepository).recordActivity(anyList()); // ...and the activity rollups
+        verify(eventPublisher).publishEvent(any(GameCompletedEvent.class));
+    }
+
+    @Test
+    @DisplayName("SubmitAnswers: Should hand result to write-behind writer when it accepts it")
+    void shouldQueueResultForWriteBehind() {
+        // Given
+        Long quizId = 1L;
+        Quiz quiz = Quiz.builder().id(quizId).build();
+        Question q1 = Question.builder().id(10L).points(5).active(true)
+                .questionType(QuestionType.SHORT_ANSWER).correctAnswer("Correct").build();
+        quiz.setQuestions(List.of(q1));
+        Player player = Player.builder().id(1L).nickname("Test").gamesPlayed(0).build();
+
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(playerRepository.findById(1L)).thenReturn(Optional.of(player));
+        when(gameResultWriter.submit(any(GameResult.class))).thenReturn(true);
+
+        // When
+        GameResultDto result = gameService.submitAnswers(SubmitAnswersRequest.builder()
+                .quizId(quizId)
+                .playerId(1L)
+                .sessionId("sess-wb")
+                .answers(List.of(new SubmitAnswersRequest.AnswerSubmission(10L, "Correct")))
+                .build());
+
+        // Then - scored right away, stored later by the writer
+        assertThat(result.getScore()).isEqualTo(5);
+        assertThat(result.getId()).isNull();
+        assertThat(result.getSessionId()).isEqualTo("sess-wb");
+        verify(gameResultRepository, never()).save(any());
+        verify(playerRepository, never()).save(any());
+        verify(playerStatsRecorder, never()).recordGamePlayed(any(), any());
+        verify(playerStatsJdbcRepository, never()).recordResults(anyList());
+        verify(quizStatsJdbcRepository, never()).recordResults(anyList());
+        verify(gameResultJdbcRepository, never()).batchInsertAnswers(anyList());
+        verify(gameResultJdbcRepository, never()).recordActivity(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("SubmitAnswers: Should return the result a session already has instead of scoring it again")
+    void shouldReturnExistingResultOnDuplicateSubmit() {
+        // Given
+        Long quizId = 1L;
+        Quiz quiz = Quiz.builder().id(quizId).title("Q1").build();
+        Player player = Player.builder().id(1L).nickname("Test").build();
+        GameResult stored = GameResult.builder()
+                .id(7L)
+                .player(player)
+                .quiz(quiz)
+                .sessionId("sess-dup")
+                .score(40)
+                .build();
+
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(playerRepository.findById(1L)).thenReturn(Optional.of(player));
+        when(gameResultRepository.findBySessionId("sess-dup")).thenReturn(Optional.of(stored));
+
+        // When
+        GameResultDto result = gameService.submitAnswers(SubmitAnswersRequest.builder()
+                .quizId(quizId)
+                .playerId(1L)
+                .sessionId("sess-dup")
+                .answers(List.of(new SubmitAnswersRequest.AnswerSubmission(10L, "Correct")))
+                .build());
+
+        // Then
+        assertThat(result.getId()).isEqualTo(7L);
+        assertThat(result.getScore()).isEqualTo(40);
+        verify(gameSessionStore, never()).remove(anyString());
+        verify(gameResultWriter, never()).submit(any());
+        verify(gameResultRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("SubmitAnswers: Should return the stored result when a concurrent submit claimed the session")
+    void shouldReturnStoredResultWhenSessionClaimed() {
+        // Given
+        Long quizId = 1L;
+        Quiz quiz = Quiz.builder().id(quizId).title("Q1").build();
+        Question q1 = Question.builder().id(10L).points(5).active(true)
+                .questionType(QuestionType.SHORT_ANSWER).correctAnswer("Correct").build();
+        quiz.setQuestions(List.of(q1));
+        Player player = Player.builder().id(1L).nickname("Test").build();
+        GameResult stored = GameResult.builder()
+                .id(8L)
+                .player(player)
+                .quiz(quiz)
+                .sessionId("sess-race")
+                .score(0)
+                .build();
+
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(playerRepository.findById(1L)).thenReturn(Optional.of(player));
+        when(gameResultRepository.findBySessionId("sess-race"))
+                .thenReturn(Optional.empty())        // not stored yet when the submit starts
+                .thenReturn(Optional.of(stored));    // stored by the submit that won the claim
+        when(gameResultJdbcRepository.claimSession("sess-race")).thenReturn(false);
+
+        // When
+        GameResultDto result = gameService.submitAnswers(SubmitAnswersRequest.builder()
+                .quizId(quizId)
+                .playerId(1L)
+                .sessionId("sess-race")
+                .answers(List.of(new SubmitAnswersRequest.AnswerSubmission(10L, "Correct")))
+                .build());
+
+        // Then - the claimed result, nothing of this submit is stored
+        assertThat(result.getId()).isEqualTo(8L);
+        assertThat(result.getScore()).isZero();
+        verify(gameResultRepository, never()).save(any());
+        verify(gameResultJdbcRepository, never()).batchInsertAnswers(anyList());
+        verify(playerStatsJdbcRepository, never()).recordResults(anyList());
+        verify(playerStatsRecorder, never()).recordGamePlayed(any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -170,6 +369,8 @@ class GameServiceTest {
                 .points(10)
                 .negativePoints(5)
                 .active(true)
+                .questionType(QuestionType.SHORT_ANSWER)
+                .correctAnswer("Right")
                 .build();
         quiz.setQuestions(List.of(q1));
 
@@ -182,8 +383,8 @@ class GameServiceTest {
 
         when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
         when(playerRepository.findById(1L)).thenReturn(Optional.of(new Player()));
-        when(questionService.validateAnswer(10L, "Wrong")).thenReturn(false);
         when(gameResultRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(gameResultJdbcRepository.claimSession(anyString())).thenReturn(true);
 
         // When
         GameResultDto result = gameService.submitAnswers(request);
@@ -199,6 +400,63 @@ class GameServiceTest {
         assertThat(result.getScore()).isZero();
     }
 
+    @Test
+    @DisplayName("SubmitAnswers: Should map shuffled option indexes back before scoring")
+    void shouldScoreShuffledAnswers() {
+        // Given
+        Long quizId = 1L;
+        Quiz quiz = shuffledQuiz(quizId);
+        Player player = Player.builder().id(100L).nickname("PlayerOne").gamesPlayed(0).build();
+
+        when(quizSnapshotCache.getSnapshot(quizId)).thenReturn(QuizSnapshot.of(quiz, 1L, new ObjectMapper()));
+        when(playerRepository.save(any(Player.class))).thenReturn(player);
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(playerRepository.findById(100L)).thenReturn(Optional.of(player));
+        when(gameResultRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(gameResultJdbcRepository.claimSession(anyString())).thenReturn(true);
+
+        StartGameResponse started = gameService.startGame(new StartGameRequest(quizId, "PlayerOne", null, null));
+
+        // Pick option "C" (stored index 2) at the position it was shown to this player
+        List<SubmitAnswersRequest.AnswerSubmission> answers = started.getQuestions().stream()
+                .map(q -> new SubmitAnswersRequest.AnswerSubmission(q.getId(),
+                        String.valueOf(List.of(q.getAnswerOptions().replaceAll("[\\[\\]\"]", "").split(",")).indexOf("C"))))
+                .toList();
+
+        // When
+        GameResultDto result = gameService.submitAnswers(SubmitAnswersRequest.builder()
+                .quizId(quizId)
+                .playerId(100L)
+                .sessionId(started.getSessionId())
+                .answers(answers)
+                .build());
+
+        // Then
+        assertThat(result.getCorrectAnswers()).isEqualTo(5);
+        assertThat(result.getDetailedAnswers()).allSatisfy(a -> assertThat(a.getUserAnswer()).isEqualTo("C"));
+    }
+
+    @Test
+    @DisplayName("SubmitAnswers: Should reject shuffled answers without their game session")
+    void shouldThrowWhenShuffledSessionExpired() {
+        // Given
+        Long quizId = 1L;
+        Quiz quiz = shuffledQuiz(quizId);
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(playerRepository.findById(100L)).thenReturn(Optional.of(Player.builder().id(100L).build()));
+
+        // When & Then - the shown option order is unknown, the indexes cannot be graded
+        assertThatThrownBy(() -> gameService.submitAnswers(SubmitAnswersRequest.builder()
+                .quizId(quizId)
+                .playerId(100L)
+                .sessionId("expired-session")
+                .answers(List.of(new SubmitAnswersRequest.AnswerSubmission(quiz.getQuestions().get(0).getId(), "2")))
+                .build()))
+                .isInstanceOf(GameSessionExpiredException.class);
+        verify(gameResultRepository, never()).save(any());
+        verify(gameResultWriter, never()).submit(any());
+    }
+
     // --- GET RESULT TESTS ---
 
     @Test
@@ -230,6 +488,46 @@ class GameServiceTest {
         verify(objectMapper).readValue(eq("[{\"questionId\":1}]"), any(TypeReference.class));
     }
 
+    @Test
+    @DisplayName("GetGameResultBySession: Should return result still queued for write-behind")
+    void shouldGetPendingGameResultBySession() {
+        // Given
+        GameResult pending = GameResult.builder()
+                .player(Player.builder().id(1L).nickname("P1").build())
+                .quiz(Quiz.builder().id(2L).title("Q1").build())
+                .sessionId("sess-pending")
+                .score(80)
+                .build();
+        when(gameResultWriter.findPending("sess-pending")).thenReturn(Optional.of(pending));
+
+        // When
+        GameResultDto resultDto = gameService.getGameResultBySession("sess-pending");
+
+        // Then
+        assertThat(resultDto.getId()).isNull();
+        assertThat(resultDto.getScore()).isEqualTo(80);
+        verify(gameResultRepository, never()).findBySessionId(anyString());
+    }
+
+    @Test
+    @DisplayName("GetGameResultBySession: Should fall back to stored result")
+    void shouldGetStoredGameResultBySession() {
+        // Given
+        GameResult stored = GameResult.builder()
+                .id(7L)
+                .player(Player.builder().id(1L).nickname("P1").build())
+                .quiz(Quiz.builder().id(2L).title("Q1").build())
+                .sessionId("sess-stored")
+                .build();
+        when(gameResultWriter.findPending("sess-stored")).thenReturn(Optional.empty());
+        when(gameResultRepository.findBySessionId("sess-stored")).thenReturn(Optional.of(stored));
+
+        // When & Then
+        assertThat(gameService.getGameResultBySession("sess-stored").getId()).isEqualTo(7L);
+        assertThatThrownBy(() -> gameService.getGameResultBySession("unknown"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
     @Test
     @DisplayName("GetGameResult: Should throw exception when not found")
     void shouldThrowWhenResultNotFound() {
@@ -246,10 +544,7 @@ class GameServiceTest {
     void shouldCalculateQuizStatistics() {
         // Given
         Long quizId = 1L;
-        Quiz quiz = Quiz.builder().id(quizId).title("Stat Quiz").build();
-        // Setup quiz mocks
-        Question q1 = Question.builder().points(10).build();
-        quiz.setQuestions(List.of(q1)); // Total points 10
+        Quiz quiz = Quiz.builder().id(quizId).title("Stat Quiz").totalPoints(10).build();
 
         when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
         when(gameResultRepository.countByQuizIdAndCompletedTrue(quizId)).thenReturn(10L);
@@ -268,4 +563,26 @@ class GameServiceTest {
         assertThat(stats.getPassRate()).isEqualTo(80.0); // 8/10 * 100
         assertThat(stats.getMaxScore()).isEqualTo(10);
     }
-}
\ No newline at end of file
+
+    private Quiz shuffledQuiz(Long quizId) {
+        Quiz quiz = Quiz.builder()
+                .id(quizId)
+                .active(true)
+                .randomQuestionOrder(true)
+                .randomAnswerOrder(true)
+                .build();
+        for (long id = 1; id <= 5; id++) {
+            quiz.getQuestions().add(Question.builder()
+                    .id(id)
+                    .questionOrder((int) id)
+                    .questionType(QuestionType.SINGLE_CHOICE)
+                    .questionText("Question " + id)
+                    .points(1)
+                    .answerOptions("[\"A\",\"B\",\"C\",\"D\"]")
+                    .correctAnswer("2")
+                    .active(true)
+                    .build());
+        }
+        return quiz;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.quizapp.game;
+
+import com.example.quizapp.common.exception.GameSessionExpiredException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameSessionStoreTest {
+
+    @Test
+    @DisplayName("Should return stored session until it is removed")
+    void shouldStoreAndRemoveSession() {
+        GameSessionStore store = new GameSessionStore(Duration.ofHours(1), 0);
+
+        GameSession created = store.create("sess-1", 1L, 0L, 10L, 42L, 7L);
+
+        assertThat(store.get("sess-1")).isEqualTo(created);
+        assertThat(store.remove("sess-1")).contains(created);
+        assertThat(store.remove("sess-1")).isEmpty();
+        assertThatThrownBy(() -> store.get("sess-1"))
+                .isInstanceOf(GameSessionExpiredException.class);
+    }
+
+    @Test
+    @DisplayName("Should throw GameSessionExpiredException after TTL")
+    void shouldExpireSessionAfterTtl() {
+        GameSessionStore store = new GameSessionStore(Duration.ZERO, 0);
+
+        store.create("sess-1", 1L, 0L, 10L, 42L, 7L);
+
+        assertThatThrownBy(() -> store.get("sess-1"))
+                .isInstanceOf(GameSessionExpiredException.class)
+                .hasMessageContaining("sess-1");
+        assertThat(store.remove("sess-1")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Bounded store should evict the oldest session when full")
+    void shouldEvictOldestWhenFull() {
+        GameSessionStore store = new GameSessionStore(Duration.ofHours(1), 10_000);
+
+        for (int i = 0; i < 10_500; i++) {
+            store.create("sess-" + i, 1L, 0L, i, i, i);
+        }
+
+        assertThat(store.size()).isEqualTo(10_000);
+        assertThatThrownBy(() -> store.get("sess-0"))
+                .isInstanceOf(GameSessionExpiredException.class);
+        assertThat(store.get("sess-10499").playerId()).isEqualTo(10_499L);
+    }
+
+    @Test
+    @DisplayName("Should not keep entries of finished games queued behind a long-running one")
+    void shouldCompactFinishedSessions() {
+        GameSessionStore store = new GameSessionStore(Duration.ofHours(2), 100);
+        store.create("long-running", 1L, 0L, 1L, 1L, 1L);
+
+        for (int i = 0; i < 10_000; i++) {
+            store.create("sess-" + i, 1L, 0L, i, i, i);
+            store.remove("sess-" + i);
+        }
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.queuedEntries()).isLessThanOrEqualTo(2 * GameSessionStore.COMPACT_SLACK + 2);
+        assertThat(store.get("long-running").playerId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Permutation should be stable for the same seed")
+    void shouldBuildStablePermutation() {
+        int[] first = GameSession.permutation(8, 123L);
+
+        assertThat(GameSession.permutation(8, 123L)).containsExactly(first);
+        assertThat(first).containsExactlyInAnyOrder(0, 1, 2, 3, 4, 5, 6, 7);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.quizapp.player;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,11 +9,13 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -22,6 +25,9 @@ class PlayerRepositoryTest {
     @Autowired
     private PlayerRepository playerRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Player player1;
     private Player player2;
     private Player inactivePlayer;
@@ -176,6 +182,25 @@ class PlayerRepositoryTest {
         assertThat(updatedPlayer.getLastPlayedAt()).isAfterOrEqualTo(newTime.minusSeconds(1));
     }
 
+    @Test
+    @DisplayName("Should increment games played atomically without moving last played time back")
+    void shouldIncrementGamesPlayedAtomically() {
+        // Given
+        Player savedPlayer = playerRepository.saveAndFlush(player1);
+        LocalDateTime lastPlayed = savedPlayer.getLastPlayedAt();
+
+        // When
+        int updated = playerRepository.incrementGamesPlayed(savedPlayer.getId(), 3, lastPlayed.plusHours(1));
+        playerRepository.incrementGamesPlayed(savedPlayer.getId(), 1, lastPlayed.minusDays(5)); // late flush
+        entityManager.clear();
+
+        // Then
+        Player reloaded = playerRepository.findById(savedPlayer.getId()).orElseThrow();
+        assertThat(updated).isEqualTo(1);
+        assertThat(reloaded.getGamesPlayed()).isEqualTo(14);
+        assertThat(reloaded.getLastPlayedAt()).isCloseTo(lastPlayed.plusHours(1), within(1, ChronoUnit.MILLIS));
+    }
+
     // ==================== DELETE Tests ====================
 
     @Test
@@ -0,0 +1,77 @@
+package com.example.quizapp.player;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PlayerStatsBackfill Tests")
+class PlayerStatsBackfillTest {
+
+    @Mock
+    private PlayerStatsJdbcRepository playerStatsJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should rebuild every player id range in chunks")
+    void shouldRebuildAllChunks() {
+        // Given - ids 1..12 in chunks of 5
+        PlayerStatsBackfill backfill = new PlayerStatsBackfill(playerStatsJdbcRepository, transactionManager, 5, 2);
+        when(playerStatsJdbcRepository.findPlayerIdRange())
+                .thenReturn(Optional.of(new PlayerStatsJdbcRepository.IdRange(1, 12)));
+        when(playerStatsJdbcRepository.rebuildRange(anyLong(), anyLong())).thenReturn(3);
+
+        // When
+        int players = backfill.rebuild();
+
+        // Then
+        assertThat(players).isEqualTo(9);
+        verify(playerStatsJdbcRepository).rebuildRange(1, 5);
+        verify(playerStatsJdbcRepository).rebuildRange(6, 10);
+        verify(playerStatsJdbcRepository).rebuildRange(11, 12);
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should report a failed chunk")
+    void shouldFailWhenChunkFails() {
+        // Given
+        PlayerStatsBackfill backfill = new PlayerStatsBackfill(playerStatsJdbcRepository, transactionManager, 10, 2);
+        when(playerStatsJdbcRepository.findPlayerIdRange())
+                .thenReturn(Optional.of(new PlayerStatsJdbcRepository.IdRange(1, 30)));
+        when(playerStatsJdbcRepository.rebuildRange(anyLong(), anyLong())).thenReturn(1);
+        when(playerStatsJdbcRepository.rebuildRange(11, 20)).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // When & Then
+        assertThatThrownBy(backfill::rebuild)
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(DataAccessResourceFailureException.class);
+    }
+
+    @Test
+    @DisplayName("Should backfill on startup only when stats are missing")
+    void shouldBackfillOnlyWhenEmpty() {
+        // Given
+        PlayerStatsBackfill backfill = new PlayerStatsBackfill(playerStatsJdbcRepository, transactionManager, 10, 1);
+        when(playerStatsJdbcRepository.isEmpty()).thenReturn(false);
+
+        // When
+        backfill.backfillIfEmpty();
+
+        // Then
+        verify(playerStatsJdbcRepository, never()).findPlayerIdRange();
+    }
+}
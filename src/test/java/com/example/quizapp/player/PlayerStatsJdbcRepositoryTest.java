@@ -0,0 +1,138 @@
+package com.example.quizapp.player;
+
+import com.example.quizapp.game.GameResult;
+import com.example.quizapp.game.GameResultRepository;
+import com.example.quizapp.quiz.Quiz;
+import com.example.quizapp.quiz.QuizRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(PlayerStatsJdbcRepository.class)
+@DisplayName("PlayerStatsJdbcRepository Tests")
+class PlayerStatsJdbcRepositoryTest {
+
+    @Autowired
+    private PlayerStatsJdbcRepository playerStatsJdbcRepository;
+
+    @Autowired
+    private PlayerStatsRepository playerStatsRepository;
+
+    @Autowired
+    private GameResultRepository gameResultRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Quiz javaQuiz;
+    private Quiz sqlQuiz;
+    private Player player;
+
+    @BeforeEach
+    void setUp() {
+        javaQuiz = quizRepository.save(Quiz.builder().title("Java Quiz").active(true).build());
+        sqlQuiz = quizRepository.save(Quiz.builder().title("SQL Quiz").active(true).build());
+        player = playerRepository.save(Player.builder().nickname("Aggregated").active(true).build());
+    }
+
+    @Test
+    @DisplayName("Should maintain the same aggregate incrementally as a rebuild computes")
+    void shouldMatchRebuildWhenRecordedIncrementally() {
+        // Given - two games of one quiz and one of another, recorded one by one and as a batch
+        playerStatsJdbcRepository.recordResults(List.of(save(javaQuiz, player, 80)));
+        playerStatsJdbcRepository.recordResults(List.of(save(javaQuiz, player, 40), save(sqlQuiz, player, 90)));
+
+        // When
+        Map<String, Object> incremental = stats(player);
+        int rebuilt = playerStatsJdbcRepository.rebuildRange(player.getId(), player.getId());
+
+        // Then
+        assertThat(rebuilt).isEqualTo(1);
+        assertThat(stats(player)).isEqualTo(incremental);
+        assertThat(incremental.get("total_games")).isEqualTo(3);
+        assertThat(incremental.get("quizzes_attempted")).isEqualTo(2);
+        assertThat(incremental.get("percentage_sum")).isEqualTo(210.0);
+        assertThat(incremental.get("best_percentage")).isEqualTo(90.0);
+        assertThat(incremental.get("best_score")).isEqualTo(90);
+        assertThat(incremental.get("last_quiz_id")).isEqualTo(sqlQuiz.getId());
+        assertThat(incremental.get("last_score")).isEqualTo(90);
+    }
+
+    @Test
+    @DisplayName("Should count a quiz once when its games are recorded in one batch")
+    void shouldCountQuizOnceWithinBatch() {
+        // When
+        playerStatsJdbcRepository.recordResults(List.of(save(javaQuiz, player, 10), save(javaQuiz, player, 20)));
+
+        // Then
+        assertThat(stats(player).get("total_games")).isEqualTo(2);
+        assertThat(stats(player).get("quizzes_attempted")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should rank players by the sum of their percentage scores")
+    void shouldRankPlayersByPercentageSum() {
+        // Given - one great game against two good ones
+        Player regular = playerRepository.save(Player.builder().nickname("Regular").active(true).build());
+        playerStatsJdbcRepository.recordResults(List.of(save(javaQuiz, player, 100)));
+        playerStatsJdbcRepository.recordResults(List.of(save(javaQuiz, regular, 70), save(sqlQuiz, regular, 60)));
+
+        // When
+        List<PlayerStatsSummary> ranked = playerStatsRepository.findTopRanked(PageRequest.of(0, 10));
+
+        // Then
+        assertThat(ranked).extracting(PlayerStatsSummary::playerNickname).containsExactly("Regular", "Aggregated");
+        assertThat(ranked.get(0).percentageSum()).isEqualTo(130.0);
+        assertThat(ranked.get(0).quizzesAttempted()).isEqualTo(2);
+        assertThat(ranked.get(0).lastQuizTitle()).isEqualTo("SQL Quiz");
+    }
+
+    @Test
+    @DisplayName("Should drop stats of players without completed games on rebuild")
+    void shouldRemoveStaleStatsOnRebuild() {
+        // Given
+        playerStatsJdbcRepository.recordResults(List.of(save(javaQuiz, player, 50)));
+        jdbcTemplate.update("DELETE FROM game_results WHERE player_id = ?", player.getId());
+
+        // When
+        int rebuilt = playerStatsJdbcRepository.rebuildRange(player.getId(), player.getId());
+
+        // Then
+        assertThat(rebuilt).isZero();
+        assertThat(playerStatsJdbcRepository.isEmpty()).isTrue();
+    }
+
+    private GameResult save(Quiz quiz, Player player, int score) {
+        return gameResultRepository.saveAndFlush(GameResult.builder()
+                .quiz(quiz)
+                .player(player)
+                .score(score)
+                .maxScore(100)
+                .timeTakenSeconds(60)
+                .completed(true)
+                .build());
+    }
+
+    private Map<String, Object> stats(Player player) {
+        return jdbcTemplate.queryForMap("SELECT * FROM player_stats WHERE player_id = ?", player.getId());
+    }
+}
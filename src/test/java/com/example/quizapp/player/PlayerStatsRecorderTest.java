@@ -0,0 +1,135 @@
+package com.example.quizapp.player;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PlayerStatsRecorder Tests")
+class PlayerStatsRecorderTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    @DisplayName("Should update player right away when coalescing is off")
+    void shouldUpdateDirectlyWithoutInterval() {
+        // Given
+        PlayerStatsRecorder recorder = new PlayerStatsRecorder(playerRepository, transactionManager, Duration.ZERO);
+
+        // When
+        recorder.recordGamePlayed(1L, now);
+
+        // Then
+        assertThat(recorder.isCoalescing()).isFalse();
+        verify(playerRepository).incrementGamesPlayed(1L, 1, now);
+    }
+
+    @Test
+    @DisplayName("Should write one update per player with summed games and newest time")
+    void shouldCoalesceGamesPerPlayer() {
+        // Given
+        PlayerStatsRecorder recorder = new PlayerStatsRecorder(playerRepository, transactionManager, Duration.ofSeconds(1));
+
+        // When
+        recorder.recordGamePlayed(1L, now.minusSeconds(2));
+        recorder.recordGamePlayed(1L, now);
+        recorder.recordGamePlayed(1L, now.minusSeconds(1));
+        recorder.recordGamePlayed(2L, now);
+        verifyNoInteractions(playerRepository);
+        int flushed = recorder.flush();
+
+        // Then
+        assertThat(flushed).isEqualTo(2);
+        verify(playerRepository).incrementGamesPlayed(1L, 3, now);
+        verify(playerRepository).incrementGamesPlayed(2L, 1, now);
+        assertThat(recorder.flush()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep counts when flush fails")
+    void shouldKeepCountsWhenFlushFails() {
+        // Given
+        PlayerStatsRecorder recorder = new PlayerStatsRecorder(playerRepository, transactionManager, Duration.ofSeconds(1));
+        recorder.recordGamePlayed(1L, now);
+        when(playerRepository.incrementGamesPlayed(1L, 1, now))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // When
+        assertThatThrownBy(recorder::flush).isInstanceOf(DataAccessResourceFailureException.class);
+        recorder.recordGamePlayed(1L, now);
+        reset(playerRepository);
+        recorder.flush();
+
+        // Then - failed game and the new one are written together
+        verify(playerRepository).incrementGamesPlayed(1L, 2, now);
+    }
+
+    @Test
+    @DisplayName("Should not lose games recorded concurrently with flushes")
+    void shouldNotLoseConcurrentGames() throws Exception {
+        // Given
+        PlayerStatsRecorder recorder = new PlayerStatsRecorder(playerRepository, transactionManager, Duration.ofSeconds(1));
+        Map<Long, Long> written = new ConcurrentHashMap<>();
+        when(playerRepository.incrementGamesPlayed(anyLong(), anyInt(), any())).thenAnswer(invocation -> {
+            written.merge(invocation.getArgument(0), (long) invocation.<Integer>getArgument(1), Long::sum);
+            return 1;
+        });
+
+        int threads = 4;
+        int gamesPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean recording = new AtomicBoolean(true);
+
+        // When - players 0..2 play while another thread keeps flushing
+        Future<?> flusher = executor.submit(() -> {
+            while (recording.get()) {
+                recorder.flush();
+            }
+        });
+        Future<?>[] players = new Future<?>[threads];
+        for (int t = 0; t < threads; t++) {
+            players[t] = executor.submit(() -> {
+                for (int i = 0; i < gamesPerThread; i++) {
+                    recorder.recordGamePlayed((long) (i % 3), now);
+                }
+            });
+        }
+        for (Future<?> player : players) {
+            player.get();
+        }
+        recording.set(false);
+        flusher.get();
+        executor.shutdown();
+        recorder.flush();
+
+        // Then
+        assertThat(written.values().stream().mapToLong(Long::longValue).sum()).isEqualTo((long) threads * gamesPerThread);
+        assertThat(recorder.pendingPlayers()).isZero();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.quizapp.question;
+
+import com.example.quizapp.quiz.Quiz;
+import com.example.quizapp.quiz.QuizChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerKeyCacheTest {
+
+    private AnswerKeyCache answerKeyCache;
+    private Quiz quiz;
+
+    @BeforeEach
+    void setUp() {
+        answerKeyCache = new AnswerKeyCache();
+
+        quiz = Quiz.builder().id(1L).questions(new ArrayList<>()).build();
+        quiz.getQuestions().add(Question.builder()
+                .id(10L).quiz(quiz).active(true).points(5)
+                .questionType(QuestionType.SINGLE_CHOICE)
+                .answerOptions("[\"A\", \"B\", \"C\"]")
+                .correctAnswer("1")
+                .build());
+        quiz.getQuestions().add(Question.builder()
+                .id(11L).quiz(quiz).active(true).points(10)
+                .questionType(QuestionType.MULTIPLE_CHOICE)
+                .answerOptions("[\"A\", \"B\", \"C\"]")
+                .correctAnswer("[0, 2]")
+                .build());
+        quiz.getQuestions().add(Question.builder()
+                .id(12L).quiz(quiz).active(false).points(3)
+                .questionType(QuestionType.SHORT_ANSWER)
+                .correctAnswer("Inactive")
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should compile only active questions and score only their points")
+    void shouldCompileActiveQuestions() {
+        AnswerKey answerKey = answerKeyCache.getAnswerKey(quiz);
+
+        assertThat(answerKey.getQuestionCount()).isEqualTo(2);
+        assertThat(answerKey.getMaxScore()).isEqualTo(15);
+        assertThat(answerKey.getQuestion(12L)).isNull();
+
+        AnswerKey.CompiledQuestion single = answerKey.getQuestion(10L);
+        assertThat(single.isCorrect("1")).isTrue();
+        assertThat(single.isCorrect("2")).isFalse();
+        assertThat(single.isCorrect("abc")).isFalse();
+        assertThat(single.getCorrectAnswerDisplay()).isEqualTo("B");
+
+        AnswerKey.CompiledQuestion multiple = answerKey.getQuestion(11L);
+        assertThat(multiple.isCorrect("[2, 0]")).isTrue();
+        assertThat(multiple.isCorrect("[0]")).isFalse();
+        assertThat(multiple.formatForDisplay("[0, 2]")).isEqualTo("A, C");
+    }
+
+    @Test
+    @DisplayName("Should reuse compiled key until quiz changes")
+    void shouldReuseKeyUntilQuizChanged() {
+        AnswerKey first = answerKeyCache.getAnswerKey(quiz);
+        assertThat(answerKeyCache.getAnswerKey(quiz)).isSameAs(first);
+
+        quiz.getQuestions().get(0).setCorrectAnswer("2");
+        answerKeyCache.onQuizChanged(new QuizChangedEvent(1L));
+
+        AnswerKey second = answerKeyCache.getAnswerKey(quiz);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getQuestion(10L).isCorrect("2")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep legacy text keys for single choice questions")
+    void shouldMatchLegacyTextKey() {
+        Question legacy = Question.builder()
+                .id(20L).active(true).points(1)
+                .questionType(QuestionType.TRUE_FALSE)
+                .answerOptions("[\"True\", \"False\"]")
+                .correctAnswer("True")
+                .build();
+
+        AnswerKey.CompiledQuestion compiled = AnswerKey.compileQuestion(legacy);
+
+        assertThat(compiled.isCorrect("True")).isTrue();
+        assertThat(compiled.isCorrect("0")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should render matching answers from the stored pairs")
+    void shouldFormatMatchingAnswers() {
+        Question matching = Question.builder()
+                .id(21L).active(true).points(2)
+                .questionType(QuestionType.MATCHING)
+                .answerOptions("[{\"left\":\"PL\",\"right\":\"Warszawa\"},{\"left\":\"DE\",\"right\":\"Berlin\"}]")
+                .correctAnswer("[{\"left\":\"0\",\"right\":\"0\"},{\"left\":\"1\",\"right\":\"1\"}]")
+                .build();
+
+        AnswerKey.CompiledQuestion compiled = AnswerKey.compileQuestion(matching);
+
+        assertThat(compiled.getCorrectAnswerDisplay()).isEqualTo("PL -> Warszawa, DE -> Berlin");
+        assertThat(compiled.formatForDisplay("[{\"left\":\"1\",\"right\":\"0\"},{\"left\":0,\"right\":1}]"))
+                .isEqualTo("DE -> Warszawa, PL -> Berlin");
+        assertThat(compiled.isCorrect("[{\"left\":\"1\",\"right\":\"1\"},{\"left\":\"0\",\"right\":\"0\"}]")).isTrue();
+        assertThat(compiled.formatForDisplay("not json")).isEqualTo("not json");
+    }
+
+    @Test
+    @DisplayName("Should resolve the chosen option of single-pick questions only")
+    void shouldResolveChosenOption() {
+        AnswerKey answerKey = answerKeyCache.getAnswerKey(quiz);
+        AnswerKey.CompiledQuestion singleChoice = answerKey.getQuestion(10L);
+        AnswerKey.CompiledQuestion multipleChoice = answerKey.getQuestion(11L);
+
+        assertThat(singleChoice.chosenOption("2")).isEqualTo(2);
+        assertThat(singleChoice.chosenOption("B")).isEqualTo(1);
+        assertThat(singleChoice.chosenOption("7")).isNull();
+        assertThat(singleChoice.chosenOption("")).isNull();
+        assertThat(multipleChoice.chosenOption("[0, 2]")).isNull();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.quizapp.question;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerModelTest {
+
+    @Test
+    @DisplayName("Should parse every question type into its typed model")
+    void shouldParseEveryQuestionType() throws Exception {
+        AnswerModel single = AnswerModel.parse(QuestionType.SINGLE_CHOICE, "[\"A\", \"B\", \"C\"]", "1");
+        assertThat(single).isInstanceOf(AnswerModel.SingleChoice.class);
+        assertThat(single.options()).containsExactly("A", "B", "C");
+        assertThat(single.matches("\"1\"")).isTrue();
+        assertThat(single.matches("2")).isFalse();
+
+        AnswerModel multiple = AnswerModel.parse(QuestionType.MULTIPLE_CHOICE, "[\"A\", \"B\", \"C\"]", "[0, 2]");
+        assertThat(multiple).isInstanceOf(AnswerModel.MultipleChoice.class);
+        assertThat(multiple.matches("[2, 0]")).isTrue();
+        assertThat(multiple.matches("[0, 1]")).isFalse();
+
+        AnswerModel trueFalse = AnswerModel.parse(QuestionType.TRUE_FALSE, "[\"True\", \"False\"]", "0");
+        assertThat(trueFalse).isInstanceOf(AnswerModel.TrueFalse.class);
+        assertThat(trueFalse.matches("0")).isTrue();
+
+        AnswerModel shortAnswer = AnswerModel.parse(QuestionType.SHORT_ANSWER, null, "[\"Extends\"]");
+        assertThat(shortAnswer).isInstanceOf(AnswerModel.ShortAnswer.class);
+        assertThat(shortAnswer.matches(" extends ")).isTrue();
+
+        AnswerModel dropdown = AnswerModel.parse(QuestionType.DROPDOWN, "[\"A\", \"B\"]", "B");
+        assertThat(dropdown).isInstanceOf(AnswerModel.Dropdown.class);
+        assertThat(dropdown.matches("B")).isTrue();
+        assertThat(dropdown.matches("1")).isFalse();
+
+        AnswerModel blanks = AnswerModel.parse(QuestionType.FILL_BLANKS,
+                "[\"creator\", \"year\"]", "[\"James Gosling \", \"1995\"]");
+        assertThat(blanks).isInstanceOf(AnswerModel.FillBlanks.class);
+        assertThat(blanks.options()).containsExactly("creator", "year");
+        assertThat(blanks.matches("[\"james gosling\", \"1995\"]")).isTrue();
+        assertThat(blanks.matches("[\"james gosling\"]")).isFalse();
+
+        AnswerModel sorting = AnswerModel.parse(QuestionType.SORTING, "[\"A\", \"B\", \"C\"]", "[2, 0, 1]");
+        assertThat(sorting).isInstanceOf(AnswerModel.Sorting.class);
+        assertThat(sorting.matches("[\"2\", \"0\", \"1\"]")).isTrue();
+        assertThat(sorting.matches("[0, 1, 2]")).isFalse();
+
+        AnswerModel matching = AnswerModel.parse(QuestionType.MATCHING,
+                "[{\"left\":\"PL\",\"right\":\"Warsaw\"}, {\"left\":\"DE\",\"right\":\"Berlin\"}]",
+                "[{\"left\":\"0\",\"right\":\"0\"}, {\"left\":\"1\",\"right\":\"1\"}]");
+        assertThat(matching).isInstanceOf(AnswerModel.Matching.class);
+        assertThat(matching.options()).isEmpty();
+        assertThat(matching.pairs()).containsExactly(
+                new AnswerModel.Pair("PL", "Warsaw"), new AnswerModel.Pair("DE", "Berlin"));
+        assertThat(matching.matches("[{\"left\":\"1\",\"right\":\"1\"}, {\"left\":\"0\",\"right\":\"0\"}]")).isTrue();
+        assertThat(matching.matches("[{\"left\":\"0\",\"right\":\"1\"}, {\"left\":\"1\",\"right\":\"0\"}]")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep options but never match when the correct answer is broken")
+    void shouldNeverMatchInvalidCorrectAnswer() throws Exception {
+        AnswerModel model = AnswerModel.parse(QuestionType.MULTIPLE_CHOICE, "[\"A\", \"B\"]", "not json");
+
+        assertThat(model).isInstanceOf(AnswerModel.Invalid.class);
+        assertThat(model.questionType()).isEqualTo(QuestionType.MULTIPLE_CHOICE);
+        assertThat(model.options()).containsExactly("A", "B");
+        assertThat(model.matches("not json")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should parse question once and reparse after its answer data changes")
+    void shouldCacheModelOnQuestion() throws Exception {
+        Question question = Question.builder()
+                .questionType(QuestionType.SINGLE_CHOICE)
+                .answerOptions("[\"A\", \"B\"]")
+                .correctAnswer("0")
+                .build();
+
+        AnswerModel model = question.getAnswerModel();
+        assertThat(question.getAnswerModel()).isSameAs(model);
+        assertThat(model.matches("0")).isTrue();
+
+        question.setCorrectAnswer("1");
+        assertThat(question.getAnswerModel()).isNotSameAs(model);
+        assertThat(question.getAnswerModel().matches("1")).isTrue();
+
+        question.setAnswerOptions("[\"A\", \"B\", \"C\"]");
+        assertThat(question.getAnswerModel().options()).hasSize(3);
+
+        question.setQuestionType(QuestionType.DROPDOWN);
+        assertThat(question.getAnswerModel()).isInstanceOf(AnswerModel.Dropdown.class);
+    }
+}
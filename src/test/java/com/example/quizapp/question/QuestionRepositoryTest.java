@@ -7,6 +7,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -25,6 +26,9 @@ class QuestionRepositoryTest {
     @Autowired
     private QuizRepository quizRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Quiz testQuiz;
     private Question question1;
     private Question question2;
@@ -315,6 +319,25 @@ class QuestionRepositoryTest {
         assertThat(totalPoints).isEqualTo(15);
     }
 
+    @Test
+    @DisplayName("Should store count and points of active questions on the quiz")
+    void shouldRefreshQuizTotals() {
+        // Given
+        questionRepository.save(question1); // 10 points
+        questionRepository.save(question2); // 5 points
+        questionRepository.save(inactiveQuestion);
+
+        // When
+        int updated = questionRepository.refreshQuizTotals(testQuiz.getId());
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        entityManager.clear();
+        Quiz quiz = quizRepository.findById(testQuiz.getId()).orElseThrow();
+        assertThat(quiz.getQuestionCount()).isEqualTo(2);
+        assertThat(quiz.getTotalPoints()).isEqualTo(15);
+    }
+
     @Test
     @DisplayName("Should return zero when no questions for quiz")
     void shouldReturnZeroWhenNoQuestionsForQuiz() {
@@ -1,8 +1,10 @@
 package com.example.quizapp.question;
 
 import com.example.quizapp.quiz.Quiz;
+import com.example.quizapp.quiz.QuizChangedEvent;
 import com.example.quizapp.quiz.QuizRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.quizapp.search.QuizSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +15,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -33,6 +36,10 @@ class QuestionServiceTest {
     private QuestionMapper questionMapper;
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private QuizSearchIndex quizSearchIndex;
 
     @InjectMocks
     private QuestionService questionService;
@@ -221,6 +228,8 @@ class QuestionServiceTest {
 
         verify(questionRepository).save(question);
         assertThat(question.isActive()).isFalse();
+        verify(questionRepository).refreshQuizTotals(1L);
+        verify(eventPublisher).publishEvent(new QuizChangedEvent(1L));
     }
 
     @Test
@@ -280,5 +289,7 @@ class QuestionServiceTest {
 
         // Wywołanie metody serwisu
         questionService.createQuestion(questionDto);
+
+        verify(questionRepository).refreshQuizTotals(1L);
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.quizapp.quiz;
 
 import com.example.quizapp.game.GameResult;
+import com.example.quizapp.game.GameResultJdbcRepository;
 import com.example.quizapp.game.GameResultRepository;
 import com.example.quizapp.player.Player;
 import com.example.quizapp.player.PlayerRepository;
@@ -17,6 +18,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -25,7 +27,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
 @ActiveProfiles("test")
-@Import(QuizJdbcRepository.class)
+@Import({QuizJdbcRepository.class, GameResultJdbcRepository.class})
 class QuizJdbcRepositoryTest {
 
     @Autowired
@@ -40,6 +42,9 @@ class QuizJdbcRepositoryTest {
     @Autowired
     private GameResultRepository gameResultRepository;
 
+    @Autowired
+    private GameResultJdbcRepository gameResultJdbcRepository;
+
     @Autowired
     private QuestionRepository questionRepository;
 
@@ -74,7 +79,7 @@ class QuizJdbcRepositoryTest {
     }
 
     private void createGameResult(Quiz q, Player p, int score, int max, int time) {
-        gameResultRepository.save(GameResult.builder()
+        GameResult result = gameResultRepository.save(GameResult.builder()
                 .quiz(q)
                 .player(p)
                 .score(score)
@@ -85,6 +90,7 @@ class QuizJdbcRepositoryTest {
                 .startedAt(LocalDateTime.now().minusHours(1))
                 .completedAt(LocalDateTime.now())
                 .build());
+        gameResultJdbcRepository.recordActivity(List.of(result));
     }
 
     // --- EXISTING TESTS ---
@@ -217,12 +223,15 @@ class QuizJdbcRepositoryTest {
     void shouldGetQuizActivityByDateRange() {
         // When
         List<Map<String, Object>> activity = quizJdbcRepository.getQuizActivityByDateRange(
-                LocalDateTime.now().minusDays(1),
-                LocalDateTime.now().plusDays(1)
+                LocalDate.now().minusDays(1),
+                LocalDate.now().plusDays(1)
         );
 
         // Then
-        assertThat(activity).isNotEmpty();
+        assertThat(activity).hasSize(1);
+        assertThat(((Number) activity.get(0).get("total_games")).intValue()).isEqualTo(3);
+        assertThat(((Number) activity.get(0).get("unique_players")).intValue()).isEqualTo(2);
+        assertThat(((Number) activity.get(0).get("avg_score")).doubleValue()).isEqualTo(76.67);
         // Check if map contains expected keys (date, total_games, etc)
         assertThat(activity.get(0)).containsKey("total_games");
         assertThat(activity.get(0)).containsKey("unique_players");
@@ -243,18 +252,73 @@ class QuizJdbcRepositoryTest {
     }
 
     @Test
-    @DisplayName("Should get question difficulty analysis")
+    @DisplayName("Should get question difficulty analysis from scored answers")
     void shouldGetQuestionDifficultyAnalysis() {
-        try {
-            List<Map<String, Object>> analysis = quizJdbcRepository.getQuestionDifficultyAnalysis(quiz.getId());
-            // If it runs, assert structure
-            if (!analysis.isEmpty()) {
-                assertThat(analysis.get(0)).containsKey("question_text");
-                assertThat(analysis.get(0)).containsKey("success_rate");
-            }
-        } catch (Exception e) {
-            // Expected on H2 if Postgres functions are missing
-            System.out.println("Skipping JSONB test on H2: " + e.getMessage());
+        // Given - an easy and a hard question answered in all three results, one question never answered
+        Question easy = saveQuestion("Easy", 1);
+        Question hard = saveQuestion("Hard", 2);
+        Question unanswered = saveQuestion("Unanswered", 3);
+        List<Long> resultIds = resultIds();
+        for (int i = 0; i < resultIds.size(); i++) {
+            insertAnswer(resultIds.get(i), easy, true, 0);
+            insertAnswer(resultIds.get(i), hard, i == 0, i);
         }
+
+        // When
+        List<Map<String, Object>> analysis = quizJdbcRepository.getQuestionDifficultyAnalysis(quiz.getId());
+
+        // Then - hardest first, never answered questions have no success rate
+        assertThat(analysis).extracting(row -> row.get("question_text")).containsExactly("Hard", "Easy", "Unanswered");
+        assertThat(((Number) analysis.get(0).get("correct_answers")).intValue()).isEqualTo(1);
+        assertThat(((Number) analysis.get(0).get("total_answers")).intValue()).isEqualTo(3);
+        assertThat(((Number) analysis.get(0).get("success_rate")).doubleValue()).isEqualTo(33.33);
+        assertThat(((Number) analysis.get(1).get("success_rate")).doubleValue()).isEqualTo(100.0);
+        assertThat(((Number) analysis.get(2).get("total_answers")).intValue()).isZero();
+        assertThat(analysis.get(2).get("success_rate")).isNull();
+        assertThat(unanswered.getId()).isEqualTo(analysis.get(2).get("question_id"));
+    }
+
+    @Test
+    @DisplayName("Should get how often each option was chosen")
+    void shouldGetAnswerDistribution() {
+        // Given - option 0 picked twice, option 2 once
+        Question question = saveQuestion("Pick one", 1);
+        List<Long> resultIds = resultIds();
+        insertAnswer(resultIds.get(0), question, true, 0);
+        insertAnswer(resultIds.get(1), question, true, 0);
+        insertAnswer(resultIds.get(2), question, false, 2);
+
+        // When
+        List<Map<String, Object>> distribution = quizJdbcRepository.getAnswerDistribution(quiz.getId());
+
+        // Then
+        assertThat(distribution).hasSize(2);
+        assertThat(distribution.get(0)).containsEntry("chosen_option", 0);
+        assertThat(((Number) distribution.get(0).get("times_chosen")).intValue()).isEqualTo(2);
+        assertThat(((Number) distribution.get(0).get("share")).doubleValue()).isEqualTo(66.67);
+        assertThat(distribution.get(1)).containsEntry("chosen_option", 2);
+    }
+
+    private Question saveQuestion(String text, int order) {
+        return questionRepository.saveAndFlush(Question.builder()
+                .quiz(quiz)
+                .questionText(text)
+                .questionType(QuestionType.SINGLE_CHOICE)
+                .answerOptions("[\"A\",\"B\",\"C\"]")
+                .correctAnswer("0")
+                .questionOrder(order)
+                .points(1)
+                .active(true)
+                .build());
+    }
+
+    private List<Long> resultIds() {
+        gameResultRepository.flush();
+        return jdbcTemplate.queryForList("SELECT id FROM game_results WHERE quiz_id = ? ORDER BY id", Long.class, quiz.getId());
+    }
+
+    private void insertAnswer(Long resultId, Question question, boolean correct, Integer chosenOption) {
+        jdbcTemplate.update("INSERT INTO game_answers (result_id, question_id, completed_at, is_correct, points, chosen_option) VALUES (?, ?, ?, ?, ?, ?)",
+                resultId, question.getId(), LocalDateTime.now(), correct, correct ? question.getPoints() : 0, chosenOption);
     }
-}
\ No newline at end of file
+}
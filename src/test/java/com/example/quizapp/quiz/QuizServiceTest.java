@@ -1,6 +1,7 @@
 package com.example.quizapp.quiz;
 
 import com.example.quizapp.common.exception.ResourceNotFoundException;
+import com.example.quizapp.search.QuizSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -34,6 +36,12 @@ class QuizServiceTest {
     @Mock
     private QuizMapper quizMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private QuizSearchIndex quizSearchIndex;
+
     @InjectMocks
     private QuizService quizService;
 
@@ -354,6 +362,7 @@ class QuizServiceTest {
         verify(quizRepository).findById(1L);
         verify(quizRepository).save(any(Quiz.class));
         assertThat(quiz1.isActive()).isFalse();
+        verify(eventPublisher).publishEvent(new QuizChangedEvent(1L));
     }
 
     @Test
@@ -437,6 +446,62 @@ class QuizServiceTest {
         verify(quizRepository).searchByTitle("Java", pageable);
     }
 
+    @Test
+    @DisplayName("Should return quizzes in search index order once the index is built")
+    void shouldSearchQuizzesWithIndex() {
+        // Given - index ranks quiz 2 first, quiz 1 was deactivated since it was indexed
+        quiz1.setActive(false);
+        when(quizSearchIndex.isReady()).thenReturn(true);
+        when(quizSearchIndex.searchQuizzes("Java")).thenReturn(List.of(2L, 1L));
+        when(quizRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(quiz1, quiz2));
+        when(quizMapper.toDto(quiz2)).thenReturn(quizDto2);
+
+        // When
+        List<QuizDto> result = quizService.searchQuizzes("Java");
+
+        // Then
+        assertThat(result).containsExactly(quizDto2);
+        verify(quizRepository, never()).searchByTitle(anyString());
+    }
+
+    @Test
+    @DisplayName("Should page search index results")
+    void shouldPageSearchIndexResults() {
+        // Given
+        when(quizSearchIndex.isReady()).thenReturn(true);
+        when(quizSearchIndex.searchQuizzes("Quiz")).thenReturn(List.of(1L, 2L, 3L));
+        when(quizRepository.findAllById(List.of(2L))).thenReturn(List.of(quiz2));
+        when(quizMapper.toDto(quiz2)).thenReturn(quizDto2);
+
+        // When
+        Page<QuizDto> result = quizService.searchQuizzes("Quiz", PageRequest.of(1, 1));
+
+        // Then
+        assertThat(result.getContent()).containsExactly(quizDto2);
+        assertThat(result.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should fall back to title query when keyword has no words")
+    void shouldSearchKeywordWithoutWordsByTitle() {
+        // Given - the index is built but matches nothing for a blank keyword, the title query matches all
+        Pageable pageable = PageRequest.of(0, 10);
+        when(quizSearchIndex.isReady()).thenReturn(true);
+        when(quizRepository.searchByTitle(" ")).thenReturn(List.of(quiz1, quiz2));
+        when(quizRepository.searchByTitle("?!", pageable)).thenReturn(new PageImpl<>(List.of(quiz1), pageable, 1));
+        when(quizMapper.toDto(quiz1)).thenReturn(quizDto1);
+        when(quizMapper.toDto(quiz2)).thenReturn(quizDto2);
+
+        // When
+        List<QuizDto> result = quizService.searchQuizzes(" ");
+        Page<QuizDto> page = quizService.searchQuizzes("?!", pageable);
+
+        // Then
+        assertThat(result).containsExactly(quizDto1, quizDto2);
+        assertThat(page.getContent()).containsExactly(quizDto1);
+        verify(quizSearchIndex, never()).searchQuizzes(anyString());
+    }
+
     // ==================== OTHER Tests ====================
 
     @Test
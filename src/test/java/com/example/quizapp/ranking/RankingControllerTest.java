@@ -4,19 +4,20 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -73,6 +74,32 @@ class RankingControllerTest {
                 .andExpect(jsonPath("$.size()").value(2));
     }
 
+    @Test
+    @DisplayName("GET /quiz/{id}/cursor - Should return page after cursor")
+    @WithMockUser
+    void shouldGetLeaderboardPageAfterCursor() throws Exception {
+        // Given
+        LeaderboardPageDto page = LeaderboardPageDto.builder()
+                .quizId(1L)
+                .rankings(List.of(RankingDto.builder().playerNickname("Eleventh").score(40).build()))
+                .firstPosition(11)
+                .totalEntries(30)
+                .nextCursor("next")
+                .build();
+
+        when(rankingService.getLeaderboardPageAfter(1L, "abc", 10)).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/rankings/quiz/1/cursor")
+                        .param("after", "abc")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rankings[0].playerNickname").value("Eleventh"))
+                .andExpect(jsonPath("$.firstPosition").value(11))
+                .andExpect(jsonPath("$.totalEntries").value(30))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
     @Test
     @DisplayName("GET /quiz/{quizId}/player/{playerId} - Should return player position")
     @WithMockUser
@@ -117,14 +144,19 @@ class RankingControllerTest {
     @WithMockUser
     void shouldExportToCsv() throws Exception {
         // Given
-        Resource csvResource = new ByteArrayResource("col1,col2".getBytes());
-        when(rankingExportService.exportToCsv(1L)).thenReturn(csvResource);
+        StreamingResponseBody csvBody = out -> out.write("col1,col2".getBytes());
+        when(rankingExportService.exportToCsv(1L)).thenReturn(csvBody);
 
-        // When & Then
-        mockMvc.perform(get("/api/v1/rankings/quiz/1/export/csv"))
+        // When & Then - body is written asynchronously
+        MvcResult result = mockMvc.perform(get("/api/v1/rankings/quiz/1/export/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("text/csv"))
-                .andExpect(header().string("Content-Disposition", "attachment; filename=\"quiz_1_rankings.csv\""));
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"quiz_1_rankings.csv\""))
+                .andExpect(content().string("col1,col2"));
     }
 
     @Test
@@ -132,11 +164,16 @@ class RankingControllerTest {
     @WithMockUser
     void shouldExportToPdf() throws Exception {
         // Given
-        Resource pdfResource = new ByteArrayResource("PDF-CONTENT".getBytes());
-        when(rankingExportService.exportToPdf(1L)).thenReturn(pdfResource);
+        StreamingResponseBody pdfBody = out -> out.write("PDF-CONTENT".getBytes());
+        when(rankingExportService.exportToPdf(1L, null, 5000)).thenReturn(pdfBody);
 
-        // When & Then
-        mockMvc.perform(get("/api/v1/rankings/quiz/1/export/pdf"))
+        // When & Then - top 5 000 only
+        MvcResult result = mockMvc.perform(get("/api/v1/rankings/quiz/1/export/pdf")
+                        .param("limit", "5000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_PDF))
                 .andExpect(header().string("Content-Disposition", "attachment; filename=\"quiz_1_rankings.pdf\""));
@@ -10,18 +10,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.core.io.Resource;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.lenient; // Import do lenient()
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,16 +35,16 @@ import static org.mockito.Mockito.when;
 class RankingExportServiceTest {
 
     @Mock
-    private RankingService rankingService;
+    private QuizRepository quizRepository;
 
     @Mock
-    private QuizRepository quizRepository;
+    private RankingJdbcRepository rankingJdbcRepository;
 
     @InjectMocks
     private RankingExportService rankingExportService;
 
     private Quiz quiz;
-    private RankingDto rankingDto;
+    private LeaderboardEntry rankingEntry;
 
     @BeforeEach
     void setUp() {
@@ -47,22 +53,12 @@ class RankingExportServiceTest {
 
         // 2. Używamy lenient(), aby Mockito nie zgłaszał błędu UnnecessaryStubbingException
         // w testach, które rzucają wyjątek zanim te metody zostaną wywołane.
+        lenient().when(quiz.getId()).thenReturn(1L);
         lenient().when(quiz.getTitle()).thenReturn("Java Quiz");
         lenient().when(quiz.getTotalPoints()).thenReturn(100);
 
-        rankingDto = RankingDto.builder()
-                .playerNickname("TestPlayer")
-                .score(90)
-                .maxScore(100)
-                .percentageScore(90.0)
-                .correctAnswers(9)
-                .wrongAnswers(1)
-                .totalQuestions(10)
-                .timeTakenSeconds(120)
-                .grade("A")
-                .completedAt(LocalDateTime.now())
-                .quizTitle("Java Quiz")
-                .build();
+        rankingEntry = new LeaderboardEntry(10L, 100L, "TestPlayer", 90, 100, 90.0,
+                9, 1, 10, 120, LocalDateTime.now());
     }
 
     // ==================== CSV EXPORT Tests ====================
@@ -72,16 +68,14 @@ class RankingExportServiceTest {
     void shouldExportToCsv() throws IOException {
         // Given
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
-        when(rankingService.getFullLeaderboard(1L)).thenReturn(List.of(rankingDto));
+        stubRankedLeaderboard(1, rankingEntry);
 
         // When
-        Resource resource = rankingExportService.exportToCsv(1L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rankingExportService.exportToCsv(1L).writeTo(out);
 
         // Then
-        assertThat(resource).isNotNull();
-        assertThat(resource.contentLength()).isGreaterThan(0);
-
-        String content = new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        String content = out.toString(StandardCharsets.UTF_8);
 
         // Sprawdzamy czy zawiera nagłówki
         assertThat(content).contains("Position", "Player", "Score", "Percentage");
@@ -90,7 +84,58 @@ class RankingExportServiceTest {
         String expectedPercentage = String.format("%.2f%%", 90.0); // Np. "90,00%" w PL, "90.00%" w US
 
         // Sprawdzamy czy zawiera dane gracza
-        assertThat(content).contains("TestPlayer", "90", expectedPercentage);
+        assertThat(content).contains("TestPlayer", "90", expectedPercentage, "A");
+        assertThat(content.lines()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should stream 1M-row CSV export within a fixed heap budget")
+    void shouldStreamLargeCsvWithinHeapBudget() throws IOException {
+        // Given - a cursor producing 1M distinct rows; holding them (~200 MB) or the export as a
+        // String (~150 MB) would both blow the budget
+        int rows = 1_000_000;
+        long heapBudget = 16L * 1024 * 1024;
+
+        // Counts bytes and throws them away, like a client reading the download
+        long[] written = {0};
+        OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                written[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written[0] += len;
+            }
+        };
+
+        long[] usedHeap = new long[2];
+        long[] writtenAtHalf = {0};
+        LocalDateTime completedAt = LocalDateTime.now();
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        doAnswer(invocation -> {
+            Consumer<LeaderboardEntry> consumer = invocation.getArgument(1);
+            usedHeap[0] = usedHeapAfterGc();
+            for (int i = 0; i < rows; i++) {
+                if (i == rows / 2) {
+                    writtenAtHalf[0] = written[0];
+                }
+                int score = 100 - i / (rows / 100);
+                consumer.accept(new LeaderboardEntry(i + 1L, i + 1L, "Player" + i, score, 100, (double) score,
+                        score / 10, 10 - score / 10, 10, 30 + i % 600, completedAt.minusSeconds(i)));
+            }
+            usedHeap[1] = usedHeapAfterGc();
+            return null;
+        }).when(rankingJdbcRepository).streamRankedLeaderboard(eq(1L), any());
+
+        // When
+        rankingExportService.exportToCsv(1L).writeTo(sink);
+
+        // Then - rows reached the client while the cursor was still being read, and nothing was kept
+        assertThat(written[0]).isGreaterThan(rows * 50L);
+        assertThat(writtenAtHalf[0]).isGreaterThan(written[0] * 2 / 5);
+        assertThat(usedHeap[1] - usedHeap[0]).isLessThan(heapBudget);
     }
 
     @Test
@@ -112,21 +157,73 @@ class RankingExportServiceTest {
     void shouldExportToPdf() throws IOException {
         // Given
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
-        when(rankingService.getFullLeaderboard(1L)).thenReturn(List.of(rankingDto));
+        when(rankingJdbcRepository.countCompletedResults(1L)).thenReturn(1L);
+        stubRankedLeaderboardSlice(0, null, rankingEntry);
 
         // When
-        Resource resource = rankingExportService.exportToPdf(1L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rankingExportService.exportToPdf(1L, null, null).writeTo(out);
 
         // Then
-        assertThat(resource).isNotNull();
-        assertThat(resource.contentLength()).isGreaterThan(0);
-
         // PDFy zaczynają się od sygnatury "%PDF"
-        byte[] content = resource.getInputStream().readAllBytes();
+        byte[] content = out.toByteArray();
+        assertThat(content.length).isGreaterThan(0);
         String header = new String(content, 0, 4, StandardCharsets.UTF_8);
         assertThat(header).startsWith("%PDF");
     }
 
+    @Test
+    @DisplayName("Should export only the requested top N rows to PDF")
+    void shouldExportTopNToPdf() throws IOException {
+        // Given - 12 000 results, only the top 250 are read (spans several flushed chunks)
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        when(rankingJdbcRepository.countCompletedResults(1L)).thenReturn(12_000L);
+        LeaderboardEntry[] top = new LeaderboardEntry[250];
+        Arrays.fill(top, rankingEntry);
+        stubRankedLeaderboardSlice(0, 250, top);
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rankingExportService.exportToPdf(1L, null, 250).writeTo(out);
+
+        // Then
+        assertThat(new String(out.toByteArray(), 0, 4, StandardCharsets.UTF_8)).startsWith("%PDF");
+        verify(rankingJdbcRepository).streamRankedLeaderboard(eq(1L), eq(0), eq(250), any());
+    }
+
+    @Test
+    @DisplayName("Should not close the response stream after writing PDF")
+    void shouldNotCloseResponseStreamAfterPdf() throws IOException {
+        // Given
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        when(rankingJdbcRepository.countCompletedResults(1L)).thenReturn(0L);
+        stubRankedLeaderboardSlice(0, null);
+
+        boolean[] closed = {false};
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        // When
+        rankingExportService.exportToPdf(1L, null, null).writeTo(out);
+
+        // Then
+        assertThat(out.size()).isGreaterThan(0);
+        assertThat(closed[0]).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject invalid PDF export range")
+    void shouldRejectInvalidPdfRange() {
+        assertThatThrownBy(() -> rankingExportService.exportToPdf(1L, -1, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rankingExportService.exportToPdf(1L, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     @DisplayName("Should throw exception when exporting PDF for non-existent quiz")
     void shouldThrowWhenExportingPdfForUnknownQuiz() {
@@ -134,8 +231,34 @@ class RankingExportServiceTest {
         when(quizRepository.findById(999L)).thenReturn(Optional.empty());
 
         // When & Then
-        assertThatThrownBy(() -> rankingExportService.exportToPdf(999L))
+        assertThatThrownBy(() -> rankingExportService.exportToPdf(999L, null, null))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Quiz not found");
     }
-}
\ No newline at end of file
+
+    private void stubRankedLeaderboard(long quizId, LeaderboardEntry... entries) {
+        doAnswer(invocation -> {
+            Consumer<LeaderboardEntry> consumer = invocation.getArgument(1);
+            for (LeaderboardEntry entry : entries) {
+                consumer.accept(entry);
+            }
+            return null;
+        }).when(rankingJdbcRepository).streamRankedLeaderboard(eq(quizId), any());
+    }
+
+    private void stubRankedLeaderboardSlice(int offset, Integer limit, LeaderboardEntry... entries) {
+        doAnswer(invocation -> {
+            Consumer<LeaderboardEntry> consumer = invocation.getArgument(3);
+            for (LeaderboardEntry entry : entries) {
+                consumer.accept(entry);
+            }
+            return null;
+        }).when(rankingJdbcRepository).streamRankedLeaderboard(eq(1L), eq(offset), eq(limit), any());
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
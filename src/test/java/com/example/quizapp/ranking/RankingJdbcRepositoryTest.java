@@ -0,0 +1,127 @@
+package com.example.quizapp.ranking;
+
+import com.example.quizapp.game.GameResult;
+import com.example.quizapp.game.GameResultRepository;
+import com.example.quizapp.player.Player;
+import com.example.quizapp.player.PlayerRepository;
+import com.example.quizapp.quiz.Quiz;
+import com.example.quizapp.quiz.QuizRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(RankingJdbcRepository.class)
+class RankingJdbcRepositoryTest {
+
+    @Autowired
+    private RankingJdbcRepository rankingJdbcRepository;
+
+    @Autowired
+    private GameResultRepository gameResultRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    private Quiz quiz;
+    private Player player;
+
+    @BeforeEach
+    void setUp() {
+        quiz = quizRepository.save(Quiz.builder()
+                .title("Ranking Quiz")
+                .active(true)
+                .build());
+
+        player = playerRepository.save(Player.builder()
+                .nickname("Ranked")
+                .lastPlayedAt(LocalDateTime.now())
+                .active(true)
+                .build());
+    }
+
+    private GameResult createResult(int score, Integer timeTakenSeconds, boolean completed) {
+        return gameResultRepository.save(GameResult.builder()
+                .quiz(quiz)
+                .player(player)
+                .score(score)
+                .maxScore(100)
+                .percentageScore((double) score)
+                .timeTakenSeconds(timeTakenSeconds)
+                .completed(completed)
+                .startedAt(LocalDateTime.now().minusMinutes(5))
+                .completedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should stream completed results in leaderboard order")
+    void shouldStreamRankedLeaderboard() {
+        // Given
+        GameResult noTime = createResult(90, null, true);
+        GameResult slow = createResult(90, 200, true);
+        GameResult best = createResult(100, 300, true);
+        GameResult fast = createResult(90, 50, true);
+        createResult(100, 10, false); // niedokończona gra - pomijana
+
+        // When
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        rankingJdbcRepository.streamRankedLeaderboard(quiz.getId(), entries::add);
+
+        // Then - same order as the in-memory index
+        assertThat(entries).extracting(LeaderboardEntry::resultId)
+                .containsExactly(best.getId(), fast.getId(), slow.getId(), noTime.getId());
+        assertThat(entries).isSortedAccordingTo(LeaderboardEntry.ORDER);
+        assertThat(entries.get(0).playerNickname()).isEqualTo("Ranked");
+        assertThat(entries.get(3).timeTakenSeconds()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should stream completed results of all quizzes with their quiz id")
+    void shouldStreamAllLeaderboards() {
+        // Given
+        createResult(70, 100, true);
+        createResult(80, 100, true);
+
+        // When
+        List<Long> quizIds = new ArrayList<>();
+        rankingJdbcRepository.streamAllLeaderboards((quizId, entry) -> quizIds.add(quizId));
+
+        // Then
+        assertThat(quizIds).containsExactly(quiz.getId(), quiz.getId());
+    }
+
+    @Test
+    @DisplayName("Should stream a slice of the ranked leaderboard and count completed results")
+    void shouldStreamLeaderboardSlice() {
+        // Given
+        createResult(100, 10, true);
+        GameResult second = createResult(90, 10, true);
+        GameResult third = createResult(80, 10, true);
+        createResult(70, 10, true);
+        createResult(60, 10, false);
+
+        // When
+        List<LeaderboardEntry> slice = new ArrayList<>();
+        rankingJdbcRepository.streamRankedLeaderboard(quiz.getId(), 1, 2, slice::add);
+
+        // Then
+        assertThat(slice).extracting(LeaderboardEntry::resultId)
+                .containsExactly(second.getId(), third.getId());
+        assertThat(rankingJdbcRepository.countCompletedResults(quiz.getId())).isEqualTo(4);
+    }
+}
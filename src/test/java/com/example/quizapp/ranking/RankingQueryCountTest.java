@@ -0,0 +1,132 @@
+package com.example.quizapp.ranking;
+
+import com.example.quizapp.game.GameResult;
+import com.example.quizapp.game.GameResultRepository;
+import com.example.quizapp.player.Player;
+import com.example.quizapp.player.PlayerRepository;
+import com.example.quizapp.player.PlayerStatsJdbcRepository;
+import com.example.quizapp.quiz.Quiz;
+import com.example.quizapp.quiz.QuizRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Number of JPA statements per ranking call must not depend on how many results there are
+// (the leaderboards themselves are read with one JDBC query, which Hibernate does not count)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({RankingService.class, LeaderboardIndex.class, RankingJdbcRepository.class, PlayerStatsJdbcRepository.class})
+@DisplayName("Ranking query count Tests")
+class RankingQueryCountTest {
+
+    @Autowired
+    private RankingService rankingService;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private GameResultRepository gameResultRepository;
+
+    @Autowired
+    private PlayerStatsJdbcRepository playerStatsJdbcRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Quiz smallQuiz;
+    private Quiz largeQuiz;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        smallQuiz = quizRepository.save(Quiz.builder().title("Small Quiz").active(true).createdBy("test").build());
+        largeQuiz = quizRepository.save(Quiz.builder().title("Large Quiz").active(true).createdBy("test").build());
+        playGames(smallQuiz, 3);
+        playGames(largeQuiz, 60);
+
+        entityManager.flush();
+        playerStatsJdbcRepository.rebuildRange(0, Long.MAX_VALUE);
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Global rankings should use one query regardless of the number of results")
+    void globalRankingsShouldUseConstantQueryCount() {
+        long small = countStatements(() -> rankingService.getGlobalRankings(3));
+        long large = countStatements(() -> rankingService.getGlobalRankings(60));
+
+        assertThat(small).isEqualTo(1);
+        assertThat(large).isEqualTo(small);
+        assertThat(rankingService.getGlobalRankings(60))
+                .hasSize(60)
+                .allSatisfy(ranking -> {
+                    assertThat(ranking.getPlayerNickname()).startsWith("Player");
+                    assertThat(ranking.getLastQuizTitle()).isNotBlank();
+                });
+    }
+
+    @Test
+    @DisplayName("Quiz leaderboards should not load players per result")
+    void leaderboardsShouldUseConstantQueryCount() {
+        long small = countStatements(() -> rankingService.getFullLeaderboard(smallQuiz.getId()));
+        long large = countStatements(() -> rankingService.getFullLeaderboard(largeQuiz.getId()));
+
+        assertThat(large).isEqualTo(small);
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        assertThat(rankingService.getFullLeaderboard(largeQuiz.getId()))
+                .hasSize(60)
+                .allSatisfy(ranking -> assertThat(ranking.getPlayerNickname()).startsWith("Player"));
+    }
+
+    private long countStatements(Supplier<List<?>> call) {
+        entityManager.clear();
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void playGames(Quiz quiz, int games) {
+        for (int i = 0; i < games; i++) {
+            Player player = playerRepository.save(Player.builder()
+                    .nickname("Player " + quiz.getTitle() + " " + i)
+                    .sessionId(UUID.randomUUID().toString())
+                    .gamesPlayed(1)
+                    .build());
+
+            gameResultRepository.save(GameResult.builder()
+                    .quiz(quiz)
+                    .player(player)
+                    .score(i % 10)
+                    .maxScore(10)
+                    .timeTakenSeconds(60 + i)
+                    .sessionId(UUID.randomUUID().toString())
+                    .completed(true)
+                    .completedAt(LocalDateTime.now().minusMinutes(i))
+                    .build());
+        }
+    }
+}
@@ -2,30 +2,37 @@ package com.example.quizapp.ranking;
 
 import com.example.quizapp.common.exception.QuizNotFoundException;
 import com.example.quizapp.common.exception.ResourceNotFoundException;
+import com.example.quizapp.game.GameCompletedEvent;
 import com.example.quizapp.game.GameResult;
-import com.example.quizapp.game.GameResultRepository;
+import com.example.quizapp.game.GameResultsRemovedEvent;
 import com.example.quizapp.player.Player;
+import com.example.quizapp.player.PlayerStatsRepository;
+import com.example.quizapp.player.PlayerStatsSummary;
 import com.example.quizapp.quiz.Quiz;
 import com.example.quizapp.quiz.QuizRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,12 +41,15 @@ import static org.mockito.Mockito.when;
 class RankingServiceTest {
 
     @Mock
-    private GameResultRepository gameResultRepository;
+    private PlayerStatsRepository playerStatsRepository;
 
     @Mock
     private QuizRepository quizRepository;
 
-    @InjectMocks
+    @Mock
+    private RankingJdbcRepository rankingJdbcRepository;
+
+    private LeaderboardIndex leaderboardIndex;
     private RankingService rankingService;
 
     private Quiz quiz;
@@ -50,6 +60,9 @@ class RankingServiceTest {
 
     @BeforeEach
     void setUp() {
+        leaderboardIndex = new LeaderboardIndex(rankingJdbcRepository);
+        rankingService = new RankingService(playerStatsRepository, quizRepository, leaderboardIndex);
+
         quiz = Quiz.builder()
                 .id(1L)
                 .title("Java Quiz")
@@ -99,8 +112,7 @@ class RankingServiceTest {
     void shouldReturnTopRankings() {
         // Given
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
-        when(gameResultRepository.findTopScoresByQuizId(eq(1L), any(Pageable.class)))
-                .thenReturn(List.of(result1, result2));
+        stubLeaderboard(1L, result2, result1);
 
         // When
         List<RankingDto> rankings = rankingService.getTopRankings(1L, 10);
@@ -147,7 +159,7 @@ class RankingServiceTest {
         GameResult p3Result = GameResult.builder()
                 .id(13L)
                 .quiz(quiz)
-                .player(Player.builder().nickname("Slow").build())
+                .player(Player.builder().id(300L).nickname("Slow").build())
                 .score(80)
                 .timeTakenSeconds(50)
                 .completed(true)
@@ -157,7 +169,7 @@ class RankingServiceTest {
         List<GameResult> unsorted = new ArrayList<>(List.of(p1Result, p3Result, p2Result));
 
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
-        when(gameResultRepository.findByQuizIdAndCompletedTrue(1L)).thenReturn(unsorted);
+        stubLeaderboard(1L, unsorted.toArray(GameResult[]::new));
 
         // When
         List<RankingDto> rankings = rankingService.getFullLeaderboard(1L);
@@ -188,8 +200,7 @@ class RankingServiceTest {
         // We look for P2 (should be 2nd)
 
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
-        when(gameResultRepository.findByQuizIdAndCompletedTrue(1L))
-                .thenReturn(new ArrayList<>(List.of(result1, result2))); // Service will sort this list
+        stubLeaderboard(1L, result1, result2);
 
         // When
         RankingPositionDto result = rankingService.getPlayerRanking(1L, 200L); // player2 ID
@@ -206,12 +217,7 @@ class RankingServiceTest {
     void shouldThrowWhenPlayerHasNoResults() {
         // Given
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
-
-        // POPRAWKA: Używamy new ArrayList<>(), aby lista była mutowalna i metoda sort() w serwisie nie rzuciła błędu
-        List<GameResult> results = new ArrayList<>(List.of(result1));
-
-        when(gameResultRepository.findByQuizIdAndCompletedTrue(1L))
-                .thenReturn(results);
+        stubLeaderboard(1L, result1);
 
         // When & Then
         assertThatThrownBy(() -> rankingService.getPlayerRanking(1L, 999L))
@@ -219,14 +225,197 @@ class RankingServiceTest {
                 .hasMessageContaining("No results found for player");
     }
 
+    // ==================== LEADERBOARD INDEX Tests ====================
+
+    @Test
+    @DisplayName("Should return requested leaderboard page")
+    void shouldReturnLeaderboardPage() {
+        // Given
+        GameResult[] results = new GameResult[25];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = GameResult.builder()
+                    .id(100L + i)
+                    .quiz(quiz)
+                    .player(Player.builder().id(1000L + i).nickname("P" + i).build())
+                    .score(i)
+                    .maxScore(100)
+                    .timeTakenSeconds(60)
+                    .build();
+        }
+
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        stubLeaderboard(1L, results);
+
+        // When
+        List<RankingDto> page = rankingService.getLeaderboardPage(1L, 1, 10);
+        List<RankingDto> last = rankingService.getLeaderboardPage(1L, 2, 10);
+
+        // Then - scores 24..0, second page starts at 14
+        assertThat(page).extracting(RankingDto::getScore)
+                .containsExactly(14, 13, 12, 11, 10, 9, 8, 7, 6, 5);
+        assertThat(last).extracting(RankingDto::getScore)
+                .containsExactly(4, 3, 2, 1, 0);
+        verify(rankingJdbcRepository, times(1)).streamLeaderboard(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid leaderboard page")
+    void shouldRejectInvalidLeaderboardPage() {
+        assertThatThrownBy(() -> rankingService.getLeaderboardPage(1L, -1, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rankingService.getLeaderboardPage(1L, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should walk leaderboard with cursor pages")
+    void shouldWalkLeaderboardWithCursor() {
+        // Given - ties on score and time are ordered by result id
+        GameResult[] results = new GameResult[25];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = GameResult.builder()
+                    .id(100L + i)
+                    .quiz(quiz)
+                    .player(Player.builder().id(1000L + i).nickname("P" + i).build())
+                    .score(i / 2)
+                    .maxScore(100)
+                    .timeTakenSeconds(i % 3 == 0 ? null : 60)
+                    .build();
+        }
+
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        stubLeaderboard(1L, results);
+
+        // When
+        List<RankingDto> walked = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        LeaderboardPageDto page = rankingService.getLeaderboardPageAfter(1L, null, 10);
+        walked.addAll(page.getRankings());
+        positions.add(page.getFirstPosition());
+        while (page.getNextCursor() != null) {
+            page = rankingService.getLeaderboardPageAfter(1L, page.getNextCursor(), 10);
+            walked.addAll(page.getRankings());
+            positions.add(page.getFirstPosition());
+        }
+
+        // Then - same order as the full leaderboard, nothing repeated or skipped
+        assertThat(walked).extracting(RankingDto::getPlayerNickname)
+                .containsExactlyElementsOf(rankingService.getFullLeaderboard(1L).stream()
+                        .map(RankingDto::getPlayerNickname).toList());
+        assertThat(positions).containsExactly(1, 11, 21);
+        assertThat(page.getTotalEntries()).isEqualTo(25);
+        assertThat(page.getRankings()).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("Should continue after cursor when better results are added")
+    void shouldKeepCursorStableWhenResultsAreAdded() {
+        // Given
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        stubLeaderboard(1L, result2);
+        GameResult result3 = GameResult.builder()
+                .id(12L)
+                .quiz(quiz)
+                .player(Player.builder().id(300L).nickname("PlayerThree").build())
+                .score(80)
+                .timeTakenSeconds(100)
+                .build();
+        leaderboardIndex.onGameCompleted(new GameCompletedEvent(result3));
+        LeaderboardPageDto first = rankingService.getLeaderboardPageAfter(1L, null, 1);
+
+        // When - a new best score is ranked above the cursor
+        leaderboardIndex.onGameCompleted(new GameCompletedEvent(result1));
+        LeaderboardPageDto next = rankingService.getLeaderboardPageAfter(1L, first.getNextCursor(), 1);
+
+        // Then - next page is still the entry after PlayerTwo, its position moved by one
+        assertThat(first.getRankings()).extracting(RankingDto::getPlayerNickname).containsExactly("PlayerTwo");
+        assertThat(next.getRankings()).extracting(RankingDto::getPlayerNickname).containsExactly("PlayerThree");
+        assertThat(next.getFirstPosition()).isEqualTo(3);
+        assertThat(next.getTotalEntries()).isEqualTo(3);
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject invalid leaderboard cursor")
+    void shouldRejectInvalidLeaderboardCursor() {
+        assertThatThrownBy(() -> rankingService.getLeaderboardPageAfter(1L, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid leaderboard cursor");
+        assertThatThrownBy(() -> rankingService.getLeaderboardPageAfter(1L, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should add completed game to indexed leaderboard")
+    void shouldAddCompletedGameToIndex() {
+        // Given
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        stubLeaderboard(1L, result2);
+        rankingService.getFullLeaderboard(1L);
+
+        // When - result1 completes later, delivered twice
+        leaderboardIndex.onGameCompleted(new GameCompletedEvent(result1));
+        leaderboardIndex.onGameCompleted(new GameCompletedEvent(result1));
+
+        // Then - new best score is first, no duplicate, no reload
+        List<RankingDto> rankings = rankingService.getFullLeaderboard(1L);
+        assertThat(rankings).extracting(RankingDto::getPlayerNickname)
+                .containsExactly("PlayerOne", "PlayerTwo");
+        assertThat(rankingService.getPlayerRanking(1L, 200L).getPosition()).isEqualTo(2);
+        verify(rankingJdbcRepository, times(1)).streamLeaderboard(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Should reload leaderboard of quiz whose results were removed")
+    void shouldReloadLeaderboardAfterResultsRemoved() {
+        // Given
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        stubLeaderboard(1L, result1, result2);
+        rankingService.getFullLeaderboard(1L);
+
+        // When - the month of result1 is dropped with its partition
+        stubLeaderboard(1L, result2);
+        leaderboardIndex.onResultsRemoved(new GameResultsRemovedEvent(YearMonth.of(2024, 11), List.of(1L)));
+
+        // Then
+        assertThat(rankingService.getFullLeaderboard(1L)).extracting(RankingDto::getPlayerNickname)
+                .containsExactly("PlayerTwo");
+        verify(rankingJdbcRepository, times(2)).streamLeaderboard(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Should rank player by their best result only")
+    void shouldRankPlayerByBestResult() {
+        // Given - player2 played twice, the 90 point game is the better one
+        GameResult worse = GameResult.builder()
+                .id(14L)
+                .quiz(quiz)
+                .player(player2)
+                .score(50)
+                .timeTakenSeconds(30)
+                .build();
+
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        stubLeaderboard(1L, worse, result1, result2);
+
+        // When
+        RankingPositionDto result = rankingService.getPlayerRanking(1L, 200L);
+
+        // Then
+        assertThat(result.getScore()).isEqualTo(90);
+        assertThat(result.getPosition()).isEqualTo(2);
+        assertThat(result.getTotalPlayers()).isEqualTo(3);
+    }
+
     // ==================== GLOBAL RANKING Tests ====================
 
     @Test
     @DisplayName("Should return global rankings")
     void shouldReturnGlobalRankings() {
         // Given
-        when(gameResultRepository.findRecentResults(any(Pageable.class)))
-                .thenReturn(List.of(result1));
+        when(playerStatsRepository.findTopRanked(any(Pageable.class)))
+                .thenReturn(List.of(new PlayerStatsSummary(100L, "PlayerOne", 3, 2, 250.0, 100.0,
+                        result1.getScore(), "Java Quiz", result1.getCompletedAt())));
 
         // When
         List<GlobalRankingDto> global = rankingService.getGlobalRankings(5);
@@ -234,6 +423,22 @@ class RankingServiceTest {
         // Then
         assertThat(global).hasSize(1);
         assertThat(global.get(0).getPlayerNickname()).isEqualTo("PlayerOne");
-        assertThat(global.get(0).getTotalGamesPlayed()).isEqualTo(5);
+        assertThat(global.get(0).getTotalGamesPlayed()).isEqualTo(3);
+        assertThat(global.get(0).getQuizzesAttempted()).isEqualTo(2);
+        assertThat(global.get(0).getRankingPoints()).isEqualTo(250.0);
+        assertThat(global.get(0).getAveragePercentage()).isEqualTo(83.33);
+        assertThat(global.get(0).getLastScore()).isEqualTo(100);
+        assertThat(global.get(0).getLastQuizTitle()).isEqualTo("Java Quiz");
+    }
+
+    // Feed results to the index in the given (unsorted) order, like the streaming query would
+    private void stubLeaderboard(Long quizId, GameResult... results) {
+        doAnswer(invocation -> {
+            Consumer<LeaderboardEntry> consumer = invocation.getArgument(1);
+            for (GameResult result : results) {
+                consumer.accept(LeaderboardEntry.of(result));
+            }
+            return null;
+        }).when(rankingJdbcRepository).streamLeaderboard(eq(quizId), any());
     }
-}
\ No newline at end of file
+}
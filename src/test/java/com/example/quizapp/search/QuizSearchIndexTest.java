@@ -0,0 +1,120 @@
+package com.example.quizapp.search;
+
+import com.example.quizapp.quiz.QuizChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QuizSearchIndex Tests")
+class QuizSearchIndexTest {
+
+    @Mock
+    private SearchJdbcRepository searchJdbcRepository;
+
+    private QuizSearchIndex quizSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        quizSearchIndex = new QuizSearchIndex(searchJdbcRepository, true, 1000);
+    }
+
+    @Test
+    @DisplayName("Should build from the database and rank quizzes by title, description and questions")
+    void shouldBuildAndSearch() {
+        // Given
+        givenDatabase();
+
+        // When
+        int quizzes = quizSearchIndex.rebuild();
+
+        // Then
+        assertThat(quizzes).isEqualTo(3);
+        assertThat(quizSearchIndex.isReady()).isTrue();
+        assertThat(quizSearchIndex.searchQuizzes("java")).containsExactly(1L, 2L, 3L);
+        assertThat(quizSearchIndex.searchQuizzes("jvm")).containsExactly(3L);
+        assertThat(quizSearchIndex.searchQuestions(1L, "compiled")).containsExactly(11L);
+        assertThat(quizSearchIndex.searchQuestions(2L, "compiled")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reindex a quiz and its questions when it changes")
+    void shouldReindexChangedQuiz() {
+        // Given
+        givenDatabase();
+        quizSearchIndex.rebuild();
+        when(searchJdbcRepository.findQuiz(1L))
+                .thenReturn(Optional.of(new SearchJdbcRepository.QuizText(1L, "Kotlin Basics", null)));
+        doAnswer(invocation -> {
+            Consumer<SearchJdbcRepository.QuestionText> consumer = invocation.getArgument(1);
+            consumer.accept(new SearchJdbcRepository.QuestionText(12L, 1L, "What is a data class?"));
+            return null;
+        }).when(searchJdbcRepository).findQuestions(eq(1L), any());
+
+        // When
+        quizSearchIndex.onQuizChanged(new QuizChangedEvent(1L));
+
+        // Then
+        assertThat(quizSearchIndex.searchQuizzes("kotlin")).containsExactly(1L);
+        assertThat(quizSearchIndex.searchQuizzes("java")).containsExactly(2L, 3L);
+        assertThat(quizSearchIndex.searchQuestions(1L, "compiled")).isEmpty();
+        assertThat(quizSearchIndex.searchQuestions(1L, "data")).containsExactly(12L);
+    }
+
+    @Test
+    @DisplayName("Should drop a deactivated quiz from quiz search")
+    void shouldRemoveInactiveQuiz() {
+        // Given
+        givenDatabase();
+        quizSearchIndex.rebuild();
+        when(searchJdbcRepository.findQuiz(2L)).thenReturn(Optional.empty());
+
+        // When
+        quizSearchIndex.onQuizChanged(new QuizChangedEvent(2L));
+
+        // Then
+        assertThat(quizSearchIndex.searchQuizzes("spring")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should stay unready and ignore changes when disabled")
+    void shouldDoNothingWhenDisabled() {
+        // Given
+        quizSearchIndex = new QuizSearchIndex(searchJdbcRepository, false, 1000);
+
+        // When
+        quizSearchIndex.warmUp();
+        quizSearchIndex.onQuizChanged(new QuizChangedEvent(1L));
+
+        // Then
+        assertThat(quizSearchIndex.isReady()).isFalse();
+        verifyNoInteractions(searchJdbcRepository);
+    }
+
+    private void givenDatabase() {
+        doAnswer(invocation -> {
+            Consumer<SearchJdbcRepository.QuizText> consumer = invocation.getArgument(0);
+            consumer.accept(new SearchJdbcRepository.QuizText(1L, "Java Basics", "Core language features"));
+            consumer.accept(new SearchJdbcRepository.QuizText(2L, "Spring Quiz", "Spring for Java developers"));
+            consumer.accept(new SearchJdbcRepository.QuizText(3L, "Runtime Internals", null));
+            return null;
+        }).when(searchJdbcRepository).streamQuizzes(any());
+        doAnswer(invocation -> {
+            Consumer<SearchJdbcRepository.QuestionText> consumer = invocation.getArgument(0);
+            consumer.accept(new SearchJdbcRepository.QuestionText(11L, 1L, "Is Java compiled to bytecode?"));
+            consumer.accept(new SearchJdbcRepository.QuestionText(31L, 3L, "Which JVM collector does Java use by default?"));
+            return null;
+        }).when(searchJdbcRepository).streamQuestions(any());
+    }
+}
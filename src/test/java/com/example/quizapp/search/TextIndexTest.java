@@ -0,0 +1,118 @@
+package com.example.quizapp.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TextIndex Tests")
+class TextIndexTest {
+
+    private TextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TextIndex();
+        index.put(1L, 10L, new TextIndex.Field("Java Programming Basics", 3),
+                new TextIndex.Field("Test your knowledge of Java", 1));
+        index.put(2L, 10L, new TextIndex.Field("Spring Framework Quiz", 3),
+                new TextIndex.Field("Dependency injection in Java applications", 1));
+        index.put(3L, 20L, new TextIndex.Field("General Knowledge", 3),
+                new TextIndex.Field("Geography, history and Żółw facts", 1));
+    }
+
+    @Test
+    @DisplayName("Should rank title matches above description matches")
+    void shouldRankByFieldWeight() {
+        assertThat(ids(index.search("java", TextIndex.NO_GROUP, 10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should require every query word to match")
+    void shouldMatchAllTokens() {
+        assertThat(ids(index.search("java spring", TextIndex.NO_GROUP, 10))).containsExactly(2L);
+        assertThat(ids(index.search("java geography", TextIndex.NO_GROUP, 10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should match prefixes, substrings and typos")
+    void shouldMatchPrefixesSubstringsAndTypos() {
+        assertThat(ids(index.search("progr", TextIndex.NO_GROUP, 10))).containsExactly(1L);
+        assertThat(ids(index.search("framew", TextIndex.NO_GROUP, 10))).containsExactly(2L);
+        assertThat(ids(index.search("ramework", TextIndex.NO_GROUP, 10))).containsExactly(2L);
+        assertThat(ids(index.search("fremework", TextIndex.NO_GROUP, 10))).containsExactly(2L);
+        assertThat(ids(index.search("sprnig", TextIndex.NO_GROUP, 10))).containsExactly(2L);
+        assertThat(ids(index.search("ZOLW", TextIndex.NO_GROUP, 10))).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should rank exact terms above typo matches")
+    void shouldRankExactAboveTypo() {
+        index.put(4L, 20L, new TextIndex.Field("Quiz about sprint planning", 3));
+
+        List<TextIndex.Hit> hits = index.search("sprint", TextIndex.NO_GROUP, 10);
+
+        assertThat(ids(hits)).containsExactly(4L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should replace and remove documents")
+    void shouldReplaceAndRemoveDocuments() {
+        index.put(1L, 10L, new TextIndex.Field("Kotlin Basics", 3));
+        assertThat(ids(index.search("programming", TextIndex.NO_GROUP, 10))).isEmpty();
+        assertThat(ids(index.search("kotlin", TextIndex.NO_GROUP, 10))).containsExactly(1L);
+
+        index.remove(2L);
+        assertThat(ids(index.search("spring", TextIndex.NO_GROUP, 10))).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should filter by group and remove whole groups")
+    void shouldFilterAndRemoveGroups() {
+        assertThat(ids(index.search("knowledge", 20L, 10))).containsExactly(3L);
+
+        index.removeGroup(10L);
+
+        assertThat(ids(index.search("knowledge", TextIndex.NO_GROUP, 10))).containsExactly(3L);
+        assertThat(index.contains(1L)).isFalse();
+        assertThat(index.contains(2L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep results after compacting many updates")
+    void shouldCompactDeletedDocuments() {
+        // When - enough replacements to trigger compaction of deleted ordinals
+        for (int i = 0; i < 3000; i++) {
+            index.put(100L + i % 10, 30L, new TextIndex.Field("Revision " + i + " of chemistry", 1));
+        }
+
+        // Then
+        assertThat(index.size()).isEqualTo(13);
+        assertThat(index.search("chemistry", TextIndex.NO_GROUP, 100)).hasSize(10);
+        assertThat(ids(index.search("2999", TextIndex.NO_GROUP, 10))).containsExactly(109L);
+        assertThat(ids(index.search("java", TextIndex.NO_GROUP, 10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should return at most limit best hits")
+    void shouldLimitHits() {
+        assertThat(ids(index.search("java", TextIndex.NO_GROUP, 1))).containsExactly(1L);
+        assertThat(index.search("", TextIndex.NO_GROUP, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should compute bounded edit distance")
+    void shouldComputeEditDistance() {
+        assertThat(TextIndex.editDistance("spring", "sprnig", 2)).isEqualTo(1);
+        assertThat(TextIndex.editDistance("spring", "sprint", 2)).isEqualTo(1);
+        assertThat(TextIndex.editDistance("java", "kotlin", 2)).isEqualTo(3);
+    }
+
+    private static List<Long> ids(List<TextIndex.Hit> hits) {
+        return hits.stream().map(TextIndex.Hit::id).toList();
+    }
+}
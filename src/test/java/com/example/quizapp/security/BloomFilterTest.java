@@ -0,0 +1,54 @@
+package com.example.quizapp.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BloomFilter Tests")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Should size bits and hash functions for capacity and false positive rate")
+    void shouldSizeFilter() {
+        // When
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+
+        // Then - about 9.6 bits and 7 hashes per value at 1%
+        assertThat(filter.bits()).isBetween(958_000L, 959_000L);
+        assertThat(filter.hashFunctions()).isEqualTo(7);
+        assertThat(filter.expectedFalsePositiveRate()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should never miss an added value and stay near the target false positive rate")
+    void shouldHaveNoFalseNegatives() {
+        // Given
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@quiz.com");
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(i >= 10_000 || filter.mightContain("user" + i + "@quiz.com")).isTrue();
+            if (filter.mightContain("other" + i + "@quiz.com")) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.added()).isEqualTo(10_000);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.015);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid sizing")
+    void shouldRejectInvalidSizing() {
+        assertThatThrownBy(() -> BloomFilter.create(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(1000, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.quizapp.security;
+
+import com.example.quizapp.common.exception.PasswordHashingBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BoundedPasswordEncoder Tests")
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should encode and match on the pool and record queue wait and hash time")
+    void shouldHashOnPool() {
+        // Given
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, Duration.ofSeconds(5), Duration.ofSeconds(2));
+
+        // When
+        String hash = encoder.encode("secret");
+
+        // Then
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        BoundedPasswordEncoder.Stats stats = encoder.getStats();
+        assertThat(stats.completed()).isEqualTo(3);
+        assertThat(stats.averageHashMillis()).isPositive();
+        assertThat(stats.threads()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject at once when the pool and its queue are full")
+    void shouldRejectWhenSaturated() {
+        // Given - one hashing thread busy and one caller queued
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, Duration.ofSeconds(5), Duration.ofSeconds(2));
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        waitUntil(() -> encoder.getStats().active() == 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        waitUntil(() -> encoder.getStats().queued() == 1);
+
+        // When & Then
+        assertThatThrownBy(() -> encoder.encode("third"))
+                .isInstanceOf(PasswordHashingBusyException.class)
+                .satisfies(e -> assertThat(((PasswordHashingBusyException) e).getRetryAfterSeconds()).isEqualTo(2));
+        assertThat(encoder.getStats().rejected()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.join()).isEqualTo("hash:first");
+        assertThat(queued.join()).isEqualTo("hash:second");
+    }
+
+    @Test
+    @DisplayName("Should give up on a hash that has not started within max-wait")
+    void shouldTimeOutQueuedHash() {
+        // Given
+        encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, Duration.ofMillis(50), Duration.ofSeconds(1));
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        waitUntil(() -> encoder.getStats().active() == 1);
+
+        // When & Then
+        assertThatThrownBy(() -> encoder.matches("second", "hash:second"))
+                .isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(encoder.getStats().timedOut()).isEqualTo(1);
+        assertThat(encoder.getStats().queued()).isZero();
+
+        release.countDown();
+        assertThat(running.join()).isEqualTo("hash:first");
+    }
+
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                awaitRelease();
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                awaitRelease();
+                return encodedPassword.equals("hash:" + rawPassword);
+            }
+        };
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5 s").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,19 +1,35 @@
 package com.example.quizapp.security;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,9 +40,16 @@ class CustomUserDetailsServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    private UserDetailsCache userDetailsCache;
+
     private CustomUserDetailsService userDetailsService;
 
+    @BeforeEach
+    void setUp() {
+        userDetailsCache = new UserDetailsCache(Duration.ofMinutes(1), 100);
+        userDetailsService = new CustomUserDetailsService(userRepository, userDetailsCache);
+    }
+
     @Test
     @DisplayName("Should load user by username successfully")
     void shouldLoadUserByUsername() {
@@ -62,4 +85,137 @@ class CustomUserDetailsServiceTest {
                 .isInstanceOf(UsernameNotFoundException.class)
                 .hasMessageContaining("User not found");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should serve repeated loads from the cache")
+    void shouldCacheLoadedUser() {
+        // Given
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user("testuser", true, false)));
+
+        // When
+        userDetailsService.loadUserByUsername("testuser");
+        UserDetails userDetails = userDetailsService.loadUserByUsername("testuser");
+
+        // Then
+        assertThat(userDetails.getUsername()).isEqualTo("testuser");
+        verify(userRepository, times(1)).findByUsername("testuser");
+        assertThat(userDetailsCache.getStats().hits()).isEqualTo(1);
+        assertThat(userDetailsCache.getStats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown usernames")
+    void shouldNotCacheUnknownUser() {
+        // Given
+        when(userRepository.findByUsername("unknown")).thenReturn(Optional.empty());
+
+        // When
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("unknown"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("unknown"))
+                .isInstanceOf(UsernameNotFoundException.class);
+
+        // Then
+        verify(userRepository, times(2)).findByUsername("unknown");
+        assertThat(userDetailsCache.getStats().size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject a user locked after being cached once the change is published")
+    void shouldRejectLockedUserAfterInvalidation() {
+        // Given
+        DaoAuthenticationProvider provider = authenticationProvider();
+        when(userRepository.findByUsername("testuser"))
+                .thenReturn(Optional.of(user("testuser", true, false)))
+                .thenReturn(Optional.of(user("testuser", true, true)));
+        assertThat(provider.authenticate(credentials("testuser")).isAuthenticated()).isTrue();
+
+        // When
+        userDetailsCache.onUserChanged(new UserChangedEvent("testuser"));
+
+        // Then
+        assertThatThrownBy(() -> provider.authenticate(credentials("testuser")))
+                .isInstanceOf(LockedException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a disabled user on every thread once the invalidation has run")
+    void shouldRejectRevokedUserAcrossThreads() throws Exception {
+        // Given - a database whose row is switched to disabled while 8 threads keep authenticating
+        AtomicReference<User> row = new AtomicReference<>(user("testuser", true, false));
+        when(userRepository.findByUsername("testuser")).thenAnswer(invocation -> {
+            User loaded = row.get();
+            Thread.sleep(1);
+            return Optional.of(loaded);
+        });
+        DaoAuthenticationProvider provider = authenticationProvider();
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch started = new CountDownLatch(threads);
+        CountDownLatch revoked = new CountDownLatch(1);
+        List<Future<Integer>> acceptedAfterRevocation = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < threads; i++) {
+                acceptedAfterRevocation.add(executor.submit(() -> {
+                    started.countDown();
+                    int accepted = 0;
+                    long stopAt = 0;
+                    while (stopAt == 0 || System.nanoTime() < stopAt) {
+                        boolean afterRevocation = revoked.getCount() == 0;
+                        if (afterRevocation && stopAt == 0) {
+                            stopAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+                        }
+                        try {
+                            provider.authenticate(credentials("testuser"));
+                            if (afterRevocation) {
+                                accepted++;
+                            }
+                        } catch (DisabledException e) {
+                            // Expected once the disabled row has been loaded
+                        }
+                    }
+                    return accepted;
+                }));
+            }
+            started.await();
+            Thread.sleep(50);
+
+            // The committed change, then the after-commit invalidation
+            row.set(user("testuser", false, false));
+            userDetailsCache.onUserChanged(new UserChangedEvent("testuser"));
+            revoked.countDown();
+
+            // Then
+            for (Future<Integer> accepted : acceptedAfterRevocation) {
+                assertThat(accepted.get(10, TimeUnit.SECONDS)).isZero();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(userDetailsCache.getStats().hits()).isPositive();
+    }
+
+    private DaoAuthenticationProvider authenticationProvider() {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(NoOpPasswordEncoder.getInstance());
+        return provider;
+    }
+
+    private static UsernamePasswordAuthenticationToken credentials(String username) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, "pass");
+    }
+
+    private static User user(String username, boolean enabled, boolean locked) {
+        return User.builder()
+                .id(1L)
+                .username(username)
+                .password("pass")
+                .role(UserRole.USER)
+                .enabled(enabled)
+                .locked(locked)
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.quizapp.security;
+
+import com.example.quizapp.common.exception.PasswordHashingBusyException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PasswordHashingBusyFilter Tests")
+class PasswordHashingBusyFilterTest {
+
+    private final PasswordHashingBusyFilter filter =
+            new PasswordHashingBusyFilter(new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when authentication finds the hashing pool busy")
+    void shouldReturnServiceUnavailable() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new jakarta.servlet.http.HttpServlet() {
+        }, (req, res, next) -> {
+            throw new PasswordHashingBusyException("busy", Duration.ofMillis(1500));
+        });
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("\"status\":503", "\"path\":\"/login\"");
+    }
+
+    @Test
+    @DisplayName("Should let other failures through")
+    void shouldRethrowOtherFailures() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/quizzes");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new jakarta.servlet.http.HttpServlet() {
+        }, (req, res, next) -> {
+            throw new ServletException("broken");
+        });
+
+        // When & Then
+        assertThatThrownBy(() -> filter.doFilter(request, response, chain))
+                .isInstanceOf(ServletException.class)
+                .hasMessage("broken");
+    }
+}
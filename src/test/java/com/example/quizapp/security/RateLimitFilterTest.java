@@ -0,0 +1,67 @@
+package com.example.quizapp.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimitFilter Tests")
+class RateLimitFilterTest {
+
+    private final RateLimiter rateLimiter = new RateLimiter(true, 100, RateLimiter.Limit.of(2, 0.5),
+            RateLimiter.Limit.of(2, 0.5), RateLimiter.Limit.of(2, 0.5), () -> 0L);
+
+    private final RateLimitFilter filter =
+            new RateLimitFilter(rateLimiter, new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After once the client's bucket is empty")
+    void shouldReturnTooManyRequests() throws Exception {
+        // Given
+        filter.doFilter(request("POST", "/api/v1/game/start"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("POST", "/api/v1/game/start"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request("POST", "/api/v1/game/start"), response, chain);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("\"status\":429", "\"path\":\"/api/v1/game/start\"");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should let other endpoints and other clients through")
+    void shouldPassOtherRequests() throws Exception {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(request("POST", "/api/v1/game/start"), new MockHttpServletResponse(), new MockFilterChain());
+        }
+        MockFilterChain quizzes = new MockFilterChain();
+        MockHttpServletRequest otherClient = request("POST", "/api/v1/game/start");
+        otherClient.setRemoteAddr("10.0.0.2");
+        MockFilterChain otherChain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request("POST", "/api/v1/quizzes"), new MockHttpServletResponse(), quizzes);
+        filter.doFilter(otherClient, new MockHttpServletResponse(), otherChain);
+
+        // Then
+        assertThat(quizzes.getRequest()).isNotNull();
+        assertThat(otherChain.getRequest()).isNotNull();
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+}
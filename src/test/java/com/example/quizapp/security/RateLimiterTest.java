@@ -0,0 +1,118 @@
+package com.example.quizapp.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimiter Tests")
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private long now = 1_000 * SECOND;
+
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = limiter(100);
+    }
+
+    @Test
+    @DisplayName("Should allow a burst of capacity requests and then reject with the time until the next token")
+    void shouldRejectAfterBurst() {
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_START, "10.0.0.1")).isZero();
+        }
+        long wait = rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_START, "10.0.0.1");
+
+        // Then
+        assertThat(wait).isEqualTo(SECOND);
+        assertThat(rateLimiter.getStats().allowed()).isEqualTo(3);
+        assertThat(rateLimiter.getStats().rejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should refill at the configured rate")
+    void shouldRefill() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_START, "10.0.0.1");
+        }
+
+        // When
+        now += SECOND / 2;
+        long early = rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_START, "10.0.0.1");
+        now += SECOND / 2;
+        long refilled = rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_START, "10.0.0.1");
+
+        // Then
+        assertThat(early).isEqualTo(SECOND / 2);
+        assertThat(refilled).isZero();
+        assertThat(rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_START, "10.0.0.1")).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should keep separate buckets per client and per endpoint")
+    void shouldIsolateClientsAndEndpoints() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_START, "10.0.0.1");
+        }
+
+        // When & Then
+        assertThat(rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_START, "10.0.0.1")).isPositive();
+        assertThat(rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_START, "10.0.0.2")).isZero();
+        assertThat(rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_SUBMIT, "10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire(RateLimiter.Endpoint.ANSWER_VALIDATE, "10.0.0.1")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop idle buckets once max-buckets are tracked and let clients through untracked while none is idle")
+    void shouldEvictIdleBuckets() {
+        // Given
+        rateLimiter = limiter(2);
+        rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_START, "10.0.0.1");
+        rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_SUBMIT, "10.0.0.2");
+
+        // When - both buckets still refilling
+        long untracked = rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_START, "10.0.0.3");
+
+        // Then
+        assertThat(untracked).isZero();
+        assertThat(rateLimiter.getStats().untracked()).isEqualTo(1);
+        assertThat(rateLimiter.getStats().buckets()).isEqualTo(2);
+
+        // When - both full again after a second
+        now += 2 * SECOND;
+        rateLimiter.tryAcquire(RateLimiter.Endpoint.GAME_START, "10.0.0.3");
+
+        // Then
+        assertThat(rateLimiter.getStats().evicted()).isEqualTo(2);
+        assertThat(rateLimiter.getStats().buckets()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should classify only the public game endpoints")
+    void shouldClassifyEndpoints() {
+        assertThat(RateLimiter.classify("POST", "/api/v1/game/start")).isEqualTo(RateLimiter.Endpoint.GAME_START);
+        assertThat(RateLimiter.classify("POST", "/game/start/7")).isEqualTo(RateLimiter.Endpoint.GAME_START);
+        assertThat(RateLimiter.classify("POST", "/api/v1/game/submit")).isEqualTo(RateLimiter.Endpoint.GAME_SUBMIT);
+        assertThat(RateLimiter.classify("POST", "/game/submit")).isEqualTo(RateLimiter.Endpoint.GAME_SUBMIT);
+        assertThat(RateLimiter.classify("POST", "/api/v1/questions/5/validate"))
+                .isEqualTo(RateLimiter.Endpoint.ANSWER_VALIDATE);
+        assertThat(RateLimiter.classify("GET", "/game/start/7")).isNull();
+        assertThat(RateLimiter.classify("POST", "/api/v1/game/result/1")).isNull();
+        assertThat(RateLimiter.classify("POST", "/api/v1/quizzes")).isNull();
+    }
+
+    private RateLimiter limiter(int maxBuckets) {
+        RateLimiter.Limit limit = RateLimiter.Limit.of(3, 1);
+        return new RateLimiter(true, maxBuckets, limit, limit, limit, () -> now);
+    }
+}
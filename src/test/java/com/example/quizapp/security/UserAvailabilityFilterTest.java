@@ -0,0 +1,147 @@
+package com.example.quizapp.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserAvailabilityFilter Tests")
+class UserAvailabilityFilterTest {
+
+    @Mock
+    private UserJdbcRepository userJdbcRepository;
+
+    private final Set<String> takenUsernames = Set.of("admin", "creator1");
+
+    private final AtomicInteger databaseChecks = new AtomicInteger();
+
+    private UserAvailabilityFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new UserAvailabilityFilter(userJdbcRepository, true, 1000, 0.01, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Should answer never-taken usernames without the database once built")
+    void shouldSkipDatabaseForFreeUsernames() {
+        // Given
+        givenUsers();
+        filter.warmUp();
+
+        // When
+        boolean free = filter.usernameExists("newplayer", database());
+        boolean taken = filter.usernameExists("admin", database());
+
+        // Then
+        assertThat(free).isFalse();
+        assertThat(taken).isTrue();
+        assertThat(databaseChecks).hasValue(1);
+        UserAvailabilityFilter.Stats stats = filter.getStats();
+        assertThat(stats.ready()).isTrue();
+        assertThat(stats.usernames()).isEqualTo(2);
+        assertThat(stats.capacity()).isEqualTo(1000);
+        assertThat(stats.answeredFromFilter()).isEqualTo(1);
+        assertThat(stats.databaseChecks()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should ask the database for everything until built")
+    void shouldUseDatabaseUntilBuilt() {
+        // When
+        filter.usernameExists("newplayer", database());
+        filter.emailExists("new@quiz.com", email -> false);
+
+        // Then
+        assertThat(filter.isReady()).isFalse();
+        assertThat(databaseChecks).hasValue(1);
+        assertThat(filter.getStats().databaseChecks()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should know added users at once, including users saved during a rebuild")
+    void shouldIncludeAddedUsers() {
+        // Given - a user is saved while the users are being streamed
+        doAnswer(invocation -> {
+            Consumer<UserJdbcRepository.UserIdentity> consumer = invocation.getArgument(0);
+            consumer.accept(new UserJdbcRepository.UserIdentity("admin", "admin@quiz.com"));
+            filter.add("racer", "racer@quiz.com");
+            return null;
+        }).when(userJdbcRepository).streamIdentities(any());
+        filter.warmUp();
+
+        // When
+        filter.add("newplayer", "new@quiz.com");
+
+        // Then
+        assertThat(filter.usernameExists("racer", username -> true)).isTrue();
+        assertThat(filter.emailExists("racer@quiz.com", email -> true)).isTrue();
+        assertThat(filter.usernameExists("newplayer", username -> true)).isTrue();
+        assertThat(filter.emailExists("new@quiz.com", email -> true)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should rebuild with a larger capacity once more users were added than it was sized for")
+    void shouldRebuildWhenOverCapacity() {
+        // Given
+        filter = new UserAvailabilityFilter(userJdbcRepository, true, 2, 0.01, Runnable::run);
+        givenUsers();
+        filter.warmUp();
+
+        // When - sized for 4 (twice the users), the third new user exceeds it
+        filter.add("player1", "player1@quiz.com");
+        filter.add("player2", "player2@quiz.com");
+        verify(userJdbcRepository, times(1)).streamIdentities(any());
+        when(userJdbcRepository.countUsers()).thenReturn(5L);
+        filter.add("newplayer", "new@quiz.com");
+
+        // Then
+        verify(userJdbcRepository, times(2)).streamIdentities(any());
+        assertThat(filter.getStats().capacity()).isEqualTo(10);
+        assertThat(filter.usernameExists("newplayer", username -> true)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should stay unbuilt when disabled")
+    void shouldDoNothingWhenDisabled() {
+        // Given
+        filter = new UserAvailabilityFilter(userJdbcRepository, false, 1000, 0.01, Runnable::run);
+
+        // When
+        filter.warmUp();
+        filter.add("newplayer", "new@quiz.com");
+
+        // Then
+        assertThat(filter.isReady()).isFalse();
+        verifyNoInteractions(userJdbcRepository);
+    }
+
+    private void givenUsers() {
+        when(userJdbcRepository.countUsers()).thenReturn(2L);
+        doAnswer(invocation -> {
+            Consumer<UserJdbcRepository.UserIdentity> consumer = invocation.getArgument(0);
+            consumer.accept(new UserJdbcRepository.UserIdentity("admin", "admin@quiz.com"));
+            consumer.accept(new UserJdbcRepository.UserIdentity("creator1", "creator1@quiz.com"));
+            return null;
+        }).when(userJdbcRepository).streamIdentities(any());
+    }
+
+    private Predicate<String> database() {
+        return username -> {
+            databaseChecks.incrementAndGet();
+            return takenUsernames.contains(username);
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.quizapp.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UserDetailsCache Tests")
+class UserDetailsCacheTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T12:00:00Z"));
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private UserDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserDetailsCache(Duration.ofMinutes(1), 2, clock);
+    }
+
+    @Test
+    @DisplayName("Should reload an entry once its TTL has passed")
+    void shouldExpireAfterTtl() {
+        // Given
+        cache.get("alice", this::load);
+
+        // When
+        clock.advance(Duration.ofSeconds(59));
+        cache.get("alice", this::load);
+        clock.advance(Duration.ofSeconds(1));
+        cache.get("alice", this::load);
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getStats().hits()).isEqualTo(1);
+        assertThat(cache.getStats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest entry when full")
+    void shouldEvictOldestWhenFull() {
+        // Given
+        cache.get("alice", this::load);
+        cache.get("bob", this::load);
+
+        // When
+        cache.get("carol", this::load);
+        cache.get("bob", this::load);
+        cache.get("alice", this::load);
+
+        // Then
+        assertThat(loads).hasValue(4);
+        assertThat(cache.getStats().evictions()).isEqualTo(2);
+        assertThat(cache.getStats().size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not keep queue entries of invalidated users behind a live one")
+    void shouldCompactInvalidatedEntries() {
+        // Given
+        cache = new UserDetailsCache(Duration.ofMinutes(1), 100, clock);
+        cache.get("alice", this::load);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            cache.get("bob", this::load);
+            cache.invalidate("bob");
+        }
+
+        // Then
+        assertThat(cache.getStats().size()).isEqualTo(1);
+        assertThat(cache.queuedEntries()).isLessThanOrEqualTo(2 * UserDetailsCache.COMPACT_SLACK + 2);
+    }
+
+    @Test
+    @DisplayName("Should drop an invalidated entry")
+    void shouldInvalidateEntry() {
+        // Given
+        cache.get("alice", this::load);
+
+        // When
+        cache.invalidate("alice");
+        cache.get("alice", this::load);
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getStats().invalidations()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not keep a load that overlapped an invalidation")
+    void shouldNotKeepLoadOverlappingInvalidation() {
+        // Given - the invalidation runs while the row is being read
+        cache.get("alice", username -> {
+            cache.invalidate(username);
+            return load(username);
+        });
+
+        // When
+        cache.get("alice", this::load);
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getStats().size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache when the TTL is zero")
+    void shouldNotCacheWhenDisabled() {
+        // Given
+        cache = new UserDetailsCache(Duration.ZERO, 2, clock);
+
+        // When
+        cache.get("alice", this::load);
+        cache.get("alice", this::load);
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getStats().size()).isZero();
+    }
+
+    private CustomUserDetails load(String username) {
+        loads.incrementAndGet();
+        return new CustomUserDetails(User.builder().username(username).password("pass").build());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
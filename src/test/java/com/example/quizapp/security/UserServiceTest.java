@@ -5,17 +5,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.Optional;
+import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +33,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserAvailabilityFilter userAvailabilityFilter;
+
     @InjectMocks
     private UserService userService;
 
@@ -130,6 +140,7 @@ class UserServiceTest {
         assertThat(updatedUser.getFullName()).isEqualTo("Updated Name");
         assertThat(updatedUser.getRole()).isEqualTo(UserRole.ADMIN);
         verify(userRepository).save(user);
+        verify(eventPublisher).publishEvent(new UserChangedEvent("testuser"));
     }
 
     @Test
@@ -149,6 +160,7 @@ class UserServiceTest {
                 .hasMessageContaining("Email already exists");
 
         verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     // ==================== CHANGE PASSWORD Tests ====================
@@ -170,6 +182,7 @@ class UserServiceTest {
         // Then
         assertThat(user.getPassword()).isEqualTo("newEncodedPassword");
         verify(userRepository).save(user);
+        verify(eventPublisher).publishEvent(new UserChangedEvent("testuser"));
     }
 
     @Test
@@ -224,5 +237,39 @@ class UserServiceTest {
 
         // Then
         verify(userRepository).delete(user);
+        verify(eventPublisher).publishEvent(new UserChangedEvent("testuser"));
+    }
+
+    // ==================== AVAILABILITY Tests ====================
+
+    @Test
+    @DisplayName("Should check username availability through the availability filter")
+    void shouldCheckUsernameThroughFilter() {
+        // Given
+        when(userRepository.existsByUsername("testuser")).thenReturn(true);
+        when(userAvailabilityFilter.usernameExists(eq("testuser"), any()))
+                .thenAnswer(invocation -> invocation.<Predicate<String>>getArgument(1).test("testuser"));
+
+        // When & Then
+        assertThat(userService.usernameExists("testuser")).isTrue();
+        verify(userRepository).existsByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("Should record a new user in the availability filter before saving")
+    void shouldAddCreatedUserToFilter() {
+        // Given
+        when(userRepository.existsByUsername("newuser")).thenReturn(false);
+        when(userRepository.existsByEmail(registrationDto.getEmail())).thenReturn(false);
+        when(passwordEncoder.encode(any())).thenReturn("encoded");
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        userService.createUser(registrationDto);
+
+        // Then
+        InOrder inOrder = inOrder(userAvailabilityFilter, userRepository);
+        inOrder.verify(userAvailabilityFilter).add("newuser", registrationDto.getEmail());
+        inOrder.verify(userRepository).save(any(User.class));
     }
-}
\ No newline at end of file
+}
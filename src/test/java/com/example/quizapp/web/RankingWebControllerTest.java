@@ -0,0 +1,57 @@
+package com.example.quizapp.web;
+
+import com.example.quizapp.quiz.QuizDto;
+import com.example.quizapp.quiz.QuizService;
+import com.example.quizapp.ranking.LeaderboardPageDto;
+import com.example.quizapp.ranking.RankingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RankingWebController Tests")
+class RankingWebControllerTest {
+
+    @Mock
+    private RankingService rankingService;
+
+    @Mock
+    private QuizService quizService;
+
+    @InjectMocks
+    private RankingWebController rankingWebController;
+
+    @Test
+    @DisplayName("Should clamp the leaderboard page size instead of failing")
+    void shouldClampLeaderboardLimit() {
+        // Given
+        when(quizService.getQuizById(1L)).thenReturn(QuizDto.builder().id(1L).title("Quiz").build());
+        when(rankingService.getLeaderboardPageAfter(eq(1L), isNull(), anyInt()))
+                .thenReturn(LeaderboardPageDto.builder().quizId(1L).rankings(List.of()).build());
+
+        // When
+        ExtendedModelMap negative = new ExtendedModelMap();
+        rankingWebController.showQuizLeaderboard(1L, null, -5, negative);
+        ExtendedModelMap huge = new ExtendedModelMap();
+        rankingWebController.showQuizLeaderboard(1L, null, Integer.MAX_VALUE, huge);
+
+        // Then
+        verify(rankingService).getLeaderboardPageAfter(1L, null, RankingWebController.DEFAULT_PAGE_SIZE);
+        verify(rankingService).getLeaderboardPageAfter(1L, null, RankingWebController.MAX_PAGE_SIZE);
+        assertThat(negative.get("limit")).isEqualTo(RankingWebController.DEFAULT_PAGE_SIZE);
+        assertThat(huge.get("limit")).isEqualTo(RankingWebController.MAX_PAGE_SIZE);
+    }
+}